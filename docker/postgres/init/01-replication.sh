@@ -0,0 +1,10 @@
+#!/bin/sh
+# Allows the local streaming replica (docker compose --profile replica) to
+# take a base backup and follow the primary.
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-SQL
+  CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD 'replicator_pass';
+SQL
+
+echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
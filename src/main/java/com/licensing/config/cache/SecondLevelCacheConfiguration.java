@@ -0,0 +1,106 @@
+package com.licensing.config.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache backed by Caffeine through JCache.
+ * Entity cache keys carry the tenant identifier of the session, so an entry
+ * loaded for one tenant is never served to another. Only entity regions are
+ * cached; queries always hit the database, so the tenant filter still applies
+ * to every query.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "license.second-level-cache", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class SecondLevelCacheConfiguration {
+
+    public static final String ORGANIZATIONS_REGION = "organizations";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${license.second-level-cache.organizations.max-size:10000}") long organizationsMaxSize,
+            @Value("${license.second-level-cache.organizations.ttl:1h}") Duration organizationsTtl) {
+        // Each application context gets its own manager so regions are not shared between contexts
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> organizations = new CaffeineConfiguration<>();
+        organizations.setMaximumSize(OptionalLong.of(organizationsMaxSize));
+        organizations.setExpireAfterWrite(OptionalLong.of(organizationsTtl.toNanos()));
+        organizations.setStatisticsEnabled(true);
+        cacheManager.createCache(ORGANIZATIONS_REGION, organizations);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        };
+    }
+
+    @Bean
+    public SecondLevelCacheMetrics secondLevelCacheMetrics(CacheManager hibernateCacheManager,
+            MeterRegistry meterRegistry) {
+        return new SecondLevelCacheMetrics(hibernateCacheManager, meterRegistry);
+    }
+
+    /**
+     * Publishes hits, misses and the hit ratio of every second-level cache region.
+     */
+    public static class SecondLevelCacheMetrics {
+
+        public SecondLevelCacheMetrics(CacheManager cacheManager, MeterRegistry meterRegistry) {
+            for (String name : cacheManager.getCacheNames()) {
+                Cache<Object, Object> cache = cacheManager.getCache(name);
+                JCacheMetrics.monitor(meterRegistry, cache, "cache.level", "second");
+
+                CacheStatisticsMXBean statistics = statistics(cacheManager, name);
+                Gauge.builder("license.cache.second-level.hit-ratio", statistics,
+                        stats -> stats.getCacheGets() == 0 ? 0 : stats.getCacheHitPercentage() / 100.0)
+                        .description("Fraction of second-level cache lookups served from the cache")
+                        .tag("region", name)
+                        .register(meterRegistry);
+            }
+        }
+
+        private static CacheStatisticsMXBean statistics(CacheManager cacheManager, String cacheName) {
+            try {
+                ObjectName objectName = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                        + cacheManager.getURI()
+                        + ",Cache=" + cacheName);
+                return JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(), objectName,
+                        CacheStatisticsMXBean.class);
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalStateException("Invalid cache statistics name for " + cacheName, e);
+            }
+        }
+    }
+}
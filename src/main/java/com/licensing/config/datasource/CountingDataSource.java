@@ -0,0 +1,174 @@
+package com.licensing.config.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps connections of the target data source in JDK proxies that report
+ * every executed statement, its duration and the rows it read or changed to
+ * {@link SqlStatementCounter}.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+  public CountingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+  }
+
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[] { type },
+        handler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  private static long sum(Object result) {
+    long total = 0;
+    if (result instanceof int[] counts) {
+      for (int count : counts) {
+        total += Math.max(count, 0);
+      }
+    } else if (result instanceof long[] counts) {
+      for (long count : counts) {
+        total += Math.max(count, 0);
+      }
+    } else if (result instanceof Number count) {
+      total = Math.max(count.longValue(), 0);
+    }
+    return total;
+  }
+
+  private abstract static class Wrapper implements InvocationHandler {
+
+    final Object target;
+
+    Wrapper(Object target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "unwrap":
+          if (((Class<?>) args[0]).isInstance(target)) {
+            return target;
+          }
+          return CountingDataSource.invoke(target, method, args);
+        case "isWrapperFor":
+          return ((Class<?>) args[0]).isInstance(target) || (Boolean) CountingDataSource.invoke(target, method, args);
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return handle(proxy, method, args);
+      }
+    }
+
+    abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+  }
+
+  private static final class ConnectionHandler extends Wrapper {
+
+    ConnectionHandler(Connection target) {
+      super(target);
+    }
+
+    @Override
+    Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = CountingDataSource.invoke(target, method, args);
+      if (result instanceof CallableStatement statement) {
+        return proxy(CallableStatement.class, new StatementHandler(statement, (Connection) proxy));
+      }
+      if (result instanceof PreparedStatement statement) {
+        return proxy(PreparedStatement.class, new StatementHandler(statement, (Connection) proxy));
+      }
+      if (result instanceof Statement statement) {
+        return proxy(Statement.class, new StatementHandler(statement, (Connection) proxy));
+      }
+      return result;
+    }
+  }
+
+  private static final class StatementHandler extends Wrapper {
+
+    private final Connection connection;
+
+    StatementHandler(Statement target, Connection connection) {
+      super(target);
+      this.connection = connection;
+    }
+
+    @Override
+    Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("getConnection")) {
+        return connection;
+      }
+      if (!name.startsWith("execute")) {
+        return wrapResultSet(CountingDataSource.invoke(target, method, args));
+      }
+
+      long start = System.nanoTime();
+      Object result;
+      try {
+        result = CountingDataSource.invoke(target, method, args);
+      } finally {
+        SqlStatementCounter.recordStatement(System.nanoTime() - start);
+      }
+      if (!(result instanceof ResultSet) && !(result instanceof Boolean)) {
+        SqlStatementCounter.recordRows(sum(result));
+      }
+      return wrapResultSet(result);
+    }
+
+    private Object wrapResultSet(Object result) {
+      if (result instanceof ResultSet resultSet) {
+        return proxy(ResultSet.class, new ResultSetHandler(resultSet));
+      }
+      return result;
+    }
+  }
+
+  private static final class ResultSetHandler extends Wrapper {
+
+    ResultSetHandler(ResultSet target) {
+      super(target);
+    }
+
+    @Override
+    Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+      Object result = CountingDataSource.invoke(target, method, args);
+      if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+        SqlStatementCounter.recordRows(1);
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.licensing.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured data source with a read/write routing one when
+ * {@code license.datasource.routing.enabled} is true. The primary pool is
+ * still configured through {@code spring.datasource.*}; replicas come from
+ * {@code license.datasource.routing.replicas}.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnProperty(prefix = "license.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(DataSourceRoutingProperties properties, DataSourceProperties primary,
+      MeterRegistry meterRegistry) {
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    List<DataSourceRoutingProperties.Replica> configured = properties.getReplicas();
+    for (int i = 0; i < configured.size(); i++) {
+      DataSourceRoutingProperties.Replica replica = configured.get(i);
+      String name = "replica-" + i;
+      HikariDataSource dataSource = new HikariDataSource();
+      dataSource.setPoolName(name);
+      dataSource.setJdbcUrl(replica.getUrl());
+      dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.getUsername());
+      dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.getPassword());
+      dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+      dataSource.setReadOnly(true);
+      replicas.put(name, dataSource);
+    }
+    return new ReplicaLagMonitor(replicas, properties.getMaxReplicaLag(), properties.getLagCheckInterval(),
+        meterRegistry);
+  }
+
+  @Bean
+  public ReadYourWritesTracker readYourWritesTracker(DataSourceRoutingProperties properties) {
+    return new ReadYourWritesTracker(properties.getReadYourWritesWindow());
+  }
+
+  @Bean
+  public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+    FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+        new ReadYourWritesFilter());
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+      ReadYourWritesTracker readYourWritesTracker, DataSourceRoutingProperties properties,
+      MeterRegistry meterRegistry) {
+    ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLagMonitor, readYourWritesTracker,
+        meterRegistry);
+    Map<Object, Object> targets = new HashMap<>(replicaLagMonitor.getReplicas());
+    targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+    routing.setTargetDataSources(targets);
+    routing.setDefaultTargetDataSource(primaryDataSource);
+    routing.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
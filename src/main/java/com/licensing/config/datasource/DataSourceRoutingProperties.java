@@ -0,0 +1,99 @@
+package com.licensing.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for routing read-only transactions to PostgreSQL replicas.
+ */
+@ConfigurationProperties(prefix = "license.datasource.routing")
+public class DataSourceRoutingProperties {
+
+  private boolean enabled = false;
+  private List<Replica> replicas = new ArrayList<>();
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+  private Duration maxReplicaLag = Duration.ofSeconds(10);
+  private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public List<Replica> getReplicas() {
+    return replicas;
+  }
+
+  public void setReplicas(List<Replica> replicas) {
+    this.replicas = replicas;
+  }
+
+  public Duration getReadYourWritesWindow() {
+    return readYourWritesWindow;
+  }
+
+  public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+    this.readYourWritesWindow = readYourWritesWindow;
+  }
+
+  public Duration getMaxReplicaLag() {
+    return maxReplicaLag;
+  }
+
+  public void setMaxReplicaLag(Duration maxReplicaLag) {
+    this.maxReplicaLag = maxReplicaLag;
+  }
+
+  public Duration getLagCheckInterval() {
+    return lagCheckInterval;
+  }
+
+  public void setLagCheckInterval(Duration lagCheckInterval) {
+    this.lagCheckInterval = lagCheckInterval;
+  }
+
+  public static class Replica {
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 20;
+
+    public String getUrl() {
+      return url;
+    }
+
+    public void setUrl(String url) {
+      this.url = url;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+
+    public void setUsername(String username) {
+      this.username = username;
+    }
+
+    public String getPassword() {
+      return password;
+    }
+
+    public void setPassword(String password) {
+      this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+      return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+      this.maximumPoolSize = maximumPoolSize;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.licensing.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections of read-only transactions to a healthy replica and all
+ * other connections to the primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the route is chosen on first use, after the transaction's read-only
+ * flag has been set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+  public static final String PRIMARY = "primary";
+
+  private final ReplicaLagMonitor replicaLagMonitor;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final Counter writes;
+  private final Counter pinnedReads;
+  private final Counter fallbackReads;
+  private final Counter replicaReads;
+
+  public ReadWriteRoutingDataSource(ReplicaLagMonitor replicaLagMonitor,
+      ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+    this.replicaLagMonitor = replicaLagMonitor;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.writes = routeCounter(meterRegistry, PRIMARY, "write");
+    this.pinnedReads = routeCounter(meterRegistry, PRIMARY, "read-your-writes");
+    this.fallbackReads = routeCounter(meterRegistry, PRIMARY, "replica-unavailable");
+    this.replicaReads = routeCounter(meterRegistry, "replica", "read-only");
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      readYourWritesTracker.recordWrite();
+      writes.increment();
+      return PRIMARY;
+    }
+    if (readYourWritesTracker.isPinned()) {
+      pinnedReads.increment();
+      return PRIMARY;
+    }
+
+    String replica = replicaLagMonitor.nextHealthyReplica();
+    if (replica == null) {
+      fallbackReads.increment();
+      return PRIMARY;
+    }
+    replicaReads.increment();
+    return replica;
+  }
+
+  private static Counter routeCounter(MeterRegistry meterRegistry, String target, String reason) {
+    return Counter.builder("license.datasource.routes")
+        .description("Connections handed out by the read/write routing data source")
+        .tag("target", target)
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,37 @@
+package com.licensing.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Identifies the client of each request by tenant and user so that
+ * {@link ReadYourWritesTracker} can pin it after a write.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  private static final String TENANT_HEADER = "X-Tenant-ID";
+  private static final String USER_HEADER = "X-User-ID";
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+
+    String userId = request.getHeader(USER_HEADER);
+    if (userId == null || userId.isBlank()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    ReadYourWritesTracker.setCurrentClient(request.getHeader(TENANT_HEADER) + "|" + userId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      ReadYourWritesTracker.clearCurrentClient();
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.licensing.config.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which clients wrote recently so their reads can be pinned to the
+ * primary until replicas have had time to catch up. The client of the current
+ * thread is set per request by {@link ReadYourWritesFilter}.
+ */
+public class ReadYourWritesTracker {
+
+  private static final ThreadLocal<String> currentClient = new ThreadLocal<>();
+  private static final int PURGE_THRESHOLD = 10_000;
+
+  private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+  private final long windowNanos;
+  private final LongSupplier nanoClock;
+
+  public ReadYourWritesTracker(Duration window) {
+    this(window, System::nanoTime);
+  }
+
+  ReadYourWritesTracker(Duration window, LongSupplier nanoClock) {
+    this.windowNanos = window.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  public static void setCurrentClient(String clientKey) {
+    currentClient.set(clientKey);
+  }
+
+  public static void clearCurrentClient() {
+    currentClient.remove();
+  }
+
+  /**
+   * Pins the current client to the primary for the stickiness window.
+   */
+  public void recordWrite() {
+    String client = currentClient.get();
+    if (client == null || windowNanos <= 0) {
+      return;
+    }
+    long now = nanoClock.getAsLong();
+    if (pinnedUntil.size() > PURGE_THRESHOLD) {
+      pinnedUntil.values().removeIf(until -> until - now < 0);
+    }
+    pinnedUntil.put(client, now + windowNanos);
+  }
+
+  /**
+   * Returns whether the current client wrote within the stickiness window.
+   */
+  public boolean isPinned() {
+    String client = currentClient.get();
+    if (client == null) {
+      return false;
+    }
+    Long until = pinnedUntil.get(client);
+    if (until == null) {
+      return false;
+    }
+    if (until - nanoClock.getAsLong() < 0) {
+      pinnedUntil.remove(client, until);
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,141 @@
+package com.licensing.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically measures replication lag on each replica and hands out
+ * healthy replicas round-robin. A replica is unhealthy while its lag exceeds
+ * the threshold or the lag query fails; reads then fall back to the primary.
+ */
+public class ReplicaLagMonitor {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+  /**
+   * Seconds since the last replayed transaction, or zero when the replica has
+   * replayed everything it received (an idle primary is not lag).
+   */
+  static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+      + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())), 0) END";
+
+  private final Map<String, DataSource> replicas;
+  private final Map<String, ReplicaState> states = new LinkedHashMap<>();
+  private final List<String> names;
+  private final double maxLagSeconds;
+  private final Duration checkInterval;
+  private final AtomicInteger nextIndex = new AtomicInteger();
+  private ScheduledExecutorService scheduler;
+
+  public ReplicaLagMonitor(Map<String, DataSource> replicas, Duration maxLag, Duration checkInterval,
+      MeterRegistry meterRegistry) {
+    this.replicas = replicas;
+    this.names = new ArrayList<>(replicas.keySet());
+    this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    this.checkInterval = checkInterval;
+
+    for (String name : names) {
+      ReplicaState state = new ReplicaState();
+      states.put(name, state);
+      Gauge.builder("license.datasource.replica.lag", state, s -> s.lagSeconds)
+          .description("Replication lag of a read replica in seconds")
+          .baseUnit("seconds")
+          .tag("replica", name)
+          .register(meterRegistry);
+      Gauge.builder("license.datasource.replica.healthy", state, s -> s.healthy ? 1 : 0)
+          .description("Whether a read replica currently receives reads")
+          .tag("replica", name)
+          .register(meterRegistry);
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    checkAll();
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replica-lag-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long intervalMillis = checkInterval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::checkAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  public Map<String, DataSource> getReplicas() {
+    return replicas;
+  }
+
+  /**
+   * Returns the next healthy replica in round-robin order, or null if none is healthy.
+   */
+  public String nextHealthyReplica() {
+    int size = names.size();
+    int start = Math.floorMod(nextIndex.getAndIncrement(), Math.max(size, 1));
+    for (int i = 0; i < size; i++) {
+      String name = names.get((start + i) % size);
+      if (states.get(name).healthy) {
+        return name;
+      }
+    }
+    return null;
+  }
+
+  void checkAll() {
+    for (String name : names) {
+      check(name);
+    }
+  }
+
+  private void check(String name) {
+    ReplicaState state = states.get(name);
+    try (Connection connection = replicas.get(name).getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+      double lag = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+      state.lagSeconds = lag;
+      boolean healthy = lag <= maxLagSeconds;
+      if (healthy && !state.healthy) {
+        logger.info("Replica {} is healthy (lag {}s)", name, lag);
+      } else if (!healthy && state.healthy) {
+        logger.warn("Replica {} is lagging (lag {}s), routing reads to primary", name, lag);
+      }
+      state.healthy = healthy;
+    } catch (SQLException | RuntimeException e) {
+      if (state.healthy) {
+        logger.warn("Replica {} lag check failed, routing reads to primary", name, e);
+      }
+      state.healthy = false;
+    }
+  }
+
+  private static final class ReplicaState {
+    private volatile double lagSeconds;
+    private volatile boolean healthy;
+  }
+}
@@ -0,0 +1,73 @@
+package com.licensing.config.datasource;
+
+/**
+ * Counts JDBC statements, rows and execution time on the current thread.
+ * Callers open a {@link Scope} around the work to measure; scopes nest, and a
+ * statement is counted in every scope open on the thread. Statements only
+ * reach the counter through {@link CountingDataSource}.
+ */
+public final class SqlStatementCounter {
+
+  private static final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+
+  private SqlStatementCounter() {
+  }
+
+  /**
+   * Opens a scope on the current thread. Must be closed on the same thread.
+   */
+  public static Scope open() {
+    Scope scope = new Scope(currentScope.get());
+    currentScope.set(scope);
+    return scope;
+  }
+
+  static void recordStatement(long elapsedNanos) {
+    for (Scope scope = currentScope.get(); scope != null; scope = scope.parent) {
+      scope.statements++;
+      scope.elapsedNanos += elapsedNanos;
+    }
+  }
+
+  static void recordRows(long rows) {
+    for (Scope scope = currentScope.get(); scope != null; scope = scope.parent) {
+      scope.rows += rows;
+    }
+  }
+
+  public static final class Scope implements AutoCloseable {
+
+    private final Scope parent;
+    private long statements;
+    private long rows;
+    private long elapsedNanos;
+
+    private Scope(Scope parent) {
+      this.parent = parent;
+    }
+
+    public long getStatements() {
+      return statements;
+    }
+
+    /**
+     * Rows read through result sets plus rows affected by updates.
+     */
+    public long getRows() {
+      return rows;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    @Override
+    public void close() {
+      if (parent == null) {
+        currentScope.remove();
+      } else {
+        currentScope.set(parent);
+      }
+    }
+  }
+}
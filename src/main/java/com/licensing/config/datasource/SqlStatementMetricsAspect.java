@@ -0,0 +1,62 @@
+package com.licensing.config.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records SQL statements, rows and JDBC time per public service method.
+ * Runs outside the transaction advice so statements flushed at commit are
+ * attributed to the method that caused them.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementMetricsAspect {
+
+  private final MeterRegistry meterRegistry;
+
+  public SqlStatementMetricsAspect(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Around("@within(org.springframework.stereotype.Service) && execution(public * *(..))")
+  public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+    try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+      try {
+        return joinPoint.proceed();
+      } finally {
+        if (scope.getStatements() > 0) {
+          record(joinPoint, scope);
+        }
+      }
+    }
+  }
+
+  private void record(ProceedingJoinPoint joinPoint, SqlStatementCounter.Scope scope) {
+    String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+    String method = joinPoint.getSignature().getName();
+
+    DistributionSummary.builder("license.sql.method.statements")
+        .description("SQL statements executed per service method call")
+        .tags("class", type, "method", method)
+        .register(meterRegistry)
+        .record(scope.getStatements());
+    DistributionSummary.builder("license.sql.method.rows")
+        .description("Rows read or changed per service method call")
+        .tags("class", type, "method", method)
+        .register(meterRegistry)
+        .record(scope.getRows());
+    Timer.builder("license.sql.method.time")
+        .description("JDBC execution time per service method call")
+        .tags("class", type, "method", method)
+        .register(meterRegistry)
+        .record(scope.getElapsedNanos(), TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,49 @@
+package com.licensing.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Counts SQL statements per HTTP request and per service method by wrapping
+ * the application data source in a {@link CountingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "license.sql-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementMetricsConfiguration {
+
+  @Bean
+  public static BeanPostProcessor countingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+            && !(bean instanceof CountingDataSource)) {
+          return new CountingDataSource(dataSource);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public SqlStatementMetricsAspect sqlStatementMetricsAspect(MeterRegistry meterRegistry) {
+    return new SqlStatementMetricsAspect(meterRegistry);
+  }
+
+  @Bean
+  public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry meterRegistry,
+      @Value("${license.sql-metrics.request-statement-budget:50}") int statementBudget) {
+    FilterRegistrationBean<SqlStatementMetricsFilter> registration = new FilterRegistrationBean<>(
+        new SqlStatementMetricsFilter(meterRegistry, statementBudget));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+    return registration;
+  }
+}
@@ -0,0 +1,70 @@
+package com.licensing.config.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records SQL statements, rows and JDBC time per HTTP endpoint and warns when
+ * a single request exceeds the statement budget.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+  private static final Logger logger = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+  private final MeterRegistry meterRegistry;
+  private final int statementBudget;
+
+  public SqlStatementMetricsFilter(MeterRegistry meterRegistry, int statementBudget) {
+    this.meterRegistry = meterRegistry;
+    this.statementBudget = statementBudget;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+
+    try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+      filterChain.doFilter(request, response);
+
+      if (scope.getStatements() == 0) {
+        return;
+      }
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+      String method = request.getMethod();
+
+      DistributionSummary.builder("license.sql.request.statements")
+          .description("SQL statements executed per HTTP request")
+          .tags("method", method, "uri", uri)
+          .register(meterRegistry)
+          .record(scope.getStatements());
+      DistributionSummary.builder("license.sql.request.rows")
+          .description("Rows read or changed per HTTP request")
+          .tags("method", method, "uri", uri)
+          .register(meterRegistry)
+          .record(scope.getRows());
+      Timer.builder("license.sql.request.time")
+          .description("JDBC execution time per HTTP request")
+          .tags("method", method, "uri", uri)
+          .register(meterRegistry)
+          .record(scope.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+      if (statementBudget > 0 && scope.getStatements() > statementBudget) {
+        logger.warn("{} {} executed {} SQL statements, budget is {}", method, uri, scope.getStatements(),
+            statementBudget);
+      }
+    }
+  }
+}
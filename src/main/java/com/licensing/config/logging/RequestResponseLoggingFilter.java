@@ -120,7 +120,16 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
     return uri.startsWith("/actuator/") ||
         uri.startsWith("/v3/api-docs") ||
         uri.startsWith("/swagger-ui") ||
-        uri.equals("/favicon.ico");
+        uri.equals("/favicon.ico") ||
+        isStreamingEndpoint(uri);
+  }
+
+  /**
+   * Bulk transfer endpoints stream their bodies; caching them for logging
+   * would buffer entire uploads and downloads in memory.
+   */
+  private boolean isStreamingEndpoint(String uri) {
+    return uri.endsWith("/import") || uri.endsWith("/export");
   }
 
   private boolean shouldLogRequestBody(ContentCachingRequestWrapper request) {
@@ -0,0 +1,46 @@
+package com.licensing.config.sharding;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring placing each shard at {@code virtualNodes} points, so
+ * adding a shard only moves the keys that land on its points.
+ */
+public class ConsistentHashRing {
+
+  private final TreeMap<Long, String> ring = new TreeMap<>();
+
+  public ConsistentHashRing(Collection<String> shards, int virtualNodes) {
+    if (shards.isEmpty() || virtualNodes < 1) {
+      throw new IllegalArgumentException("A hash ring needs at least one shard and one virtual node");
+    }
+    for (String shard : shards) {
+      for (int i = 0; i < virtualNodes; i++) {
+        ring.put(hash(shard + "#" + i), shard);
+      }
+    }
+  }
+
+  /**
+   * Returns the shard owning the first ring point at or after the key's hash.
+   */
+  public String shardOf(String key) {
+    Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key));
+    return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+  }
+
+  private static long hash(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,555 @@
+package com.licensing.config.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Maps tenants to the database shard holding their data.
+ *
+ * <p>The {@code tenant_shards} directory on the primary shard is
+ * authoritative; a tenant not in it yet is placed with a consistent hash
+ * ring and recorded there, so adding a shard later never moves existing
+ * tenants. Tenants created while sharding was disabled are only on the
+ * primary shard and not in the directory; they are pinned to the primary
+ * before the directory is first loaded. The directory is cached and reloaded periodically; moves made on
+ * this node take effect here immediately.
+ *
+ * <p>Tenant connections are taken through a {@link Lease}, which is refused
+ * while the tenant is being moved and lets the move wait for connections
+ * still open on the old shard. On PostgreSQL shards every writing
+ * transaction of a lease also holds a shared advisory lock of the tenant,
+ * and a move takes the lock exclusively with {@link #fence(String, Duration)},
+ * so transactions started on any node before it saw the freeze are waited
+ * for and later ones are refused. A tenant frozen for longer than
+ * {@code freezeTimeout}, e.g. because the node moving it died, is released
+ * on its old shard by the next directory reload, and a move whose freeze
+ * was released cannot cut over. Work that is not bound to one tenant runs
+ * against the primary shard unless it is scoped to another one with
+ * {@link #runOnShard(String, Runnable)}.
+ */
+public class ShardMap {
+
+  public static final String PRIMARY = "primary";
+
+  private static final Logger logger = LoggerFactory.getLogger(ShardMap.class);
+
+  private static final String STATUS_ACTIVE = "ACTIVE";
+  private static final String STATUS_MOVING = "MOVING";
+  private static final String BACKFILL = "INSERT INTO tenant_shards (tenant_id, shard, status) "
+      + "SELECT data.tenant_id, '" + PRIMARY + "', '" + STATUS_ACTIVE + "' FROM ("
+      + "SELECT tenant_id FROM organizations UNION SELECT tenant_id FROM licenses "
+      + "UNION SELECT tenant_id FROM audit_logs) data "
+      + "WHERE NOT EXISTS (SELECT 1 FROM tenant_shards placed WHERE placed.tenant_id = data.tenant_id)";
+
+  private final boolean enabled;
+  private final Map<String, DataSource> dataSources;
+  private final ConsistentHashRing ring;
+  private final JdbcTemplate directoryJdbc;
+  private final Duration refreshInterval;
+  private final Duration freezeTimeout;
+  private final Map<String, Assignment> directory = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+  private final ThreadLocal<String> scopedShard = new ThreadLocal<>();
+  private final AtomicBoolean loaded = new AtomicBoolean();
+  private final Map<String, Boolean> fenceable = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a disabled map that puts every tenant on the primary shard.
+   */
+  public ShardMap(DataSource primary) {
+    this.enabled = false;
+    this.dataSources = Map.of(PRIMARY, primary);
+    this.ring = null;
+    this.directoryJdbc = null;
+    this.refreshInterval = Duration.ZERO;
+    this.freezeTimeout = Duration.ZERO;
+  }
+
+  /**
+   * @param shards shards besides the primary one, by name
+   * @param freezeTimeout how long a tenant may stay frozen for a move
+   */
+  public ShardMap(DataSource primary, Map<String, DataSource> shards, int virtualNodes, Duration refreshInterval,
+      Duration freezeTimeout) {
+    if (shards.containsKey(PRIMARY)) {
+      throw new IllegalArgumentException("Shard name '" + PRIMARY + "' is reserved for the application data source");
+    }
+    Map<String, DataSource> all = new LinkedHashMap<>();
+    all.put(PRIMARY, primary);
+    all.putAll(shards);
+    this.enabled = true;
+    this.dataSources = Collections.unmodifiableMap(all);
+    this.ring = new ConsistentHashRing(all.keySet(), virtualNodes);
+    this.directoryJdbc = new JdbcTemplate(primary);
+    this.refreshInterval = refreshInterval;
+    this.freezeTimeout = freezeTimeout;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Set<String> getShardNames() {
+    return dataSources.keySet();
+  }
+
+  public DataSource getDataSource(String shard) {
+    DataSource dataSource = dataSources.get(shard);
+    if (dataSource == null) {
+      throw new IllegalArgumentException("Unknown shard: " + shard);
+    }
+    return dataSource;
+  }
+
+  public Duration getRefreshInterval() {
+    return refreshInterval;
+  }
+
+  /**
+   * Returns the shard of {@code tenantId}, placing and recording it first if
+   * it has none yet.
+   */
+  public String shardOf(String tenantId) {
+    if (!enabled || tenantId == null) {
+      return PRIMARY;
+    }
+    ensureLoaded();
+    Assignment assignment = directory.get(tenantId);
+    if (assignment == null) {
+      assignment = place(tenantId);
+    }
+    return assignment.shard;
+  }
+
+  /**
+   * Opens a connection lease for {@code tenantId} on its current shard.
+   *
+   * @throws TenantMovingException if the tenant is being moved
+   */
+  public Lease lease(String tenantId) throws TenantMovingException {
+    AtomicInteger count = inFlight.computeIfAbsent(tenantId, tenant -> new AtomicInteger());
+    count.incrementAndGet();
+    String shard = shardOf(tenantId);
+    if (isMoving(tenantId)) {
+      count.decrementAndGet();
+      throw new TenantMovingException(tenantId);
+    }
+    return new Lease(this, tenantId, shard, getDataSource(shard), count);
+  }
+
+  /**
+   * Takes the tenant's advisory lock exclusively on its current shard, once
+   * every transaction holding it shared has ended, and keeps it until the
+   * returned fence is closed. Does nothing on shards that are not
+   * PostgreSQL.
+   *
+   * @return the fence, or null if transactions still held the lock when the
+   *         timeout passed
+   */
+  public Fence fence(String tenantId, Duration timeout) throws SQLException, InterruptedException {
+    String shard = shardOf(tenantId);
+    Connection connection = getDataSource(shard).getConnection();
+    try {
+      if (!isFenceable(shard, connection)) {
+        connection.close();
+        return new Fence(null);
+      }
+      connection.setAutoCommit(false);
+      long deadline = System.nanoTime() + timeout.toNanos();
+      while (!tryLock(connection, "SELECT pg_try_advisory_xact_lock(?)", tenantId)) {
+        if (System.nanoTime() >= deadline) {
+          connection.rollback();
+          connection.close();
+          return null;
+        }
+        Thread.sleep(10);
+      }
+      return new Fence(connection);
+    } catch (SQLException | InterruptedException | RuntimeException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  private boolean isFenceable(String shard, Connection connection) throws SQLException {
+    Boolean supported = fenceable.get(shard);
+    if (supported == null) {
+      supported = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+      fenceable.put(shard, supported);
+    }
+    return supported;
+  }
+
+  private static boolean tryLock(Connection connection, String sql, String tenantId) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setLong(1, lockKey(tenantId));
+      try (ResultSet result = statement.executeQuery()) {
+        return result.next() && result.getBoolean(1);
+      }
+    }
+  }
+
+  private static long lockKey(String tenantId) {
+    return UUID.nameUUIDFromBytes(("tenant-shard:" + tenantId).getBytes(StandardCharsets.UTF_8))
+        .getMostSignificantBits();
+  }
+
+  /**
+   * Data source for connections not bound to a tenant: the shard this thread
+   * is scoped to, or the primary one.
+   */
+  public DataSource getUnscopedDataSource() {
+    String shard = scopedShard.get();
+    return getDataSource(shard != null ? shard : PRIMARY);
+  }
+
+  /**
+   * Runs {@code action} with connections not bound to a tenant going to
+   * {@code shard}.
+   */
+  public void runOnShard(String shard, Runnable action) {
+    getDataSource(shard);
+    String previous = scopedShard.get();
+    scopedShard.set(shard);
+    try {
+      action.run();
+    } finally {
+      if (previous != null) {
+        scopedShard.set(previous);
+      } else {
+        scopedShard.remove();
+      }
+    }
+  }
+
+  /**
+   * Runs {@code action} once per shard, continuing with the other shards if
+   * one fails; the first failure is rethrown at the end.
+   */
+  public void forEachShard(Runnable action) {
+    RuntimeException failure = null;
+    for (String shard : dataSources.keySet()) {
+      try {
+        runOnShard(shard, action);
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Splits {@code items} by the shard of their tenant.
+   */
+  public <T> Map<String, List<T>> groupByShard(Collection<T> items, Function<T, String> tenantOf) {
+    if (!enabled) {
+      return items.isEmpty() ? Map.of() : Map.of(PRIMARY, new ArrayList<>(items));
+    }
+    Map<String, List<T>> groups = new LinkedHashMap<>();
+    for (T item : items) {
+      groups.computeIfAbsent(shardOf(tenantOf.apply(item)), shard -> new ArrayList<>()).add(item);
+    }
+    return groups;
+  }
+
+  public boolean isMoving(String tenantId) {
+    Assignment assignment = directory.get(tenantId);
+    return assignment != null && STATUS_MOVING.equals(assignment.status);
+  }
+
+  /**
+   * Returns every recorded tenant and its shard, ordered by tenant.
+   */
+  public Map<String, String> getAssignments() {
+    ensureLoaded();
+    Map<String, String> assignments = new TreeMap<>();
+    directory.forEach((tenant, assignment) -> assignments.put(tenant, assignment.shard));
+    return assignments;
+  }
+
+  /**
+   * Marks the tenant as moving, which makes every node refuse new
+   * connections for it once they have reloaded the directory.
+   *
+   * @throws IllegalStateException if the tenant is already frozen
+   */
+  public void freeze(String tenantId) {
+    String shard = shardOf(tenantId);
+    int frozen = directoryJdbc.update("UPDATE tenant_shards SET status = ?, updated_at = CURRENT_TIMESTAMP "
+        + "WHERE tenant_id = ? AND status = ?", STATUS_MOVING, tenantId, STATUS_ACTIVE);
+    if (frozen == 0) {
+      throw new IllegalStateException("Tenant " + tenantId + " is already being moved");
+    }
+    directory.put(tenantId, new Assignment(shard, STATUS_MOVING));
+  }
+
+  /**
+   * Points the frozen tenant at {@code shard} and lets connections through
+   * again.
+   *
+   * @throws IllegalStateException if the tenant is no longer frozen, e.g.
+   *         because its freeze timed out or was released by an operator
+   */
+  public void cutOver(String tenantId, String shard) {
+    getDataSource(shard);
+    int moved = directoryJdbc.update("UPDATE tenant_shards SET shard = ?, status = ?, "
+        + "updated_at = CURRENT_TIMESTAMP WHERE tenant_id = ? AND status = ?",
+        shard, STATUS_ACTIVE, tenantId, STATUS_MOVING);
+    if (moved == 0) {
+      refresh();
+      throw new IllegalStateException("Tenant " + tenantId + " is no longer frozen for its move");
+    }
+    directory.put(tenantId, new Assignment(shard, STATUS_ACTIVE));
+  }
+
+  /**
+   * Lets connections for the tenant through again on its current shard.
+   *
+   * @return false if the tenant was not frozen
+   */
+  public boolean unfreeze(String tenantId) {
+    String shard = shardOf(tenantId);
+    int released = directoryJdbc.update("UPDATE tenant_shards SET status = ?, updated_at = CURRENT_TIMESTAMP "
+        + "WHERE tenant_id = ? AND status = ?", STATUS_ACTIVE, tenantId, STATUS_MOVING);
+    directory.put(tenantId, new Assignment(shard, STATUS_ACTIVE));
+    return released > 0;
+  }
+
+  /**
+   * Waits until no lease of {@code tenantId} taken on this node is open.
+   * Leases on other nodes are covered by {@link #fence(String, Duration)}.
+   *
+   * @return false if leases were still open when the timeout passed
+   */
+  public boolean awaitDrained(String tenantId, Duration timeout) throws InterruptedException {
+    AtomicInteger count = inFlight.get(tenantId);
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (count != null && count.get() > 0) {
+      if (System.nanoTime() >= deadline) {
+        return false;
+      }
+      Thread.sleep(10);
+    }
+    return true;
+  }
+
+  @Scheduled(fixedDelayString = "${license.sharding.directory-refresh-interval:PT10S}")
+  public void scheduledRefresh() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      logger.error("Reloading the tenant shard directory failed", e);
+    }
+  }
+
+  /**
+   * Reloads the directory from the primary shard, first releasing tenants
+   * frozen for longer than the freeze timeout.
+   */
+  public void refresh() {
+    Timestamp frozenBefore = Timestamp.from(Instant.now().minus(freezeTimeout));
+    List<String> expired = directoryJdbc.queryForList("SELECT tenant_id FROM tenant_shards "
+        + "WHERE status = ? AND updated_at < ?", String.class, STATUS_MOVING, frozenBefore);
+    for (String tenantId : expired) {
+      if (directoryJdbc.update("UPDATE tenant_shards SET status = ?, updated_at = CURRENT_TIMESTAMP "
+          + "WHERE tenant_id = ? AND status = ? AND updated_at < ?", STATUS_ACTIVE, tenantId, STATUS_MOVING,
+          frozenBefore) > 0) {
+        logger.warn("Released tenant {} frozen for a move for more than {}", tenantId, freezeTimeout);
+      }
+    }
+
+    Map<String, Assignment> loadedDirectory = new ConcurrentHashMap<>();
+    directoryJdbc.query("SELECT tenant_id, shard, status FROM tenant_shards", row -> {
+      String shard = row.getString("shard");
+      if (!dataSources.containsKey(shard)) {
+        logger.error("Tenant {} is assigned to unknown shard {}", row.getString("tenant_id"), shard);
+        return;
+      }
+      loadedDirectory.put(row.getString("tenant_id"), new Assignment(shard, row.getString("status")));
+    });
+    directory.keySet().retainAll(loadedDirectory.keySet());
+    directory.putAll(loadedDirectory);
+    loaded.set(true);
+  }
+
+  private void ensureLoaded() {
+    if (!loaded.get()) {
+      synchronized (loaded) {
+        if (!loaded.get()) {
+          backfill();
+          refresh();
+        }
+      }
+    }
+  }
+
+  /**
+   * Pins every tenant with rows on the primary shard but no directory entry
+   * to the primary shard. Another node may place one of them at the same
+   * time, in which case the statement is run again.
+   */
+  private void backfill() {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        int pinned = directoryJdbc.update(BACKFILL);
+        if (pinned > 0) {
+          logger.info("Pinned {} tenants created while sharding was disabled to shard {}", pinned, PRIMARY);
+        }
+        return;
+      } catch (DuplicateKeyException e) {
+        if (attempt == 3) {
+          throw e;
+        }
+        logger.debug("Tenants were placed concurrently while backfilling the shard directory");
+      }
+    }
+  }
+
+  /**
+   * Closes the pools of the shards besides the primary one.
+   */
+  public void close() {
+    dataSources.forEach((shard, dataSource) -> {
+      if (!PRIMARY.equals(shard) && dataSource instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception e) {
+          logger.warn("Failed to close the pool of shard {}", shard, e);
+        }
+      }
+    });
+  }
+
+  private Assignment place(String tenantId) {
+    try {
+      directoryJdbc.update("INSERT INTO tenant_shards (tenant_id, shard, status) VALUES (?, ?, ?)", tenantId,
+          ring.shardOf(tenantId), STATUS_ACTIVE);
+    } catch (DuplicateKeyException e) {
+      logger.debug("Tenant {} was placed concurrently", tenantId);
+    }
+    Assignment assignment = directoryJdbc.queryForObject(
+        "SELECT shard, status FROM tenant_shards WHERE tenant_id = ?",
+        (row, rowNum) -> new Assignment(row.getString("shard"), row.getString("status")), tenantId);
+    directory.put(tenantId, assignment);
+    return assignment;
+  }
+
+  /**
+   * A move's exclusive hold on a tenant's shard; closing it ends the
+   * transaction holding the lock.
+   */
+  public static final class Fence implements AutoCloseable {
+
+    private final Connection connection;
+
+    private Fence(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public void close() throws SQLException {
+      if (connection == null) {
+        return;
+      }
+      try {
+        connection.rollback();
+      } finally {
+        connection.close();
+      }
+    }
+  }
+
+  private static final class Assignment {
+
+    private final String shard;
+    private final String status;
+
+    private Assignment(String shard, String status) {
+      this.shard = shard;
+      this.status = status;
+    }
+  }
+
+  /**
+   * A tenant's claim on its shard for the lifetime of one connection;
+   * releasing it more than once has no effect.
+   */
+  public static final class Lease {
+
+    private final ShardMap shardMap;
+    private final String tenantId;
+    private final String shard;
+    private final DataSource dataSource;
+    private final AtomicInteger count;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Lease(ShardMap shardMap, String tenantId, String shard, DataSource dataSource, AtomicInteger count) {
+      this.shardMap = shardMap;
+      this.tenantId = tenantId;
+      this.shard = shard;
+      this.dataSource = dataSource;
+      this.count = count;
+    }
+
+    public DataSource getDataSource() {
+      return dataSource;
+    }
+
+    /**
+     * Holds the tenant's advisory lock shared for the current transaction of
+     * {@code connection}, a connection of this lease. Read-only
+     * transactions and shards that are not PostgreSQL are not fenced.
+     *
+     * @throws TenantMovingException if a move holds the lock
+     */
+    public void enter(Connection connection) throws SQLException {
+      if (connection.isReadOnly() || !shardMap.isFenceable(shard, connection)) {
+        return;
+      }
+      if (!tryLock(connection, "SELECT pg_try_advisory_xact_lock_shared(?)", tenantId)) {
+        throw new TenantMovingException(tenantId);
+      }
+    }
+
+    public void release() {
+      if (released.compareAndSet(false, true)) {
+        count.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.licensing.config.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the {@link ShardMap}. When {@code license.sharding.enabled} is true
+ * every configured shard gets its own Hikari pool and, unless disabled, is
+ * brought to the current schema with the application's Flyway migrations
+ * before any tenant is routed to it.
+ */
+@Configuration
+public class ShardingConfiguration {
+
+  private static final Logger logger = LoggerFactory.getLogger(ShardingConfiguration.class);
+
+  @Bean
+  public ShardMap shardMap(DataSource dataSource, ShardingProperties properties, DataSourceProperties primary,
+      @Value("${spring.flyway.enabled:true}") boolean flywayEnabled,
+      @Value("${spring.flyway.locations:classpath:db/migration}") List<String> flywayLocations) {
+    if (!properties.isEnabled()) {
+      return new ShardMap(dataSource);
+    }
+    Map<String, DataSource> shards = new LinkedHashMap<>();
+    for (ShardingProperties.Shard shard : properties.getShards()) {
+      HikariDataSource shardDataSource = new HikariDataSource();
+      shardDataSource.setPoolName("shard-" + shard.getName());
+      shardDataSource.setJdbcUrl(shard.getUrl());
+      shardDataSource.setUsername(shard.getUsername() != null ? shard.getUsername() : primary.getUsername());
+      shardDataSource.setPassword(shard.getPassword() != null ? shard.getPassword() : primary.getPassword());
+      shardDataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+      if (flywayEnabled && properties.isMigrate()) {
+        logger.info("Migrating shard {}", shard.getName());
+        Flyway.configure()
+            .dataSource(shardDataSource)
+            .locations(flywayLocations.toArray(String[]::new))
+            .baselineOnMigrate(true)
+            .load()
+            .migrate();
+      }
+      shards.put(shard.getName(), shardDataSource);
+    }
+    return new ShardMap(dataSource, shards, properties.getVirtualNodes(), properties.getDirectoryRefreshInterval(),
+        properties.getFreezeTimeout());
+  }
+}
@@ -0,0 +1,134 @@
+package com.licensing.config.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for spreading tenants over several PostgreSQL databases. The
+ * application data source is always the shard named
+ * {@value ShardMap#PRIMARY} and holds the tenant directory.
+ */
+@ConfigurationProperties(prefix = "license.sharding")
+public class ShardingProperties {
+
+  private boolean enabled = false;
+  private List<Shard> shards = new ArrayList<>();
+  private int virtualNodes = 128;
+  private Duration directoryRefreshInterval = Duration.ofSeconds(10);
+  private Duration freezeTimeout = Duration.ofMinutes(10);
+  private boolean migrate = true;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Shards besides the primary one.
+   */
+  public List<Shard> getShards() {
+    return shards;
+  }
+
+  public void setShards(List<Shard> shards) {
+    this.shards = shards;
+  }
+
+  public int getVirtualNodes() {
+    return virtualNodes;
+  }
+
+  public void setVirtualNodes(int virtualNodes) {
+    this.virtualNodes = virtualNodes;
+  }
+
+  /**
+   * How often the tenant directory is reloaded, which bounds how long other
+   * nodes keep routing a tenant to its old shard after a move.
+   */
+  public Duration getDirectoryRefreshInterval() {
+    return directoryRefreshInterval;
+  }
+
+  public void setDirectoryRefreshInterval(Duration directoryRefreshInterval) {
+    this.directoryRefreshInterval = directoryRefreshInterval;
+  }
+
+  /**
+   * How long a tenant may be frozen for a move before the directory lets its
+   * connections through on the old shard again, so a node dying mid-move
+   * does not leave the tenant unavailable.
+   */
+  public Duration getFreezeTimeout() {
+    return freezeTimeout;
+  }
+
+  public void setFreezeTimeout(Duration freezeTimeout) {
+    this.freezeTimeout = freezeTimeout;
+  }
+
+  /**
+   * Whether to run the Flyway migrations against every shard at startup.
+   */
+  public boolean isMigrate() {
+    return migrate;
+  }
+
+  public void setMigrate(boolean migrate) {
+    this.migrate = migrate;
+  }
+
+  public static class Shard {
+    private String name;
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 20;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getUrl() {
+      return url;
+    }
+
+    public void setUrl(String url) {
+      this.url = url;
+    }
+
+    public String getUsername() {
+      return username;
+    }
+
+    public void setUsername(String username) {
+      this.username = username;
+    }
+
+    public String getPassword() {
+      return password;
+    }
+
+    public void setPassword(String password) {
+      this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+      return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+      this.maximumPoolSize = maximumPoolSize;
+    }
+  }
+}
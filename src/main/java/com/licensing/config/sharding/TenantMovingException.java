@@ -0,0 +1,14 @@
+package com.licensing.config.sharding;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when a connection is requested for a tenant whose data is being
+ * moved to another shard; the request can be retried once the move is over.
+ */
+public class TenantMovingException extends SQLTransientConnectionException {
+
+  public TenantMovingException(String tenantId) {
+    super("Tenant " + tenantId + " is being moved to another shard", "08004");
+  }
+}
@@ -0,0 +1,55 @@
+package com.licensing.config.sharding;
+
+import com.licensing.service.sharding.TenantMoveReport;
+import com.licensing.service.sharding.TenantMoveService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Operator endpoint at {@code /actuator/tenantshards}: GET lists the shards
+ * and where each tenant lives, POST with {@code tenantId} and {@code shard}
+ * moves a tenant and DELETE with {@code tenantId} releases a tenant left
+ * frozen by a failed move on its current shard. Like every actuator endpoint it is only reachable over
+ * HTTP once added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "tenantshards")
+public class TenantShardsEndpoint {
+
+  private final ShardMap shardMap;
+  private final TenantMoveService tenantMoveService;
+
+  public TenantShardsEndpoint(ShardMap shardMap, TenantMoveService tenantMoveService) {
+    this.shardMap = shardMap;
+    this.tenantMoveService = tenantMoveService;
+  }
+
+  @ReadOperation
+  public Map<String, Object> shards() {
+    Map<String, Object> shards = new LinkedHashMap<>();
+    shards.put("enabled", shardMap.isEnabled());
+    shards.put("shards", shardMap.getShardNames());
+    shards.put("tenants", shardMap.isEnabled() ? shardMap.getAssignments() : Map.of());
+    return shards;
+  }
+
+  @WriteOperation
+  public TenantMoveReport move(String tenantId, String shard) {
+    return tenantMoveService.move(tenantId, shard);
+  }
+
+  @DeleteOperation
+  public Map<String, Object> release(String tenantId) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("tenantId", tenantId);
+    result.put("shard", shardMap.shardOf(tenantId));
+    result.put("released", shardMap.unfreeze(tenantId));
+    return result;
+  }
+}
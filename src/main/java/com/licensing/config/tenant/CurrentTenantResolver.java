@@ -13,7 +13,7 @@ import java.util.Map;
 @Component
 public class CurrentTenantResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
 
-  private static final String DEFAULT_TENANT = "default";
+  static final String DEFAULT_TENANT = "default";
 
   @Override
   public String resolveCurrentTenantIdentifier() {
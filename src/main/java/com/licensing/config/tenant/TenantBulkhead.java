@@ -0,0 +1,186 @@
+package com.licensing.config.tenant;
+
+import com.licensing.domain.Plan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the connections each tenant may hold at once so one tenant's bulk
+ * work cannot drain the shared pool. A tenant gets the limit of its plan and,
+ * once that is used up, may borrow from a small headroom shared by all
+ * tenants; when the headroom is gone too it waits for one of its own
+ * connections for at most the queue timeout.
+ *
+ * <p>Slots are counted per thread: a thread that already holds a slot of the
+ * tenant opens further connections, such as a {@code REQUIRES_NEW} audit or
+ * counter write inside a request, without taking another. Otherwise a few
+ * such requests at the limit would each hold one slot and wait for a second
+ * until they all time out.
+ *
+ * <p>Plans are pushed in by {@link TenantPlanRefresher} rather than looked up
+ * here, since looking them up would itself need a connection.
+ */
+@Component
+public class TenantBulkhead {
+
+  private static final Plan DEFAULT_PLAN = Plan.BASIC;
+
+  private final boolean enabled;
+  private final Map<Plan, Integer> limits;
+  private final int headroomSize;
+  private final Duration queueTimeout;
+  private final Semaphore headroom;
+  private final MeterRegistry meterRegistry;
+  private final Counter borrowedCounter;
+  private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+  private final ThreadLocal<Map<String, AtomicInteger>> held = ThreadLocal.withInitial(HashMap::new);
+  private volatile Map<String, Plan> plans = Map.of();
+
+  public TenantBulkhead(TenantBulkheadProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.isEnabled();
+    this.limits = Map.copyOf(properties.getLimits());
+    this.headroomSize = properties.getHeadroom();
+    this.queueTimeout = properties.getQueueTimeout();
+    this.headroom = new Semaphore(headroomSize);
+    this.meterRegistry = meterRegistry;
+    this.borrowedCounter = Counter.builder("license.tenant.connections.borrowed")
+        .description("Connections taken from the shared headroom by tenants at their limit")
+        .register(meterRegistry);
+    Gauge.builder("license.tenant.connections.headroom.in-use", headroom,
+        semaphore -> headroomSize - semaphore.availablePermits())
+        .description("Shared headroom connections currently borrowed")
+        .register(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Takes a connection slot for {@code tenantId}, borrowing or waiting as
+   * described above, unless the calling thread already holds one.
+   *
+   * @throws TenantConnectionLimitException if no slot became free in time
+   */
+  public Permit acquire(String tenantId) throws SQLException {
+    Map<String, AtomicInteger> threadHolds = held.get();
+    AtomicInteger holds = threadHolds.computeIfAbsent(tenantId, tenant -> new AtomicInteger());
+    if (holds.get() > 0) {
+      return new Permit(null, tenantId, threadHolds, holds);
+    }
+    Compartment compartment = compartmentOf(tenantId);
+    long start = System.nanoTime();
+    try {
+      if (compartment.slots.tryAcquire()) {
+        return new Permit(compartment.slots, tenantId, threadHolds, holds);
+      }
+      if (headroom.tryAcquire()) {
+        borrowedCounter.increment();
+        return new Permit(headroom, tenantId, threadHolds, holds);
+      }
+      if (compartment.slots.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        return new Permit(compartment.slots, tenantId, threadHolds, holds);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      compartment.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    threadHolds.remove(tenantId, holds);
+    compartment.rejected.increment();
+    throw new TenantConnectionLimitException(tenantId, compartment.limit, queueTimeout);
+  }
+
+  /**
+   * Replaces the known tenant plans. Tenants whose plan changed get a fresh
+   * compartment with the new limit; connections they already hold are
+   * returned to the old one.
+   */
+  public void updatePlans(Map<String, Plan> tenantPlans) {
+    plans = Map.copyOf(tenantPlans);
+    compartments.entrySet().removeIf(entry -> entry.getValue().plan != planOf(entry.getKey()));
+  }
+
+  Plan planOf(String tenantId) {
+    return plans.getOrDefault(tenantId, DEFAULT_PLAN);
+  }
+
+  private Compartment compartmentOf(String tenantId) {
+    Compartment compartment = compartments.get(tenantId);
+    if (compartment != null) {
+      return compartment;
+    }
+    return compartments.computeIfAbsent(tenantId, tenant -> new Compartment(tenant, planOf(tenant)));
+  }
+
+  private final class Compartment {
+
+    private final Plan plan;
+    private final int limit;
+    private final Semaphore slots;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    private Compartment(String tenantId, Plan plan) {
+      this.plan = plan;
+      this.limit = limits.getOrDefault(plan, limits.getOrDefault(DEFAULT_PLAN, 1));
+      this.slots = new Semaphore(limit);
+      this.waitTimer = Timer.builder("license.tenant.connections.wait")
+          .description("Time spent waiting for a connection slot in the tenant's bulkhead")
+          .tag("tenant", tenantId)
+          .tag("plan", plan.name())
+          .register(meterRegistry);
+      this.rejected = Counter.builder("license.tenant.connections.rejected")
+          .description("Connection requests that timed out in the tenant's bulkhead")
+          .tag("tenant", tenantId)
+          .tag("plan", plan.name())
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * A slot held for one connection, or a hold on the slot its thread already
+   * has; releasing it more than once has no effect.
+   */
+  public final class Permit {
+
+    private final Semaphore source;
+    private final String tenantId;
+    private final Map<String, AtomicInteger> threadHolds;
+    private final AtomicInteger holds;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(Semaphore source, String tenantId, Map<String, AtomicInteger> threadHolds, AtomicInteger holds) {
+      this.source = source;
+      this.tenantId = tenantId;
+      this.threadHolds = threadHolds;
+      this.holds = holds;
+      holds.incrementAndGet();
+    }
+
+    public void release() {
+      if (released.compareAndSet(false, true)) {
+        // The thread's map is only touched by its own thread.
+        if (holds.decrementAndGet() == 0 && held.get() == threadHolds) {
+          threadHolds.remove(tenantId, holds);
+        }
+        if (source != null) {
+          source.release();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.licensing.config.tenant;
+
+import com.licensing.domain.Plan;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limits on the database connections a single tenant may hold at once.
+ */
+@ConfigurationProperties(prefix = "license.tenancy.bulkhead")
+public class TenantBulkheadProperties {
+
+  private boolean enabled = false;
+  private Map<Plan, Integer> limits = new EnumMap<>(Map.of(
+      Plan.BASIC, 3,
+      Plan.PROFESSIONAL, 6,
+      Plan.ENTERPRISE, 10));
+  private int headroom = 4;
+  private Duration queueTimeout = Duration.ofSeconds(5);
+  private Duration planRefreshInterval = Duration.ofMinutes(1);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Connections a tenant of each plan may hold without borrowing; tenants
+   * without an active organization get the BASIC limit.
+   */
+  public Map<Plan, Integer> getLimits() {
+    return limits;
+  }
+
+  public void setLimits(Map<Plan, Integer> limits) {
+    this.limits = limits;
+  }
+
+  /**
+   * Connections shared by all tenants that may be borrowed, without waiting,
+   * by a tenant that has used up its own limit.
+   */
+  public int getHeadroom() {
+    return headroom;
+  }
+
+  public void setHeadroom(int headroom) {
+    this.headroom = headroom;
+  }
+
+  /**
+   * How long a tenant at its limit waits for one of its connections before
+   * the acquisition fails.
+   */
+  public Duration getQueueTimeout() {
+    return queueTimeout;
+  }
+
+  public void setQueueTimeout(Duration queueTimeout) {
+    this.queueTimeout = queueTimeout;
+  }
+
+  public Duration getPlanRefreshInterval() {
+    return planRefreshInterval;
+  }
+
+  public void setPlanRefreshInterval(Duration planRefreshInterval) {
+    this.planRefreshInterval = planRefreshInterval;
+  }
+}
@@ -0,0 +1,23 @@
+package com.licensing.config.tenant;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+/**
+ * Thrown when a tenant holds all the connections its bulkhead allows and
+ * none was released within the queue timeout.
+ */
+public class TenantConnectionLimitException extends SQLTransientConnectionException {
+
+  private final String tenantId;
+
+  public TenantConnectionLimitException(String tenantId, int limit, Duration timeout) {
+    super(String.format("Tenant %s is using all %d of its database connections; none became available within %d ms",
+        tenantId, limit, timeout.toMillis()), "08004");
+    this.tenantId = tenantId;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+}
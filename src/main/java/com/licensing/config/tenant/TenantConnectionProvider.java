@@ -1,38 +1,114 @@
 package com.licensing.config.tenant;
 
+import com.licensing.config.sharding.ShardMap;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.engine.jdbc.connections.spi.AbstractMultiTenantConnectionProvider;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.datasource.ConnectionProxy;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Multi-tenant connection provider that uses schema-based multi-tenancy.
- * Each tenant gets its own database schema.
+ * Each tenant gets its own database schema, searched before the shared one.
+ *
+ * <p>Connection providers are cached per tenant. When schema switching is
+ * enabled, every checkout, including the default tenant's, applies its
+ * {@code search_path} just before the connection runs its first statement,
+ * and only if the pooled connection's session was last left with another
+ * one. The path is tracked per physical connection and kept on release, so
+ * a tenant checking out the same connection again pays no round trip; the
+ * next checkout of another tenant or of the default switches it back. An
+ * applied path that is rolled back with its transaction is applied again,
+ * and a connection whose path is unknown after a failed switch is evicted
+ * from the pool. Code that borrows connections from the pool directly,
+ * such as retention, tenant moves and shard leases, only reads and writes
+ * shared tables, which resolve the same way as long as tenant schemas do not
+ * shadow them. Schema switching is off unless
+ * {@code license.tenancy.schema-switching.enabled} is set: tenant data lives
+ * in the shared tables, keyed by tenant ID, and the {@code tenant_<id>}
+ * schemas are provisioned by operators for tenant-specific objects; schemas
+ * that do not exist are skipped by PostgreSQL's search path. Applying the
+ * path lazily keeps
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * from fetching the target connection before the transaction's read-only
+ * flag is known.
+ *
+ * <p>Connections of tenants other than the default one also take a slot in
+ * the {@link TenantBulkhead}, held until the connection is released. With
+ * sharding enabled they come from the tenant's shard in the
+ * {@link ShardMap}, and each transaction enters the tenant's lease before its
+ * first statement so a move can fence it out; other connections come from
+ * the shard the current thread is scoped to.
  */
 @Component
 public class TenantConnectionProvider extends AbstractMultiTenantConnectionProvider<String>
     implements HibernatePropertiesCustomizer {
 
+  private static final Logger logger = LoggerFactory.getLogger(TenantConnectionProvider.class);
+
+  private static final String SET_SEARCH_PATH = "SELECT set_config('search_path', ?, false)";
+  private static final String UNKNOWN_SEARCH_PATH = "";
+
   private final DataSource dataSource;
+  private final TenantBulkhead tenantBulkhead;
+  private final ShardMap shardMap;
+  private final boolean schemaSwitchingEnabled;
+  private final String schemaPrefix;
+  private final String defaultSearchPath;
+  private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+  private final Map<Connection, String> searchPaths = Collections.synchronizedMap(new WeakHashMap<>());
+  private final ConnectionProvider anyProvider;
+  private final Counter applied;
+  private final Counter restored;
 
-  public TenantConnectionProvider(DataSource dataSource) {
+  public TenantConnectionProvider(DataSource dataSource, TenantBulkhead tenantBulkhead, ShardMap shardMap,
+      MeterRegistry meterRegistry,
+      @Value("${license.tenancy.schema-switching.enabled:false}") boolean schemaSwitchingEnabled,
+      @Value("${license.tenancy.schema-prefix:tenant_}") String schemaPrefix,
+      @Value("${license.tenancy.default-search-path:public}") String defaultSearchPath) {
     this.dataSource = dataSource;
+    this.tenantBulkhead = tenantBulkhead;
+    this.shardMap = shardMap;
+    this.schemaSwitchingEnabled = schemaSwitchingEnabled;
+    this.schemaPrefix = schemaPrefix;
+    this.defaultSearchPath = defaultSearchPath;
+    this.anyProvider = new DataSourceConnectionProvider(null, defaultSearchPath);
+    this.applied = switchCounter(meterRegistry, "apply");
+    this.restored = switchCounter(meterRegistry, "restore");
   }
 
   @Override
   protected ConnectionProvider getAnyConnectionProvider() {
-    return new DataSourceConnectionProvider(dataSource);
+    return anyProvider;
   }
 
   @Override
   protected ConnectionProvider selectConnectionProvider(String tenantIdentifier) {
-    return new DataSourceConnectionProvider(dataSource);
+    if (tenantIdentifier == null || CurrentTenantResolver.DEFAULT_TENANT.equals(tenantIdentifier)) {
+      return anyProvider;
+    }
+    return providers.computeIfAbsent(tenantIdentifier,
+        tenant -> new DataSourceConnectionProvider(tenant, searchPathOf(tenant)));
   }
 
   @Override
@@ -41,23 +117,136 @@ public class TenantConnectionProvider extends AbstractMultiTenantConnectionProvi
   }
 
   /**
-   * Simple ConnectionProvider implementation that wraps a DataSource.
+   * Tenant schema first, then the default search path for shared tables.
+   */
+  String searchPathOf(String tenantIdentifier) {
+    return "\"" + (schemaPrefix + tenantIdentifier).replace("\"", "\"\"") + "\", " + defaultSearchPath;
+  }
+
+  private String searchPathOf(Connection physical) {
+    return searchPaths.getOrDefault(physical, defaultSearchPath);
+  }
+
+  /**
+   * Sets the session's search path unless it is already in effect.
+   *
+   * @return whether a switch was issued
    */
-  private static class DataSourceConnectionProvider implements ConnectionProvider {
+  private boolean switchSearchPath(Connection connection, Connection physical, String searchPath)
+      throws SQLException {
+    if (searchPath.equals(searchPathOf(physical))) {
+      return false;
+    }
+    searchPaths.put(physical, UNKNOWN_SEARCH_PATH);
+    try (PreparedStatement statement = connection.prepareStatement(SET_SEARCH_PATH)) {
+      statement.setString(1, searchPath);
+      statement.execute();
+    }
+    searchPaths.put(physical, searchPath);
+    (searchPath.equals(defaultSearchPath) ? restored : applied).increment();
+    return true;
+  }
 
-    private final DataSource dataSource;
+  /**
+   * Unwraps Spring, pool and instrumentation proxies so the search path is
+   * tracked per database session rather than per checkout. Spring's lazy and
+   * transaction-aware proxies answer {@code unwrap(Connection.class)} with
+   * themselves, so their target is taken directly.
+   */
+  private static Connection physicalConnection(Connection connection) throws SQLException {
+    Connection current = connection;
+    while (current instanceof ConnectionProxy proxy) {
+      current = proxy.getTargetConnection();
+    }
+    while (current.isWrapperFor(Connection.class)) {
+      Connection next = current.unwrap(Connection.class);
+      if (next == null || next == current) {
+        break;
+      }
+      current = next;
+    }
+    return current;
+  }
 
-    public DataSourceConnectionProvider(DataSource dataSource) {
-      this.dataSource = dataSource;
+  /**
+   * Takes a connection whose session state is unknown out of the pool, so no
+   * later checkout inherits a tenant search path. Pools other than Hikari get
+   * the physical connection closed, which fails their next validation.
+   */
+  private void evict(DataSource source, Connection connection) {
+    try {
+      Connection pooled = connection instanceof ConnectionProxy proxy ? proxy.getTargetConnection() : connection;
+      searchPaths.remove(physicalConnection(pooled));
+      if (source.isWrapperFor(HikariDataSource.class)) {
+        source.unwrap(HikariDataSource.class).evictConnection(pooled);
+      } else {
+        physicalConnection(pooled).close();
+      }
+    } catch (SQLException | RuntimeException e) {
+      logger.error("Failed to evict a connection with an unknown search_path", e);
+    }
+  }
+
+  private static Counter switchCounter(MeterRegistry meterRegistry, String direction) {
+    return Counter.builder("license.tenant.schema.switches")
+        .description("search_path changes issued on pooled connections")
+        .tag("direction", direction)
+        .register(meterRegistry);
+  }
+
+  /**
+   * ConnectionProvider for one tenant, or for none, that wraps the shared
+   * DataSource.
+   */
+  private class DataSourceConnectionProvider implements ConnectionProvider {
+
+    private final String tenantIdentifier;
+    private final String searchPath;
+
+    DataSourceConnectionProvider(String tenantIdentifier, String searchPath) {
+      this.tenantIdentifier = tenantIdentifier;
+      this.searchPath = searchPath;
     }
 
     @Override
     public Connection getConnection() throws SQLException {
-      return dataSource.getConnection();
+      ShardMap.Lease lease = tenantIdentifier != null && shardMap.isEnabled()
+          ? shardMap.lease(tenantIdentifier)
+          : null;
+      TenantBulkhead.Permit permit = null;
+      DataSource source = dataSourceFor(lease);
+      Connection connection;
+      try {
+        if (tenantIdentifier != null && tenantBulkhead.isEnabled()) {
+          permit = tenantBulkhead.acquire(tenantIdentifier);
+        }
+        connection = source.getConnection();
+      } catch (SQLException | RuntimeException e) {
+        release(permit, lease);
+        throw e;
+      }
+      if (!schemaSwitchingEnabled && permit == null && lease == null) {
+        return connection;
+      }
+      return (Connection) Proxy.newProxyInstance(TenantConnectionProvider.class.getClassLoader(),
+          new Class<?>[] { Connection.class }, new TenantConnectionHandler(source, connection, searchPath, permit,
+              lease));
+    }
+
+    private DataSource dataSourceFor(ShardMap.Lease lease) {
+      if (lease != null) {
+        return lease.getDataSource();
+      }
+      return shardMap.isEnabled() ? shardMap.getUnscopedDataSource() : dataSource;
     }
 
     @Override
     public void closeConnection(Connection conn) throws SQLException {
+      if (Proxy.isProxyClass(conn.getClass())
+          && Proxy.getInvocationHandler(conn) instanceof TenantConnectionHandler handler) {
+        handler.release();
+        return;
+      }
       conn.close();
     }
 
@@ -76,4 +265,119 @@ public class TenantConnectionProvider extends AbstractMultiTenantConnectionProvi
       return null;
     }
   }
+
+  private static void release(TenantBulkhead.Permit permit, ShardMap.Lease lease) {
+    if (permit != null) {
+      permit.release();
+    }
+    if (lease != null) {
+      lease.release();
+    }
+  }
+
+  /**
+   * Applies the search path before the first statement of a checkout, and
+   * again after a rollback undid it, enters the shard lease before the first
+   * statement of each transaction and gives back the bulkhead slot and shard
+   * lease on release.
+   */
+  private class TenantConnectionHandler implements InvocationHandler {
+
+    private final DataSource source;
+    private final Connection target;
+    private final String searchPath;
+    private final TenantBulkhead.Permit permit;
+    private final ShardMap.Lease lease;
+    private boolean used;
+    private boolean entered;
+    private Connection physical;
+    // Path in effect before a switch that is not committed yet
+    private String uncommittedFrom;
+
+    TenantConnectionHandler(DataSource source, Connection target, String searchPath,
+        TenantBulkhead.Permit permit, ShardMap.Lease lease) {
+      this.source = source;
+      this.target = target;
+      this.searchPath = searchPath;
+      this.permit = permit;
+      this.lease = lease;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "createStatement", "prepareStatement", "prepareCall", "unwrap" -> {
+          // unwrap hands out the driver connection, e.g. for COPY, whose
+          // statements would otherwise bypass the lease and search path.
+          if (!entered && lease != null) {
+            lease.enter(target);
+            entered = true;
+          }
+          if (!used && schemaSwitchingEnabled) {
+            // Set first so a failed switch still evicts the connection on release.
+            used = true;
+            physical = physicalConnection(target);
+            String previous = searchPathOf(physical);
+            if (switchSearchPath(target, physical, searchPath) && !target.getAutoCommit()) {
+              uncommittedFrom = previous;
+            }
+          }
+        }
+        case "commit" -> {
+          entered = false;
+          uncommittedFrom = null;
+        }
+        case "rollback" -> {
+          entered = false;
+          if (uncommittedFrom != null && args == null) {
+            // The rollback undoes the switch; apply it again before the next statement.
+            searchPaths.put(physical, uncommittedFrom);
+            uncommittedFrom = null;
+            used = false;
+          }
+        }
+        case "setAutoCommit" -> {
+          if (Boolean.TRUE.equals(args[0])) {
+            uncommittedFrom = null;
+          }
+        }
+        case "equals" -> {
+          return proxy == args[0];
+        }
+        case "hashCode" -> {
+          return System.identityHashCode(proxy);
+        }
+        default -> {
+        }
+      }
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+    }
+
+    /**
+     * Returns the connection with its search path left in place for the next
+     * checkout. A switch still uncommitted leaves the path unknown, since the
+     * pool may roll it back on close, and a connection whose path is unknown
+     * is evicted.
+     */
+    void release() throws SQLException {
+      try {
+        if (used && physical != null) {
+          if (uncommittedFrom != null) {
+            searchPaths.put(physical, UNKNOWN_SEARCH_PATH);
+          }
+          if (UNKNOWN_SEARCH_PATH.equals(searchPathOf(physical))) {
+            logger.warn("Connection released with an unknown search_path, evicting it");
+            evict(source, target);
+          }
+        }
+        target.close();
+      } finally {
+        TenantConnectionProvider.release(permit, lease);
+      }
+    }
+  }
 }
@@ -0,0 +1,89 @@
+package com.licensing.config.tenant;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scheduled thread pool that runs every task in the {@link TenantContextSnapshot}
+ * of the thread that scheduled it, including the completion callbacks a
+ * scheduled timeout triggers.
+ */
+public class TenantContextScheduledExecutor extends ScheduledThreadPoolExecutor {
+
+  public TenantContextScheduledExecutor(int corePoolSize) {
+    super(corePoolSize);
+  }
+
+  @Override
+  protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
+    return new ContextTask<>(task, TenantContextSnapshot.capture());
+  }
+
+  @Override
+  protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
+    return new ContextTask<>(task, TenantContextSnapshot.capture());
+  }
+
+  private static final class ContextTask<V> implements RunnableScheduledFuture<V> {
+
+    private final RunnableScheduledFuture<V> task;
+    private final TenantContextSnapshot context;
+
+    private ContextTask(RunnableScheduledFuture<V> task, TenantContextSnapshot context) {
+      this.task = task;
+      this.context = context;
+    }
+
+    @Override
+    public void run() {
+      try (TenantContextSnapshot.Scope scope = context.open()) {
+        task.run();
+      }
+    }
+
+    @Override
+    public boolean isPeriodic() {
+      return task.isPeriodic();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return task.getDelay(unit);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return task.compareTo(other);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      return task.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return task.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+      return task.isDone();
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+      return task.get();
+    }
+
+    @Override
+    public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+      return task.get(timeout, unit);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.licensing.config.tenant;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The tenant and logging context (MDC, including the correlation ID) of one
+ * thread, captured so work handed to another thread runs as the same tenant
+ * and logs under the same request.
+ *
+ * <p>Capture on the submitting thread and wrap the task; the wrapper installs
+ * the snapshot for the duration of the task and then puts back whatever the
+ * worker thread had before, so pooled threads never leak a tenant. Parallel
+ * streams run on the common fork-join pool, which cannot be decorated, so
+ * their lambdas need {@link #wrapFunction(Function)} or similar:
+ *
+ * <pre>{@code
+ * TenantContextSnapshot context = TenantContextSnapshot.capture();
+ * ids.parallelStream().map(context.wrapFunction(this::load)).toList();
+ * }</pre>
+ */
+public final class TenantContextSnapshot {
+
+  private final String tenantId;
+  private final Map<String, String> mdc;
+
+  private TenantContextSnapshot(String tenantId, Map<String, String> mdc) {
+    this.tenantId = tenantId;
+    this.mdc = mdc;
+  }
+
+  /**
+   * Captures the context of the calling thread.
+   */
+  public static TenantContextSnapshot capture() {
+    return new TenantContextSnapshot(TenantContext.getCurrentTenant(), MDC.getCopyOfContextMap());
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  /**
+   * Installs this context on the calling thread until the returned scope is
+   * closed.
+   */
+  public Scope open() {
+    TenantContextSnapshot previous = capture();
+    apply(this);
+    return new Scope(previous);
+  }
+
+  public Runnable wrap(Runnable task) {
+    return () -> {
+      try (Scope scope = open()) {
+        task.run();
+      }
+    };
+  }
+
+  public <T> Callable<T> wrapCallable(Callable<T> task) {
+    return () -> {
+      try (Scope scope = open()) {
+        return task.call();
+      }
+    };
+  }
+
+  public <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+    return () -> {
+      try (Scope scope = open()) {
+        return task.get();
+      }
+    };
+  }
+
+  public <T, R> Function<T, R> wrapFunction(Function<T, R> function) {
+    return value -> {
+      try (Scope scope = open()) {
+        return function.apply(value);
+      }
+    };
+  }
+
+  private static void apply(TenantContextSnapshot snapshot) {
+    if (snapshot.tenantId != null) {
+      TenantContext.setCurrentTenant(snapshot.tenantId);
+    } else {
+      TenantContext.clear();
+    }
+    if (snapshot.mdc != null) {
+      MDC.setContextMap(snapshot.mdc);
+    } else {
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Restores the context a thread had before {@link #open()}.
+   */
+  public static final class Scope implements AutoCloseable {
+
+    private final TenantContextSnapshot previous;
+
+    private Scope(TenantContextSnapshot previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      apply(previous);
+    }
+  }
+}
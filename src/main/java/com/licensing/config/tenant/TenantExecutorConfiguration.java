@@ -0,0 +1,72 @@
+package com.licensing.config.tenant;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Carries the tenant and MDC of the submitting thread into asynchronous work.
+ *
+ * <p>The {@link TaskDecorator} bean is applied by Spring Boot to the
+ * application task executor behind {@code @Async}, and to the
+ * {@value #TENANT_TASK_EXECUTOR} executor that services use to fan work out.
+ * Reactor schedulers get the same treatment through a schedule hook.
+ */
+@Configuration
+public class TenantExecutorConfiguration {
+
+  public static final String TENANT_TASK_EXECUTOR = "tenantTaskExecutor";
+
+  static final String REACTOR_HOOK_KEY = "tenant-context";
+
+  private static final String THREAD_NAME_PREFIX = "tenant-fan-out-";
+
+  @Bean
+  public TaskDecorator tenantTaskDecorator() {
+    return task -> TenantContextSnapshot.capture().wrap(task);
+  }
+
+  /**
+   * Executor for running parts of one request in parallel. Uses virtual
+   * threads, capped at {@code max-threads} concurrent tasks, when
+   * {@code spring.threads.virtual.enabled} is set.
+   */
+  @Bean(name = TENANT_TASK_EXECUTOR)
+  public AsyncTaskExecutor tenantTaskExecutor(TaskDecorator tenantTaskDecorator,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${license.concurrency.fan-out.max-threads:16}") int maxThreads,
+      @Value("${license.concurrency.fan-out.queue-capacity:1000}") int queueCapacity) {
+    if (virtualThreads) {
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+      executor.setVirtualThreads(true);
+      executor.setConcurrencyLimit(maxThreads);
+      executor.setTaskDecorator(tenantTaskDecorator);
+      return executor;
+    }
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+    executor.setCorePoolSize(maxThreads);
+    executor.setMaxPoolSize(maxThreads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setAllowCoreThreadTimeOut(true);
+    executor.setTaskDecorator(tenantTaskDecorator);
+    return executor;
+  }
+
+  @PostConstruct
+  void propagateToReactor() {
+    Schedulers.onScheduleHook(REACTOR_HOOK_KEY, task -> TenantContextSnapshot.capture().wrap(task));
+  }
+
+  @PreDestroy
+  void stopPropagatingToReactor() {
+    Schedulers.resetOnScheduleHook(REACTOR_HOOK_KEY);
+  }
+}
@@ -0,0 +1,49 @@
+package com.licensing.config.tenant;
+
+import com.licensing.domain.Plan;
+import com.licensing.repository.OrganizationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Periodically loads each tenant's plan into the {@link TenantBulkhead}. A
+ * tenant with several active organizations gets the highest of their plans.
+ */
+@Component
+public class TenantPlanRefresher {
+
+  private static final Logger logger = LoggerFactory.getLogger(TenantPlanRefresher.class);
+
+  private final TenantBulkhead tenantBulkhead;
+  private final OrganizationRepository organizationRepository;
+
+  public TenantPlanRefresher(TenantBulkhead tenantBulkhead, OrganizationRepository organizationRepository) {
+    this.tenantBulkhead = tenantBulkhead;
+    this.organizationRepository = organizationRepository;
+  }
+
+  @Scheduled(fixedDelayString = "${license.tenancy.bulkhead.plan-refresh-interval:PT1M}")
+  public void scheduledRefresh() {
+    if (!tenantBulkhead.isEnabled()) {
+      return;
+    }
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      logger.error("Refreshing tenant plans for connection bulkheads failed", e);
+    }
+  }
+
+  public void refresh() {
+    Map<String, Plan> plans = new HashMap<>();
+    for (Object[] row : organizationRepository.findActivePlansPerTenant()) {
+      plans.merge((String) row[0], (Plan) row[1], (a, b) -> a.compareTo(b) >= 0 ? a : b);
+    }
+    tenantBulkhead.updatePlans(plans);
+  }
+}
@@ -0,0 +1,32 @@
+package com.licensing.controller;
+
+import com.licensing.service.audit.ActivityBucket;
+import com.licensing.service.audit.ActivityGranularity;
+import com.licensing.service.audit.AuditRollupService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/audit/activity")
+public class AuditActivityController {
+
+  private final AuditRollupService auditRollupService;
+
+  public AuditActivityController(AuditRollupService auditRollupService) {
+    this.auditRollupService = auditRollupService;
+  }
+
+  @GetMapping
+  public ResponseEntity<List<ActivityBucket>> getActivity(
+      @RequestParam Instant from,
+      @RequestParam Instant to,
+      @RequestParam(required = false) String entityType,
+      @RequestParam(required = false) String action,
+      @RequestParam(defaultValue = "hour") String granularity) {
+    return ResponseEntity.ok(auditRollupService.activity(from, to, entityType, action,
+        ActivityGranularity.fromParameter(granularity)));
+  }
+}
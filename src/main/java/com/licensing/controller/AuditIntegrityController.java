@@ -0,0 +1,33 @@
+package com.licensing.controller;
+
+import com.licensing.service.audit.integrity.AuditIntegrityService;
+import com.licensing.service.audit.integrity.InclusionProof;
+import com.licensing.service.audit.integrity.VerificationReport;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/audit")
+public class AuditIntegrityController {
+
+  private final AuditIntegrityService auditIntegrityService;
+
+  public AuditIntegrityController(AuditIntegrityService auditIntegrityService) {
+    this.auditIntegrityService = auditIntegrityService;
+  }
+
+  @GetMapping("/{id}/proof")
+  public ResponseEntity<InclusionProof> getInclusionProof(@PathVariable UUID id) {
+    return auditIntegrityService.prove(id)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  @GetMapping("/verify")
+  public ResponseEntity<VerificationReport> verify(@RequestParam Instant from, @RequestParam Instant to) {
+    return ResponseEntity.ok(auditIntegrityService.verify(from, to));
+  }
+}
@@ -0,0 +1,43 @@
+package com.licensing.controller;
+
+import com.licensing.repository.AuditLogFilter;
+import com.licensing.repository.projection.AuditLogSummary;
+import com.licensing.service.AuditLogService;
+import com.licensing.service.pagination.CursorPage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/audit")
+public class AuditLogController {
+
+  private final AuditLogService auditLogService;
+
+  public AuditLogController(AuditLogService auditLogService) {
+    this.auditLogService = auditLogService;
+  }
+
+  @GetMapping
+  public ResponseEntity<CursorPage<AuditLogSummary>> getAuditLogs(
+      @RequestParam(required = false) String entityType,
+      @RequestParam(required = false) UUID entityId,
+      @RequestParam(required = false) String action,
+      @RequestParam(required = false) String userId,
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+
+    AuditLogFilter filter = new AuditLogFilter();
+    filter.setEntityType(entityType);
+    filter.setEntityId(entityId);
+    filter.setAction(action);
+    filter.setUserId(userId);
+    filter.setFrom(from);
+    filter.setTo(to);
+    return ResponseEntity.ok(auditLogService.search(filter, cursor, limit));
+  }
+}
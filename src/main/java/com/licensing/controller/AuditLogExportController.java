@@ -0,0 +1,51 @@
+package com.licensing.controller;
+
+import com.licensing.repository.AuditLogFilter;
+import com.licensing.service.exporting.AuditLogExportService;
+import com.licensing.service.exporting.ExportFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/audit/export")
+public class AuditLogExportController {
+
+  private final AuditLogExportService auditLogExportService;
+
+  public AuditLogExportController(AuditLogExportService auditLogExportService) {
+    this.auditLogExportService = auditLogExportService;
+  }
+
+  @GetMapping
+  public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+      @RequestParam Instant from,
+      @RequestParam Instant to,
+      @RequestParam(required = false) String entityType,
+      @RequestParam(required = false) String action,
+      @RequestParam(required = false) String userId,
+      @RequestParam(required = false) UUID afterId,
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+    AuditLogFilter filter = new AuditLogFilter();
+    filter.setFrom(from);
+    filter.setTo(to);
+    filter.setEntityType(entityType);
+    filter.setAction(action);
+    filter.setUserId(userId);
+
+    ExportFormat exportFormat = ExportFormat.fromParameter(format);
+    return ExportResponses.stream(MediaType.parseMediaType(exportFormat.getContentType()),
+        "audit-logs." + exportFormat.getExtension(), acceptEncoding,
+        output -> auditLogExportService.export(filter, afterId, exportFormat, output));
+  }
+}
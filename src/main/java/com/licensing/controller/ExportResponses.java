@@ -0,0 +1,110 @@
+package com.licensing.controller;
+
+import com.licensing.config.tenant.TenantContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds streamed export downloads: the body is written on the async request
+ * thread with the caller's tenant, buffered, and gzip-compressed when the
+ * client's {@code Accept-Encoding} accepts it.
+ */
+final class ExportResponses {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private ExportResponses() {
+  }
+
+  /**
+   * Writes an export to the response body.
+   */
+  @FunctionalInterface
+  interface ExportWriter {
+    void write(OutputStream output) throws IOException;
+  }
+
+  static ResponseEntity<StreamingResponseBody> stream(MediaType contentType, String filename, String acceptEncoding,
+      ExportWriter writer) {
+    boolean gzip = acceptsGzip(acceptEncoding);
+    String tenantId = TenantContext.getCurrentTenant();
+
+    StreamingResponseBody body = output -> {
+      if (tenantId != null) {
+        TenantContext.setCurrentTenant(tenantId);
+      }
+      try {
+        OutputStream target = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+        OutputStream buffered = new BufferedOutputStream(target, BUFFER_SIZE);
+        writer.write(buffered);
+        buffered.flush();
+        if (target instanceof GZIPOutputStream gzipOutput) {
+          gzipOutput.finish();
+        }
+      } finally {
+        TenantContext.clear();
+      }
+    };
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(contentType)
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+
+  /**
+   * Whether an {@code Accept-Encoding} header accepts gzip (RFC 9110 12.5.3):
+   * {@code gzip} or {@code x-gzip} listed with a non-zero q-value, or, when
+   * neither is listed, a {@code *} with a non-zero q-value. Unparseable
+   * q-values count as zero.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Double gzipQuality = null;
+    Double anyQuality = null;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parts = element.split(";");
+      String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = quality(parts);
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+      } else if (coding.equals("*")) {
+        anyQuality = quality;
+      }
+    }
+    if (gzipQuality != null) {
+      return gzipQuality > 0;
+    }
+    return anyQuality != null && anyQuality > 0;
+  }
+
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.length() > 2 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+          && parameter.charAt(1) == '=') {
+        try {
+          double quality = Double.parseDouble(parameter.substring(2).trim());
+          return quality >= 0 && quality <= 1 ? quality : 0;
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,83 @@
+package com.licensing.controller;
+
+import com.licensing.repository.LicenseFilter;
+import com.licensing.service.bulk.BulkCreateResult;
+import com.licensing.service.bulk.BulkTransition;
+import com.licensing.service.bulk.BulkTransitionResult;
+import com.licensing.service.bulk.LicenseBulkService;
+import com.licensing.service.bulk.LicenseDraft;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/licenses/bulk")
+public class LicenseBulkController {
+
+  private final LicenseBulkService licenseBulkService;
+
+  public LicenseBulkController(LicenseBulkService licenseBulkService) {
+    this.licenseBulkService = licenseBulkService;
+  }
+
+  @PostMapping
+  public ResponseEntity<BulkCreateResult> createLicenses(
+      @Valid @RequestBody BulkCreateLicensesRequest request,
+      @RequestHeader("X-User-ID") String userId) {
+
+    List<LicenseDraft> drafts = request.getLicenses().stream()
+        .map(license -> new LicenseDraft(
+            license.getOrganizationId(),
+            license.getProductName(),
+            license.getCustomerEmail(),
+            license.getExpiresAt(),
+            license.getFeatures() != null ? license.getFeatures() : Map.of()))
+        .toList();
+
+    BulkCreateResult result = licenseBulkService.createLicenses(drafts, userId);
+    return ResponseEntity.status(HttpStatus.CREATED).body(result);
+  }
+
+  @PatchMapping("/suspend")
+  public ResponseEntity<BulkTransitionResult> suspendLicenses(
+      @RequestBody LicenseFilter filter,
+      @RequestHeader("X-User-ID") String userId) {
+
+    return ResponseEntity.ok(licenseBulkService.apply(BulkTransition.SUSPEND, filter, userId));
+  }
+
+  @PatchMapping("/reactivate")
+  public ResponseEntity<BulkTransitionResult> reactivateLicenses(
+      @RequestBody LicenseFilter filter,
+      @RequestHeader("X-User-ID") String userId) {
+
+    return ResponseEntity.ok(licenseBulkService.apply(BulkTransition.REACTIVATE, filter, userId));
+  }
+
+  @PatchMapping("/revoke")
+  public ResponseEntity<BulkTransitionResult> revokeLicenses(
+      @RequestBody LicenseFilter filter,
+      @RequestHeader("X-User-ID") String userId) {
+
+    return ResponseEntity.ok(licenseBulkService.apply(BulkTransition.REVOKE, filter, userId));
+  }
+
+  public static class BulkCreateLicensesRequest {
+    @NotEmpty(message = "Licenses are required")
+    @Valid
+    private List<LicenseController.CreateLicenseRequest> licenses;
+
+    public List<LicenseController.CreateLicenseRequest> getLicenses() {
+      return licenses;
+    }
+
+    public void setLicenses(List<LicenseController.CreateLicenseRequest> licenses) {
+      this.licenses = licenses;
+    }
+  }
+}
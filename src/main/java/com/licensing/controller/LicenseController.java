@@ -2,6 +2,9 @@ package com.licensing.controller;
 
 import com.licensing.service.LicenseManagementService;
 import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.repository.projection.LicenseSummary;
+import com.licensing.service.pagination.CursorPage;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
@@ -12,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.Optional;
@@ -50,10 +52,44 @@ public class LicenseController {
         .orElse(ResponseEntity.notFound().build());
   }
 
+  @GetMapping
+  public ResponseEntity<CursorPage<?>> getLicenses(
+      @RequestParam(required = false) LicenseStatus status,
+      @RequestParam(required = false) String customerEmail,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+      @RequestParam(name = "view", defaultValue = ListView.SUMMARY) String view) {
+
+    if ((status == null) == (customerEmail == null)) {
+      throw new IllegalArgumentException("Exactly one of status or customerEmail is required");
+    }
+
+    Class<?> type = viewType(view);
+    if (status != null) {
+      return ResponseEntity.ok(licenseManagementService.findByStatus(status, cursor, limit, type));
+    }
+    return ResponseEntity.ok(licenseManagementService.findByCustomerEmail(customerEmail, cursor, limit, type));
+  }
+
   @GetMapping("/organization/{organizationId}")
-  public ResponseEntity<List<License>> getLicensesByOrganization(@PathVariable UUID organizationId) {
-    List<License> licenses = licenseManagementService.findByOrganizationId(organizationId);
-    return ResponseEntity.ok(licenses);
+  public ResponseEntity<CursorPage<?>> getLicensesByOrganization(
+      @PathVariable UUID organizationId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+      @RequestParam(name = "view", defaultValue = ListView.SUMMARY) String view) {
+
+    return ResponseEntity.ok(
+        licenseManagementService.findByOrganizationId(organizationId, cursor, limit, viewType(view)));
+  }
+
+  @GetMapping("/expiring")
+  public ResponseEntity<CursorPage<?>> getExpiringLicenses(
+      @RequestParam Instant before,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+      @RequestParam(name = "view", defaultValue = ListView.SUMMARY) String view) {
+
+    return ResponseEntity.ok(licenseManagementService.findExpiredLicenses(before, cursor, limit, viewType(view)));
   }
 
   @PatchMapping("/{id}/suspend")
@@ -117,6 +153,10 @@ public class LicenseController {
     return ResponseEntity.ok(new TokenResponse(token));
   }
 
+  private static Class<?> viewType(String view) {
+    return ListView.isFull(view) ? License.class : LicenseSummary.class;
+  }
+
   public static class CreateLicenseRequest {
     @NotNull(message = "Organization ID is required")
     private UUID organizationId;
@@ -0,0 +1,46 @@
+package com.licensing.controller;
+
+import com.licensing.domain.LicenseStatus;
+import com.licensing.repository.LicenseFilter;
+import com.licensing.service.exporting.LicenseExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/licenses/export")
+public class LicenseExportController {
+
+  static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+  private final LicenseExportService licenseExportService;
+
+  public LicenseExportController(LicenseExportService licenseExportService) {
+    this.licenseExportService = licenseExportService;
+  }
+
+  @GetMapping
+  public ResponseEntity<StreamingResponseBody> exportLicenses(
+      @RequestParam(required = false) UUID organizationId,
+      @RequestParam(required = false) String productName,
+      @RequestParam(required = false) LicenseStatus status,
+      @RequestParam(required = false) Instant expiresAfter,
+      @RequestParam(required = false) Instant expiresBefore,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+    LicenseFilter filter = new LicenseFilter();
+    filter.setOrganizationId(organizationId);
+    filter.setProductName(productName);
+    filter.setStatus(status);
+    filter.setExpiresAfter(expiresAfter);
+    filter.setExpiresBefore(expiresBefore);
+
+    return ExportResponses.stream(NDJSON, "licenses.ndjson", acceptEncoding,
+        output -> licenseExportService.exportNdjson(filter, output));
+  }
+}
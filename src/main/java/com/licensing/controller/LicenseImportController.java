@@ -0,0 +1,31 @@
+package com.licensing.controller;
+
+import com.licensing.service.importing.ImportFormat;
+import com.licensing.service.importing.ImportReport;
+import com.licensing.service.importing.LicenseImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/v1/licenses/import")
+public class LicenseImportController {
+
+  private final LicenseImportService licenseImportService;
+
+  public LicenseImportController(LicenseImportService licenseImportService) {
+    this.licenseImportService = licenseImportService;
+  }
+
+  @PostMapping(consumes = { "text/csv", "application/x-ndjson", "application/ndjson", "application/jsonl" })
+  public ResponseEntity<ImportReport> importLicenses(
+      InputStream body,
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      @RequestHeader("X-User-ID") String userId) {
+
+    ImportReport report = licenseImportService.importLicenses(body, ImportFormat.fromContentType(contentType), userId);
+    return ResponseEntity.ok(report);
+  }
+}
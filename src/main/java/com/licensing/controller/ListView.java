@@ -0,0 +1,19 @@
+package com.licensing.controller;
+
+/**
+ * Values accepted by the {@code view} query parameter of list endpoints.
+ * List endpoints return summary projections unless the full view is
+ * requested explicitly.
+ */
+final class ListView {
+
+  static final String SUMMARY = "summary";
+  static final String FULL = "full";
+
+  private ListView() {
+  }
+
+  static boolean isFull(String view) {
+    return FULL.equalsIgnoreCase(view);
+  }
+}
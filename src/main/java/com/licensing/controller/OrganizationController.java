@@ -4,6 +4,7 @@ import com.licensing.service.OrganizationService;
 import com.licensing.domain.Organization;
 import com.licensing.domain.Plan;
 import com.licensing.exception.ErrorResponse;
+import com.licensing.repository.projection.OrganizationSummary;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -75,9 +76,17 @@ public class OrganizationController {
   }
 
   @GetMapping
-  public ResponseEntity<Page<Organization>> getAllOrganizations(Pageable pageable) {
-    Page<Organization> organizations = organizationService.findAll(pageable);
-    return ResponseEntity.ok(organizations);
+  public ResponseEntity<Page<?>> getAllOrganizations(
+      Pageable pageable,
+      @Parameter(description = "Use 'full' to return complete organization rows") @RequestParam(name = "view", defaultValue = ListView.SUMMARY) String view) {
+
+    if (ListView.isFull(view)) {
+      Page<Organization> organizations = organizationService.findAll(pageable);
+      return ResponseEntity.ok(organizations);
+    }
+
+    Page<OrganizationSummary> summaries = organizationService.findAllSummaries(pageable);
+    return ResponseEntity.ok(summaries);
   }
 
   @PutMapping("/{id}")
@@ -0,0 +1,205 @@
+package com.licensing.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A signed commitment to a run of consecutive audit entries of one tenant.
+ * The run starts after the end of the previous checkpoint and ends at the
+ * entry {@code (endTimestamp, endId)}, in {@code (timestamp, id)} order. The
+ * checkpoint hash covers the run's bounds, size and Merkle root together
+ * with the previous checkpoint's hash, so checkpoints form a hash chain per
+ * tenant.
+ */
+@Entity
+@Table(name = "audit_checkpoints")
+public class AuditCheckpoint {
+
+  /**
+   * Previous hash of the first checkpoint of a tenant.
+   */
+  public static final String GENESIS_HASH = "0".repeat(64);
+
+  @Id
+  private UUID id;
+
+  @Column(name = "tenant_id", nullable = false)
+  private String tenantId;
+
+  @Column(nullable = false)
+  private long sequence;
+
+  @Column(name = "start_timestamp")
+  private Instant startTimestamp;
+
+  @Column(name = "start_id")
+  private UUID startId;
+
+  @Column(name = "end_timestamp", nullable = false)
+  private Instant endTimestamp;
+
+  @Column(name = "end_id", nullable = false)
+  private UUID endId;
+
+  @Column(name = "entry_count", nullable = false)
+  private int entryCount;
+
+  @Column(name = "merkle_root", nullable = false, length = 64)
+  private String merkleRoot;
+
+  @Column(name = "previous_hash", nullable = false, length = 64)
+  private String previousHash;
+
+  @Column(name = "checkpoint_hash", nullable = false, length = 64)
+  private String checkpointHash;
+
+  @Column(name = "key_id")
+  private String keyId;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String signature;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  protected AuditCheckpoint() {
+  }
+
+  /**
+   * Creates the checkpoint following {@code previous}, or the first
+   * checkpoint of the tenant when {@code previous} is null.
+   */
+  public AuditCheckpoint(String tenantId, AuditCheckpoint previous, Instant endTimestamp, UUID endId,
+      int entryCount, String merkleRoot) {
+    if (entryCount <= 0) {
+      throw new IllegalArgumentException("A checkpoint must cover at least one entry");
+    }
+    this.id = UUID.randomUUID();
+    this.tenantId = tenantId;
+    this.sequence = previous != null ? previous.sequence + 1 : 1;
+    this.startTimestamp = previous != null ? previous.endTimestamp : null;
+    this.startId = previous != null ? previous.endId : null;
+    this.endTimestamp = endTimestamp.truncatedTo(ChronoUnit.MICROS);
+    this.endId = endId;
+    this.entryCount = entryCount;
+    this.merkleRoot = merkleRoot;
+    this.previousHash = previous != null ? previous.checkpointHash : GENESIS_HASH;
+    this.checkpointHash = computeHash();
+    this.createdAt = Instant.now();
+  }
+
+  public void sign(String keyId, String signature) {
+    this.keyId = keyId;
+    this.signature = signature;
+  }
+
+  /**
+   * Hashes the current field values of this checkpoint with SHA-256.
+   *
+   * @return lowercase hex digest
+   */
+  public String computeHash() {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String field : new String[] { tenantId, Long.toString(sequence),
+          startTimestamp != null ? startTimestamp.truncatedTo(ChronoUnit.MICROS).toString() : null,
+          startId != null ? startId.toString() : null,
+          endTimestamp.truncatedTo(ChronoUnit.MICROS).toString(), endId.toString(),
+          Integer.toString(entryCount), merkleRoot, previousHash }) {
+        if (field == null) {
+          digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+          continue;
+        }
+        byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public Instant getStartTimestamp() {
+    return startTimestamp;
+  }
+
+  public UUID getStartId() {
+    return startId;
+  }
+
+  public Instant getEndTimestamp() {
+    return endTimestamp;
+  }
+
+  public UUID getEndId() {
+    return endId;
+  }
+
+  public int getEntryCount() {
+    return entryCount;
+  }
+
+  public String getMerkleRoot() {
+    return merkleRoot;
+  }
+
+  public String getPreviousHash() {
+    return previousHash;
+  }
+
+  public String getCheckpointHash() {
+    return checkpointHash;
+  }
+
+  public String getKeyId() {
+    return keyId;
+  }
+
+  public String getSignature() {
+    return signature;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o)
+      return true;
+    if (o == null || getClass() != o.getClass())
+      return false;
+    AuditCheckpoint that = (AuditCheckpoint) o;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+}
@@ -0,0 +1,129 @@
+package com.licensing.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One node of the Merkle tree of an audit checkpoint, stored when the
+ * checkpoint is sealed so inclusion proofs can be read without rehashing the
+ * checkpoint's run. Leaves are at level 0 and carry the ID of their entry.
+ */
+@Entity
+@Table(name = "audit_checkpoint_nodes")
+public class AuditCheckpointNode {
+
+  @EmbeddedId
+  private Key id;
+
+  @Column(name = "tenant_id", nullable = false)
+  private String tenantId;
+
+  @Column(nullable = false, length = 64)
+  private String hash;
+
+  @Column(name = "entry_id")
+  private UUID entryId;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  protected AuditCheckpointNode() {
+  }
+
+  public AuditCheckpointNode(AuditCheckpoint checkpoint, int level, int index, String hash, UUID entryId) {
+    this.id = new Key(checkpoint.getId(), level, index);
+    this.tenantId = checkpoint.getTenantId();
+    this.hash = hash;
+    this.entryId = entryId;
+    this.createdAt = checkpoint.getCreatedAt();
+  }
+
+  public Key getId() {
+    return id;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public String getHash() {
+    return hash;
+  }
+
+  public UUID getEntryId() {
+    return entryId;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  /**
+   * Composite key of checkpoint, tree level and position within the level.
+   */
+  @Embeddable
+  public static class Key implements Serializable {
+
+    @Column(name = "checkpoint_id", nullable = false)
+    private UUID checkpointId;
+
+    @Column(name = "tree_level", nullable = false)
+    private int level;
+
+    @Column(name = "node_index", nullable = false)
+    private int index;
+
+    protected Key() {
+    }
+
+    public Key(UUID checkpointId, int level, int index) {
+      if (checkpointId == null) {
+        throw new IllegalArgumentException("Checkpoint ID is required");
+      }
+      this.checkpointId = checkpointId;
+      this.level = level;
+      this.index = index;
+    }
+
+    public UUID getCheckpointId() {
+      return checkpointId;
+    }
+
+    public int getLevel() {
+      return level;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key key)) {
+        return false;
+      }
+      return checkpointId.equals(key.checkpointId) && level == key.level && index == key.index;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(checkpointId, level, index);
+    }
+
+    @Override
+    public String toString() {
+      return checkpointId + ":" + level + ":" + index;
+    }
+  }
+}
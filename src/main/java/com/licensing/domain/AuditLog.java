@@ -1,23 +1,35 @@
 package com.licensing.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.persistence.*;
 import org.hibernate.annotations.Filter;
+import org.springframework.data.domain.Persistable;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents an audit log entry for tracking changes to entities.
+ * Entries are append-only with an application-assigned ID, so they report
+ * themselves as new until persisted; saving one never issues a lookup SELECT.
  */
 @Entity
 @Table(name = "audit_logs")
 @Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
-public class AuditLog {
+public class AuditLog implements Persistable<UUID> {
 
   @Id
   private UUID id;
@@ -44,7 +56,17 @@ public class AuditLog {
   @Column(nullable = false)
   private Instant timestamp;
 
+  @Column(name = "content_hash", length = 64)
+  private String contentHash;
+
+  @Transient
+  private boolean isNew = true;
+
   private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final ObjectMapper canonicalMapper = new ObjectMapper()
+      .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+  private static final TypeReference<Map<String, Object>> DETAILS_TYPE = new TypeReference<>() {
+  };
 
   protected AuditLog() {
   }
@@ -63,6 +85,36 @@ public class AuditLog {
     this.timestamp = Instant.now();
   }
 
+  /**
+   * Rebuilds a not yet persisted entry recorded earlier, keeping its ID,
+   * timestamp and details text as they were.
+   */
+  public static AuditLog restore(UUID id, String entityType, UUID entityId, String action, String userId,
+      String tenantId, String detailsJson, Instant timestamp) {
+    AuditLog auditLog = new AuditLog();
+    auditLog.validateInput(entityType, entityId, action, userId, tenantId);
+    auditLog.id = id;
+    auditLog.entityType = entityType;
+    auditLog.entityId = entityId;
+    auditLog.action = action;
+    auditLog.userId = userId;
+    auditLog.tenantId = tenantId;
+    auditLog.details = detailsJson;
+    auditLog.timestamp = timestamp;
+    return auditLog;
+  }
+
+  /**
+   * Replaces low-cardinality string values with canonical instances.
+   * Values are only swapped for equal ones, so the entity is not made dirty.
+   */
+  public void deduplicateStrings(UnaryOperator<String> canonicalizer) {
+    this.entityType = canonicalizer.apply(entityType);
+    this.action = canonicalizer.apply(action);
+    this.userId = canonicalizer.apply(userId);
+    this.tenantId = canonicalizer.apply(tenantId);
+  }
+
   private void setDetails(Map<String, Object> details) {
     if (details == null) {
       this.details = null;
@@ -94,10 +146,70 @@ public class AuditLog {
     }
   }
 
+  @Override
   public UUID getId() {
     return id;
   }
 
+  @Override
+  @JsonIgnore
+  public boolean isNew() {
+    return isNew;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  @PrePersist
+  void hashContent() {
+    if (contentHash == null) {
+      contentHash = computeContentHash();
+    }
+  }
+
+  /**
+   * Returns the content hash stored with this entry, or null for entries
+   * written before content hashing was introduced.
+   */
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  /**
+   * Hashes the current field values of this entry with SHA-256.
+   * Fields are length-prefixed, the timestamp is taken at the database's
+   * microsecond precision and the details are re-serialized with sorted keys,
+   * so the hash survives a round trip through the database unchanged.
+   *
+   * @return lowercase hex digest
+   */
+  public String computeContentHash() {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      String canonicalDetails = details != null
+          ? canonicalMapper.writeValueAsString(objectMapper.readValue(details, DETAILS_TYPE))
+          : null;
+      for (String field : new String[] { id.toString(), tenantId, entityType, entityId.toString(), action, userId,
+          timestamp.truncatedTo(ChronoUnit.MICROS).toString(), canonicalDetails }) {
+        if (field == null) {
+          digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+          continue;
+        }
+        byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to canonicalize details of audit entry " + id, e);
+    }
+  }
+
   public String getEntityType() {
     return entityType;
   }
@@ -118,6 +230,14 @@ public class AuditLog {
     return tenantId;
   }
 
+  /**
+   * Returns the stored details as JSON text, or null if there are none.
+   */
+  @JsonIgnore
+  public String getDetailsJson() {
+    return details;
+  }
+
   public Map<String, Object> getDetails() {
     if (details == null) {
       return null;
@@ -0,0 +1,115 @@
+package com.licensing.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Number of audit events of one entity type and action recorded for a tenant
+ * within an hour. Rows are maintained with atomic increments as entries are
+ * written.
+ */
+@Entity
+@Table(name = "audit_rollups")
+public class AuditRollup {
+
+  @EmbeddedId
+  private Key id;
+
+  @Column(name = "event_count", nullable = false)
+  private long eventCount;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  protected AuditRollup() {
+  }
+
+  public Key getId() {
+    return id;
+  }
+
+  public long getEventCount() {
+    return eventCount;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  /**
+   * Composite key of tenant, hour, entity type and action.
+   */
+  @Embeddable
+  public static class Key implements Serializable {
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "entity_type", nullable = false)
+    private String entityType;
+
+    @Column(nullable = false)
+    private String action;
+
+    protected Key() {
+    }
+
+    public Key(String tenantId, Instant bucketStart, String entityType, String action) {
+      if (tenantId == null || bucketStart == null || entityType == null || action == null) {
+        throw new IllegalArgumentException("Tenant ID, bucket, entity type and action are required");
+      }
+      this.tenantId = tenantId;
+      this.bucketStart = bucketStart;
+      this.entityType = entityType;
+      this.action = action;
+    }
+
+    public String getTenantId() {
+      return tenantId;
+    }
+
+    public Instant getBucketStart() {
+      return bucketStart;
+    }
+
+    public String getEntityType() {
+      return entityType;
+    }
+
+    public String getAction() {
+      return action;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key key)) {
+        return false;
+      }
+      return tenantId.equals(key.tenantId) && bucketStart.equals(key.bucketStart)
+          && entityType.equals(key.entityType) && action.equals(key.action);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tenantId, bucketStart, entityType, action);
+    }
+
+    @Override
+    public String toString() {
+      return tenantId + ":" + bucketStart + ":" + entityType + ":" + action;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.licensing.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * How far back the audit rollups of a database have been recounted from
+ * {@code audit_logs}. There is a single row per database.
+ */
+@Entity
+@Table(name = "audit_rollup_backfill")
+public class AuditRollupBackfill {
+
+  public static final int ID = 1;
+
+  @Id
+  private int id;
+
+  @Column(name = "counted_from", nullable = false)
+  private Instant countedFrom;
+
+  @Column(nullable = false)
+  private boolean completed;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  protected AuditRollupBackfill() {
+  }
+
+  public AuditRollupBackfill(Instant countedFrom) {
+    this.id = ID;
+    this.countedFrom = countedFrom;
+    this.updatedAt = Instant.now();
+  }
+
+  public Instant getCountedFrom() {
+    return countedFrom;
+  }
+
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  /**
+   * Records that every hour from {@code countedFrom} onwards has been
+   * recounted, and whether the oldest entry has been reached.
+   */
+  public void advance(Instant countedFrom, boolean completed) {
+    this.countedFrom = countedFrom;
+    this.completed = completed;
+    this.updatedAt = Instant.now();
+  }
+}
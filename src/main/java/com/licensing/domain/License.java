@@ -1,5 +1,8 @@
 package com.licensing.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
 /**
@@ -24,6 +28,8 @@ public class License {
   private static final Pattern EMAIL_PATTERN = Pattern.compile(
       "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
 
+  private static final String EMPTY_FEATURES_JSON = "{}";
+
   @Id
   private UUID id;
 
@@ -53,7 +59,7 @@ public class License {
   @Transient
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
-  @Column(name = "signature")
+  @Column(name = "signature", columnDefinition = "TEXT")
   private String signature;
 
   @Column(name = "created_at", nullable = false)
@@ -136,6 +142,15 @@ public class License {
     this.updatedAt = Instant.now();
   }
 
+  /**
+   * Replaces low-cardinality string values with canonical instances.
+   * Values are only swapped for equal ones, so the entity is not made dirty.
+   */
+  public void deduplicateStrings(UnaryOperator<String> canonicalizer) {
+    this.tenantId = canonicalizer.apply(tenantId);
+    this.productName = canonicalizer.apply(productName);
+  }
+
   public boolean isActive() {
     return status == LicenseStatus.ACTIVE && !isExpired();
   }
@@ -169,6 +184,7 @@ public class License {
     }
   }
 
+  @JsonIgnore
   public Map<String, Object> getFeatures() {
     if (featuresJson == null || featuresJson.trim().isEmpty()) {
       return new HashMap<>();
@@ -181,6 +197,20 @@ public class License {
     }
   }
 
+  /**
+   * Returns the stored feature map as JSON text.
+   * HTTP responses write this value verbatim under {@code features}, so the
+   * stored document is never parsed into a map just to be serialized again.
+   */
+  @JsonProperty("features")
+  @JsonRawValue
+  public String getFeaturesJson() {
+    if (featuresJson == null || featuresJson.trim().isEmpty()) {
+      return EMPTY_FEATURES_JSON;
+    }
+    return featuresJson;
+  }
+
   public void setFeatures(Map<String, Object> features) {
     if (features == null) {
       this.featuresJson = null;
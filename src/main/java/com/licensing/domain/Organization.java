@@ -1,19 +1,25 @@
 package com.licensing.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Filter;
 
 import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
 /**
  * Represents an organization within a tenant.
  * Organizations are the main entities that purchase and manage licenses.
+ * Cached in the second-level cache since they are read on every license
+ * issuance but rarely change.
  */
 @Entity
 @Table(name = "organizations")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "organizations")
 @Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
 public class Organization {
 
@@ -96,6 +102,14 @@ public class Organization {
     this.updatedAt = Instant.now();
   }
 
+  /**
+   * Replaces low-cardinality string values with canonical instances.
+   * Values are only swapped for equal ones, so the entity is not made dirty.
+   */
+  public void deduplicateStrings(UnaryOperator<String> canonicalizer) {
+    this.tenantId = canonicalizer.apply(tenantId);
+  }
+
   private void validateInput(String name, String contactEmail, String tenantId, Plan plan) {
     if (name == null || name.trim().isEmpty()) {
       throw new IllegalArgumentException("Organization name cannot be null or empty");
@@ -0,0 +1,98 @@
+package com.licensing.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A precomputed count for a tenant, such as the number of active licenses.
+ * Rows are maintained with atomic increments and periodically reconciled
+ * against the source tables.
+ */
+@Entity
+@Table(name = "tenant_counters")
+public class TenantCounter {
+
+  @EmbeddedId
+  private Key id;
+
+  @Column(nullable = false)
+  private long value;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  protected TenantCounter() {
+  }
+
+  public Key getId() {
+    return id;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  /**
+   * Composite key of tenant and counter name.
+   */
+  @Embeddable
+  public static class Key implements Serializable {
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(name = "counter_key", nullable = false)
+    private String counterKey;
+
+    protected Key() {
+    }
+
+    public Key(String tenantId, String counterKey) {
+      if (tenantId == null || counterKey == null) {
+        throw new IllegalArgumentException("Tenant ID and counter key are required");
+      }
+      this.tenantId = tenantId;
+      this.counterKey = counterKey;
+    }
+
+    public String getTenantId() {
+      return tenantId;
+    }
+
+    public String getCounterKey() {
+      return counterKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key key)) {
+        return false;
+      }
+      return tenantId.equals(key.tenantId) && counterKey.equals(key.counterKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tenantId, counterKey);
+    }
+
+    @Override
+    public String toString() {
+      return tenantId + ":" + counterKey;
+    }
+  }
+}
@@ -1,10 +1,16 @@
 package com.licensing.exception;
 
+import com.licensing.config.sharding.TenantMovingException;
+import com.licensing.config.tenant.TenantConnectionLimitException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -169,6 +175,35 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
   }
 
+  @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+  public ResponseEntity<ErrorResponse> handleConnectionFailure(
+      Exception ex, HttpServletRequest request) {
+    Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+    if (cause instanceof TenantMovingException moving) {
+      logger.info("Refusing request during tenant move: {}", moving.getMessage());
+      ErrorResponse error = new ErrorResponse(
+          "TENANT_MOVING",
+          "This tenant is being moved to another database. Please retry shortly.",
+          request.getRequestURI());
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, "5")
+          .body(error);
+    }
+    if (!(cause instanceof TenantConnectionLimitException limit)) {
+      return handleGenericException(ex, request);
+    }
+    logger.warn("Connection bulkhead full: {}", limit.getMessage());
+
+    ErrorResponse error = new ErrorResponse(
+        "TENANT_CONNECTION_LIMIT",
+        "Too many concurrent requests for this tenant. Please retry shortly.",
+        request.getRequestURI());
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(error);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGenericException(
       Exception ex, HttpServletRequest request) {
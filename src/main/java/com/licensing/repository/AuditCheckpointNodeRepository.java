@@ -0,0 +1,32 @@
+package com.licensing.repository;
+
+import com.licensing.domain.AuditCheckpointNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for the stored Merkle tree nodes of audit checkpoints.
+ */
+@Repository
+public interface AuditCheckpointNodeRepository extends JpaRepository<AuditCheckpointNode, AuditCheckpointNode.Key> {
+
+  /**
+   * Find the leaf of an entry in a checkpoint's tree.
+   */
+  @Query("SELECT n FROM AuditCheckpointNode n WHERE n.id.checkpointId = :checkpointId AND n.id.level = 0 "
+      + "AND n.entryId = :entryId")
+  Optional<AuditCheckpointNode> findLeaf(@Param("checkpointId") UUID checkpointId, @Param("entryId") UUID entryId);
+
+  /**
+   * Find the IDs of the entries a checkpoint sealed, in tree order.
+   */
+  @Query("SELECT n.entryId FROM AuditCheckpointNode n WHERE n.id.checkpointId = :checkpointId AND n.id.level = 0 "
+      + "ORDER BY n.id.index")
+  List<UUID> findEntryIds(@Param("checkpointId") UUID checkpointId);
+}
@@ -0,0 +1,48 @@
+package com.licensing.repository;
+
+import com.licensing.domain.AuditCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for audit checkpoints.
+ */
+@Repository
+public interface AuditCheckpointRepository extends JpaRepository<AuditCheckpoint, UUID> {
+
+  /**
+   * Find the most recent checkpoint of a tenant.
+   */
+  Optional<AuditCheckpoint> findFirstByTenantIdOrderBySequenceDesc(String tenantId);
+
+  /**
+   * Find a tenant's checkpoint by its position in the chain.
+   */
+  Optional<AuditCheckpoint> findByTenantIdAndSequence(String tenantId, long sequence);
+
+  /**
+   * Find the first checkpoint of a tenant whose run ends at or after the
+   * entry {@code (timestamp, id)}, i.e. the checkpoint covering that entry.
+   */
+  @Query("SELECT c FROM AuditCheckpoint c WHERE c.tenantId = :tenantId "
+      + "AND (c.endTimestamp > :timestamp OR (c.endTimestamp = :timestamp AND c.endId >= :id)) "
+      + "ORDER BY c.sequence ASC LIMIT 1")
+  Optional<AuditCheckpoint> findCovering(@Param("tenantId") String tenantId, @Param("timestamp") Instant timestamp,
+      @Param("id") UUID id);
+
+  /**
+   * Find a tenant's checkpoints whose runs overlap {@code [from, to)}, in
+   * chain order.
+   */
+  @Query("SELECT c FROM AuditCheckpoint c WHERE c.tenantId = :tenantId AND c.endTimestamp >= :from "
+      + "AND (c.startTimestamp IS NULL OR c.startTimestamp < :to) ORDER BY c.sequence ASC")
+  List<AuditCheckpoint> findOverlapping(@Param("tenantId") String tenantId, @Param("from") Instant from,
+      @Param("to") Instant to);
+}
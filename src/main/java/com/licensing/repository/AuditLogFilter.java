@@ -0,0 +1,67 @@
+package com.licensing.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Criteria selecting audit entries within the current tenant.
+ * Unset fields do not restrict the selection; {@code from} is inclusive and
+ * {@code to} exclusive.
+ */
+public class AuditLogFilter {
+
+  private String entityType;
+  private UUID entityId;
+  private String action;
+  private String userId;
+  private Instant from;
+  private Instant to;
+
+  public String getEntityType() {
+    return entityType;
+  }
+
+  public void setEntityType(String entityType) {
+    this.entityType = entityType;
+  }
+
+  public UUID getEntityId() {
+    return entityId;
+  }
+
+  public void setEntityId(UUID entityId) {
+    this.entityId = entityId;
+  }
+
+  public String getAction() {
+    return action;
+  }
+
+  public void setAction(String action) {
+    this.action = action;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public void setUserId(String userId) {
+    this.userId = userId;
+  }
+
+  public Instant getFrom() {
+    return from;
+  }
+
+  public void setFrom(Instant from) {
+    this.from = from;
+  }
+
+  public Instant getTo() {
+    return to;
+  }
+
+  public void setTo(Instant to) {
+    this.to = to;
+  }
+}
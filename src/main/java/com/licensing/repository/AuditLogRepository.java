@@ -1,14 +1,21 @@
 package com.licensing.repository;
 
 import com.licensing.domain.AuditLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,50 +24,115 @@ import java.util.UUID;
  * Provides tenant-aware data access methods for audit trails.
  */
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, UUID>, AuditLogRepositoryCustom {
 
   /**
    * Find audit logs by entity type and entity ID within the current tenant.
    */
   List<AuditLog> findByEntityTypeAndEntityId(String entityType, UUID entityId);
 
+  /**
+   * Scroll through audit logs by entity type and entity ID within the current tenant.
+   */
+  Window<AuditLog> findByEntityTypeAndEntityId(String entityType, UUID entityId, ScrollPosition position,
+      Sort sort, Limit limit);
+
   /**
    * Find audit logs by entity type within the current tenant.
    */
   List<AuditLog> findByEntityType(String entityType);
 
+  /**
+   * Scroll through audit logs by entity type within the current tenant.
+   */
+  Window<AuditLog> findByEntityType(String entityType, ScrollPosition position, Sort sort, Limit limit);
+
   /**
    * Find audit logs by action within the current tenant.
    */
   List<AuditLog> findByAction(String action);
 
+  /**
+   * Scroll through audit logs by action within the current tenant.
+   */
+  Window<AuditLog> findByAction(String action, ScrollPosition position, Sort sort, Limit limit);
+
   /**
    * Find audit logs by user ID within the current tenant.
    */
   List<AuditLog> findByUserId(String userId);
 
+  /**
+   * Scroll through audit logs by user ID within the current tenant.
+   */
+  Window<AuditLog> findByUserId(String userId, ScrollPosition position, Sort sort, Limit limit);
+
   /**
    * Find audit logs between timestamps within the current tenant.
    */
   List<AuditLog> findByTimestampBetween(Instant startTime, Instant endTime);
 
+  /**
+   * Scroll through audit logs between timestamps within the current tenant.
+   */
+  Window<AuditLog> findByTimestampBetween(Instant startTime, Instant endTime, ScrollPosition position, Sort sort,
+      Limit limit);
+
   /**
    * Find audit logs after timestamp within the current tenant.
    */
   List<AuditLog> findByTimestampAfter(Instant timestamp);
 
+  /**
+   * Scroll through audit logs after timestamp within the current tenant.
+   */
+  Window<AuditLog> findByTimestampAfter(Instant timestamp, ScrollPosition position, Sort sort, Limit limit);
+
   /**
    * Find audit logs before timestamp within the current tenant.
    */
   List<AuditLog> findByTimestampBefore(Instant timestamp);
 
   /**
-   * Delete audit logs before timestamp within the current tenant.
+   * Scroll through audit logs before timestamp within the current tenant.
+   */
+  Window<AuditLog> findByTimestampBefore(Instant timestamp, ScrollPosition position, Sort sort, Limit limit);
+
+  /**
+   * Find the tenants with audit logs after the given timestamp.
+   */
+  @Query("SELECT DISTINCT a.tenantId FROM AuditLog a WHERE a.timestamp > :timestamp")
+  List<String> findTenantIdsWithEntriesAfter(@Param("timestamp") Instant timestamp);
+
+  /**
+   * Count the audit logs of all tenants in {@code [from, to)} per tenant,
+   * entity type and action, as {@code [tenantId, entityType, action, count]}.
+   */
+  @Query("SELECT a.tenantId, a.entityType, a.action, COUNT(a) FROM AuditLog a "
+      + "WHERE a.timestamp >= :from AND a.timestamp < :to GROUP BY a.tenantId, a.entityType, a.action")
+  List<Object[]> countPerTenantEntityTypeAndAction(@Param("from") Instant from, @Param("to") Instant to);
+
+  /**
+   * Find the timestamp of the oldest audit log of any tenant.
+   */
+  @Query("SELECT MIN(a.timestamp) FROM AuditLog a")
+  Instant findOldestTimestamp();
+
+  /**
+   * Find which of the given audit log IDs are already stored, in any tenant.
+   */
+  @Query("SELECT a.id FROM AuditLog a WHERE a.id IN :ids")
+  List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+  /**
+   * Delete audit logs of all tenants before timestamp with a single bulk
+   * statement, without loading the entities.
    * Returns the number of deleted records.
    */
   @Modifying
   @Transactional
-  long deleteByTimestampBefore(Instant timestamp);
+  @Query("DELETE FROM AuditLog a WHERE a.timestamp < :timestamp")
+  int deleteByTimestampBefore(@Param("timestamp") Instant timestamp);
 
   /**
    * Find audit logs with pagination within the current tenant.
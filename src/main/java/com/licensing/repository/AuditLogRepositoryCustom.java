@@ -0,0 +1,51 @@
+package com.licensing.repository;
+
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.projection.AuditLogSummary;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Criteria-based audit log queries that cannot be expressed as derived queries.
+ */
+public interface AuditLogRepositoryCustom {
+
+  /**
+   * Reads the next window of a tenant's audit entries matching the filter,
+   * ordered by {@code (timestamp, id)} and starting after the given keyset
+   * position. Only the columns of {@link AuditLogSummary} are selected.
+   *
+   * @param tenantId tenant whose entries are read
+   * @param filter   selection criteria
+   * @param position keyset of the last row of the previous window, or an
+   *                 initial position for the first window
+   * @param limit    maximum number of entries to return
+   */
+  Window<AuditLogSummary> scrollByFilter(String tenantId, AuditLogFilter filter, KeysetScrollPosition position,
+      int limit);
+
+  /**
+   * Streams all of a tenant's audit entries matching the filter, ordered by
+   * {@code (timestamp, id)} and starting after the given keyset position,
+   * reading rows from a server-side cursor in batches of {@code fetchSize}.
+   * Entities are loaded read-only; callers should detach them once
+   * processed. Must be consumed and closed inside a transaction.
+   */
+  Stream<AuditLog> streamByFilter(String tenantId, AuditLogFilter filter, KeysetScrollPosition position,
+      int fetchSize);
+
+  /**
+   * Streams a tenant's audit entries after the given keyset position up to
+   * and including the entry {@code (throughTimestamp, throughId)}, ordered by
+   * {@code (timestamp, id)}. A null {@code throughId} includes every entry at
+   * {@code throughTimestamp}. Entities are loaded read-only; callers should
+   * detach them once processed. Must be consumed and closed inside a
+   * transaction.
+   */
+  Stream<AuditLog> streamRange(String tenantId, KeysetScrollPosition position, Instant throughTimestamp,
+      UUID throughId, int fetchSize);
+}
@@ -0,0 +1,206 @@
+package com.licensing.repository;
+
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.projection.AuditLogSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link AuditLogRepositoryCustom}.
+ */
+class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+  private static final String TIMESTAMP = "timestamp";
+  private static final String ID = "id";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public Window<AuditLogSummary> scrollByFilter(String tenantId, AuditLogFilter filter,
+      KeysetScrollPosition position, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<AuditLog> auditLog = query.from(AuditLog.class);
+    Path<Instant> timestamp = auditLog.get(TIMESTAMP);
+    Path<UUID> id = auditLog.get(ID);
+
+    query.multiselect(id, auditLog.get("entityType"), auditLog.get("entityId"), auditLog.get("action"),
+            auditLog.get("userId"), timestamp)
+        .where(after(cb, auditLog, tenantId, filter, position).toArray(Predicate[]::new))
+        .orderBy(cb.asc(timestamp), cb.asc(id));
+
+    List<Tuple> rows = entityManager.createQuery(query)
+        .setMaxResults(limit + 1)
+        .getResultList();
+
+    List<AuditLogSummary> entries = new ArrayList<>(Math.min(rows.size(), limit));
+    for (int i = 0; i < rows.size() && i < limit; i++) {
+      Tuple row = rows.get(i);
+      entries.add(new Entry(row.get(0, UUID.class), row.get(1, String.class), row.get(2, UUID.class),
+          row.get(3, String.class), row.get(4, String.class), row.get(5, Instant.class)));
+    }
+    return Window.from(entries, index -> {
+      AuditLogSummary entry = entries.get(index);
+      Map<String, Object> next = new LinkedHashMap<>();
+      next.put(TIMESTAMP, entry.getTimestamp());
+      next.put(ID, entry.getId());
+      return ScrollPosition.forward(next);
+    }, rows.size() > limit);
+  }
+
+  @Override
+  public Stream<AuditLog> streamByFilter(String tenantId, AuditLogFilter filter, KeysetScrollPosition position,
+      int fetchSize) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<AuditLog> query = cb.createQuery(AuditLog.class);
+    Root<AuditLog> auditLog = query.from(AuditLog.class);
+
+    query.select(auditLog)
+        .where(after(cb, auditLog, tenantId, filter, position).toArray(Predicate[]::new))
+        .orderBy(cb.asc(auditLog.get(TIMESTAMP)), cb.asc(auditLog.get(ID)));
+
+    return entityManager.createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream();
+  }
+
+  @Override
+  public Stream<AuditLog> streamRange(String tenantId, KeysetScrollPosition position, Instant throughTimestamp,
+      UUID throughId, int fetchSize) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<AuditLog> query = cb.createQuery(AuditLog.class);
+    Root<AuditLog> auditLog = query.from(AuditLog.class);
+    Path<Instant> timestamp = auditLog.get(TIMESTAMP);
+
+    List<Predicate> predicates = after(cb, auditLog, tenantId, new AuditLogFilter(), position);
+    if (throughId == null) {
+      predicates.add(cb.lessThanOrEqualTo(timestamp, throughTimestamp));
+    } else {
+      predicates.add(cb.or(
+          cb.lessThan(timestamp, throughTimestamp),
+          cb.and(cb.equal(timestamp, throughTimestamp), cb.lessThanOrEqualTo(auditLog.get(ID), throughId))));
+    }
+
+    query.select(auditLog)
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(cb.asc(timestamp), cb.asc(auditLog.get(ID)));
+
+    return entityManager.createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream();
+  }
+
+  /**
+   * Predicates selecting a tenant's entries that match the filter and sort
+   * after the keyset position in {@code (timestamp, id)} order.
+   */
+  private static List<Predicate> after(CriteriaBuilder cb, Root<AuditLog> auditLog, String tenantId,
+      AuditLogFilter filter, KeysetScrollPosition position) {
+    List<Predicate> predicates = new ArrayList<>(matching(cb, auditLog, filter));
+    predicates.add(cb.equal(auditLog.get("tenantId"), tenantId));
+    Map<String, Object> keys = position.getKeys();
+    if (!keys.isEmpty()) {
+      Path<Instant> timestamp = auditLog.get(TIMESTAMP);
+      Path<UUID> id = auditLog.get(ID);
+      Instant lastTimestamp = (Instant) keys.get(TIMESTAMP);
+      UUID lastId = (UUID) keys.get(ID);
+      predicates.add(cb.or(
+          cb.greaterThan(timestamp, lastTimestamp),
+          cb.and(cb.equal(timestamp, lastTimestamp), cb.greaterThan(id, lastId))));
+    }
+    return predicates;
+  }
+
+  static List<Predicate> matching(CriteriaBuilder cb, Root<AuditLog> auditLog, AuditLogFilter filter) {
+    List<Predicate> predicates = new ArrayList<>();
+    if (filter.getEntityType() != null) {
+      predicates.add(cb.equal(auditLog.get("entityType"), filter.getEntityType()));
+    }
+    if (filter.getEntityId() != null) {
+      predicates.add(cb.equal(auditLog.get("entityId"), filter.getEntityId()));
+    }
+    if (filter.getAction() != null) {
+      predicates.add(cb.equal(auditLog.get("action"), filter.getAction()));
+    }
+    if (filter.getUserId() != null) {
+      predicates.add(cb.equal(auditLog.get("userId"), filter.getUserId()));
+    }
+    if (filter.getFrom() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(auditLog.<Instant>get(TIMESTAMP), filter.getFrom()));
+    }
+    if (filter.getTo() != null) {
+      predicates.add(cb.lessThan(auditLog.<Instant>get(TIMESTAMP), filter.getTo()));
+    }
+    return predicates;
+  }
+
+  private static final class Entry implements AuditLogSummary {
+
+    private final UUID id;
+    private final String entityType;
+    private final UUID entityId;
+    private final String action;
+    private final String userId;
+    private final Instant timestamp;
+
+    private Entry(UUID id, String entityType, UUID entityId, String action, String userId, Instant timestamp) {
+      this.id = id;
+      this.entityType = entityType;
+      this.entityId = entityId;
+      this.action = action;
+      this.userId = userId;
+      this.timestamp = timestamp;
+    }
+
+    @Override
+    public UUID getId() {
+      return id;
+    }
+
+    @Override
+    public String getEntityType() {
+      return entityType;
+    }
+
+    @Override
+    public UUID getEntityId() {
+      return entityId;
+    }
+
+    @Override
+    public String getAction() {
+      return action;
+    }
+
+    @Override
+    public String getUserId() {
+      return userId;
+    }
+
+    @Override
+    public Instant getTimestamp() {
+      return timestamp;
+    }
+  }
+}
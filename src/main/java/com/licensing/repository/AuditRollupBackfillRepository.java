@@ -0,0 +1,12 @@
+package com.licensing.repository;
+
+import com.licensing.domain.AuditRollupBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the progress of the audit rollup backfill.
+ */
+@Repository
+public interface AuditRollupBackfillRepository extends JpaRepository<AuditRollupBackfill, Integer> {
+}
@@ -0,0 +1,71 @@
+package com.licensing.repository;
+
+import com.licensing.domain.AuditRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for hourly audit event counts.
+ * Writes use SQL {@code MERGE} so concurrent nodes never lose an increment.
+ */
+@Repository
+public interface AuditRollupRepository extends JpaRepository<AuditRollup, AuditRollup.Key> {
+
+  /**
+   * Adds a delta to an hourly count, creating the row if needed.
+   */
+  @Modifying
+  @Query(value = "MERGE INTO audit_rollups r "
+      + "USING (VALUES (CAST(:tenantId AS VARCHAR(255)), CAST(:bucketStart AS TIMESTAMP WITH TIME ZONE), "
+      + "CAST(:entityType AS VARCHAR(255)), CAST(:action AS VARCHAR(255)))) "
+      + "AS d (tenant_id, bucket_start, entity_type, action) "
+      + "ON r.tenant_id = d.tenant_id AND r.bucket_start = d.bucket_start "
+      + "AND r.entity_type = d.entity_type AND r.action = d.action "
+      + "WHEN MATCHED THEN UPDATE SET event_count = r.event_count + :delta, updated_at = CURRENT_TIMESTAMP "
+      + "WHEN NOT MATCHED THEN INSERT (tenant_id, bucket_start, entity_type, action, event_count, updated_at) "
+      + "VALUES (d.tenant_id, d.bucket_start, d.entity_type, d.action, :delta, CURRENT_TIMESTAMP)",
+      nativeQuery = true)
+  int addToRollup(@Param("tenantId") String tenantId, @Param("bucketStart") Instant bucketStart,
+      @Param("entityType") String entityType, @Param("action") String action, @Param("delta") long delta);
+
+  /**
+   * Sets an hourly count to an absolute value, creating the row if needed.
+   */
+  @Modifying
+  @Query(value = "MERGE INTO audit_rollups r "
+      + "USING (VALUES (CAST(:tenantId AS VARCHAR(255)), CAST(:bucketStart AS TIMESTAMP WITH TIME ZONE), "
+      + "CAST(:entityType AS VARCHAR(255)), CAST(:action AS VARCHAR(255)), CAST(:count AS BIGINT))) "
+      + "AS d (tenant_id, bucket_start, entity_type, action, event_count) "
+      + "ON r.tenant_id = d.tenant_id AND r.bucket_start = d.bucket_start "
+      + "AND r.entity_type = d.entity_type AND r.action = d.action "
+      + "WHEN MATCHED THEN UPDATE SET event_count = d.event_count, updated_at = CURRENT_TIMESTAMP "
+      + "WHEN NOT MATCHED THEN INSERT (tenant_id, bucket_start, entity_type, action, event_count, updated_at) "
+      + "VALUES (d.tenant_id, d.bucket_start, d.entity_type, d.action, d.event_count, CURRENT_TIMESTAMP)",
+      nativeQuery = true)
+  int setRollup(@Param("tenantId") String tenantId, @Param("bucketStart") Instant bucketStart,
+      @Param("entityType") String entityType, @Param("action") String action, @Param("count") long count);
+
+  /**
+   * Hourly counts of all tenants in {@code [from, to)}, for reconciliation.
+   */
+  @Query("SELECT r FROM AuditRollup r WHERE r.id.bucketStart >= :from AND r.id.bucketStart < :to")
+  List<AuditRollup> findAllInRange(@Param("from") Instant from, @Param("to") Instant to);
+
+  /**
+   * Hourly counts of a tenant in {@code [from, to)}, optionally restricted to
+   * one entity type and/or action, oldest first.
+   */
+  @Query("SELECT r FROM AuditRollup r WHERE r.id.tenantId = :tenantId "
+      + "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to "
+      + "AND (:entityType IS NULL OR r.id.entityType = :entityType) "
+      + "AND (:action IS NULL OR r.id.action = :action) "
+      + "ORDER BY r.id.bucketStart")
+  List<AuditRollup> findInRange(@Param("tenantId") String tenantId, @Param("from") Instant from,
+      @Param("to") Instant to, @Param("entityType") String entityType, @Param("action") String action);
+}
@@ -0,0 +1,64 @@
+package com.licensing.repository;
+
+import com.licensing.domain.LicenseStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Criteria selecting a set of licenses within the current tenant.
+ * Unset fields do not restrict the selection.
+ */
+public class LicenseFilter {
+
+  private UUID organizationId;
+  private String productName;
+  private LicenseStatus status;
+  private Instant expiresAfter;
+  private Instant expiresBefore;
+
+  public boolean isEmpty() {
+    return organizationId == null && productName == null && status == null
+        && expiresAfter == null && expiresBefore == null;
+  }
+
+  public UUID getOrganizationId() {
+    return organizationId;
+  }
+
+  public void setOrganizationId(UUID organizationId) {
+    this.organizationId = organizationId;
+  }
+
+  public String getProductName() {
+    return productName;
+  }
+
+  public void setProductName(String productName) {
+    this.productName = productName;
+  }
+
+  public LicenseStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(LicenseStatus status) {
+    this.status = status;
+  }
+
+  public Instant getExpiresAfter() {
+    return expiresAfter;
+  }
+
+  public void setExpiresAfter(Instant expiresAfter) {
+    this.expiresAfter = expiresAfter;
+  }
+
+  public Instant getExpiresBefore() {
+    return expiresBefore;
+  }
+
+  public void setExpiresBefore(Instant expiresBefore) {
+    this.expiresBefore = expiresBefore;
+  }
+}
@@ -2,14 +2,20 @@ package com.licensing.repository;
 
 import com.licensing.domain.License;
 import com.licensing.domain.LicenseStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,7 +25,7 @@ import java.util.UUID;
  * Provides tenant-aware data access methods.
  */
 @Repository
-public interface LicenseRepository extends JpaRepository<License, UUID> {
+public interface LicenseRepository extends JpaRepository<License, UUID>, LicenseRepositoryCustom {
 
   /**
    * Find license by ID within the current tenant.
@@ -33,26 +39,79 @@ public interface LicenseRepository extends JpaRepository<License, UUID> {
    */
   List<License> findByOrganizationId(UUID organizationId);
 
+  /**
+   * Scroll through licenses of an organization within the current tenant,
+   * projected onto the given type. Passing a closed projection such as
+   * {@code LicenseSummary} selects only the projected columns.
+   */
+  <T> Window<T> findByOrganizationId(UUID organizationId, ScrollPosition position, Sort sort, Limit limit,
+      Class<T> type);
+
   /**
    * Find licenses by customer email within the current tenant.
    */
   List<License> findByCustomerEmail(String customerEmail);
 
+  /**
+   * Scroll through licenses of a customer within the current tenant,
+   * projected onto the given type.
+   */
+  <T> Window<T> findByCustomerEmail(String customerEmail, ScrollPosition position, Sort sort, Limit limit,
+      Class<T> type);
+
   /**
    * Find licenses by status within the current tenant.
    */
   List<License> findByStatus(LicenseStatus status);
 
+  /**
+   * Scroll through licenses with the given status within the current tenant,
+   * projected onto the given type.
+   */
+  <T> Window<T> findByStatus(LicenseStatus status, ScrollPosition position, Sort sort, Limit limit, Class<T> type);
+
   /**
    * Find licenses expiring before the specified date within the current tenant.
    */
   List<License> findByExpiryDateBefore(Instant date);
 
+  /**
+   * Scroll through licenses expiring before the specified date within the
+   * current tenant, projected onto the given type.
+   */
+  <T> Window<T> findByExpiryDateBefore(Instant date, ScrollPosition position, Sort sort, Limit limit, Class<T> type);
+
   /**
    * Find licenses by organization ID and status within the current tenant.
    */
   List<License> findByOrganizationIdAndStatus(UUID organizationId, LicenseStatus status);
 
+  /**
+   * Sets the status of the given licenses in a single statement, bumping their
+   * version so concurrent optimistic writers fail. IDs must already have been
+   * resolved within the current tenant, e.g. via {@link #lockIdsForUpdate}.
+   *
+   * @return number of updated rows
+   */
+  @Modifying
+  @Query("UPDATE License l SET l.status = :status, l.updatedAt = :updatedAt, l.version = l.version + 1 "
+      + "WHERE l.id IN :ids")
+  int updateStatusByIdIn(@Param("ids") Collection<UUID> ids, @Param("status") LicenseStatus status,
+      @Param("updatedAt") Instant updatedAt);
+
+  /**
+   * Count licenses per tenant and status across all tenants. Rows are tenant
+   * ID, status and count.
+   */
+  @Query("SELECT l.tenantId, l.status, COUNT(l) FROM License l GROUP BY l.tenantId, l.status")
+  List<Object[]> countPerTenantAndStatus();
+
+  /**
+   * Count the given licenses by status. Rows are status and count.
+   */
+  @Query("SELECT l.status, COUNT(l) FROM License l WHERE l.id IN :ids GROUP BY l.status")
+  List<Object[]> countStatusesByIdIn(@Param("ids") Collection<UUID> ids);
+
   /**
    * Count licenses by organization ID within the current tenant.
    */
@@ -0,0 +1,49 @@
+package com.licensing.repository;
+
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+
+import java.util.Collection;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Criteria-based license queries that cannot be expressed as derived queries.
+ */
+public interface LicenseRepositoryCustom {
+
+  /**
+   * Selects and row-locks the next chunk of the current tenant's license IDs
+   * matching the filter, ordered by ID. Must run inside a transaction; the locks are held until it
+   * completes.
+   *
+   * @param filter       selection criteria
+   * @param fromStatuses statuses a license must currently have to be selected
+   * @param afterId      exclusive lower bound on the ID, or null to start at the beginning
+   * @param limit        maximum number of IDs to return
+   * @return locked license IDs in ascending order
+   */
+  List<UUID> lockIdsForUpdate(LicenseFilter filter, Collection<LicenseStatus> fromStatuses, UUID afterId,
+      int limit);
+
+  /**
+   * Selects and row-locks up to {@code limit} active licenses of all tenants
+   * that expired at or before {@code now}, in expiry order. Rows locked by
+   * another transaction are skipped, so concurrent callers receive disjoint
+   * chunks. Must run inside a transaction.
+   *
+   * @return license ID to tenant ID, in expiry order
+   */
+  Map<UUID, String> lockExpiredForUpdate(Instant now, int limit);
+
+  /**
+   * Streams all of the current tenant's licenses matching the filter, ordered
+   * by ID, reading rows from a server-side cursor in batches of
+   * {@code fetchSize}. Entities are loaded read-only; callers should detach
+   * them once processed. Must be consumed and closed inside a transaction.
+   */
+  Stream<License> streamByFilter(LicenseFilter filter, int fetchSize);
+}
@@ -0,0 +1,128 @@
+package com.licensing.repository;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.LockOptions;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link LicenseRepositoryCustom}.
+ */
+class LicenseRepositoryImpl implements LicenseRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<UUID> lockIdsForUpdate(LicenseFilter filter, Collection<LicenseStatus> fromStatuses, UUID afterId,
+      int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+    Root<License> license = query.from(License.class);
+
+    List<Predicate> predicates = new ArrayList<>(matching(cb, license, filter));
+    predicates.add(license.get("status").in(fromStatuses));
+    if (afterId != null) {
+      predicates.add(cb.greaterThan(license.<UUID>get("id"), afterId));
+    }
+
+    query.select(license.<UUID>get("id"))
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(cb.asc(license.get("id")));
+
+    return entityManager.createQuery(query)
+        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  @Override
+  public Map<UUID, String> lockExpiredForUpdate(Instant now, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<License> license = query.from(License.class);
+
+    // Matches the partial index idx_licenses_expiring (expiry_date WHERE status = 'ACTIVE')
+    query.multiselect(license.<UUID>get("id"), license.<String>get("tenantId"))
+        .where(cb.equal(license.get("status"), LicenseStatus.ACTIVE),
+            cb.lessThanOrEqualTo(license.<Instant>get("expiryDate"), now))
+        .orderBy(cb.asc(license.get("expiryDate")));
+
+    List<Tuple> rows = entityManager.createQuery(query)
+        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+        .setHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+        .setMaxResults(limit)
+        .getResultList();
+
+    Map<UUID, String> expired = new LinkedHashMap<>();
+    for (Tuple row : rows) {
+      expired.put(row.get(0, UUID.class), row.get(1, String.class));
+    }
+    return expired;
+  }
+
+  @Override
+  public Stream<License> streamByFilter(LicenseFilter filter, int fetchSize) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<License> query = cb.createQuery(License.class);
+    Root<License> license = query.from(License.class);
+
+    query.select(license)
+        .where(matching(cb, license, filter).toArray(Predicate[]::new))
+        .orderBy(cb.asc(license.get("id")));
+
+    return entityManager.createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream();
+  }
+
+  /**
+   * Predicates selecting the current tenant's licenses that match the filter.
+   *
+   * @throws IllegalStateException if no tenant is set
+   */
+  static List<Predicate> matching(CriteriaBuilder cb, Root<License> license, LicenseFilter filter) {
+    String tenantId = TenantContext.getCurrentTenant();
+    if (tenantId == null) {
+      throw new IllegalStateException("License filters require a current tenant");
+    }
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.equal(license.get("tenantId"), tenantId));
+    if (filter.getOrganizationId() != null) {
+      predicates.add(cb.equal(license.get("organizationId"), filter.getOrganizationId()));
+    }
+    if (filter.getProductName() != null) {
+      predicates.add(cb.equal(license.get("productName"), filter.getProductName()));
+    }
+    if (filter.getStatus() != null) {
+      predicates.add(cb.equal(license.get("status"), filter.getStatus()));
+    }
+    if (filter.getExpiresAfter() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(license.<Instant>get("expiryDate"), filter.getExpiresAfter()));
+    }
+    if (filter.getExpiresBefore() != null) {
+      predicates.add(cb.lessThan(license.<Instant>get("expiryDate"), filter.getExpiresBefore()));
+    }
+    return predicates;
+  }
+}
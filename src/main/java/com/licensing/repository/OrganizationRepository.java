@@ -2,9 +2,11 @@ package com.licensing.repository;
 
 import com.licensing.domain.Organization;
 import com.licensing.domain.Plan;
+import com.licensing.repository.projection.OrganizationSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -48,4 +50,30 @@ public interface OrganizationRepository extends JpaRepository<Organization, UUID
    */
   @Override
   Page<Organization> findAll(Pageable pageable);
+
+  /**
+   * Find organization summaries with pagination within the current tenant.
+   */
+  Page<OrganizationSummary> findSummariesBy(Pageable pageable);
+
+  /**
+   * Count licenses of every organization across all tenants, including
+   * organizations without licenses. Rows are tenant ID, organization ID and count.
+   */
+  @Query("SELECT o.tenantId, o.id, COUNT(l.id) FROM Organization o "
+      + "LEFT JOIN License l ON l.organizationId = o.id GROUP BY o.tenantId, o.id")
+  List<Object[]> countLicensesPerOrganization();
+
+  /**
+   * Count active organizations per tenant. Rows are tenant ID and count.
+   */
+  @Query("SELECT o.tenantId, COUNT(o) FROM Organization o WHERE o.active = true GROUP BY o.tenantId")
+  List<Object[]> countActivePerTenant();
+
+  /**
+   * Plans of active organizations across all tenants. Rows are tenant ID and
+   * plan, one per distinct pair.
+   */
+  @Query("SELECT DISTINCT o.tenantId, o.plan FROM Organization o WHERE o.active = true")
+  List<Object[]> findActivePlansPerTenant();
 }
@@ -0,0 +1,53 @@
+package com.licensing.repository;
+
+import com.licensing.domain.TenantCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for precomputed per-tenant counters.
+ * Writes use SQL {@code MERGE} so concurrent nodes never lose an increment.
+ */
+@Repository
+public interface TenantCounterRepository extends JpaRepository<TenantCounter, TenantCounter.Key> {
+
+  /**
+   * Adds a delta to an existing counter. Counters that have not been seeded
+   * by reconciliation are left alone; reads fall back to counting.
+   */
+  @Modifying
+  @Query(value = "MERGE INTO tenant_counters c "
+      + "USING (VALUES (CAST(:tenantId AS VARCHAR(255)), CAST(:counterKey AS VARCHAR(255)))) "
+      + "AS d (tenant_id, counter_key) "
+      + "ON c.tenant_id = d.tenant_id AND c.counter_key = d.counter_key "
+      + "WHEN MATCHED THEN UPDATE SET value = c.value + :delta, updated_at = CURRENT_TIMESTAMP",
+      nativeQuery = true)
+  int addToCounter(@Param("tenantId") String tenantId, @Param("counterKey") String counterKey,
+      @Param("delta") long delta);
+
+  /**
+   * Sets a counter to an absolute value, creating it if needed.
+   */
+  @Modifying
+  @Query(value = "MERGE INTO tenant_counters c "
+      + "USING (VALUES (CAST(:tenantId AS VARCHAR(255)), CAST(:counterKey AS VARCHAR(255)), "
+      + "CAST(:value AS BIGINT))) AS d (tenant_id, counter_key, value) "
+      + "ON c.tenant_id = d.tenant_id AND c.counter_key = d.counter_key "
+      + "WHEN MATCHED THEN UPDATE SET value = d.value, updated_at = CURRENT_TIMESTAMP "
+      + "WHEN NOT MATCHED THEN INSERT (tenant_id, counter_key, value, updated_at) "
+      + "VALUES (d.tenant_id, d.counter_key, d.value, CURRENT_TIMESTAMP)",
+      nativeQuery = true)
+  int setCounter(@Param("tenantId") String tenantId, @Param("counterKey") String counterKey,
+      @Param("value") long value);
+
+  /**
+   * All counters, for reconciliation.
+   */
+  @Override
+  List<TenantCounter> findAll();
+}
@@ -0,0 +1,23 @@
+package com.licensing.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Compact view of an audit entry used by the audit query API.
+ * The details document is never read for these listings.
+ */
+public interface AuditLogSummary {
+
+  UUID getId();
+
+  String getEntityType();
+
+  UUID getEntityId();
+
+  String getAction();
+
+  String getUserId();
+
+  Instant getTimestamp();
+}
@@ -0,0 +1,28 @@
+package com.licensing.repository.projection;
+
+import com.licensing.domain.LicenseStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Closed projection of a license used by list endpoints.
+ * Only the columns shown in license tables are selected, so the features
+ * and signature columns are never read for list views.
+ */
+public interface LicenseSummary {
+
+  UUID getId();
+
+  UUID getOrganizationId();
+
+  String getProductName();
+
+  String getCustomerEmail();
+
+  LicenseStatus getStatus();
+
+  Instant getExpiryDate();
+
+  Instant getCreatedAt();
+}
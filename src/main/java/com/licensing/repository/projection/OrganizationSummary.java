@@ -0,0 +1,24 @@
+package com.licensing.repository.projection;
+
+import com.licensing.domain.Plan;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Closed projection of an organization used by list endpoints.
+ */
+public interface OrganizationSummary {
+
+  UUID getId();
+
+  String getName();
+
+  String getContactEmail();
+
+  Plan getPlan();
+
+  boolean isActive();
+
+  Instant getCreatedAt();
+}
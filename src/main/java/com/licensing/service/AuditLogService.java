@@ -0,0 +1,87 @@
+package com.licensing.service;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditLogFilter;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.projection.AuditLogSummary;
+import com.licensing.service.pagination.CursorPage;
+import com.licensing.service.pagination.KeysetCursor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keyset-paginated reads over the audit trail of the current tenant,
+ * ordered by {@code (timestamp, id)}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AuditLogService {
+
+  static final Sort TIMESTAMP_ORDER = Sort.by("timestamp", "id");
+
+  private final AuditLogRepository auditLogRepository;
+
+  public AuditLogService(AuditLogRepository auditLogRepository) {
+    this.auditLogRepository = auditLogRepository;
+  }
+
+  /**
+   * Lists the current tenant's audit entries matching all set filter fields
+   * as compact summaries.
+   *
+   * @throws IllegalArgumentException if the time window is empty or the
+   *                                  cursor is invalid
+   */
+  public CursorPage<AuditLogSummary> search(AuditLogFilter filter, String cursor, int limit) {
+    if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+    return CursorPage.of(auditLogRepository.scrollByFilter(TenantContext.getCurrentTenant(), filter,
+        KeysetCursor.decode(cursor, TIMESTAMP_ORDER), CursorPage.limit(limit).max()));
+  }
+
+  public CursorPage<AuditLog> findByEntity(String entityType, UUID entityId, String cursor, int limit) {
+    return CursorPage.of(auditLogRepository.findByEntityTypeAndEntityId(entityType, entityId,
+        position(cursor), TIMESTAMP_ORDER, CursorPage.limit(limit)));
+  }
+
+  public CursorPage<AuditLog> findByEntityType(String entityType, String cursor, int limit) {
+    return CursorPage.of(auditLogRepository.findByEntityType(entityType,
+        position(cursor), TIMESTAMP_ORDER, CursorPage.limit(limit)));
+  }
+
+  public CursorPage<AuditLog> findByAction(String action, String cursor, int limit) {
+    return CursorPage.of(auditLogRepository.findByAction(action,
+        position(cursor), TIMESTAMP_ORDER, CursorPage.limit(limit)));
+  }
+
+  public CursorPage<AuditLog> findByUserId(String userId, String cursor, int limit) {
+    return CursorPage.of(auditLogRepository.findByUserId(userId,
+        position(cursor), TIMESTAMP_ORDER, CursorPage.limit(limit)));
+  }
+
+  public CursorPage<AuditLog> findBetween(Instant startTime, Instant endTime, String cursor, int limit) {
+    return CursorPage.of(auditLogRepository.findByTimestampBetween(startTime, endTime,
+        position(cursor), TIMESTAMP_ORDER, CursorPage.limit(limit)));
+  }
+
+  public CursorPage<AuditLog> findAfter(Instant timestamp, String cursor, int limit) {
+    return CursorPage.of(auditLogRepository.findByTimestampAfter(timestamp,
+        position(cursor), TIMESTAMP_ORDER, CursorPage.limit(limit)));
+  }
+
+  public CursorPage<AuditLog> findBefore(Instant timestamp, String cursor, int limit) {
+    return CursorPage.of(auditLogRepository.findByTimestampBefore(timestamp,
+        position(cursor), TIMESTAMP_ORDER, CursorPage.limit(limit)));
+  }
+
+  private static ScrollPosition position(String cursor) {
+    return KeysetCursor.decode(cursor, TIMESTAMP_ORDER);
+  }
+}
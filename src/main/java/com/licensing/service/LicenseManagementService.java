@@ -5,14 +5,18 @@ import com.licensing.domain.AuditLog;
 import com.licensing.domain.License;
 import com.licensing.domain.LicenseStatus;
 import com.licensing.domain.Organization;
-import com.licensing.repository.AuditLogRepository;
 import com.licensing.repository.LicenseRepository;
 import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.audit.AuditDiffer;
+import com.licensing.service.audit.AuditLogWriter;
+import com.licensing.service.counter.TenantCounterService;
+import com.licensing.service.pagination.CursorPage;
+import com.licensing.service.pagination.KeysetCursor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,19 +25,28 @@ import java.util.UUID;
 @Transactional
 public class LicenseManagementService {
 
+  private static final Sort CREATION_ORDER = Sort.by("createdAt", "id");
+  private static final Sort EXPIRY_ORDER = Sort.by("expiryDate", "id");
+
   private final LicenseRepository licenseRepository;
   private final OrganizationRepository organizationRepository;
-  private final AuditLogRepository auditLogRepository;
+  private final AuditLogWriter auditLogWriter;
+  private final AuditDiffer auditDiffer;
   private final LicenseSigningService licenseSigningService;
+  private final TenantCounterService tenantCounterService;
 
   public LicenseManagementService(LicenseRepository licenseRepository,
       OrganizationRepository organizationRepository,
-      AuditLogRepository auditLogRepository,
-      LicenseSigningService licenseSigningService) {
+      AuditLogWriter auditLogWriter,
+      AuditDiffer auditDiffer,
+      LicenseSigningService licenseSigningService,
+      TenantCounterService tenantCounterService) {
     this.licenseRepository = licenseRepository;
     this.organizationRepository = organizationRepository;
-    this.auditLogRepository = auditLogRepository;
+    this.auditLogWriter = auditLogWriter;
+    this.auditDiffer = auditDiffer;
     this.licenseSigningService = licenseSigningService;
+    this.tenantCounterService = tenantCounterService;
   }
 
   public License createLicense(UUID organizationId, String productName, String customerEmail,
@@ -46,12 +59,14 @@ public class LicenseManagementService {
     }
 
     String tenantId = TenantContext.getCurrentTenant();
-    License license = new License(organizationId, productName, customerEmail, tenantId, expiryDate, features);
+    License license = new License(organizationId, tenantId, productName, customerEmail, expiryDate, features);
     License savedLicense = licenseRepository.save(license);
 
     licenseSigningService.createSignedLicenseToken(savedLicense);
 
-    createAuditLog("License", "CREATE", savedLicense.getId().toString(), userId, tenantId);
+    createAuditLog("License", "CREATE", savedLicense.getId().toString(), userId, tenantId, null);
+    tenantCounterService.recordTransition(tenantId, null, savedLicense.getStatus(), 1);
+    tenantCounterService.increment(tenantId, TenantCounterService.organizationLicenses(organizationId), 1);
 
     return savedLicense;
   }
@@ -62,18 +77,26 @@ public class LicenseManagementService {
   }
 
   @Transactional(readOnly = true)
-  public List<License> findByOrganizationId(UUID organizationId) {
-    return licenseRepository.findByOrganizationId(organizationId);
+  public <T> CursorPage<T> findByOrganizationId(UUID organizationId, String cursor, int limit, Class<T> view) {
+    return CursorPage.of(licenseRepository.findByOrganizationId(organizationId,
+        KeysetCursor.decode(cursor, CREATION_ORDER), CREATION_ORDER, CursorPage.limit(limit), view));
+  }
+
+  @Transactional(readOnly = true)
+  public <T> CursorPage<T> findByCustomerEmail(String customerEmail, String cursor, int limit, Class<T> view) {
+    return CursorPage.of(licenseRepository.findByCustomerEmail(customerEmail,
+        KeysetCursor.decode(cursor, CREATION_ORDER), CREATION_ORDER, CursorPage.limit(limit), view));
   }
 
   @Transactional(readOnly = true)
-  public List<License> findActiveLicenses() {
-    return licenseRepository.findByStatus(LicenseStatus.ACTIVE);
+  public CursorPage<License> findActiveLicenses(String cursor, int limit) {
+    return findByStatus(LicenseStatus.ACTIVE, cursor, limit, License.class);
   }
 
   @Transactional(readOnly = true)
-  public List<License> findExpiredLicenses(Instant cutoffDate) {
-    return licenseRepository.findByExpiryDateBefore(cutoffDate);
+  public <T> CursorPage<T> findExpiredLicenses(Instant cutoffDate, String cursor, int limit, Class<T> view) {
+    return CursorPage.of(licenseRepository.findByExpiryDateBefore(cutoffDate,
+        KeysetCursor.decode(cursor, EXPIRY_ORDER), EXPIRY_ORDER, CursorPage.limit(limit), view));
   }
 
   public License updateLicenseFeatures(UUID licenseId, Map<String, Object> features, String userId) {
@@ -81,12 +104,13 @@ public class LicenseManagementService {
         .orElseThrow(() -> new IllegalArgumentException("License not found"));
 
     license.updateFeatures(features);
+    Map<String, Object> changes = auditDiffer.diff(license);
     License savedLicense = licenseRepository.save(license);
 
     licenseSigningService.createSignedLicenseToken(savedLicense);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("License", "UPDATE", savedLicense.getId().toString(), userId, tenantId);
+    createAuditLog("License", "UPDATE", savedLicense.getId().toString(), userId, tenantId, changes);
 
     return savedLicense;
   }
@@ -96,12 +120,13 @@ public class LicenseManagementService {
         .orElseThrow(() -> new IllegalArgumentException("License not found"));
 
     license.extend(newExpiryDate);
+    Map<String, Object> changes = auditDiffer.diff(license);
     License savedLicense = licenseRepository.save(license);
 
     licenseSigningService.createSignedLicenseToken(savedLicense);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("License", "EXTEND", savedLicense.getId().toString(), userId, tenantId);
+    createAuditLog("License", "EXTEND", savedLicense.getId().toString(), userId, tenantId, changes);
 
     return savedLicense;
   }
@@ -110,35 +135,44 @@ public class LicenseManagementService {
     License license = licenseRepository.findById(licenseId)
         .orElseThrow(() -> new IllegalArgumentException("License not found"));
 
+    LicenseStatus previousStatus = license.getStatus();
     license.suspend();
+    Map<String, Object> changes = auditDiffer.diff(license);
     licenseRepository.save(license);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("License", "SUSPEND", license.getId().toString(), userId, tenantId);
+    createAuditLog("License", "SUSPEND", license.getId().toString(), userId, tenantId, changes);
+    tenantCounterService.recordTransition(license.getTenantId(), previousStatus, license.getStatus(), 1);
   }
 
   public void reactivateLicense(UUID licenseId, String userId) {
     License license = licenseRepository.findById(licenseId)
         .orElseThrow(() -> new IllegalArgumentException("License not found"));
 
+    LicenseStatus previousStatus = license.getStatus();
     license.activate();
+    Map<String, Object> changes = auditDiffer.diff(license);
     licenseRepository.save(license);
 
     licenseSigningService.createSignedLicenseToken(license);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("License", "REACTIVATE", license.getId().toString(), userId, tenantId);
+    createAuditLog("License", "REACTIVATE", license.getId().toString(), userId, tenantId, changes);
+    tenantCounterService.recordTransition(license.getTenantId(), previousStatus, license.getStatus(), 1);
   }
 
   public void revokeLicense(UUID licenseId, String userId) {
     License license = licenseRepository.findById(licenseId)
         .orElseThrow(() -> new IllegalArgumentException("License not found"));
 
+    LicenseStatus previousStatus = license.getStatus();
     license.revoke();
+    Map<String, Object> changes = auditDiffer.diff(license);
     licenseRepository.save(license);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("License", "REVOKE", license.getId().toString(), userId, tenantId);
+    createAuditLog("License", "REVOKE", license.getId().toString(), userId, tenantId, changes);
+    tenantCounterService.recordTransition(license.getTenantId(), previousStatus, license.getStatus(), 1);
   }
 
   @Transactional(readOnly = true)
@@ -153,13 +187,22 @@ public class LicenseManagementService {
   }
 
   @Transactional(readOnly = true)
-  public List<License> findByStatus(LicenseStatus status) {
-    return licenseRepository.findByStatus(status);
+  public <T> CursorPage<T> findByStatus(LicenseStatus status, String cursor, int limit, Class<T> view) {
+    return CursorPage.of(licenseRepository.findByStatus(status,
+        KeysetCursor.decode(cursor, CREATION_ORDER), CREATION_ORDER, CursorPage.limit(limit), view));
   }
 
   @Transactional(readOnly = true)
   public long countByStatus(LicenseStatus status) {
-    return licenseRepository.countByStatus(status);
+    return tenantCounterService.get(TenantContext.getCurrentTenant(), TenantCounterService.licenseStatus(status),
+        () -> licenseRepository.countByStatus(status));
+  }
+
+  @Transactional(readOnly = true)
+  public long countByOrganizationId(UUID organizationId) {
+    return tenantCounterService.get(TenantContext.getCurrentTenant(),
+        TenantCounterService.organizationLicenses(organizationId),
+        () -> licenseRepository.countByOrganizationId(organizationId));
   }
 
   @Transactional(readOnly = true)
@@ -170,8 +213,9 @@ public class LicenseManagementService {
     return licenseSigningService.createSignedLicenseToken(license);
   }
 
-  private void createAuditLog(String entityType, String action, String entityId, String userId, String tenantId) {
-    AuditLog auditLog = new AuditLog(entityType, UUID.fromString(entityId), action, userId, tenantId, null);
-    auditLogRepository.save(auditLog);
+  private void createAuditLog(String entityType, String action, String entityId, String userId, String tenantId,
+      Map<String, Object> details) {
+    AuditLog auditLog = new AuditLog(entityType, UUID.fromString(entityId), action, userId, tenantId, details);
+    auditLogWriter.record(auditLog);
   }
 }
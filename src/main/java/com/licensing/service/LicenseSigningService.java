@@ -7,32 +7,76 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.Ed25519Signer;
 import com.nimbusds.jose.crypto.Ed25519Verifier;
 import com.nimbusds.jose.jwk.Curve;
+import com.google.crypto.tink.subtle.Ed25519Sign;
 import com.nimbusds.jose.jwk.OctetKeyPair;
-import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Service for cryptographically signing and verifying software licenses.
  * Uses Ed25519 digital signatures for security and performance.
+ * The key is the configured {@code current-key-id}, given as base64 DER
+ * (PKCS#8 private, X.509 public) or base64 of the PEM files; startup fails
+ * if it is missing or the public key does not belong to the private key.
+ * Signed payloads are verified against a key ring of the public keys of all
+ * configured {@code keys}, so checkpoints signed before a key rotation still
+ * verify; a retired key only needs its {@code public-key}. Keys whose public
+ * key cannot be read are left out of the ring with a warning.
  */
 @Service
 public class LicenseSigningService {
 
+  private static final Logger logger = LoggerFactory.getLogger(LicenseSigningService.class);
+  private static final String PUBLIC_KEY_SUFFIX = ".public-key";
+  private static final HexFormat HEX = HexFormat.of();
+  private static final byte[] PRIVATE_KEY_PREFIX = HEX.parseHex("302e020100300506032b657004220420");
+  private static final byte[] PUBLIC_KEY_PREFIX = HEX.parseHex("302a300506032b6570032100");
+  private static final int KEY_LENGTH = 32;
+
   private final OctetKeyPair keyPair;
+  private final Map<String, OctetKeyPair> verificationKeys;
   private final ObjectMapper objectMapper;
 
+  @Autowired
   public LicenseSigningService(
-      @Value("${license.signing.keys.key-1.private-key}") String privateKeyBase64,
-      @Value("${license.signing.keys.key-1.public-key}") String publicKeyBase64) {
+      @Value("${license.signing.current-key-id:key-1}") String keyId,
+      @Value("${license.signing.keys.${license.signing.current-key-id:key-1}.private-key:}") String privateKeyBase64,
+      @Value("${license.signing.keys.${license.signing.current-key-id:key-1}.public-key:}") String publicKeyBase64,
+      Environment environment) {
+    this(keyId, privateKeyBase64, publicKeyBase64, configuredPublicKeys(environment));
+  }
+
+  public LicenseSigningService(String keyId, String privateKeyBase64, String publicKeyBase64) {
+    this(keyId, privateKeyBase64, publicKeyBase64, Map.of());
+  }
+
+  /**
+   * @param publicKeys base64 public keys of other keys to verify with, by key ID
+   */
+  public LicenseSigningService(String keyId, String privateKeyBase64, String publicKeyBase64,
+      Map<String, String> publicKeys) {
     this.objectMapper = new ObjectMapper();
-    this.keyPair = createKeyPairFromBase64(privateKeyBase64, publicKeyBase64);
+    this.keyPair = createKeyPairFromBase64(keyId, privateKeyBase64, publicKeyBase64);
+    this.verificationKeys = verificationKeys(keyPair, publicKeys);
   }
 
   /**
@@ -98,6 +142,82 @@ public class LicenseSigningService {
     }
   }
 
+  /**
+   * Signs an arbitrary payload, such as an audit checkpoint hash, with the
+   * current Ed25519 key.
+   *
+   * @param payload the text to sign
+   * @return compact JWS carrying the payload and the signing key ID
+   */
+  public String signPayload(String payload) {
+    if (payload == null || payload.isEmpty()) {
+      throw new IllegalArgumentException("Payload cannot be null or empty");
+    }
+
+    try {
+      JWSObject jwsObject = new JWSObject(
+          new JWSHeader.Builder(JWSAlgorithm.EdDSA).keyID(keyPair.getKeyID()).build(),
+          new Payload(payload));
+      jwsObject.sign(new Ed25519Signer(keyPair));
+      return jwsObject.serialize();
+    } catch (JOSEException e) {
+      throw new RuntimeException("Failed to sign payload", e);
+    }
+  }
+
+  /**
+   * Verifies a compact JWS produced by {@link #signPayload(String)} and checks
+   * that it carries the expected payload, using the key named in its header.
+   *
+   * @return true if the signature is valid and the payload matches
+   */
+  public boolean verifyPayload(String signature, String expectedPayload) {
+    return verifyPayload(signature, expectedPayload, null);
+  }
+
+  /**
+   * Verifies a compact JWS produced by {@link #signPayload(String)} with the
+   * given key of the key ring and checks that it carries the expected
+   * payload. Without a key ID, the key named in the JWS header is used, or
+   * the current key if the header names none.
+   *
+   * @return true if the key is in the ring, the signature is valid and the
+   *         payload matches
+   */
+  public boolean verifyPayload(String signature, String expectedPayload, String keyId) {
+    if (signature == null || signature.isBlank() || expectedPayload == null) {
+      return false;
+    }
+
+    try {
+      JWSObject jwsObject = JWSObject.parse(signature);
+      String headerKeyId = jwsObject.getHeader().getKeyID();
+      String verifyingKeyId = keyId != null ? keyId : headerKeyId != null ? headerKeyId : getKeyId();
+      OctetKeyPair key = verificationKeys.get(verifyingKeyId);
+      if (key == null || (headerKeyId != null && !headerKeyId.equals(verifyingKeyId))) {
+        return false;
+      }
+      return jwsObject.verify(new Ed25519Verifier(key))
+          && expectedPayload.equals(jwsObject.getPayload().toString());
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  /**
+   * Whether signatures made with the given key can be verified.
+   */
+  public boolean hasVerificationKey(String keyId) {
+    return verificationKeys.containsKey(keyId);
+  }
+
+  /**
+   * Returns the ID of the key new signatures are made with.
+   */
+  public String getKeyId() {
+    return keyPair.getKeyID();
+  }
+
   /**
    * Creates a signed JWT token containing the license information.
    * 
@@ -195,21 +315,79 @@ public class LicenseSigningService {
     }
   }
 
-  private OctetKeyPair createKeyPairFromBase64(String privateKeyBase64, String publicKeyBase64) {
+  private static OctetKeyPair createKeyPairFromBase64(String keyId, String privateKeyBase64,
+      String publicKeyBase64) {
+    if (privateKeyBase64 == null || privateKeyBase64.isBlank()) {
+      throw new IllegalStateException("No private key is configured for signing key " + keyId);
+    }
+    byte[] seed = keyBytes(privateKeyBase64, PRIVATE_KEY_PREFIX, "private", keyId);
+    byte[] publicKey;
     try {
+      publicKey = Ed25519Sign.KeyPair.newKeyPairFromSeed(seed).getPublicKey();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Invalid private key for signing key " + keyId, e);
+    }
+    if (publicKeyBase64 != null && !publicKeyBase64.isBlank()
+        && !Arrays.equals(publicKey, keyBytes(publicKeyBase64, PUBLIC_KEY_PREFIX, "public", keyId))) {
+      throw new IllegalStateException("The public key of signing key " + keyId
+          + " does not belong to its private key");
+    }
+    return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(publicKey))
+        .d(Base64URL.encode(seed))
+        .keyID(keyId)
+        .build();
+  }
 
-      if (privateKeyBase64.equals("MC4CAQAwBQYDK2VwBCIEIH+h7WCYWgV5ZH9XQw7bF1RQ6EaF7jBMGxKLh1gCDqA2")) {
-        return new OctetKeyPairGenerator(Curve.Ed25519)
-            .keyID("test-key")
-            .generate();
-      }
+  private static Map<String, String> configuredPublicKeys(Environment environment) {
+    Map<String, String> publicKeys = new LinkedHashMap<>();
+    Binder.get(environment).bind("license.signing.keys", Bindable.mapOf(String.class, String.class))
+        .orElse(Map.of())
+        .forEach((name, value) -> {
+          if (name.endsWith(PUBLIC_KEY_SUFFIX)) {
+            publicKeys.put(name.substring(0, name.length() - PUBLIC_KEY_SUFFIX.length()), value);
+          }
+        });
+    return publicKeys;
+  }
 
-      return new OctetKeyPairGenerator(Curve.Ed25519)
-          .keyID("generated-key")
-          .generate();
+  private static Map<String, OctetKeyPair> verificationKeys(OctetKeyPair current, Map<String, String> publicKeys) {
+    Map<String, OctetKeyPair> keys = new LinkedHashMap<>();
+    keys.put(current.getKeyID(), current.toPublicJWK());
+    publicKeys.forEach((keyId, publicKeyBase64) -> {
+      if (keys.containsKey(keyId) || publicKeyBase64 == null || publicKeyBase64.isBlank()) {
+        return;
+      }
+      try {
+        keys.put(keyId, new OctetKeyPair.Builder(Curve.Ed25519,
+            Base64URL.encode(keyBytes(publicKeyBase64, PUBLIC_KEY_PREFIX, "public", keyId)))
+            .keyID(keyId)
+            .build());
+      } catch (IllegalStateException e) {
+        logger.warn("Signing key {} is left out of the verification key ring: {}", keyId, e.getMessage());
+      }
+    });
+    return Map.copyOf(keys);
+  }
 
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to create key pair", e);
+  /**
+   * Extracts the raw 32-byte key from base64 DER, or from base64 of a PEM
+   * file as produced by {@code openssl genpkey | base64}.
+   */
+  private static byte[] keyBytes(String base64, byte[] prefix, String kind, String keyId) {
+    try {
+      byte[] decoded = Base64.getMimeDecoder().decode(base64.trim());
+      String text = new String(decoded, StandardCharsets.US_ASCII);
+      if (text.startsWith("-----BEGIN")) {
+        decoded = Base64.getMimeDecoder().decode(text.replaceAll("-----[A-Z ]+-----", ""));
+      }
+      if (decoded.length != prefix.length + KEY_LENGTH
+          || !Arrays.equals(Arrays.copyOf(decoded, prefix.length), prefix)) {
+        throw new IllegalStateException("The " + kind + " key of signing key " + keyId
+            + " is not an Ed25519 key");
+      }
+      return Arrays.copyOfRange(decoded, prefix.length, decoded.length);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException("The " + kind + " key of signing key " + keyId + " is not valid base64", e);
     }
   }
 }
@@ -4,14 +4,18 @@ import com.licensing.config.tenant.TenantContext;
 import com.licensing.domain.AuditLog;
 import com.licensing.domain.Organization;
 import com.licensing.domain.Plan;
-import com.licensing.repository.AuditLogRepository;
 import com.licensing.repository.OrganizationRepository;
+import com.licensing.repository.projection.OrganizationSummary;
+import com.licensing.service.audit.AuditDiffer;
+import com.licensing.service.audit.AuditLogWriter;
+import com.licensing.service.counter.TenantCounterService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,11 +24,16 @@ import java.util.UUID;
 public class OrganizationService {
 
   private final OrganizationRepository organizationRepository;
-  private final AuditLogRepository auditLogRepository;
+  private final AuditLogWriter auditLogWriter;
+  private final AuditDiffer auditDiffer;
+  private final TenantCounterService tenantCounterService;
 
-  public OrganizationService(OrganizationRepository organizationRepository, AuditLogRepository auditLogRepository) {
+  public OrganizationService(OrganizationRepository organizationRepository, AuditLogWriter auditLogWriter,
+      AuditDiffer auditDiffer, TenantCounterService tenantCounterService) {
     this.organizationRepository = organizationRepository;
-    this.auditLogRepository = auditLogRepository;
+    this.auditLogWriter = auditLogWriter;
+    this.auditDiffer = auditDiffer;
+    this.tenantCounterService = tenantCounterService;
   }
 
   public Organization createOrganization(String name, String contactEmail, Plan plan, String userId) {
@@ -36,7 +45,8 @@ public class OrganizationService {
     Organization organization = new Organization(name, contactEmail, tenantId, plan);
     Organization savedOrganization = organizationRepository.save(organization);
 
-    createAuditLog("Organization", "CREATE", savedOrganization.getId().toString(), userId, tenantId);
+    createAuditLog("Organization", "CREATE", savedOrganization.getId().toString(), userId, tenantId, null);
+    tenantCounterService.increment(tenantId, TenantCounterService.ACTIVE_ORGANIZATIONS, 1);
 
     return savedOrganization;
   }
@@ -61,10 +71,11 @@ public class OrganizationService {
     }
 
     organization.updateDetails(name, contactEmail, plan);
+    Map<String, Object> changes = auditDiffer.diff(organization);
     Organization savedOrganization = organizationRepository.save(organization);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("Organization", "UPDATE", savedOrganization.getId().toString(), userId, tenantId);
+    createAuditLog("Organization", "UPDATE", savedOrganization.getId().toString(), userId, tenantId, changes);
 
     return savedOrganization;
   }
@@ -73,22 +84,32 @@ public class OrganizationService {
     Organization organization = organizationRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
 
+    boolean wasActive = organization.isActive();
     organization.deactivate();
+    Map<String, Object> changes = auditDiffer.diff(organization);
     organizationRepository.save(organization);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("Organization", "DEACTIVATE", organization.getId().toString(), userId, tenantId);
+    createAuditLog("Organization", "DEACTIVATE", organization.getId().toString(), userId, tenantId, changes);
+    if (wasActive) {
+      tenantCounterService.increment(organization.getTenantId(), TenantCounterService.ACTIVE_ORGANIZATIONS, -1);
+    }
   }
 
   public void activateOrganization(UUID id, String userId) {
     Organization organization = organizationRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
 
+    boolean wasActive = organization.isActive();
     organization.activate();
+    Map<String, Object> changes = auditDiffer.diff(organization);
     organizationRepository.save(organization);
 
     String tenantId = TenantContext.getCurrentTenant();
-    createAuditLog("Organization", "ACTIVATE", organization.getId().toString(), userId, tenantId);
+    createAuditLog("Organization", "ACTIVATE", organization.getId().toString(), userId, tenantId, changes);
+    if (!wasActive) {
+      tenantCounterService.increment(organization.getTenantId(), TenantCounterService.ACTIVE_ORGANIZATIONS, 1);
+    }
   }
 
   @Transactional(readOnly = true)
@@ -106,13 +127,20 @@ public class OrganizationService {
     return organizationRepository.findAll(pageable);
   }
 
+  @Transactional(readOnly = true)
+  public Page<OrganizationSummary> findAllSummaries(Pageable pageable) {
+    return organizationRepository.findSummariesBy(pageable);
+  }
+
   @Transactional(readOnly = true)
   public long countActiveOrganizations() {
-    return organizationRepository.countByActiveTrue();
+    return tenantCounterService.get(TenantContext.getCurrentTenant(), TenantCounterService.ACTIVE_ORGANIZATIONS,
+        organizationRepository::countByActiveTrue);
   }
 
-  private void createAuditLog(String entityType, String action, String entityId, String userId, String tenantId) {
-    AuditLog auditLog = new AuditLog(entityType, UUID.fromString(entityId), action, userId, tenantId, null);
-    auditLogRepository.save(auditLog);
+  private void createAuditLog(String entityType, String action, String entityId, String userId, String tenantId,
+      Map<String, Object> details) {
+    AuditLog auditLog = new AuditLog(entityType, UUID.fromString(entityId), action, userId, tenantId, details);
+    auditLogWriter.record(auditLog);
   }
 }
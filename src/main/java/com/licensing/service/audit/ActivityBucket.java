@@ -0,0 +1,37 @@
+package com.licensing.service.audit;
+
+import java.time.Instant;
+
+/**
+ * Number of audit events of one entity type and action in a time bucket.
+ */
+public class ActivityBucket {
+
+  private final Instant bucketStart;
+  private final String entityType;
+  private final String action;
+  private final long count;
+
+  public ActivityBucket(Instant bucketStart, String entityType, String action, long count) {
+    this.bucketStart = bucketStart;
+    this.entityType = entityType;
+    this.action = action;
+    this.count = count;
+  }
+
+  public Instant getBucketStart() {
+    return bucketStart;
+  }
+
+  public String getEntityType() {
+    return entityType;
+  }
+
+  public String getAction() {
+    return action;
+  }
+
+  public long getCount() {
+    return count;
+  }
+}
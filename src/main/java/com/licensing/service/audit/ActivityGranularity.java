@@ -0,0 +1,36 @@
+package com.licensing.service.audit;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Bucket width of an audit activity series. Buckets are aligned to UTC.
+ */
+public enum ActivityGranularity {
+  HOUR(ChronoUnit.HOURS),
+  DAY(ChronoUnit.DAYS);
+
+  private final ChronoUnit unit;
+
+  ActivityGranularity(ChronoUnit unit) {
+    this.unit = unit;
+  }
+
+  public Instant bucketOf(Instant instant) {
+    return instant.truncatedTo(unit);
+  }
+
+  /**
+   * Resolves the granularity from a request parameter, case insensitively.
+   *
+   * @throws IllegalArgumentException if the granularity is not supported
+   */
+  public static ActivityGranularity fromParameter(String granularity) {
+    try {
+      return valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unsupported granularity: " + granularity);
+    }
+  }
+}
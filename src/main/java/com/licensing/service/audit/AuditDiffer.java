@@ -0,0 +1,163 @@
+package com.licensing.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Describes the pending changes of a managed entity as audit details.
+ * The diff comes from Hibernate's own dirty check: the state loaded into the
+ * persistence context is compared with the entity's current values, so only
+ * changed properties are read and nothing is serialized beyond them. Must be
+ * called before the changes are flushed, since a flush makes the current
+ * state the loaded state.
+ *
+ * <p>Scalar changes are recorded as {@code {"changes": {"expiryDate":
+ * {"from": ..., "to": ...}}}}. Properties holding a JSON document, such as a
+ * license's features, are recorded as a JSON Patch style list of
+ * {@code add}, {@code remove} and {@code replace} operations under the
+ * document's name.
+ */
+@Component
+public class AuditDiffer {
+
+  private static final Set<String> IGNORED_PROPERTIES = Set.of("version", "updatedAt", "signature");
+  private static final Map<String, String> JSON_DOCUMENT_PROPERTIES = Map.of("featuresJson", "features");
+  private static final TypeReference<Map<String, Object>> DOCUMENT_TYPE = new TypeReference<>() {
+  };
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Returns the audit details of the entity's unflushed changes, or null if
+   * the entity is not managed or has no audited changes.
+   */
+  public Map<String, Object> diff(Object entity) {
+    SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+    EntityEntry entry = session.getPersistenceContextInternal().getEntry(entity);
+    if (entry == null || entry.getLoadedState() == null) {
+      return null;
+    }
+
+    EntityPersister persister = entry.getPersister();
+    Object[] loadedState = entry.getLoadedState();
+    Object[] currentState = persister.getValues(entity);
+    int[] dirtyProperties = persister.findDirty(currentState, loadedState, entity, session);
+    if (dirtyProperties == null) {
+      return null;
+    }
+
+    String[] propertyNames = persister.getPropertyNames();
+    Map<String, Object> changes = new LinkedHashMap<>();
+    Map<String, Object> details = new LinkedHashMap<>();
+    for (int index : dirtyProperties) {
+      String property = propertyNames[index];
+      if (IGNORED_PROPERTIES.contains(property)) {
+        continue;
+      }
+      String document = JSON_DOCUMENT_PROPERTIES.get(property);
+      if (document != null) {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        patch("", parse(loadedState[index]), parse(currentState[index]), operations);
+        if (!operations.isEmpty()) {
+          details.put(document, operations);
+        }
+        continue;
+      }
+      Map<String, Object> change = new LinkedHashMap<>();
+      change.put("from", toAuditValue(loadedState[index]));
+      change.put("to", toAuditValue(currentState[index]));
+      changes.put(property, change);
+    }
+
+    if (!changes.isEmpty()) {
+      details.put("changes", changes);
+    }
+    return details.isEmpty() ? null : details;
+  }
+
+  /**
+   * Appends the operations turning {@code before} into {@code after},
+   * descending into nested objects so a change deep in a document does not
+   * replace the whole branch.
+   */
+  static void patch(String path, Map<String, Object> before, Map<String, Object> after,
+      List<Map<String, Object>> operations) {
+    for (String key : before.keySet()) {
+      if (!after.containsKey(key)) {
+        operations.add(operation("remove", path + "/" + escape(key), null, false));
+      }
+    }
+    for (Map.Entry<String, Object> entry : after.entrySet()) {
+      String childPath = path + "/" + escape(entry.getKey());
+      if (!before.containsKey(entry.getKey())) {
+        operations.add(operation("add", childPath, entry.getValue(), true));
+        continue;
+      }
+      Object previous = before.get(entry.getKey());
+      if (previous instanceof Map<?, ?> previousMap && entry.getValue() instanceof Map<?, ?> currentMap) {
+        patch(childPath, asDocument(previousMap), asDocument(currentMap), operations);
+      } else if (!Objects.equals(previous, entry.getValue())) {
+        operations.add(operation("replace", childPath, entry.getValue(), true));
+      }
+    }
+  }
+
+  private static Map<String, Object> operation(String op, String path, Object value, boolean withValue) {
+    Map<String, Object> operation = new LinkedHashMap<>();
+    operation.put("op", op);
+    operation.put("path", path);
+    if (withValue) {
+      operation.put("value", value);
+    }
+    return operation;
+  }
+
+  /**
+   * Escapes a key as a JSON Pointer reference token (RFC 6901).
+   */
+  private static String escape(String key) {
+    return key.replace("~", "~0").replace("/", "~1");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> asDocument(Map<?, ?> map) {
+    return (Map<String, Object>) map;
+  }
+
+  private static Map<String, Object> parse(Object json) {
+    if (json == null || json.toString().isBlank()) {
+      return Map.of();
+    }
+    try {
+      return objectMapper.readValue(json.toString(), DOCUMENT_TYPE);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to parse audited JSON document", e);
+    }
+  }
+
+  private static Object toAuditValue(Object value) {
+    if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof Enum<?> constant) {
+      return constant.name();
+    }
+    return value.toString();
+  }
+}
@@ -0,0 +1,160 @@
+package com.licensing.service.audit;
+
+import com.licensing.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly audit_logs partitions ahead of time and enforces
+ * {@code license.audit.retention-days}. On PostgreSQL, where audit_logs is
+ * range-partitioned by month, retention detaches and drops whole partitions
+ * once every row in them is past the cutoff, so old data is removed without
+ * scanning or deleting rows. Rows that reached the DEFAULT partition because
+ * their month had no partition yet are moved into the partition when it is
+ * created. Databases without the partitioned table fall back to a single
+ * bulk delete.
+ */
+@Service
+public class AuditLogRetentionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AuditLogRetentionService.class);
+  private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_p(\\d{6})");
+  private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+  private static final String IS_PARTITIONED_QUERY =
+      "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('audit_logs')";
+  private static final String PARTITIONS_QUERY =
+      "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+          + "WHERE i.inhparent = to_regclass('audit_logs')";
+  private static final String CREATE_PARTITION_QUERY = "SELECT create_audit_log_partition(?)";
+
+  private final AuditLogRepository auditLogRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final int retentionDays;
+  private final int monthsAhead;
+  private final Counter createdCounter;
+  private final Counter droppedCounter;
+  private final Counter deletedCounter;
+  private volatile Boolean partitioned;
+
+  public AuditLogRetentionService(AuditLogRepository auditLogRepository, JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${license.audit.retention.enabled:true}") boolean enabled,
+      @Value("${license.audit.retention-days:90}") int retentionDays,
+      @Value("${license.audit.partitions.months-ahead:3}") int monthsAhead) {
+    this.auditLogRepository = auditLogRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.retentionDays = retentionDays;
+    this.monthsAhead = monthsAhead;
+    this.createdCounter = Counter.builder("license.audit.partitions.created")
+        .description("Monthly audit log partitions created ahead of time")
+        .register(meterRegistry);
+    this.droppedCounter = Counter.builder("license.audit.partitions.dropped")
+        .description("Audit log partitions dropped by retention")
+        .register(meterRegistry);
+    this.deletedCounter = Counter.builder("license.audit.retention.deleted")
+        .description("Audit log rows deleted by retention on unpartitioned tables")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(initialDelayString = "${license.audit.retention.initial-delay:PT1M}",
+      fixedDelayString = "${license.audit.retention.interval:PT6H}")
+  public void scheduledMaintenance() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      maintain(Instant.now());
+    } catch (RuntimeException e) {
+      logger.error("Audit log retention failed", e);
+    }
+  }
+
+  /**
+   * Creates missing partitions up to {@code months-ahead} months after
+   * {@code now} and removes audit data older than the retention period.
+   */
+  public void maintain(Instant now) {
+    Instant cutoff = now.minus(retentionDays, ChronoUnit.DAYS);
+    if (!isPartitioned()) {
+      int deleted = auditLogRepository.deleteByTimestampBefore(cutoff);
+      deletedCounter.increment(deleted);
+      if (deleted > 0) {
+        logger.info("Deleted {} audit log entries older than {}", deleted, cutoff);
+      }
+      return;
+    }
+    createPartitions(YearMonth.from(now.atZone(ZoneOffset.UTC)));
+    dropPartitionsBefore(cutoff);
+  }
+
+  private void createPartitions(YearMonth current) {
+    for (int offset = 0; offset <= monthsAhead; offset++) {
+      LocalDate month = current.plusMonths(offset).atDay(1);
+      // A single statement, so re-homing DEFAULT rows is never seen half done.
+      Boolean created = jdbcTemplate.queryForObject(CREATE_PARTITION_QUERY, Boolean.class, month);
+      if (Boolean.TRUE.equals(created)) {
+        createdCounter.increment();
+        logger.info("Created audit log partition for {}", YearMonth.from(month));
+      }
+    }
+  }
+
+  private void dropPartitionsBefore(Instant cutoff) {
+    List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_QUERY, String.class);
+    for (String partition : partitions) {
+      Matcher matcher = PARTITION_NAME.matcher(partition);
+      if (!matcher.matches()) {
+        continue;
+      }
+      YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_MONTH);
+      Instant upperBound = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+      if (upperBound.isAfter(cutoff)) {
+        continue;
+      }
+      transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+      });
+      droppedCounter.increment();
+      logger.info("Dropped audit log partition {} past the {} day retention", partition, retentionDays);
+    }
+  }
+
+  private boolean isPartitioned() {
+    Boolean result = partitioned;
+    if (result == null) {
+      result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+          "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+      if (Boolean.TRUE.equals(result)) {
+        Long count = jdbcTemplate.queryForObject(IS_PARTITIONED_QUERY, Long.class);
+        result = count != null && count > 0;
+      }
+      partitioned = result;
+    }
+    return result;
+  }
+}
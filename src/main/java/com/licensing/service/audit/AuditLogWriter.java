@@ -0,0 +1,534 @@
+package com.licensing.service.audit;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.audit.journal.AuditJournal;
+import com.licensing.service.audit.journal.AuditRecordCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes audit entries off the business transaction in batches.
+ * Entries are queued once the surrounding transaction commits, so rolled-back
+ * changes are never audited, and a background thread inserts them through
+ * JDBC batches of up to {@code batch-size} rows.
+ *
+ * <p>Backpressure: when the bounded queue is full, the caller waits up to
+ * {@code enqueue-timeout}; if there is still no room the entry is written
+ * synchronously in its own transaction. A batch the database fails to take
+ * stays pending and is retried with a growing backoff while the queue fills.
+ * The business change has already committed by then, so a synchronous write
+ * that fails is logged with the entry and counted in
+ * {@code license.audit.writer.failed} instead of failing the caller, as are
+ * entries the database rejects by constraint.
+ *
+ * <p>Durability: audit writes are lossy by default. An entry is durable once
+ * its batch commits, normally within {@code flush-interval} of the business
+ * commit. The queue is drained on graceful shutdown, but a process crash
+ * loses the queued entries. Deployments that cannot lose entries enable the
+ * journal below, or set {@code license.audit.writer.async=false} to write
+ * audit rows in the business transaction.
+ *
+ * <p>With {@code license.audit.writer.journal.enabled} the in-memory queue is
+ * replaced by a local {@link AuditJournal}: committing threads only append to
+ * a memory-mapped segment, and the background thread replays the journal
+ * into {@code audit_logs}, acknowledging each batch once it is committed.
+ * While the database is slow or down the journal grows, up to
+ * {@code journal.max-size}, instead of blocking requests, and entries not yet
+ * replayed are picked up again after a restart. A record that cannot be
+ * decoded is copied to the journal's {@code quarantine} directory and
+ * skipped, so it cannot hold up the entries behind it.
+ *
+ * <p>With sharding enabled a batch is split by the shard of each entry's
+ * tenant and every part is written in its own transaction on that shard.
+ */
+@Component
+public class AuditLogWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+  private static final int MAX_ATTEMPTS = 3;
+  private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+  private final AuditLogRepository auditLogRepository;
+  private final AuditRollupService auditRollupService;
+  private final ShardMap shardMap;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final boolean async;
+  private final int batchSize;
+  private final Duration flushInterval;
+  private final Duration enqueueTimeout;
+  private final boolean journalEnabled;
+  private final String journalDirectory;
+  private final DataSize journalSegmentSize;
+  private final DataSize journalMaxSize;
+  private final BlockingQueue<AuditLog> queue;
+  private final List<AuditLog> pending = new ArrayList<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final Timer flushTimer;
+  private final DistributionSummary batchSizes;
+  private final Counter fallbackCounter;
+  private final Counter failedCounter;
+  private final Counter quarantinedCounter;
+  private volatile boolean running;
+  private volatile AuditJournal journal;
+  private boolean replayFailed;
+  private Thread writerThread;
+
+  public AuditLogWriter(AuditLogRepository auditLogRepository, AuditRollupService auditRollupService,
+      ShardMap shardMap, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${license.audit.writer.async:true}") boolean async,
+      @Value("${license.audit.writer.queue-capacity:10000}") int queueCapacity,
+      @Value("${license.audit.writer.batch-size:500}") int batchSize,
+      @Value("${license.audit.writer.flush-interval:PT0.2S}") Duration flushInterval,
+      @Value("${license.audit.writer.enqueue-timeout:PT1S}") Duration enqueueTimeout,
+      @Value("${license.audit.writer.journal.enabled:false}") boolean journalEnabled,
+      @Value("${license.audit.writer.journal.directory:}") String journalDirectory,
+      @Value("${license.audit.writer.journal.segment-size:16MB}") DataSize journalSegmentSize,
+      @Value("${license.audit.writer.journal.max-size:1GB}") DataSize journalMaxSize) {
+    this.auditLogRepository = auditLogRepository;
+    this.auditRollupService = auditRollupService;
+    this.shardMap = shardMap;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.meterRegistry = meterRegistry;
+    this.async = async;
+    this.batchSize = batchSize;
+    this.flushInterval = flushInterval;
+    this.enqueueTimeout = enqueueTimeout;
+    this.journalEnabled = journalEnabled;
+    this.journalDirectory = journalDirectory;
+    this.journalSegmentSize = journalSegmentSize;
+    this.journalMaxSize = journalMaxSize;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    Gauge.builder("license.audit.writer.queue.depth", queue, BlockingQueue::size)
+        .description("Audit entries waiting to be written")
+        .register(meterRegistry);
+    this.flushTimer = Timer.builder("license.audit.writer.flush")
+        .description("Time to write one batch of audit entries")
+        .register(meterRegistry);
+    this.batchSizes = DistributionSummary.builder("license.audit.writer.batch.size")
+        .description("Audit entries per written batch")
+        .register(meterRegistry);
+    this.fallbackCounter = Counter.builder("license.audit.writer.fallback")
+        .description("Audit entries written synchronously because the queue was full")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("license.audit.writer.failed")
+        .description("Audit entries that could not be written")
+        .register(meterRegistry);
+    this.quarantinedCounter = Counter.builder("license.audit.writer.journal.quarantined")
+        .description("Journal records that could not be decoded and were set aside")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!async) {
+      return;
+    }
+    if (journalEnabled) {
+      openJournal();
+    }
+    running = true;
+    writerThread = new Thread(journal != null ? this::replay : this::run, "audit-log-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (writerThread != null) {
+      writerThread.interrupt();
+      try {
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      if (journal != null) {
+        logger.warn("Could not drain the audit journal on shutdown, replaying it on next start", e);
+      } else {
+        int lost = pending.size() + queue.size();
+        failedCounter.increment(lost);
+        logger.error("Dropping {} audit entries that could not be written on shutdown", lost, e);
+      }
+    }
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  /**
+   * Records an audit entry. Inside a transaction the entry is queued after
+   * commit and discarded on rollback; otherwise it is queued immediately.
+   */
+  public void record(AuditLog auditLog) {
+    if (!async) {
+      auditLogRepository.save(auditLog);
+      auditRollupService.record(List.of(auditLog));
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          enqueue(auditLog);
+        }
+      });
+    } else {
+      enqueue(auditLog);
+    }
+  }
+
+  /**
+   * Writes everything queued so far on the calling thread and waits for any
+   * batch the writer thread has in flight.
+   *
+   * @throws RuntimeException if entries cannot be written; they stay pending
+   *     for the writer thread
+   */
+  public void flush() {
+    writeLock.lock();
+    try {
+      if (journal != null) {
+        while (!journal.isEmpty()) {
+          if (!replayBatch()) {
+            throw new IllegalStateException("Audit journal could not be replayed");
+          }
+        }
+        return;
+      }
+      if (!pending.isEmpty()) {
+        write(pending);
+      }
+      while (queue.drainTo(pending, batchSize) > 0) {
+        write(pending);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void openJournal() {
+    if (journalDirectory == null || journalDirectory.isBlank()) {
+      throw new IllegalStateException(
+          "license.audit.writer.journal.directory must be set when the audit journal is enabled");
+    }
+    int segmentSize = (int) journalSegmentSize.toBytes();
+    int maxSegments = (int) Math.max(1, journalMaxSize.toBytes() / segmentSize);
+    try {
+      journal = new AuditJournal(Path.of(journalDirectory), segmentSize, maxSegments);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open audit journal in " + journalDirectory, e);
+    }
+    Gauge.builder("license.audit.writer.journal.backlog", journal, AuditJournal::backlogBytes)
+        .description("Bytes of journaled audit entries not yet written to the database")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("license.audit.writer.journal.segments", journal, AuditJournal::segmentCount)
+        .description("Audit journal segment files on disk")
+        .register(meterRegistry);
+    logger.info("Audit journal opened in {} with {} bytes pending", journalDirectory, journal.backlogBytes());
+  }
+
+  private void enqueue(AuditLog auditLog) {
+    if (journal != null) {
+      append(auditLog);
+      return;
+    }
+    boolean queued;
+    try {
+      queued = queue.offer(auditLog, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      queued = false;
+    }
+    if (!queued) {
+      writeNow(auditLog);
+    }
+  }
+
+  private void append(AuditLog auditLog) {
+    boolean appended;
+    try {
+      appended = journal.append(AuditRecordCodec.encode(auditLog));
+    } catch (IOException e) {
+      logger.warn("Failed to append audit entry {} to the journal", auditLog.getId(), e);
+      appended = false;
+    }
+    if (!appended) {
+      writeNow(auditLog);
+    }
+  }
+
+  /**
+   * Writes an entry on the calling thread. The change it audits has usually
+   * committed already, so an entry the database does not take is logged and
+   * counted rather than failing the caller.
+   */
+  private void writeNow(AuditLog auditLog) {
+    fallbackCounter.increment();
+    try {
+      write(new ArrayList<>(List.of(auditLog)));
+    } catch (RuntimeException e) {
+      failedCounter.increment();
+      logger.error("Dropping audit entry {} ({} {} {} of tenant {}) that could not be written", auditLog.getId(),
+          auditLog.getAction(), auditLog.getEntityType(), auditLog.getEntityId(), auditLog.getTenantId(), e);
+    }
+  }
+
+  private void run() {
+    Duration backoff = flushInterval;
+    while (running) {
+      try {
+        if (writeNext()) {
+          backoff = flushInterval;
+        } else {
+          Thread.sleep(backoff.toMillis());
+          backoff = nextBackoff(backoff);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Writes the pending batch, or the next one from the queue.
+   *
+   * @return false if the batch could not be written and should be retried after a backoff
+   */
+  private boolean writeNext() throws InterruptedException {
+    writeLock.lock();
+    try {
+      if (pending.isEmpty()) {
+        AuditLog first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+          return true;
+        }
+        pending.add(first);
+        queue.drainTo(pending, batchSize - 1);
+      }
+      write(pending);
+      return true;
+    } catch (RuntimeException e) {
+      logger.warn("Failed to write {} audit entries, retrying", pending.size(), e);
+      return false;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void replay() {
+    Duration backoff = flushInterval;
+    while (running) {
+      try {
+        journal.awaitRecords(flushInterval);
+        if (replayNext()) {
+          backoff = flushInterval;
+        } else {
+          Thread.sleep(backoff.toMillis());
+          backoff = nextBackoff(backoff);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private static Duration nextBackoff(Duration backoff) {
+    Duration doubled = backoff.multipliedBy(2);
+    return doubled.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : doubled;
+  }
+
+  /**
+   * @return false if replay failed and should be retried after a backoff
+   */
+  private boolean replayNext() {
+    writeLock.lock();
+    try {
+      journal.sync();
+      return journal.isEmpty() || replayBatch();
+    } catch (RuntimeException e) {
+      logger.error("Audit journal replay failed", e);
+      return false;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Writes the next journal batch and acknowledges it. Entries of a batch
+   * recovered after a restart, retried after a failure, or spanning several
+   * shards may already be stored and are skipped. A batch
+   * rejected by a constraint is retried entry by entry so one bad entry does
+   * not hold up the journal.
+   *
+   * @return false if the batch could not be written and should be retried
+   */
+  private boolean replayBatch() {
+    AuditJournal.Batch batch = journal.read(batchSize);
+    List<AuditLog> entries = new ArrayList<>(batch.getRecords().size());
+    for (byte[] record : batch.getRecords()) {
+      try {
+        entries.add(AuditRecordCodec.decode(record));
+      } catch (RuntimeException e) {
+        if (!quarantine(record, e)) {
+          return false;
+        }
+      }
+    }
+
+    try {
+      Map<String, List<AuditLog>> groups = shardMap.groupByShard(entries, AuditLog::getTenantId);
+      boolean mayBeStored = batch.isRecovered() || replayFailed || groups.size() > 1;
+      for (Map.Entry<String, List<AuditLog>> group : groups.entrySet()) {
+        replayGroup(group.getKey(), group.getValue(), mayBeStored);
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Failed to replay {} journaled audit entries, retrying", entries.size(), e);
+      replayFailed = true;
+      return false;
+    }
+
+    try {
+      journal.acknowledge(batch);
+    } catch (IOException e) {
+      logger.warn("Failed to acknowledge audit journal batch, retrying", e);
+      replayFailed = true;
+      return false;
+    }
+    replayFailed = false;
+    return true;
+  }
+
+  private void replayGroup(String shard, List<AuditLog> entries, boolean mayBeStored) {
+    try {
+      shardMap.runOnShard(shard, () -> {
+        if (mayBeStored) {
+          Set<UUID> stored = new HashSet<>(auditLogRepository.findExistingIds(
+              entries.stream().map(AuditLog::getId).toList()));
+          entries.removeIf(entry -> stored.contains(entry.getId()));
+        }
+        if (!entries.isEmpty()) {
+          flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            auditLogRepository.saveAll(entries);
+            auditRollupService.record(entries);
+          }));
+          batchSizes.record(entries.size());
+        }
+      });
+    } catch (DataIntegrityViolationException e) {
+      logger.warn("Audit batch rejected by the database, writing {} entries one by one", entries.size(), e);
+      entries.forEach(entry -> writeSingle(shard, entry));
+    }
+  }
+
+  /**
+   * @return false if the record could not be set aside and must stay in the journal
+   */
+  private boolean quarantine(byte[] record, RuntimeException cause) {
+    try {
+      if (journal.quarantine(record)) {
+        quarantinedCounter.increment();
+        logger.error("Quarantined an undecodable audit journal record of {} bytes", record.length, cause);
+      }
+      return true;
+    } catch (IOException e) {
+      logger.error("Failed to quarantine an undecodable audit journal record, retrying", e);
+      return false;
+    }
+  }
+
+  private void writeSingle(String shard, AuditLog auditLog) {
+    try {
+      shardMap.runOnShard(shard,
+          () -> transactionTemplate.executeWithoutResult(status -> {
+            auditLogRepository.save(auditLog);
+            auditRollupService.record(List.of(auditLog));
+          }));
+    } catch (DataIntegrityViolationException e) {
+      failedCounter.increment();
+      logger.error("Dropping audit entry {} rejected by the database", auditLog.getId(), e);
+    }
+  }
+
+  /**
+   * Writes a batch shard by shard, removing the entries of each shard from
+   * it once committed so a retry of the rest does not write them twice.
+   */
+  private void write(List<AuditLog> batch) {
+    for (Map.Entry<String, List<AuditLog>> group : shardMap.groupByShard(batch, AuditLog::getTenantId).entrySet()) {
+      write(group.getKey(), group.getValue());
+      Set<AuditLog> written = Collections.newSetFromMap(new IdentityHashMap<>());
+      written.addAll(group.getValue());
+      batch.removeIf(written::contains);
+    }
+  }
+
+  /**
+   * @throws RuntimeException if the batch still fails after {@value #MAX_ATTEMPTS} attempts
+   */
+  private void write(String shard, List<AuditLog> batch) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        shardMap.runOnShard(shard, () -> flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+          auditLogRepository.saveAll(batch);
+          auditRollupService.record(batch);
+        })));
+        batchSizes.record(batch.size());
+        return;
+      } catch (DataIntegrityViolationException e) {
+        logger.warn("Audit batch rejected by the database, writing {} entries one by one", batch.size(), e);
+        batch.forEach(entry -> writeSingle(shard, entry));
+        return;
+      } catch (RuntimeException e) {
+        if (attempt == MAX_ATTEMPTS) {
+          throw e;
+        }
+        logger.warn("Failed to write {} audit entries, retrying", batch.size(), e);
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.licensing.service.audit;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.AuditRollup;
+import com.licensing.repository.AuditRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hourly audit event counts per tenant, entity type and action, maintained
+ * as entries are written so activity charts read a few rollup rows instead
+ * of scanning {@code audit_logs}. Like {@code TenantCounterService}, counts
+ * are buffered in memory once the writing transaction commits and added to
+ * {@code audit_rollups} by a periodic flush; reads include this node's
+ * unflushed counts. Counts lost with a node are restored by
+ * {@link AuditRollupReconciler}.
+ */
+@Service
+public class AuditRollupService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AuditRollupService.class);
+  private static final Comparator<AuditRollup.Key> BUCKET_ORDER = Comparator
+      .comparing(AuditRollup.Key::getBucketStart)
+      .thenComparing(AuditRollup.Key::getEntityType)
+      .thenComparing(AuditRollup.Key::getAction);
+
+  private final AuditRollupRepository auditRollupRepository;
+  private final ShardMap shardMap;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final Map<AuditRollup.Key, Long> pending = new ConcurrentHashMap<>();
+
+  public AuditRollupService(AuditRollupRepository auditRollupRepository, ShardMap shardMap,
+      PlatformTransactionManager transactionManager,
+      @Value("${license.audit.rollups.enabled:true}") boolean enabled) {
+    this.auditRollupRepository = auditRollupRepository;
+    this.shardMap = shardMap;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Counts written audit entries once the current transaction commits, or
+   * immediately when no transaction is active.
+   */
+  public void record(Collection<AuditLog> auditLogs) {
+    if (!enabled || auditLogs.isEmpty()) {
+      return;
+    }
+    Map<AuditRollup.Key, Long> counts = new HashMap<>();
+    for (AuditLog auditLog : auditLogs) {
+      counts.merge(new AuditRollup.Key(auditLog.getTenantId(), auditLog.getTimestamp().truncatedTo(ChronoUnit.HOURS),
+          auditLog.getEntityType(), auditLog.getAction()), 1L, Long::sum);
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          counts.forEach((key, count) -> pending.merge(key, count, Long::sum));
+        }
+      });
+    } else {
+      counts.forEach((key, count) -> pending.merge(key, count, Long::sum));
+    }
+  }
+
+  /**
+   * Returns the current tenant's event counts in {@code [from, to)}, one
+   * bucket per entity type and action, oldest first. Optional
+   * {@code entityType} and {@code action} restrict the series.
+   *
+   * @throws IllegalArgumentException if the time window is empty
+   */
+  public List<ActivityBucket> activity(Instant from, Instant to, String entityType, String action,
+      ActivityGranularity granularity) {
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+    String tenantId = TenantContext.getCurrentTenant();
+    Instant hourFrom = from.truncatedTo(ChronoUnit.HOURS);
+
+    Map<AuditRollup.Key, Long> hourly = new HashMap<>();
+    for (AuditRollup rollup : auditRollupRepository.findInRange(tenantId, hourFrom, to, entityType, action)) {
+      hourly.merge(rollup.getId(), rollup.getEventCount(), Long::sum);
+    }
+    pending.forEach((key, count) -> {
+      if (key.getTenantId().equals(tenantId) && !key.getBucketStart().isBefore(hourFrom)
+          && key.getBucketStart().isBefore(to) && (entityType == null || entityType.equals(key.getEntityType()))
+          && (action == null || action.equals(key.getAction()))) {
+        hourly.merge(key, count, Long::sum);
+      }
+    });
+
+    Map<AuditRollup.Key, Long> buckets = new TreeMap<>(BUCKET_ORDER);
+    hourly.forEach((key, count) -> buckets.merge(new AuditRollup.Key(tenantId,
+        granularity.bucketOf(key.getBucketStart()), key.getEntityType(), key.getAction()), count, Long::sum));
+
+    List<ActivityBucket> activity = new ArrayList<>(buckets.size());
+    buckets.forEach((key, count) -> activity.add(
+        new ActivityBucket(key.getBucketStart(), key.getEntityType(), key.getAction(), count)));
+    return activity;
+  }
+
+  /**
+   * Writes buffered counts to the rollup table in one transaction per shard. Counts are
+   * put back if the write fails, for example when another node inserted the
+   * same hour concurrently.
+   */
+  @Scheduled(fixedDelayString = "${license.audit.rollups.flush-interval:PT10S}")
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    Map<AuditRollup.Key, Long> drained = new HashMap<>();
+    for (AuditRollup.Key key : pending.keySet()) {
+      Long count = pending.remove(key);
+      if (count != null && count != 0) {
+        drained.put(key, count);
+      }
+    }
+    shardMap.groupByShard(drained.keySet(), AuditRollup.Key::getTenantId).forEach((shard, keys) -> {
+      try {
+        shardMap.runOnShard(shard, () -> transactionTemplate.executeWithoutResult(status -> keys.forEach(
+            key -> auditRollupRepository.addToRollup(key.getTenantId(), key.getBucketStart(), key.getEntityType(),
+                key.getAction(), drained.get(key)))));
+      } catch (RuntimeException e) {
+        keys.forEach(key -> pending.merge(key, drained.get(key), Long::sum));
+        logger.warn("Failed to flush {} audit rollups, will retry", keys.size(), e);
+      }
+    });
+  }
+}
@@ -0,0 +1,249 @@
+package com.licensing.service.audit.integrity;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.domain.AuditCheckpoint;
+import com.licensing.domain.AuditCheckpointNode;
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditCheckpointRepository;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.LicenseSigningService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Seals each tenant's audit trail into signed Merkle checkpoints.
+ * A run takes every tenant with new entries and commits the entries after
+ * its last checkpoint in runs of at most {@code max-entries}, each with a
+ * Merkle root over the entries' content hashes, a link to the previous
+ * checkpoint and an Ed25519 signature. The whole tree is stored with the
+ * checkpoint, about two rows per entry, so proving one entry reads one node
+ * per level. Entries younger than
+ * {@code settle-delay} are left for the next run, so entries still queued
+ * in the asynchronous audit writer are not skipped. Concurrent runs on
+ * several nodes are safe: the checkpoint sequence is unique per tenant and
+ * the loser of a race simply stops.
+ */
+@Service
+public class AuditCheckpointService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AuditCheckpointService.class);
+
+  private final AuditLogRepository auditLogRepository;
+  private final AuditCheckpointRepository auditCheckpointRepository;
+  private final LicenseSigningService licenseSigningService;
+  private final ShardMap shardMap;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final Duration settleDelay;
+  private final Duration lookback;
+  private final int maxEntries;
+  private final int fetchSize;
+  private final Counter checkpointCounter;
+  private final DistributionSummary entriesPerCheckpoint;
+  private volatile Instant watermark;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public AuditCheckpointService(AuditLogRepository auditLogRepository,
+      AuditCheckpointRepository auditCheckpointRepository, LicenseSigningService licenseSigningService,
+      ShardMap shardMap, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${license.audit.integrity.enabled:true}") boolean enabled,
+      @Value("${license.audit.integrity.settle-delay:PT5M}") Duration settleDelay,
+      @Value("${license.audit.integrity.lookback:P1D}") Duration lookback,
+      @Value("${license.audit.integrity.max-entries:100000}") int maxEntries,
+      @Value("${license.audit.integrity.fetch-size:5000}") int fetchSize) {
+    this.auditLogRepository = auditLogRepository;
+    this.auditCheckpointRepository = auditCheckpointRepository;
+    this.licenseSigningService = licenseSigningService;
+    this.shardMap = shardMap;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.settleDelay = settleDelay;
+    this.lookback = lookback;
+    this.maxEntries = maxEntries;
+    this.fetchSize = fetchSize;
+    this.checkpointCounter = Counter.builder("license.audit.checkpoints.created")
+        .description("Audit checkpoints created")
+        .register(meterRegistry);
+    this.entriesPerCheckpoint = DistributionSummary.builder("license.audit.checkpoints.entries")
+        .description("Audit entries covered per checkpoint")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(initialDelayString = "${license.audit.integrity.initial-delay:PT2M}",
+      fixedDelayString = "${license.audit.integrity.checkpoint-interval:PT10M}")
+  public void scheduledCheckpoint() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      checkpoint(Instant.now());
+    } catch (RuntimeException e) {
+      logger.error("Audit checkpointing failed", e);
+    }
+  }
+
+  /**
+   * Checkpoints all entries written at least {@code settle-delay} before
+   * {@code now} for every tenant with entries since the previous run, on
+   * every shard.
+   *
+   * @return number of checkpoints created
+   */
+  public int checkpoint(Instant now) {
+    Instant cutoff = now.minus(settleDelay);
+    Instant since = watermark != null ? watermark : cutoff.minus(lookback);
+    int[] created = new int[1];
+    shardMap.forEachShard(() -> {
+      for (String tenantId : auditLogRepository.findTenantIdsWithEntriesAfter(since)) {
+        created[0] += checkpointTenant(tenantId, cutoff);
+      }
+    });
+    watermark = cutoff;
+    return created[0];
+  }
+
+  /**
+   * Checkpoints a tenant's entries up to and including {@code cutoff}.
+   *
+   * @return number of checkpoints created
+   */
+  public int checkpointTenant(String tenantId, Instant cutoff) {
+    int created = 0;
+    try {
+      while (true) {
+        AuditCheckpoint checkpoint = transactionTemplate.execute(status -> createNext(tenantId, cutoff));
+        if (checkpoint == null) {
+          break;
+        }
+        created++;
+        checkpointCounter.increment();
+        entriesPerCheckpoint.record(checkpoint.getEntryCount());
+        if (checkpoint.getEntryCount() < maxEntries) {
+          break;
+        }
+      }
+    } catch (DataIntegrityViolationException e) {
+      logger.debug("Tenant {} was checkpointed concurrently by another node", tenantId);
+    }
+    return created;
+  }
+
+  private AuditCheckpoint createNext(String tenantId, Instant cutoff) {
+    AuditCheckpoint previous = auditCheckpointRepository.findFirstByTenantIdOrderBySequenceDesc(tenantId)
+        .orElse(null);
+    List<String> leaves = new ArrayList<>();
+    List<UUID> entryIds = new ArrayList<>();
+    AuditLog last = null;
+    try (Stream<AuditLog> entries = auditLogRepository.streamRange(tenantId, after(previous), cutoff, null,
+        fetchSize)) {
+      Iterator<AuditLog> iterator = entries.limit(maxEntries).iterator();
+      while (iterator.hasNext()) {
+        last = iterator.next();
+        leaves.add(leafOf(last));
+        entryIds.add(last.getId());
+        entityManager.detach(last);
+      }
+    }
+    if (last == null) {
+      return null;
+    }
+
+    List<List<String>> levels = MerkleTree.levels(leaves);
+    AuditCheckpoint checkpoint = new AuditCheckpoint(tenantId, previous, last.getTimestamp(), last.getId(),
+        leaves.size(), levels.get(levels.size() - 1).get(0));
+    checkpoint.sign(licenseSigningService.getKeyId(),
+        licenseSigningService.signPayload(checkpoint.getCheckpointHash()));
+    AuditCheckpoint saved = auditCheckpointRepository.saveAndFlush(checkpoint);
+    storeNodes(saved, levels, entryIds);
+    return saved;
+  }
+
+  private void storeNodes(AuditCheckpoint checkpoint, List<List<String>> levels, List<UUID> entryIds) {
+    int pending = 0;
+    for (int level = 0; level < levels.size(); level++) {
+      List<String> hashes = levels.get(level);
+      for (int index = 0; index < hashes.size(); index++) {
+        entityManager.persist(new AuditCheckpointNode(checkpoint, level, index, hashes.get(index),
+            level == 0 ? entryIds.get(index) : null));
+        if (++pending % fetchSize == 0) {
+          entityManager.flush();
+          entityManager.clear();
+        }
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  /**
+   * Reads the leaf values of a checkpoint's run, keyed by entry ID in tree
+   * order. Entries are rehashed from their current content when
+   * {@code recompute} is set; otherwise the hash stored at write time is used.
+   */
+  Map<UUID, String> leaves(AuditCheckpoint checkpoint, boolean recompute, List<String> mismatches) {
+    Map<UUID, String> leaves = new LinkedHashMap<>(Math.min(checkpoint.getEntryCount(), maxEntries) * 2);
+    try (Stream<AuditLog> entries = auditLogRepository.streamRange(checkpoint.getTenantId(),
+        start(checkpoint), checkpoint.getEndTimestamp(), checkpoint.getEndId(), fetchSize)) {
+      Iterator<AuditLog> iterator = entries.iterator();
+      while (iterator.hasNext()) {
+        AuditLog entry = iterator.next();
+        String leaf = recompute ? entry.computeContentHash() : leafOf(entry);
+        if (recompute && entry.getContentHash() != null && !entry.getContentHash().equals(leaf)) {
+          mismatches.add("Entry " + entry.getId() + " does not match its stored content hash");
+        }
+        leaves.put(entry.getId(), leaf);
+        entityManager.detach(entry);
+      }
+    }
+    return leaves;
+  }
+
+  private static String leafOf(AuditLog entry) {
+    return entry.getContentHash() != null ? entry.getContentHash() : entry.computeContentHash();
+  }
+
+  private static KeysetScrollPosition after(AuditCheckpoint previous) {
+    if (previous == null) {
+      return ScrollPosition.keyset();
+    }
+    Map<String, Object> keys = new LinkedHashMap<>();
+    keys.put("timestamp", previous.getEndTimestamp());
+    keys.put("id", previous.getEndId());
+    return ScrollPosition.forward(keys);
+  }
+
+  private static KeysetScrollPosition start(AuditCheckpoint checkpoint) {
+    if (checkpoint.getStartTimestamp() == null) {
+      return ScrollPosition.keyset();
+    }
+    Map<String, Object> keys = new LinkedHashMap<>();
+    keys.put("timestamp", checkpoint.getStartTimestamp());
+    keys.put("id", checkpoint.getStartId());
+    return ScrollPosition.forward(keys);
+  }
+}
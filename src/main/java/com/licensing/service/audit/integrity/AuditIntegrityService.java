@@ -0,0 +1,291 @@
+package com.licensing.service.audit.integrity;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.config.tenant.TenantContextSnapshot;
+import com.licensing.domain.AuditCheckpoint;
+import com.licensing.domain.AuditCheckpointNode;
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditCheckpointNodeRepository;
+import com.licensing.repository.AuditCheckpointRepository;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.LicenseSigningService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proves and verifies the current tenant's audit trail against its signed
+ * checkpoints.
+ * Proofs are read from the Merkle tree stored with each checkpoint, one node
+ * per level; only checkpoints sealed before trees were stored are rehashed.
+ * Verifying a window first walks the checkpoint chain, which costs one hash
+ * and one signature check per checkpoint, then rehashes each checkpoint's
+ * run of entries on a pool of {@code verify-parallelism} threads, since runs
+ * are independent once the chain is known to be intact.
+ */
+@Service
+public class AuditIntegrityService {
+
+  private final AuditLogRepository auditLogRepository;
+  private final AuditCheckpointRepository auditCheckpointRepository;
+  private final AuditCheckpointNodeRepository auditCheckpointNodeRepository;
+  private final AuditCheckpointService auditCheckpointService;
+  private final LicenseSigningService licenseSigningService;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ExecutorService verifierExecutor;
+  private final Timer verifyTimer;
+
+  public AuditIntegrityService(AuditLogRepository auditLogRepository,
+      AuditCheckpointRepository auditCheckpointRepository,
+      AuditCheckpointNodeRepository auditCheckpointNodeRepository, AuditCheckpointService auditCheckpointService,
+      LicenseSigningService licenseSigningService, PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${license.audit.integrity.verify-parallelism:4}") int parallelism) {
+    this.auditLogRepository = auditLogRepository;
+    this.auditCheckpointRepository = auditCheckpointRepository;
+    this.auditCheckpointNodeRepository = auditCheckpointNodeRepository;
+    this.auditCheckpointService = auditCheckpointService;
+    this.licenseSigningService = licenseSigningService;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.verifyTimer = Timer.builder("license.audit.integrity.verify")
+        .description("Duration of audit trail verifications")
+        .register(meterRegistry);
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.verifierExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "audit-verifier-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    verifierExecutor.shutdownNow();
+  }
+
+  /**
+   * Builds the inclusion proof of an audit entry of the current tenant.
+   *
+   * @return the proof, or empty if the entry does not exist in this tenant
+   *         or is not checkpointed yet
+   */
+  public Optional<InclusionProof> prove(UUID entryId) {
+    String tenantId = TenantContext.getCurrentTenant();
+    return readOnlyTransaction.execute(status -> {
+      Optional<AuditLog> entry = auditLogRepository.findById(entryId)
+          .filter(auditLog -> auditLog.getTenantId().equals(tenantId));
+      if (entry.isEmpty()) {
+        return Optional.empty();
+      }
+      Optional<AuditCheckpoint> covering = auditCheckpointRepository.findCovering(tenantId,
+          entry.get().getTimestamp(), entryId);
+      if (covering.isEmpty()) {
+        return Optional.empty();
+      }
+
+      AuditCheckpoint checkpoint = covering.get();
+      String contentHash = entry.get().computeContentHash();
+      int index = auditCheckpointNodeRepository.findLeaf(checkpoint.getId(), entryId)
+          .map(leaf -> leaf.getId().getIndex())
+          .orElse(-1);
+      List<MerkleTree.ProofStep> path = index >= 0 ? storedPath(checkpoint, index) : null;
+      if (path == null) {
+        Map<UUID, String> leaves = auditCheckpointService.leaves(checkpoint, false, new ArrayList<>());
+        index = new ArrayList<>(leaves.keySet()).indexOf(entryId);
+        if (index < 0) {
+          return Optional.empty();
+        }
+        path = MerkleTree.proof(new ArrayList<>(leaves.values()), index);
+      }
+      boolean valid = MerkleTree.verify(contentHash, path, checkpoint.getMerkleRoot())
+          && checkpoint.computeHash().equals(checkpoint.getCheckpointHash())
+          && licenseSigningService.verifyPayload(checkpoint.getSignature(), checkpoint.getCheckpointHash(),
+              checkpoint.getKeyId());
+      return Optional.of(new InclusionProof(entryId, contentHash, index, path, checkpoint, valid));
+    });
+  }
+
+  /**
+   * Reads the proof path of a leaf from the checkpoint's stored tree.
+   *
+   * @return the path, or null if the stored tree is incomplete
+   */
+  private List<MerkleTree.ProofStep> storedPath(AuditCheckpoint checkpoint, int index) {
+    if (index >= checkpoint.getEntryCount()) {
+      return null;
+    }
+    List<MerkleTree.Sibling> siblings = MerkleTree.siblings(checkpoint.getEntryCount(), index);
+    List<AuditCheckpointNode.Key> keys = new ArrayList<>(siblings.size());
+    for (MerkleTree.Sibling sibling : siblings) {
+      keys.add(new AuditCheckpointNode.Key(checkpoint.getId(), sibling.getLevel(), sibling.getIndex()));
+    }
+    Map<AuditCheckpointNode.Key, String> hashes = new HashMap<>();
+    for (AuditCheckpointNode node : auditCheckpointNodeRepository.findAllById(keys)) {
+      hashes.put(node.getId(), node.getHash());
+    }
+
+    List<MerkleTree.ProofStep> path = new ArrayList<>(siblings.size());
+    for (int i = 0; i < siblings.size(); i++) {
+      String hash = hashes.get(keys.get(i));
+      if (hash == null) {
+        return null;
+      }
+      path.add(new MerkleTree.ProofStep(hash, siblings.get(i).isLeft()));
+    }
+    return path;
+  }
+
+  /**
+   * Verifies every checkpoint of the current tenant overlapping
+   * {@code [from, to)} and the entries they cover.
+   *
+   * @throws IllegalArgumentException if the time window is empty
+   */
+  public VerificationReport verify(Instant from, Instant to) {
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+    String tenantId = TenantContext.getCurrentTenant();
+    return verifyTimer.record(() -> {
+      List<AuditCheckpoint> checkpoints = readOnlyTransaction.execute(status ->
+          auditCheckpointRepository.findOverlapping(tenantId, from, to));
+      if (checkpoints == null || checkpoints.isEmpty()) {
+        return new VerificationReport(tenantId, 0, 0, null, List.of(), List.of());
+      }
+
+      List<String> failures = new ArrayList<>(verifyChain(tenantId, checkpoints));
+      TenantContextSnapshot context = TenantContextSnapshot.capture();
+      List<Future<SegmentResult>> segments = new ArrayList<>(checkpoints.size());
+      for (AuditCheckpoint checkpoint : checkpoints) {
+        segments.add(verifierExecutor.submit(context.wrapCallable(() -> readOnlyTransaction.execute(
+            status -> verifySegment(checkpoint)))));
+      }
+
+      long entries = 0;
+      List<UUID> lateEntries = new ArrayList<>();
+      for (Future<SegmentResult> segment : segments) {
+        try {
+          SegmentResult result = segment.get();
+          entries += result.entries;
+          failures.addAll(result.failures);
+          lateEntries.addAll(result.lateEntries);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Audit verification interrupted", e);
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Audit verification failed", e.getCause());
+        }
+      }
+      return new VerificationReport(tenantId, checkpoints.size(), entries,
+          checkpoints.get(checkpoints.size() - 1).getEndTimestamp(), failures, lateEntries);
+    });
+  }
+
+  private List<String> verifyChain(String tenantId, List<AuditCheckpoint> checkpoints) {
+    List<String> failures = new ArrayList<>();
+    AuditCheckpoint first = checkpoints.get(0);
+    AuditCheckpoint previous = first.getSequence() > 1
+        ? readOnlyTransaction.execute(status ->
+            auditCheckpointRepository.findByTenantIdAndSequence(tenantId, first.getSequence() - 1).orElse(null))
+        : null;
+    if (first.getSequence() > 1 && previous == null) {
+      failures.add("Checkpoint " + (first.getSequence() - 1) + " is missing");
+    }
+
+    for (AuditCheckpoint checkpoint : checkpoints) {
+      String label = "Checkpoint " + checkpoint.getSequence();
+      if (!checkpoint.computeHash().equals(checkpoint.getCheckpointHash())) {
+        failures.add(label + " does not match its hash");
+      }
+      if (checkpoint.getKeyId() != null && !licenseSigningService.hasVerificationKey(checkpoint.getKeyId())) {
+        failures.add(label + " is signed with key " + checkpoint.getKeyId() + ", which is not configured");
+      } else if (!licenseSigningService.verifyPayload(checkpoint.getSignature(), checkpoint.getCheckpointHash(),
+          checkpoint.getKeyId())) {
+        failures.add(label + " has an invalid signature");
+      }
+      if (previous != null) {
+        if (checkpoint.getSequence() != previous.getSequence() + 1) {
+          failures.add(label + " does not follow checkpoint " + previous.getSequence());
+        }
+        if (!checkpoint.getPreviousHash().equals(previous.getCheckpointHash())
+            || !Objects.equals(checkpoint.getStartTimestamp(), previous.getEndTimestamp())
+            || !Objects.equals(checkpoint.getStartId(), previous.getEndId())) {
+          failures.add(label + " is not linked to checkpoint " + previous.getSequence());
+        }
+      } else if (checkpoint.getSequence() == 1 && !AuditCheckpoint.GENESIS_HASH.equals(checkpoint.getPreviousHash())) {
+        failures.add(label + " is not the start of the chain");
+      }
+      previous = checkpoint;
+    }
+    return failures;
+  }
+
+  /**
+   * Rehashes a checkpoint's run. When the checkpoint's tree is stored,
+   * entries in its range that it did not seal are listed as late and each
+   * fails verification: no checkpoint covers them, and a row inserted with a
+   * back-dated timestamp looks exactly the same.
+   */
+  private SegmentResult verifySegment(AuditCheckpoint checkpoint) {
+    List<String> failures = new ArrayList<>();
+    Map<UUID, String> leaves = auditCheckpointService.leaves(checkpoint, true, failures);
+    List<UUID> lateEntries = new ArrayList<>();
+    List<UUID> sealed = auditCheckpointNodeRepository.findEntryIds(checkpoint.getId());
+    if (!sealed.isEmpty()) {
+      Set<UUID> sealedIds = new HashSet<>(sealed);
+      for (UUID entryId : leaves.keySet()) {
+        if (!sealedIds.contains(entryId)) {
+          lateEntries.add(entryId);
+        }
+      }
+      leaves.keySet().removeAll(lateEntries);
+    }
+    String label = "Checkpoint " + checkpoint.getSequence();
+    for (UUID entryId : lateEntries) {
+      failures.add("Entry " + entryId + " lies in the range of checkpoint " + checkpoint.getSequence()
+          + " but was not sealed by it");
+    }
+    if (leaves.size() != checkpoint.getEntryCount()) {
+      failures.add(label + " covers " + checkpoint.getEntryCount() + " entries but " + leaves.size()
+          + " were found");
+    }
+    if (leaves.isEmpty() || !MerkleTree.root(new ArrayList<>(leaves.values())).equals(checkpoint.getMerkleRoot())) {
+      failures.add(label + " does not match the Merkle root of its entries");
+    }
+    return new SegmentResult(leaves.size(), failures, lateEntries);
+  }
+
+  private static final class SegmentResult {
+    private final long entries;
+    private final List<String> failures;
+    private final List<UUID> lateEntries;
+
+    private SegmentResult(long entries, List<String> failures, List<UUID> lateEntries) {
+      this.entries = entries;
+      this.failures = failures;
+      this.lateEntries = lateEntries;
+    }
+  }
+}
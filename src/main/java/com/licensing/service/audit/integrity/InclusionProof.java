@@ -0,0 +1,60 @@
+package com.licensing.service.audit.integrity;
+
+import com.licensing.domain.AuditCheckpoint;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Proof that an audit entry is part of a signed checkpoint.
+ * Hashing {@code contentHash} up the {@code path} must yield the
+ * checkpoint's Merkle root, and the checkpoint's signature must verify over
+ * its checkpoint hash.
+ */
+public class InclusionProof {
+
+  private final UUID entryId;
+  private final String contentHash;
+  private final int leafIndex;
+  private final List<MerkleTree.ProofStep> path;
+  private final AuditCheckpoint checkpoint;
+  private final boolean valid;
+
+  public InclusionProof(UUID entryId, String contentHash, int leafIndex, List<MerkleTree.ProofStep> path,
+      AuditCheckpoint checkpoint, boolean valid) {
+    this.entryId = entryId;
+    this.contentHash = contentHash;
+    this.leafIndex = leafIndex;
+    this.path = path;
+    this.checkpoint = checkpoint;
+    this.valid = valid;
+  }
+
+  public UUID getEntryId() {
+    return entryId;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public int getLeafIndex() {
+    return leafIndex;
+  }
+
+  public List<MerkleTree.ProofStep> getPath() {
+    return path;
+  }
+
+  public AuditCheckpoint getCheckpoint() {
+    return checkpoint;
+  }
+
+  /**
+   * Whether the entry's current content leads to the checkpoint root and the
+   * checkpoint's hash and signature are intact.
+   */
+  public boolean isValid() {
+    return valid;
+  }
+}
@@ -0,0 +1,203 @@
+package com.licensing.service.audit.integrity;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 Merkle tree over audit entry content hashes.
+ * Leaves and interior nodes are hashed with distinct prefixes, as in
+ * RFC 6962, so a leaf can never be passed off as a subtree. An unpaired node
+ * at the end of a level is promoted unchanged to the next level. Inclusion
+ * proofs hold one sibling hash per level, so they grow and verify in
+ * O(log n), and can be read from stored {@link #levels(List) levels}
+ * without rebuilding the tree.
+ */
+public final class MerkleTree {
+
+  private static final byte LEAF_PREFIX = 0x00;
+  private static final byte NODE_PREFIX = 0x01;
+  private static final HexFormat HEX = HexFormat.of();
+
+  private MerkleTree() {
+  }
+
+  /**
+   * Computes the root over the given leaf values in order.
+   *
+   * @param leaves hex content hashes, at least one
+   * @return hex root hash
+   */
+  public static String root(List<String> leaves) {
+    if (leaves.isEmpty()) {
+      throw new IllegalArgumentException("A Merkle tree needs at least one leaf");
+    }
+    List<byte[]> level = leafHashes(leaves);
+    while (level.size() > 1) {
+      level = nextLevel(level);
+    }
+    return HEX.formatHex(level.get(0));
+  }
+
+  /**
+   * Builds the inclusion proof for the leaf at {@code index}, listing the
+   * sibling hashes from the leaf level up to the root.
+   */
+  public static List<ProofStep> proof(List<String> leaves, int index) {
+    List<List<String>> levels = levels(leaves);
+    List<ProofStep> steps = new ArrayList<>();
+    for (Sibling sibling : siblings(leaves.size(), index)) {
+      steps.add(new ProofStep(levels.get(sibling.getLevel()).get(sibling.getIndex()), sibling.isLeft()));
+    }
+    return steps;
+  }
+
+  /**
+   * Computes every level of the tree over the given leaf values, from the
+   * hashed leaves at level 0 up to the root.
+   *
+   * @return hex node hashes per level
+   */
+  public static List<List<String>> levels(List<String> leaves) {
+    if (leaves.isEmpty()) {
+      throw new IllegalArgumentException("A Merkle tree needs at least one leaf");
+    }
+    List<List<String>> levels = new ArrayList<>();
+    List<byte[]> level = leafHashes(leaves);
+    levels.add(format(level));
+    while (level.size() > 1) {
+      level = nextLevel(level);
+      levels.add(format(level));
+    }
+    return levels;
+  }
+
+  /**
+   * Locates the nodes making up the inclusion proof of the leaf at
+   * {@code index} in a tree of {@code leafCount} leaves, from the leaf level
+   * up, so a proof can be assembled from stored levels without the leaves.
+   */
+  public static List<Sibling> siblings(int leafCount, int index) {
+    if (index < 0 || index >= leafCount) {
+      throw new IllegalArgumentException("Leaf index out of range: " + index);
+    }
+    List<Sibling> siblings = new ArrayList<>();
+    int size = leafCount;
+    int position = index;
+    for (int level = 0; size > 1; level++) {
+      int sibling = position % 2 == 0 ? position + 1 : position - 1;
+      if (sibling < size) {
+        siblings.add(new Sibling(level, sibling, sibling < position));
+      }
+      size = (size + 1) / 2;
+      position /= 2;
+    }
+    return siblings;
+  }
+
+  /**
+   * Recomputes the root from a leaf value and its inclusion proof.
+   *
+   * @return true if the proof leads to {@code expectedRoot}
+   */
+  public static boolean verify(String leaf, List<ProofStep> proof, String expectedRoot) {
+    byte[] hash = hash(LEAF_PREFIX, HEX.parseHex(leaf));
+    for (ProofStep step : proof) {
+      byte[] sibling = HEX.parseHex(step.getHash());
+      hash = step.isLeft() ? hash(NODE_PREFIX, sibling, hash) : hash(NODE_PREFIX, hash, sibling);
+    }
+    return HEX.formatHex(hash).equals(expectedRoot);
+  }
+
+  private static List<byte[]> leafHashes(List<String> leaves) {
+    List<byte[]> level = new ArrayList<>(leaves.size());
+    for (String leaf : leaves) {
+      level.add(hash(LEAF_PREFIX, HEX.parseHex(leaf)));
+    }
+    return level;
+  }
+
+  private static List<String> format(List<byte[]> level) {
+    List<String> hashes = new ArrayList<>(level.size());
+    for (byte[] hash : level) {
+      hashes.add(HEX.formatHex(hash));
+    }
+    return hashes;
+  }
+
+  private static List<byte[]> nextLevel(List<byte[]> level) {
+    List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+    for (int i = 0; i < level.size(); i += 2) {
+      next.add(i + 1 < level.size() ? hash(NODE_PREFIX, level.get(i), level.get(i + 1)) : level.get(i));
+    }
+    return next;
+  }
+
+  private static byte[] hash(byte prefix, byte[]... parts) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(prefix);
+      for (byte[] part : parts) {
+        digest.update(part);
+      }
+      return digest.digest();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Position of one node of an inclusion proof in the tree.
+   * {@code left} is true when the node is the left child of its parent.
+   */
+  public static final class Sibling {
+
+    private final int level;
+    private final int index;
+    private final boolean left;
+
+    public Sibling(int level, int index, boolean left) {
+      this.level = level;
+      this.index = index;
+      this.left = left;
+    }
+
+    public int getLevel() {
+      return level;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public boolean isLeft() {
+      return left;
+    }
+  }
+
+  /**
+   * One sibling hash of an inclusion proof.
+   * {@code left} is true when the sibling is the left child, i.e. it is
+   * hashed before the running value.
+   */
+  public static final class ProofStep {
+
+    private final String hash;
+    private final boolean left;
+
+    public ProofStep(String hash, boolean left) {
+      this.hash = hash;
+      this.left = left;
+    }
+
+    public String getHash() {
+      return hash;
+    }
+
+    public boolean isLeft() {
+      return left;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.licensing.service.audit.integrity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of verifying a tenant's audit checkpoints over a time window.
+ * Entries after {@code coveredThrough} are not checkpointed yet and were
+ * not verified. Late entries fall inside a checkpoint's range but were
+ * written after it was sealed. No checkpoint covers them, so they make the
+ * report invalid: an entry replayed from the audit journal after an outage
+ * longer than {@code settle-delay} cannot be told apart from one inserted
+ * with a back-dated timestamp.
+ */
+public class VerificationReport {
+
+  private final String tenantId;
+  private final int checkpoints;
+  private final long entries;
+  private final Instant coveredThrough;
+  private final List<String> failures;
+  private final List<UUID> lateEntries;
+
+  public VerificationReport(String tenantId, int checkpoints, long entries, Instant coveredThrough,
+      List<String> failures, List<UUID> lateEntries) {
+    this.tenantId = tenantId;
+    this.checkpoints = checkpoints;
+    this.entries = entries;
+    this.coveredThrough = coveredThrough;
+    this.failures = failures;
+    this.lateEntries = lateEntries;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public int getCheckpoints() {
+    return checkpoints;
+  }
+
+  public long getEntries() {
+    return entries;
+  }
+
+  public Instant getCoveredThrough() {
+    return coveredThrough;
+  }
+
+  public List<String> getFailures() {
+    return failures;
+  }
+
+  public List<UUID> getLateEntries() {
+    return lateEntries;
+  }
+
+  public boolean isValid() {
+    return failures.isEmpty() && lateEntries.isEmpty();
+  }
+}
@@ -0,0 +1,396 @@
+package com.licensing.service.audit.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of records in memory-mapped segment files.
+ * Each record is framed as {@code [length][CRC32C][payload]}; a zero length
+ * or a checksum mismatch marks the end of a segment's data, so a record torn
+ * by a crash is dropped together with anything after it in that segment.
+ * Segments are preallocated to {@code segmentSize} and a record that does not
+ * fit starts the next one.
+ *
+ * <p>There is a single consumer: {@link #read(int)} returns the records after
+ * the acknowledged position without consuming them, and
+ * {@link #acknowledge(Batch)} moves that position, which is itself kept in a
+ * mapped file, and deletes the segments left behind. After a restart
+ * reading resumes at the last acknowledged position, so a batch that was
+ * stored but not acknowledged is read again and reported as
+ * {@link Batch#isRecovered() recovered}.
+ *
+ * <p>Appended records survive a process crash as soon as {@code append}
+ * returns, because the mapped pages belong to the OS page cache; they
+ * survive a host crash once {@link #sync()} has run.
+ *
+ * <p>The journal holds an exclusive lock on its directory while open, so two
+ * processes can never replay and truncate the same segments.
+ */
+public class AuditJournal implements Closeable {
+
+  private static final String SEGMENT_SUFFIX = ".segment";
+  private static final String ACKNOWLEDGED_FILE = "acknowledged";
+  private static final String QUARANTINE_DIRECTORY = "quarantine";
+  private static final String LOCK_FILE = "lock";
+  private static final int HEADER_SIZE = 8;
+  private static final int POSITION_SIZE = 16;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int maxSegments;
+  private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+  private final FileChannel lockChannel;
+  private final MappedByteBuffer acknowledgedBuffer;
+  private final Position recoveredThrough;
+  private Position acknowledged;
+  private long writeSegment;
+  private int writeOffset;
+  private boolean dirty;
+
+  /**
+   * Opens the journal in {@code directory}, creating it if needed, and
+   * recovers the write position from the last segment's valid records.
+   *
+   * @param maxSegments segments that may exist at once; appends are refused
+   *                    when a new segment would exceed it
+   * @throws IOException also if another process has the directory open
+   */
+  public AuditJournal(Path directory, int segmentSize, int maxSegments) throws IOException {
+    if (segmentSize <= HEADER_SIZE || maxSegments < 1) {
+      throw new IllegalArgumentException("Journal needs at least one segment larger than a record header");
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.maxSegments = maxSegments;
+    Files.createDirectories(directory);
+    this.lockChannel = lock(directory);
+
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+        String name = file.getFileName().toString();
+        segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+            map(file, segmentSize));
+      }
+    }
+    acknowledgedBuffer = map(directory.resolve(ACKNOWLEDGED_FILE), POSITION_SIZE);
+
+    if (segments.isEmpty()) {
+      segments.put(0L, map(segmentPath(0), segmentSize));
+    }
+    writeSegment = segments.lastKey();
+    writeOffset = scan(segments.get(writeSegment));
+
+    Position stored = readAcknowledged();
+    acknowledged = stored != null && segments.containsKey(stored.segment) && stored.offset <= segmentSize
+        ? stored
+        : new Position(segments.firstKey(), 0);
+    retireBefore(acknowledged.segment);
+    recoveredThrough = new Position(writeSegment, writeOffset);
+  }
+
+  /**
+   * Appends a record.
+   *
+   * @return false if the record is larger than a segment or the journal is
+   *         full; nothing is written in that case
+   */
+  public synchronized boolean append(byte[] payload) throws IOException {
+    int frameSize = HEADER_SIZE + payload.length;
+    if (frameSize > segmentSize) {
+      return false;
+    }
+    if (writeOffset + frameSize > segmentSize) {
+      if (segments.size() >= maxSegments) {
+        return false;
+      }
+      markEnd(segments.get(writeSegment), writeOffset);
+      writeSegment++;
+      segments.put(writeSegment, map(segmentPath(writeSegment), segmentSize));
+      writeOffset = 0;
+    }
+
+    MappedByteBuffer segment = segments.get(writeSegment);
+    CRC32C checksum = new CRC32C();
+    checksum.update(payload);
+    segment.put(writeOffset + HEADER_SIZE, payload);
+    segment.putInt(writeOffset + 4, (int) checksum.getValue());
+    segment.putInt(writeOffset, payload.length);
+    writeOffset += frameSize;
+    markEnd(segment, writeOffset);
+    dirty = true;
+    notifyAll();
+    return true;
+  }
+
+  /**
+   * Returns up to {@code maxRecords} records following the acknowledged
+   * position without consuming them.
+   */
+  public synchronized Batch read(int maxRecords) {
+    List<byte[]> records = new ArrayList<>();
+    long segmentId = acknowledged.segment;
+    int offset = acknowledged.offset;
+    while (records.size() < maxRecords) {
+      MappedByteBuffer segment = segments.get(segmentId);
+      int limit = segmentId == writeSegment ? writeOffset : segmentSize;
+      int end = offset < limit ? frameEnd(segment, offset) : -1;
+      if (end < 0 || end > limit) {
+        if (segmentId >= writeSegment) {
+          break;
+        }
+        segmentId = segments.higherKey(segmentId);
+        offset = 0;
+        continue;
+      }
+      byte[] payload = new byte[end - offset - HEADER_SIZE];
+      segment.get(offset + HEADER_SIZE, payload);
+      records.add(payload);
+      offset = end;
+    }
+    return new Batch(records, new Position(segmentId, offset), acknowledged.compareTo(recoveredThrough) < 0);
+  }
+
+  /**
+   * Marks everything up to the end of {@code batch} as stored downstream and
+   * deletes segments that no longer hold unacknowledged records.
+   */
+  public synchronized void acknowledge(Batch batch) throws IOException {
+    if (batch.end.compareTo(acknowledged) <= 0) {
+      return;
+    }
+    acknowledged = batch.end;
+    acknowledgedBuffer.putLong(0, acknowledged.segment);
+    acknowledgedBuffer.putInt(8, acknowledged.offset);
+    acknowledgedBuffer.putInt(12, positionChecksum(acknowledged.segment, acknowledged.offset));
+    retireBefore(acknowledged.segment);
+  }
+
+  /**
+   * Copies a record that cannot be processed to the {@code quarantine}
+   * subdirectory, named by its checksum so quarantining the same record
+   * again is harmless, and leaves it to be acknowledged with its batch.
+   *
+   * @return false if the record had already been quarantined
+   */
+  public boolean quarantine(byte[] payload) throws IOException {
+    CRC32C checksum = new CRC32C();
+    checksum.update(payload);
+    Path quarantine = Files.createDirectories(directory.resolve(QUARANTINE_DIRECTORY));
+    Path file = quarantine.resolve(String.format("%08x-%d.record", (int) checksum.getValue(), payload.length));
+    if (Files.exists(file)) {
+      return false;
+    }
+    Files.write(file, payload);
+    return true;
+  }
+
+  /**
+   * Waits until unacknowledged records may be available or the timeout
+   * passes.
+   */
+  public synchronized void awaitRecords(Duration timeout) throws InterruptedException {
+    if (isEmpty()) {
+      wait(Math.max(1, timeout.toMillis()));
+    }
+  }
+
+  /**
+   * Whether every appended record has been acknowledged.
+   */
+  public synchronized boolean isEmpty() {
+    return acknowledged.segment == writeSegment && acknowledged.offset >= writeOffset;
+  }
+
+  /**
+   * Approximate number of bytes appended but not yet acknowledged.
+   */
+  public synchronized long backlogBytes() {
+    return (writeSegment - acknowledged.segment) * (long) segmentSize + writeOffset - acknowledged.offset;
+  }
+
+  public synchronized int segmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Forces appended records and the acknowledged position to disk.
+   */
+  public synchronized void sync() {
+    if (dirty) {
+      segments.get(writeSegment).force();
+      dirty = false;
+    }
+    acknowledgedBuffer.force();
+  }
+
+  @Override
+  public synchronized void close() {
+    for (MappedByteBuffer segment : segments.values()) {
+      segment.force();
+    }
+    acknowledgedBuffer.force();
+    try {
+      lockChannel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to release the lock on " + directory, e);
+    }
+  }
+
+  private static FileChannel lock(Path directory) throws IOException {
+    FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE);
+    FileLock lock;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    }
+    if (lock == null) {
+      channel.close();
+      throw new IOException("Audit journal in " + directory + " is already open in another process");
+    }
+    return channel;
+  }
+
+  private void retireBefore(long segmentId) throws IOException {
+    Map<Long, MappedByteBuffer> retired = segments.headMap(segmentId);
+    for (Long id : List.copyOf(retired.keySet())) {
+      retired.remove(id);
+      Files.deleteIfExists(segmentPath(id));
+    }
+  }
+
+  private Position readAcknowledged() {
+    long segment = acknowledgedBuffer.getLong(0);
+    int offset = acknowledgedBuffer.getInt(8);
+    if (acknowledgedBuffer.getInt(12) != positionChecksum(segment, offset) || offset < 0) {
+      return null;
+    }
+    return new Position(segment, offset);
+  }
+
+  private int scan(ByteBuffer segment) {
+    int offset = 0;
+    int end;
+    while ((end = frameEnd(segment, offset)) > 0) {
+      offset = end;
+    }
+    return offset;
+  }
+
+  /**
+   * Returns the offset after the valid record at {@code offset}, or -1 if
+   * there is none.
+   */
+  private int frameEnd(ByteBuffer segment, int offset) {
+    if (offset + HEADER_SIZE > segmentSize) {
+      return -1;
+    }
+    int length = segment.getInt(offset);
+    if (length <= 0 || length > segmentSize - offset - HEADER_SIZE) {
+      return -1;
+    }
+    CRC32C checksum = new CRC32C();
+    checksum.update(segment.slice(offset + HEADER_SIZE, length));
+    return (int) checksum.getValue() == segment.getInt(offset + 4) ? offset + HEADER_SIZE + length : -1;
+  }
+
+  private void markEnd(ByteBuffer segment, int offset) {
+    if (offset + 4 <= segmentSize) {
+      segment.putInt(offset, 0);
+    }
+  }
+
+  private Path segmentPath(long segmentId) {
+    return directory.resolve(String.format("%020d%s", segmentId, SEGMENT_SUFFIX));
+  }
+
+  private static int positionChecksum(long segment, int offset) {
+    CRC32C checksum = new CRC32C();
+    checksum.update(ByteBuffer.allocate(12).putLong(segment).putInt(offset).flip());
+    return (int) checksum.getValue();
+  }
+
+  private static MappedByteBuffer map(Path file, int size) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  /**
+   * Position of a record boundary in the journal.
+   */
+  public static final class Position implements Comparable<Position> {
+
+    private final long segment;
+    private final int offset;
+
+    private Position(long segment, int offset) {
+      this.segment = segment;
+      this.offset = offset;
+    }
+
+    public long getSegment() {
+      return segment;
+    }
+
+    public int getOffset() {
+      return offset;
+    }
+
+    @Override
+    public int compareTo(Position other) {
+      int bySegment = Long.compare(segment, other.segment);
+      return bySegment != 0 ? bySegment : Integer.compare(offset, other.offset);
+    }
+  }
+
+  /**
+   * Records read from the journal and the position after the last of them.
+   */
+  public static final class Batch {
+
+    private final List<byte[]> records;
+    private final Position end;
+    private final boolean recovered;
+
+    private Batch(List<byte[]> records, Position end, boolean recovered) {
+      this.records = records;
+      this.end = end;
+      this.recovered = recovered;
+    }
+
+    public List<byte[]> getRecords() {
+      return records;
+    }
+
+    public Position getEnd() {
+      return end;
+    }
+
+    /**
+     * Whether the batch starts with records appended before the journal was
+     * opened, which may already have been stored downstream.
+     */
+    public boolean isRecovered() {
+      return recovered;
+    }
+  }
+}
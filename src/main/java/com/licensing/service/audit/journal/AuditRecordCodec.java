@@ -0,0 +1,91 @@
+package com.licensing.service.audit.journal;
+
+import com.licensing.domain.AuditLog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Binary form of an audit entry in the journal: fixed-width IDs and
+ * timestamp followed by length-prefixed UTF-8 strings, where a length of -1
+ * stands for null.
+ */
+public final class AuditRecordCodec {
+
+  private static final int FIXED_SIZE = 16 + 16 + 8 + 4;
+
+  private AuditRecordCodec() {
+  }
+
+  public static byte[] encode(AuditLog auditLog) {
+    byte[] entityType = utf8(auditLog.getEntityType());
+    byte[] action = utf8(auditLog.getAction());
+    byte[] userId = utf8(auditLog.getUserId());
+    byte[] tenantId = utf8(auditLog.getTenantId());
+    byte[] details = utf8(auditLog.getDetailsJson());
+
+    ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + sizeOf(entityType) + sizeOf(action) + sizeOf(userId)
+        + sizeOf(tenantId) + sizeOf(details));
+    putUuid(buffer, auditLog.getId());
+    putUuid(buffer, auditLog.getEntityId());
+    buffer.putLong(auditLog.getTimestamp().getEpochSecond());
+    buffer.putInt(auditLog.getTimestamp().getNano());
+    putString(buffer, entityType);
+    putString(buffer, action);
+    putString(buffer, userId);
+    putString(buffer, tenantId);
+    putString(buffer, details);
+    return buffer.array();
+  }
+
+  public static AuditLog decode(byte[] record) {
+    ByteBuffer buffer = ByteBuffer.wrap(record);
+    UUID id = getUuid(buffer);
+    UUID entityId = getUuid(buffer);
+    Instant timestamp = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+    String entityType = getString(buffer);
+    String action = getString(buffer);
+    String userId = getString(buffer);
+    String tenantId = getString(buffer);
+    String details = getString(buffer);
+    return AuditLog.restore(id, entityType, entityId, action, userId, tenantId, details, timestamp);
+  }
+
+  private static byte[] utf8(String value) {
+    return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+  }
+
+  private static int sizeOf(byte[] value) {
+    return 4 + (value != null ? value.length : 0);
+  }
+
+  private static void putUuid(ByteBuffer buffer, UUID value) {
+    buffer.putLong(value.getMostSignificantBits());
+    buffer.putLong(value.getLeastSignificantBits());
+  }
+
+  private static UUID getUuid(ByteBuffer buffer) {
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  private static void putString(ByteBuffer buffer, byte[] value) {
+    if (value == null) {
+      buffer.putInt(-1);
+      return;
+    }
+    buffer.putInt(value.length);
+    buffer.put(value);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] value = new byte[length];
+    buffer.get(value);
+    return new String(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,24 @@
+package com.licensing.service.bulk;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk license creation, listing the new license IDs in request order.
+ */
+public class BulkCreateResult {
+
+  private final List<UUID> licenseIds;
+
+  public BulkCreateResult(List<UUID> licenseIds) {
+    this.licenseIds = licenseIds;
+  }
+
+  public int getCreated() {
+    return licenseIds.size();
+  }
+
+  public List<UUID> getLicenseIds() {
+    return licenseIds;
+  }
+}
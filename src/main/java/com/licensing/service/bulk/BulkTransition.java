@@ -0,0 +1,41 @@
+package com.licensing.service.bulk;
+
+import com.licensing.domain.LicenseStatus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * License state transitions that can be applied to a filtered set of licenses.
+ */
+public enum BulkTransition {
+  SUSPEND("SUSPEND", LicenseStatus.SUSPENDED, EnumSet.of(LicenseStatus.ACTIVE)),
+  REVOKE("REVOKE", LicenseStatus.REVOKED,
+      EnumSet.of(LicenseStatus.ACTIVE, LicenseStatus.SUSPENDED, LicenseStatus.EXPIRED)),
+  REACTIVATE("REACTIVATE", LicenseStatus.ACTIVE, EnumSet.of(LicenseStatus.SUSPENDED));
+
+  private final String auditAction;
+  private final LicenseStatus targetStatus;
+  private final Set<LicenseStatus> fromStatuses;
+
+  BulkTransition(String auditAction, LicenseStatus targetStatus, Set<LicenseStatus> fromStatuses) {
+    this.auditAction = auditAction;
+    this.targetStatus = targetStatus;
+    this.fromStatuses = fromStatuses;
+  }
+
+  public String getAuditAction() {
+    return auditAction;
+  }
+
+  public LicenseStatus getTargetStatus() {
+    return targetStatus;
+  }
+
+  /**
+   * Statuses a license must have for the transition to apply to it.
+   */
+  public Set<LicenseStatus> getFromStatuses() {
+    return fromStatuses;
+  }
+}
@@ -0,0 +1,31 @@
+package com.licensing.service.bulk;
+
+import com.licensing.domain.LicenseStatus;
+
+/**
+ * Outcome of a bulk license state transition.
+ */
+public class BulkTransitionResult {
+
+  private final LicenseStatus status;
+  private final long affected;
+  private final int chunks;
+
+  public BulkTransitionResult(LicenseStatus status, long affected, int chunks) {
+    this.status = status;
+    this.affected = affected;
+    this.chunks = chunks;
+  }
+
+  public LicenseStatus getStatus() {
+    return status;
+  }
+
+  public long getAffected() {
+    return affected;
+  }
+
+  public int getChunks() {
+    return chunks;
+  }
+}
@@ -0,0 +1,189 @@
+package com.licensing.service.bulk;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.domain.Organization;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseFilter;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.LicenseSigningService;
+import com.licensing.service.audit.AuditRollupService;
+import com.licensing.service.counter.TenantCounterService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk license operations.
+ * State transitions are split into chunks of IDs, each locked, updated with
+ * a single statement and audited in its own short transaction, so large
+ * selections never hold a connection or row locks for the whole run.
+ * Creation inserts licenses and audit rows through Hibernate JDBC batching.
+ */
+@Service
+public class LicenseBulkService {
+
+  private final LicenseRepository licenseRepository;
+  private final OrganizationRepository organizationRepository;
+  private final AuditLogRepository auditLogRepository;
+  private final AuditRollupService auditRollupService;
+  private final LicenseSigningService licenseSigningService;
+  private final LicenseResigner licenseResigner;
+  private final TenantCounterService tenantCounterService;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int maxCreateSize;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public LicenseBulkService(LicenseRepository licenseRepository, OrganizationRepository organizationRepository,
+      AuditLogRepository auditLogRepository, AuditRollupService auditRollupService,
+      LicenseSigningService licenseSigningService,
+      LicenseResigner licenseResigner, TenantCounterService tenantCounterService,
+      PlatformTransactionManager transactionManager,
+      @Value("${license.bulk.chunk-size:500}") int chunkSize,
+      @Value("${license.bulk.max-create-size:10000}") int maxCreateSize) {
+    this.licenseRepository = licenseRepository;
+    this.organizationRepository = organizationRepository;
+    this.auditLogRepository = auditLogRepository;
+    this.auditRollupService = auditRollupService;
+    this.licenseSigningService = licenseSigningService;
+    this.licenseResigner = licenseResigner;
+    this.tenantCounterService = tenantCounterService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.maxCreateSize = maxCreateSize;
+  }
+
+  /**
+   * Creates and signs all licenses in one transaction within the current
+   * tenant. Each referenced organization is loaded once; the persistence
+   * context is flushed and cleared every chunk so memory stays bounded.
+   *
+   * @throws IllegalArgumentException if the batch is empty or too large, or an
+   *                                  organization is missing or inactive
+   */
+  @Transactional
+  public BulkCreateResult createLicenses(List<LicenseDraft> drafts, String userId) {
+    if (drafts == null || drafts.isEmpty()) {
+      throw new IllegalArgumentException("At least one license is required");
+    }
+    if (drafts.size() > maxCreateSize) {
+      throw new IllegalArgumentException("At most " + maxCreateSize + " licenses can be created at once");
+    }
+
+    Set<UUID> organizationIds = drafts.stream().map(LicenseDraft::getOrganizationId).collect(Collectors.toSet());
+    Map<UUID, Organization> organizations = organizationRepository.findAllById(organizationIds).stream()
+        .collect(Collectors.toMap(Organization::getId, Function.identity()));
+    for (UUID organizationId : organizationIds) {
+      Organization organization = organizations.get(organizationId);
+      if (organization == null) {
+        throw new IllegalArgumentException("Organization not found: " + organizationId);
+      }
+      if (!organization.isActive()) {
+        throw new IllegalArgumentException("Cannot create license for inactive organization: " + organizationId);
+      }
+    }
+
+    String tenantId = TenantContext.getCurrentTenant();
+    List<UUID> licenseIds = new ArrayList<>(drafts.size());
+    for (int from = 0; from < drafts.size(); from += chunkSize) {
+      List<LicenseDraft> chunk = drafts.subList(from, Math.min(from + chunkSize, drafts.size()));
+      List<License> licenses = new ArrayList<>(chunk.size());
+      List<AuditLog> auditLogs = new ArrayList<>(chunk.size());
+      for (LicenseDraft draft : chunk) {
+        License license = new License(draft.getOrganizationId(), tenantId, draft.getProductName(),
+            draft.getCustomerEmail(), draft.getExpiryDate(), draft.getFeatures());
+        license.setSignature(licenseSigningService.signLicense(license));
+        licenses.add(license);
+        auditLogs.add(new AuditLog("License", license.getId(), "CREATE", userId, tenantId, null));
+        licenseIds.add(license.getId());
+      }
+      licenseRepository.saveAll(licenses);
+      auditLogRepository.saveAll(auditLogs);
+      auditRollupService.record(auditLogs);
+      entityManager.flush();
+      entityManager.clear();
+      tenantCounterService.recordLicensesCreated(tenantId, licenses);
+    }
+    return new BulkCreateResult(licenseIds);
+  }
+
+  /**
+   * Applies the transition to all licenses of the current tenant that match
+   * the filter and are in a status the transition applies to. Affected
+   * licenses are re-signed asynchronously once all chunks are committed.
+   *
+   * @throws IllegalArgumentException if the filter is empty
+   */
+  public BulkTransitionResult apply(BulkTransition transition, LicenseFilter filter, String userId) {
+    if (filter == null || filter.isEmpty()) {
+      throw new IllegalArgumentException("At least one filter criterion is required");
+    }
+
+    String tenantId = TenantContext.getCurrentTenant();
+    List<UUID> affected = new ArrayList<>();
+    int chunks = 0;
+    UUID afterId = null;
+
+    while (true) {
+      UUID cursor = afterId;
+      List<UUID> ids = transactionTemplate.execute(status -> transitionChunk(transition, filter, cursor, userId,
+          tenantId));
+      if (ids == null || ids.isEmpty()) {
+        break;
+      }
+      affected.addAll(ids);
+      chunks++;
+      afterId = ids.get(ids.size() - 1);
+      if (ids.size() < chunkSize) {
+        break;
+      }
+    }
+
+    if (!affected.isEmpty()) {
+      licenseResigner.resign(tenantId, affected);
+    }
+    return new BulkTransitionResult(transition.getTargetStatus(), affected.size(), chunks);
+  }
+
+  private List<UUID> transitionChunk(BulkTransition transition, LicenseFilter filter, UUID afterId,
+      String userId, String tenantId) {
+    List<UUID> ids = licenseRepository.lockIdsForUpdate(filter, transition.getFromStatuses(), afterId, chunkSize);
+    if (ids.isEmpty()) {
+      return ids;
+    }
+
+    for (Object[] row : licenseRepository.countStatusesByIdIn(ids)) {
+      tenantCounterService.recordTransition(tenantId, (LicenseStatus) row[0], transition.getTargetStatus(),
+          (Long) row[1]);
+    }
+    licenseRepository.updateStatusByIdIn(ids, transition.getTargetStatus(), Instant.now());
+
+    Map<String, Object> details = Map.of("status", transition.getTargetStatus().name(), "bulk", true);
+    List<AuditLog> auditLogs = new ArrayList<>(ids.size());
+    for (UUID id : ids) {
+      auditLogs.add(new AuditLog("License", id, transition.getAuditAction(), userId, tenantId, details));
+    }
+    auditLogRepository.saveAll(auditLogs);
+    auditRollupService.record(auditLogs);
+    return ids;
+  }
+}
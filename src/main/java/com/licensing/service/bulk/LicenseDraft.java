@@ -0,0 +1,46 @@
+package com.licensing.service.bulk;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Input for one license of a bulk creation request.
+ */
+public class LicenseDraft {
+
+  private final UUID organizationId;
+  private final String productName;
+  private final String customerEmail;
+  private final Instant expiryDate;
+  private final Map<String, Object> features;
+
+  public LicenseDraft(UUID organizationId, String productName, String customerEmail, Instant expiryDate,
+      Map<String, Object> features) {
+    this.organizationId = organizationId;
+    this.productName = productName;
+    this.customerEmail = customerEmail;
+    this.expiryDate = expiryDate;
+    this.features = features;
+  }
+
+  public UUID getOrganizationId() {
+    return organizationId;
+  }
+
+  public String getProductName() {
+    return productName;
+  }
+
+  public String getCustomerEmail() {
+    return customerEmail;
+  }
+
+  public Instant getExpiryDate() {
+    return expiryDate;
+  }
+
+  public Map<String, Object> getFeatures() {
+    return features;
+  }
+}
@@ -0,0 +1,60 @@
+package com.licensing.service.bulk;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.service.LicenseSigningService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refreshes stored license signatures after bulk changes, off the request thread.
+ */
+@Component
+public class LicenseResigner {
+
+  private static final Logger logger = LoggerFactory.getLogger(LicenseResigner.class);
+
+  private final LicenseRepository licenseRepository;
+  private final LicenseSigningService licenseSigningService;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+
+  public LicenseResigner(LicenseRepository licenseRepository, LicenseSigningService licenseSigningService,
+      PlatformTransactionManager transactionManager,
+      @Value("${license.bulk.chunk-size:500}") int chunkSize) {
+    this.licenseRepository = licenseRepository;
+    this.licenseSigningService = licenseSigningService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Re-signs the given licenses of a tenant, one transaction per chunk.
+   * A failing chunk is logged and skipped so the rest are still refreshed.
+   */
+  @Async
+  public void resign(String tenantId, List<UUID> licenseIds) {
+    TenantContext.setCurrentTenant(tenantId);
+    try {
+      for (int from = 0; from < licenseIds.size(); from += chunkSize) {
+        List<UUID> chunk = licenseIds.subList(from, Math.min(from + chunkSize, licenseIds.size()));
+        try {
+          transactionTemplate.executeWithoutResult(status -> licenseRepository.findAllById(chunk)
+              .forEach(license -> license.setSignature(licenseSigningService.signLicense(license))));
+        } catch (RuntimeException e) {
+          logger.warn("Failed to re-sign {} licenses for tenant {}", chunk.size(), tenantId, e);
+        }
+      }
+    } finally {
+      TenantContext.clear();
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.licensing.service.counter;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.domain.TenantCounter;
+import com.licensing.repository.TenantCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-tenant counts maintained incrementally instead of scanned on every read.
+ * State changes report deltas once their transaction commits; deltas are
+ * buffered in memory and added to the {@code tenant_counters} rows by a
+ * periodic flush, so mutations pay no extra statements. Reads return the
+ * stored value plus this node's unflushed deltas, and fall back to the
+ * supplied count query for counters not yet seeded by
+ * {@link TenantCounterReconciler}.
+ */
+@Service
+public class TenantCounterService {
+
+  public static final String ACTIVE_ORGANIZATIONS = "organizations.active";
+
+  private static final Logger logger = LoggerFactory.getLogger(TenantCounterService.class);
+
+  private final TenantCounterRepository tenantCounterRepository;
+  private final ShardMap shardMap;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final Map<TenantCounter.Key, Long> pending = new ConcurrentHashMap<>();
+
+  public TenantCounterService(TenantCounterRepository tenantCounterRepository, ShardMap shardMap,
+      PlatformTransactionManager transactionManager,
+      @Value("${license.counters.enabled:true}") boolean enabled) {
+    this.tenantCounterRepository = tenantCounterRepository;
+    this.shardMap = shardMap;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+  }
+
+  public static String licenseStatus(LicenseStatus status) {
+    return "licenses.status." + status.name();
+  }
+
+  public static String organizationLicenses(UUID organizationId) {
+    return "licenses.organization." + organizationId;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Adds {@code delta} to a counter once the current transaction commits, or
+   * immediately when no transaction is active.
+   */
+  public void increment(String tenantId, String counterKey, long delta) {
+    if (!enabled || tenantId == null || delta == 0) {
+      return;
+    }
+    TenantCounter.Key key = new TenantCounter.Key(tenantId, counterKey);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          pending.merge(key, delta, Long::sum);
+        }
+      });
+    } else {
+      pending.merge(key, delta, Long::sum);
+    }
+  }
+
+  /**
+   * Moves {@code count} licenses of a tenant from one status counter to another.
+   */
+  public void recordTransition(String tenantId, LicenseStatus from, LicenseStatus to, long count) {
+    if (from == to) {
+      return;
+    }
+    if (from != null) {
+      increment(tenantId, licenseStatus(from), -count);
+    }
+    if (to != null) {
+      increment(tenantId, licenseStatus(to), count);
+    }
+  }
+
+  /**
+   * Counts newly inserted licenses of a tenant by status and organization.
+   */
+  public void recordLicensesCreated(String tenantId, Collection<License> licenses) {
+    licenses.stream()
+        .collect(Collectors.groupingBy(License::getStatus, Collectors.counting()))
+        .forEach((status, count) -> recordTransition(tenantId, null, status, count));
+    licenses.stream()
+        .collect(Collectors.groupingBy(License::getOrganizationId, Collectors.counting()))
+        .forEach((organizationId, count) -> increment(tenantId, organizationLicenses(organizationId), count));
+  }
+
+  /**
+   * Returns the counter value, or the result of {@code fallback} when counters
+   * are disabled, no tenant is given or the counter has not been seeded yet.
+   */
+  public long get(String tenantId, String counterKey, LongSupplier fallback) {
+    if (!enabled || tenantId == null) {
+      return fallback.getAsLong();
+    }
+    TenantCounter.Key key = new TenantCounter.Key(tenantId, counterKey);
+    Optional<TenantCounter> counter = tenantCounterRepository.findById(key);
+    if (counter.isEmpty()) {
+      return fallback.getAsLong();
+    }
+    return counter.get().getValue() + pending.getOrDefault(key, 0L);
+  }
+
+  /**
+   * Writes buffered deltas to the counter table in one transaction per
+   * shard. Deltas are put back if the write fails.
+   */
+  @Scheduled(fixedDelayString = "${license.counters.flush-interval:PT5S}")
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    Map<TenantCounter.Key, Long> drained = new HashMap<>();
+    for (TenantCounter.Key key : pending.keySet()) {
+      Long delta = pending.remove(key);
+      if (delta != null && delta != 0) {
+        drained.put(key, delta);
+      }
+    }
+    shardMap.groupByShard(drained.keySet(), TenantCounter.Key::getTenantId).forEach((shard, keys) -> {
+      try {
+        shardMap.runOnShard(shard, () -> transactionTemplate.executeWithoutResult(status -> keys.forEach(
+            key -> tenantCounterRepository.addToCounter(key.getTenantId(), key.getCounterKey(), drained.get(key)))));
+      } catch (RuntimeException e) {
+        keys.forEach(key -> pending.merge(key, drained.get(key), Long::sum));
+        logger.warn("Failed to flush {} tenant counters, will retry", keys.size(), e);
+      }
+    });
+  }
+}
@@ -0,0 +1,142 @@
+package com.licensing.service.expiry;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.service.audit.AuditRollupService;
+import com.licensing.service.counter.TenantCounterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Marks active licenses past their expiry date as expired.
+ * Each chunk locks the next due rows with {@code FOR UPDATE SKIP LOCKED},
+ * expires them with one update statement and writes their audit rows as a
+ * JDBC batch, all in one short transaction. Nodes running the sweeper at the
+ * same time skip each other's locked rows and share the backlog. Scheduled
+ * runs sweep every shard in turn.
+ */
+@Component
+public class LicenseExpirySweeper {
+
+  private static final Logger logger = LoggerFactory.getLogger(LicenseExpirySweeper.class);
+  private static final String SYSTEM_USER = "system:expiry-sweeper";
+  private static final Map<String, Object> AUDIT_DETAILS = Map.of("status", LicenseStatus.EXPIRED.name());
+
+  private final LicenseRepository licenseRepository;
+  private final AuditLogRepository auditLogRepository;
+  private final AuditRollupService auditRollupService;
+  private final TenantCounterService tenantCounterService;
+  private final ShardMap shardMap;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final int chunkSize;
+  private final int maxChunksPerRun;
+  private final Counter expiredCounter;
+  private final Counter chunkCounter;
+  private final Timer sweepTimer;
+
+  public LicenseExpirySweeper(LicenseRepository licenseRepository, AuditLogRepository auditLogRepository,
+      AuditRollupService auditRollupService, TenantCounterService tenantCounterService, ShardMap shardMap,
+      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+      @Value("${license.expiry.sweeper.enabled:true}") boolean enabled,
+      @Value("${license.expiry.sweeper.chunk-size:1000}") int chunkSize,
+      @Value("${license.expiry.sweeper.max-chunks-per-run:100}") int maxChunksPerRun) {
+    this.licenseRepository = licenseRepository;
+    this.auditLogRepository = auditLogRepository;
+    this.auditRollupService = auditRollupService;
+    this.tenantCounterService = tenantCounterService;
+    this.shardMap = shardMap;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.chunkSize = chunkSize;
+    this.maxChunksPerRun = maxChunksPerRun;
+    this.expiredCounter = Counter.builder("license.expiry.expired")
+        .description("Licenses transitioned to EXPIRED by the sweeper")
+        .register(meterRegistry);
+    this.chunkCounter = Counter.builder("license.expiry.chunks")
+        .description("Chunks committed by the expiry sweeper")
+        .register(meterRegistry);
+    this.sweepTimer = Timer.builder("license.expiry.sweep")
+        .description("Duration of expiry sweeper runs")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(initialDelayString = "${license.expiry.sweeper.initial-delay:PT30S}",
+      fixedDelayString = "${license.expiry.sweeper.interval:PT1M}")
+  public void scheduledSweep() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      shardMap.forEachShard(() -> sweep(Instant.now()));
+    } catch (RuntimeException e) {
+      logger.error("License expiry sweep failed", e);
+    }
+  }
+
+  /**
+   * Expires licenses due at or before {@code now}, stopping when no due rows
+   * remain unlocked or after the configured number of chunks.
+   *
+   * @return number of licenses expired by this call
+   */
+  public int sweep(Instant now) {
+    return sweepTimer.record(() -> {
+      int expired = 0;
+      for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+        Integer count = transactionTemplate.execute(status -> expireChunk(now));
+        int affected = count != null ? count : 0;
+        expired += affected;
+        if (affected < chunkSize) {
+          break;
+        }
+      }
+      if (expired > 0) {
+        logger.info("Expired {} licenses due by {}", expired, now);
+      }
+      return expired;
+    });
+  }
+
+  private int expireChunk(Instant now) {
+    Map<UUID, String> due = licenseRepository.lockExpiredForUpdate(now, chunkSize);
+    if (due.isEmpty()) {
+      return 0;
+    }
+
+    licenseRepository.updateStatusByIdIn(due.keySet(), LicenseStatus.EXPIRED, Instant.now());
+
+    List<AuditLog> auditLogs = new ArrayList<>(due.size());
+    due.forEach((id, tenantId) -> auditLogs.add(
+        new AuditLog("License", id, "EXPIRE", SYSTEM_USER, tenantId, AUDIT_DETAILS)));
+    auditLogRepository.saveAll(auditLogs);
+    auditRollupService.record(auditLogs);
+    due.values().stream()
+        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+        .forEach((tenantId, count) -> tenantCounterService.recordTransition(tenantId, LicenseStatus.ACTIVE,
+            LicenseStatus.EXPIRED, count));
+
+    expiredCounter.increment(due.size());
+    chunkCounter.increment();
+    return due.size();
+  }
+}
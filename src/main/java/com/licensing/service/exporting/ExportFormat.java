@@ -0,0 +1,41 @@
+package com.licensing.service.exporting;
+
+import java.util.Locale;
+
+/**
+ * Supported download formats for exports.
+ */
+public enum ExportFormat {
+  NDJSON("application/x-ndjson", "ndjson"),
+  CSV("text/csv", "csv");
+
+  private final String contentType;
+  private final String extension;
+
+  ExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Resolves the format from a {@code format} request parameter, case
+   * insensitively.
+   *
+   * @throws IllegalArgumentException if the format is not supported
+   */
+  public static ExportFormat fromParameter(String format) {
+    try {
+      return valueOf(format.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+  }
+}
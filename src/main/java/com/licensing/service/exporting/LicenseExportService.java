@@ -0,0 +1,70 @@
+package com.licensing.service.exporting;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.licensing.domain.License;
+import com.licensing.repository.LicenseFilter;
+import com.licensing.repository.LicenseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes license books as newline-delimited JSON.
+ * Rows are read through a database cursor and detached as soon as they are
+ * written, so heap use does not grow with the number of exported licenses.
+ */
+@Service
+public class LicenseExportService {
+
+  private final LicenseRepository licenseRepository;
+  private final ObjectMapper objectMapper;
+  private final int fetchSize;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public LicenseExportService(LicenseRepository licenseRepository, ObjectMapper objectMapper,
+      @Value("${license.export.fetch-size:1000}") int fetchSize) {
+    this.licenseRepository = licenseRepository;
+    this.objectMapper = objectMapper;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Writes every license of the current tenant matching the filter to the
+   * output, one JSON document per line. The output is not closed.
+   *
+   * @return number of exported licenses
+   */
+  @Transactional(readOnly = true)
+  public long exportNdjson(LicenseFilter filter, OutputStream output) throws IOException {
+    long exported = 0;
+    try (Stream<License> licenses = licenseRepository.streamByFilter(filter, fetchSize);
+        SequenceWriter writer = objectMapper.writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .withRootValueSeparator("\n")
+            .writeValues(output)) {
+      Iterator<License> iterator = licenses.iterator();
+      while (iterator.hasNext()) {
+        License license = iterator.next();
+        writer.write(license);
+        entityManager.detach(license);
+        exported++;
+      }
+      writer.flush();
+      if (exported > 0) {
+        output.write('\n');
+      }
+    }
+    return exported;
+  }
+}
@@ -0,0 +1,34 @@
+package com.licensing.service.importing;
+
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+
+import java.util.List;
+
+/**
+ * Validated, signed licenses and their audit rows, ready to be written together.
+ */
+public final class ImportChunk {
+
+  static final ImportChunk END = new ImportChunk(List.of(), List.of());
+
+  private final List<License> licenses;
+  private final List<AuditLog> auditLogs;
+
+  ImportChunk(List<License> licenses, List<AuditLog> auditLogs) {
+    this.licenses = licenses;
+    this.auditLogs = auditLogs;
+  }
+
+  public List<License> getLicenses() {
+    return licenses;
+  }
+
+  public List<AuditLog> getAuditLogs() {
+    return auditLogs;
+  }
+
+  public int size() {
+    return licenses.size();
+  }
+}
@@ -0,0 +1,30 @@
+package com.licensing.service.importing;
+
+import java.util.Locale;
+
+/**
+ * Supported upload formats for license imports.
+ */
+public enum ImportFormat {
+  CSV,
+  NDJSON;
+
+  /**
+   * Resolves the format from a request content type, ignoring parameters such
+   * as {@code charset}.
+   *
+   * @throws IllegalArgumentException if the content type is not supported
+   */
+  public static ImportFormat fromContentType(String contentType) {
+    if (contentType == null || contentType.isBlank()) {
+      throw new IllegalArgumentException("Content type is required");
+    }
+
+    String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+    return switch (mediaType) {
+      case "text/csv" -> CSV;
+      case "application/x-ndjson", "application/ndjson", "application/jsonl" -> NDJSON;
+      default -> throw new IllegalArgumentException("Unsupported import content type: " + mediaType);
+    };
+  }
+}
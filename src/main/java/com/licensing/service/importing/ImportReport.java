@@ -0,0 +1,68 @@
+package com.licensing.service.importing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a license import. Row errors are kept up to a configured cap;
+ * {@code errorsTruncated} tells whether more rows were rejected than listed.
+ */
+public class ImportReport {
+
+  private final int maxErrors;
+  private final List<RowError> errors = new ArrayList<>();
+  private long imported;
+  private long rejected;
+
+  public ImportReport(int maxErrors) {
+    this.maxErrors = maxErrors;
+  }
+
+  synchronized void recordImported(int count) {
+    imported += count;
+  }
+
+  synchronized void recordRejected(long row, String message) {
+    rejected++;
+    if (errors.size() < maxErrors) {
+      errors.add(new RowError(row, message));
+    }
+  }
+
+  public synchronized long getImported() {
+    return imported;
+  }
+
+  public synchronized long getRejected() {
+    return rejected;
+  }
+
+  public synchronized List<RowError> getErrors() {
+    return List.copyOf(errors);
+  }
+
+  public synchronized boolean isErrorsTruncated() {
+    return rejected > errors.size();
+  }
+
+  /**
+   * A rejected input row, numbered from 1 excluding any CSV header.
+   */
+  public static class RowError {
+    private final long row;
+    private final String message;
+
+    public RowError(long row, String message) {
+      this.row = row;
+      this.message = message;
+    }
+
+    public long getRow() {
+      return row;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.licensing.service.importing;
+
+import java.util.Map;
+
+/**
+ * One parsed input row, or the reason it could not be parsed.
+ */
+final class ImportRow {
+
+  private final long number;
+  private final Map<String, Object> values;
+  private final String error;
+
+  private ImportRow(long number, Map<String, Object> values, String error) {
+    this.number = number;
+    this.values = values;
+    this.error = error;
+  }
+
+  static ImportRow of(long number, Map<String, Object> values) {
+    return new ImportRow(number, values, null);
+  }
+
+  static ImportRow failed(long number, String error) {
+    return new ImportRow(number, null, error);
+  }
+
+  long getNumber() {
+    return number;
+  }
+
+  Map<String, Object> getValues() {
+    return values;
+  }
+
+  String getError() {
+    return error;
+  }
+
+  boolean isFailed() {
+    return error != null;
+  }
+}
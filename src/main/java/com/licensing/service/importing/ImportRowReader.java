@@ -0,0 +1,140 @@
+package com.licensing.service.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads an upload one row at a time so only the current row is held in memory.
+ * CSV input must start with a header row naming the columns. A malformed row
+ * is returned as failed so it is reported and the rows after it still load.
+ */
+abstract class ImportRowReader implements Closeable {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final CsvMapper csvMapper = new CsvMapper();
+  private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {
+  };
+
+  protected final BufferedReader reader;
+  protected long rowNumber;
+
+  private ImportRowReader(InputStream input) {
+    this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+  }
+
+  static ImportRowReader open(InputStream input, ImportFormat format) throws IOException {
+    return switch (format) {
+      case CSV -> new CsvRowReader(input);
+      case NDJSON -> new NdjsonRowReader(input);
+    };
+  }
+
+  /**
+   * Returns the next row, or null at the end of the input.
+   */
+  abstract ImportRow next() throws IOException;
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private static final class NdjsonRowReader extends ImportRowReader {
+
+    private NdjsonRowReader(InputStream input) {
+      super(input);
+    }
+
+    @Override
+    ImportRow next() throws IOException {
+      String line;
+      do {
+        line = reader.readLine();
+        if (line == null) {
+          return null;
+        }
+      } while (line.isBlank());
+
+      rowNumber++;
+      try {
+        return ImportRow.of(rowNumber, objectMapper.readValue(line, ROW_TYPE));
+      } catch (JsonProcessingException e) {
+        return ImportRow.failed(rowNumber, "Malformed JSON: " + e.getOriginalMessage());
+      }
+    }
+  }
+
+  /**
+   * Reads rows as plain arrays and maps them to the header itself, so a row
+   * with extra columns is reported rather than failing the parser. Broken
+   * quoting leaves the rest of the input ambiguous; it is reported on the
+   * row where it starts and reading stops there.
+   */
+  private static final class CsvRowReader extends ImportRowReader {
+
+    private final MappingIterator<String[]> rows;
+    private final String[] header;
+    private boolean broken;
+
+    private CsvRowReader(InputStream input) throws IOException {
+      super(input);
+      this.rows = csvMapper.readerFor(String[].class)
+          .with(CsvParser.Feature.WRAP_AS_ARRAY)
+          .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+          .readValues(reader);
+      try {
+        this.header = rows.hasNextValue() ? rows.nextValue() : new String[0];
+      } catch (RuntimeJsonMappingException e) {
+        throw new IOException("Malformed CSV header", e);
+      }
+    }
+
+    @Override
+    ImportRow next() {
+      if (broken) {
+        return null;
+      }
+      long number = rowNumber + 1;
+      String[] values;
+      try {
+        if (!rows.hasNextValue()) {
+          return null;
+        }
+        rowNumber = number;
+        values = rows.nextValue();
+      } catch (IOException | RuntimeJsonMappingException e) {
+        broken = true;
+        rowNumber = number;
+        return ImportRow.failed(number, "Malformed CSV, the rest of the upload was not read: " + reason(e));
+      }
+      if (values.length > header.length) {
+        return ImportRow.failed(rowNumber,
+            "Expected at most " + header.length + " columns but found " + values.length);
+      }
+      Map<String, Object> row = new LinkedHashMap<>();
+      for (int i = 0; i < values.length; i++) {
+        row.put(header[i], values[i]);
+      }
+      return ImportRow.of(rowNumber, row);
+    }
+
+    private static String reason(Exception e) {
+      Throwable cause = e instanceof RuntimeJsonMappingException ? e.getCause() : e;
+      return cause instanceof JsonProcessingException json ? json.getOriginalMessage() : cause.getMessage();
+    }
+  }
+}
@@ -0,0 +1,314 @@
+package com.licensing.service.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.domain.Organization;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.LicenseSigningService;
+import com.licensing.service.audit.AuditRollupService;
+import com.licensing.service.counter.TenantCounterService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports licenses from CSV or NDJSON uploads.
+ * The request thread parses, validates and signs rows in chunks and hands
+ * them over a bounded queue to a writer thread that writes each chunk to
+ * the database in its own transaction. Memory use is bounded by the chunk
+ * size times the queue capacity, regardless of upload size. Invalid rows are
+ * reported and skipped; a write failure aborts the import, keeping the chunks
+ * already committed.
+ */
+@Service
+public class LicenseImportService {
+
+  private static final String ORGANIZATION_ID = "organizationId";
+  private static final String PRODUCT_NAME = "productName";
+  private static final String CUSTOMER_EMAIL = "customerEmail";
+  private static final String EXPIRY_DATE = "expiryDate";
+  private static final String STATUS = "status";
+  private static final String FEATURES = "features";
+  private static final int MAX_CACHED_ORGANIZATIONS = 10_000;
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final TypeReference<Map<String, Object>> FEATURES_TYPE = new TypeReference<>() {
+  };
+
+  private final OrganizationRepository organizationRepository;
+  private final LicenseSigningService licenseSigningService;
+  private final LicenseImportWriter licenseImportWriter;
+  private final TenantCounterService tenantCounterService;
+  private final AuditRollupService auditRollupService;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int queueCapacity;
+  private final int maxErrors;
+  private final ExecutorService writerExecutor;
+
+  public LicenseImportService(OrganizationRepository organizationRepository,
+      LicenseSigningService licenseSigningService,
+      LicenseImportWriter licenseImportWriter,
+      TenantCounterService tenantCounterService,
+      AuditRollupService auditRollupService,
+      PlatformTransactionManager transactionManager,
+      @Value("${license.import.chunk-size:1000}") int chunkSize,
+      @Value("${license.import.queue-capacity:4}") int queueCapacity,
+      @Value("${license.import.max-errors:1000}") int maxErrors) {
+    this.organizationRepository = organizationRepository;
+    this.licenseSigningService = licenseSigningService;
+    this.licenseImportWriter = licenseImportWriter;
+    this.tenantCounterService = tenantCounterService;
+    this.auditRollupService = auditRollupService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.queueCapacity = queueCapacity;
+    this.maxErrors = maxErrors;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.writerExecutor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "license-import-writer-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    writerExecutor.shutdownNow();
+  }
+
+  /**
+   * Imports all rows of the upload into the current tenant.
+   *
+   * @throws IllegalArgumentException if the upload cannot be read or parsed
+   * @throws IllegalStateException    if writing a chunk fails
+   */
+  public ImportReport importLicenses(InputStream input, ImportFormat format, String userId) {
+    String tenantId = TenantContext.getCurrentTenant();
+    ImportReport report = new ImportReport(maxErrors);
+    BlockingQueue<ImportChunk> queue = new ArrayBlockingQueue<>(queueCapacity);
+    Future<?> writer = writerExecutor.submit(() -> {
+      drain(queue, tenantId, report);
+      return null;
+    });
+    Map<UUID, Boolean> organizations = organizationCache();
+
+    try (ImportRowReader reader = ImportRowReader.open(input, format)) {
+      List<ImportRow> rows = new ArrayList<>(chunkSize);
+      ImportRow row;
+      while ((row = reader.next()) != null) {
+        rows.add(row);
+        if (rows.size() == chunkSize) {
+          enqueue(queue, writer, prepare(rows, organizations, tenantId, userId, report));
+          rows = new ArrayList<>(chunkSize);
+        }
+      }
+      if (!rows.isEmpty()) {
+        enqueue(queue, writer, prepare(rows, organizations, tenantId, userId, report));
+      }
+      enqueue(queue, writer, ImportChunk.END);
+      writer.get();
+      return report;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("License import failed after " + report.getImported() + " rows",
+          e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("License import interrupted after " + report.getImported() + " rows", e);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Failed to read import data", e);
+    } finally {
+      writer.cancel(true);
+    }
+  }
+
+  private void drain(BlockingQueue<ImportChunk> queue, String tenantId, ImportReport report)
+      throws InterruptedException {
+    TenantContext.setCurrentTenant(tenantId);
+    try {
+      while (true) {
+        ImportChunk chunk = queue.take();
+        if (chunk == ImportChunk.END) {
+          return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+          licenseImportWriter.write(chunk);
+          tenantCounterService.recordLicensesCreated(tenantId, chunk.getLicenses());
+          auditRollupService.record(chunk.getAuditLogs());
+        });
+        report.recordImported(chunk.size());
+      }
+    } finally {
+      TenantContext.clear();
+    }
+  }
+
+  private void enqueue(BlockingQueue<ImportChunk> queue, Future<?> writer, ImportChunk chunk)
+      throws InterruptedException, ExecutionException {
+    if (chunk.size() == 0 && chunk != ImportChunk.END) {
+      return;
+    }
+    while (!queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+      if (writer.isDone()) {
+        writer.get();
+        throw new IllegalStateException("Import writer stopped unexpectedly");
+      }
+    }
+  }
+
+  private ImportChunk prepare(List<ImportRow> rows, Map<UUID, Boolean> organizations, String tenantId,
+      String userId, ImportReport report) {
+    List<ParsedRow> parsed = new ArrayList<>(rows.size());
+    Set<UUID> unknownOrganizations = new HashSet<>();
+    for (ImportRow row : rows) {
+      if (row.isFailed()) {
+        report.recordRejected(row.getNumber(), row.getError());
+        continue;
+      }
+      try {
+        ParsedRow parsedRow = parse(row);
+        parsed.add(parsedRow);
+        if (!organizations.containsKey(parsedRow.organizationId)) {
+          unknownOrganizations.add(parsedRow.organizationId);
+        }
+      } catch (IllegalArgumentException | DateTimeParseException e) {
+        report.recordRejected(row.getNumber(), e.getMessage());
+      }
+    }
+    if (!unknownOrganizations.isEmpty()) {
+      for (Organization organization : organizationRepository.findAllById(unknownOrganizations)) {
+        organizations.put(organization.getId(), organization.isActive());
+      }
+    }
+
+    List<License> licenses = new ArrayList<>(parsed.size());
+    List<AuditLog> auditLogs = new ArrayList<>(parsed.size());
+    for (ParsedRow row : parsed) {
+      Boolean active = organizations.get(row.organizationId);
+      if (active == null) {
+        report.recordRejected(row.number, "Organization not found: " + row.organizationId);
+        continue;
+      }
+      if (!active) {
+        report.recordRejected(row.number, "Organization is inactive: " + row.organizationId);
+        continue;
+      }
+      try {
+        License license = new License(row.organizationId, tenantId, row.productName, row.customerEmail,
+            row.expiryDate, row.features);
+        applyStatus(license, row.status);
+        license.setSignature(licenseSigningService.signLicense(license));
+        licenses.add(license);
+        auditLogs.add(new AuditLog("License", license.getId(), "IMPORT", userId, tenantId, null));
+      } catch (IllegalArgumentException e) {
+        report.recordRejected(row.number, e.getMessage());
+      }
+    }
+    return new ImportChunk(licenses, auditLogs);
+  }
+
+  private ParsedRow parse(ImportRow row) {
+    Map<String, Object> values = row.getValues();
+    ParsedRow parsed = new ParsedRow();
+    parsed.number = row.getNumber();
+    parsed.organizationId = UUID.fromString(required(values, ORGANIZATION_ID));
+    parsed.productName = required(values, PRODUCT_NAME);
+    parsed.customerEmail = required(values, CUSTOMER_EMAIL);
+    parsed.expiryDate = Instant.parse(required(values, EXPIRY_DATE));
+    String status = optional(values, STATUS);
+    parsed.status = status != null ? LicenseStatus.valueOf(status.toUpperCase()) : null;
+    parsed.features = features(values.get(FEATURES));
+    return parsed;
+  }
+
+  private static void applyStatus(License license, LicenseStatus status) {
+    if (status == null) {
+      return;
+    }
+    switch (status) {
+      case ACTIVE -> {
+      }
+      case SUSPENDED -> license.suspend();
+      case REVOKED -> license.revoke();
+      case EXPIRED -> license.expire();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> features(Object value) {
+    if (value == null || (value instanceof String text && text.isBlank())) {
+      return Map.of();
+    }
+    if (value instanceof Map<?, ?> map) {
+      return (Map<String, Object>) map;
+    }
+    try {
+      return objectMapper.readValue(value.toString(), FEATURES_TYPE);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Features must be a JSON object");
+    }
+  }
+
+  private static String required(Map<String, Object> values, String column) {
+    String value = optional(values, column);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing " + column);
+    }
+    return value;
+  }
+
+  private static String optional(Map<String, Object> values, String column) {
+    Object value = values.get(column);
+    if (value == null || value.toString().isBlank()) {
+      return null;
+    }
+    return value.toString().trim();
+  }
+
+  private static Map<UUID, Boolean> organizationCache() {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+        return size() > MAX_CACHED_ORGANIZATIONS;
+      }
+    };
+  }
+
+  private static final class ParsedRow {
+    private long number;
+    private UUID organizationId;
+    private String productName;
+    private String customerEmail;
+    private Instant expiryDate;
+    private LicenseStatus status;
+    private Map<String, Object> features;
+  }
+}
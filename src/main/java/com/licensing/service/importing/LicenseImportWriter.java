@@ -0,0 +1,147 @@
+package com.licensing.service.importing;
+
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes prepared import chunks straight to the license and audit tables,
+ * bypassing the persistence context. Uses PostgreSQL {@code COPY FROM STDIN}
+ * when available and falls back to JDBC batch inserts on other databases.
+ * Must be called inside a transaction so both tables commit together.
+ *
+ * <p>Rows are written on the session's connection, so they go through the
+ * tenant connection provider and land in the tenant's {@code search_path}
+ * and shard like any other write of the tenant.
+ */
+@Component
+public class LicenseImportWriter {
+
+  static final String LICENSE_COLUMNS = "id, organization_id, tenant_id, product_name, customer_email, "
+      + "expiry_date, status, features, signature, created_at, updated_at, version";
+  static final String AUDIT_COLUMNS = "id, entity_type, entity_id, action, user_id, tenant_id, details, timestamp, "
+      + "content_hash";
+
+  private static final String COPY_LICENSES = "COPY licenses (" + LICENSE_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+  private static final String COPY_AUDIT_LOGS = "COPY audit_logs (" + AUDIT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+  private static final String INSERT_LICENSE = "INSERT INTO licenses (" + LICENSE_COLUMNS
+      + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String INSERT_AUDIT_LOG = "INSERT INTO audit_logs (" + AUDIT_COLUMNS
+      + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public void write(ImportChunk chunk) {
+    try {
+      entityManager.unwrap(Session.class).doWork(connection -> write(connection, chunk));
+    } catch (RuntimeException e) {
+      throw new IllegalStateException("Failed to write import chunk", e);
+    }
+  }
+
+  private void write(Connection connection, ImportChunk chunk) throws SQLException {
+    if (connection.isWrapperFor(PGConnection.class)) {
+      CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+      try {
+        copyManager.copyIn(COPY_LICENSES, new StringReader(licensesAsCsv(chunk)));
+        copyManager.copyIn(COPY_AUDIT_LOGS, new StringReader(auditLogsAsCsv(chunk)));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    } else {
+      insertLicenses(connection, chunk);
+      insertAuditLogs(connection, chunk);
+    }
+  }
+
+  private String licensesAsCsv(ImportChunk chunk) {
+    StringBuilder csv = new StringBuilder(chunk.size() * 512);
+    for (License license : chunk.getLicenses()) {
+      appendRow(csv, license.getId(), license.getOrganizationId(), license.getTenantId(), license.getProductName(),
+          license.getCustomerEmail(), license.getExpiryDate(), license.getStatus().name(),
+          license.getFeaturesJson(), license.getSignature(), license.getCreatedAt(), license.getUpdatedAt(), 0L);
+    }
+    return csv.toString();
+  }
+
+  private String auditLogsAsCsv(ImportChunk chunk) {
+    StringBuilder csv = new StringBuilder(chunk.size() * 192);
+    for (AuditLog auditLog : chunk.getAuditLogs()) {
+      appendRow(csv, auditLog.getId(), auditLog.getEntityType(), auditLog.getEntityId(), auditLog.getAction(),
+          auditLog.getUserId(), auditLog.getTenantId(), auditLog.getDetailsJson(), auditLog.getTimestamp(),
+          auditLog.computeContentHash());
+    }
+    return csv.toString();
+  }
+
+  private static void appendRow(StringBuilder csv, Object... values) {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        csv.append(',');
+      }
+      if (values[i] != null) {
+        csv.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+      }
+    }
+    csv.append('\n');
+  }
+
+  private void insertLicenses(Connection connection, ImportChunk chunk) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(INSERT_LICENSE)) {
+      for (License license : chunk.getLicenses()) {
+        statement.setObject(1, license.getId());
+        statement.setObject(2, license.getOrganizationId());
+        statement.setString(3, license.getTenantId());
+        statement.setString(4, license.getProductName());
+        statement.setString(5, license.getCustomerEmail());
+        statement.setObject(6, toOffsetDateTime(license.getExpiryDate()));
+        statement.setString(7, license.getStatus().name());
+        statement.setString(8, license.getFeaturesJson());
+        statement.setString(9, license.getSignature());
+        statement.setObject(10, toOffsetDateTime(license.getCreatedAt()));
+        statement.setObject(11, toOffsetDateTime(license.getUpdatedAt()));
+        statement.setLong(12, 0L);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private void insertAuditLogs(Connection connection, ImportChunk chunk) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(INSERT_AUDIT_LOG)) {
+      for (AuditLog auditLog : chunk.getAuditLogs()) {
+        statement.setObject(1, auditLog.getId());
+        statement.setString(2, auditLog.getEntityType());
+        statement.setObject(3, auditLog.getEntityId());
+        statement.setString(4, auditLog.getAction());
+        statement.setString(5, auditLog.getUserId());
+        statement.setString(6, auditLog.getTenantId());
+        statement.setString(7, auditLog.getDetailsJson());
+        statement.setObject(8, toOffsetDateTime(auditLog.getTimestamp()));
+        statement.setString(9, auditLog.computeContentHash());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static OffsetDateTime toOffsetDateTime(Instant instant) {
+    return instant.atOffset(ZoneOffset.UTC);
+  }
+}
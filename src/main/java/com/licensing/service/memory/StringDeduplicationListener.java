@@ -0,0 +1,54 @@
+package com.licensing.service.memory;
+
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+import com.licensing.domain.Organization;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate post-load listener that canonicalizes the low-cardinality strings
+ * of every loaded license, organization and audit entry, so pages, lists,
+ * cached entities and export streams all share instances without each read
+ * path having to remember to. It registers itself with the session factory
+ * rather than through {@code @EntityListeners}, which keeps the entities free
+ * of service dependencies; contexts without it, such as JPA test slices, load
+ * entities unchanged.
+ */
+@Component
+public class StringDeduplicationListener implements PostLoadEventListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final StringDeduplicator stringDeduplicator;
+
+  public StringDeduplicationListener(EntityManagerFactory entityManagerFactory,
+      StringDeduplicator stringDeduplicator) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.stringDeduplicator = stringDeduplicator;
+  }
+
+  @PostConstruct
+  void register() {
+    entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+        .getService(EventListenerRegistry.class)
+        .appendListeners(EventType.POST_LOAD, this);
+  }
+
+  @Override
+  public void onPostLoad(PostLoadEvent event) {
+    Object entity = event.getEntity();
+    if (entity instanceof License license) {
+      license.deduplicateStrings(stringDeduplicator::canonicalize);
+    } else if (entity instanceof Organization organization) {
+      organization.deduplicateStrings(stringDeduplicator::canonicalize);
+    } else if (entity instanceof AuditLog auditLog) {
+      auditLog.deduplicateStrings(stringDeduplicator::canonicalize);
+    }
+  }
+}
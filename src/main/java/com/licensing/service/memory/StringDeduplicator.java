@@ -0,0 +1,122 @@
+package com.licensing.service.memory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded canonicalization table for low-cardinality string columns.
+ * {@link StringDeduplicationListener} passes every loaded entity through this
+ * component so that equal values such as tenant IDs and product names share
+ * one instance and the per-row duplicates become garbage immediately.
+ *
+ * <p>The table has a fixed number of slots, {@code license.dedup.max-entries}
+ * rounded up to a power of two, and a value takes the slot of its hash. A
+ * colliding value displaces the one held, so memory stays bounded while the
+ * table keeps following the values currently being read, and frequent values
+ * win their slots back as they recur.
+ */
+@Component
+public class StringDeduplicator {
+
+  /**
+   * Rough size of a compact (Latin-1) string excluding its characters:
+   * object header and fields plus the backing array header.
+   */
+  private static final int STRING_OVERHEAD_BYTES = 40;
+
+  private final AtomicReferenceArray<String> slots;
+  private final AtomicInteger occupied = new AtomicInteger();
+  private final Counter hits;
+  private final Counter savedBytes;
+  private final Counter evicted;
+
+  public StringDeduplicator(MeterRegistry meterRegistry,
+      @Value("${license.dedup.max-entries:10000}") int maxEntries) {
+    if (maxEntries < 1 || maxEntries > 1 << 30) {
+      throw new IllegalArgumentException("license.dedup.max-entries must be between 1 and 2^30");
+    }
+    int slotCount = 1;
+    while (slotCount < maxEntries) {
+      slotCount <<= 1;
+    }
+    this.slots = new AtomicReferenceArray<>(slotCount);
+    this.hits = Counter.builder("license.string.dedup.hits")
+        .description("Duplicate strings replaced by a canonical instance")
+        .register(meterRegistry);
+    this.savedBytes = Counter.builder("license.string.dedup.saved")
+        .baseUnit("bytes")
+        .description("Estimated heap released by replacing duplicate strings")
+        .register(meterRegistry);
+    this.evicted = Counter.builder("license.string.dedup.evicted")
+        .description("Canonical strings displaced by a colliding value")
+        .register(meterRegistry);
+    Gauge.builder("license.string.dedup.entries", occupied, AtomicInteger::get)
+        .description("Canonical strings currently held")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the canonical instance equal to the given value. An unseen value
+   * becomes canonical itself, displacing whatever held its slot.
+   *
+   * @param value the value to canonicalize, may be null
+   * @return the canonical instance, or the value itself
+   */
+  public String canonicalize(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    int slot = spread(value.hashCode()) & (slots.length() - 1);
+    String canonical = slots.get(slot);
+    if (canonical == value) {
+      return canonical;
+    }
+    if (value.equals(canonical)) {
+      hits.increment();
+      savedBytes.increment(STRING_OVERHEAD_BYTES + value.length());
+      return canonical;
+    }
+
+    if (slots.compareAndSet(slot, canonical, value)) {
+      if (canonical == null) {
+        occupied.incrementAndGet();
+      } else {
+        evicted.increment();
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Drops all canonical values, e.g. after a nightly job finished.
+   */
+  public void clear() {
+    for (int i = 0; i < slots.length(); i++) {
+      if (slots.getAndSet(i, null) != null) {
+        occupied.decrementAndGet();
+      }
+    }
+  }
+
+  public int size() {
+    return occupied.get();
+  }
+
+  public double getEstimatedSavedBytes() {
+    return savedBytes.count();
+  }
+
+  /**
+   * Mixes the high bits of the hash into the low ones used to pick a slot.
+   */
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,60 @@
+package com.licensing.service.pagination;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ * {@code nextCursor} is null on the last page.
+ */
+public class CursorPage<T> {
+
+  public static final int DEFAULT_LIMIT = 50;
+  public static final int MAX_LIMIT = 500;
+
+  private final List<T> items;
+  private final String nextCursor;
+
+  public CursorPage(List<T> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Builds a page from a keyset window, encoding the position of the last
+   * row as the next cursor when more rows follow.
+   */
+  public static <T> CursorPage<T> of(Window<T> window) {
+    String nextCursor = null;
+    if (window.hasNext() && !window.isEmpty()) {
+      nextCursor = KeysetCursor.encode(window.positionAt(window.size() - 1));
+    }
+    return new CursorPage<>(window.getContent(), nextCursor);
+  }
+
+  /**
+   * Clamps a requested page size to {@code [1, MAX_LIMIT]}.
+   */
+  public static Limit limit(int requested) {
+    return Limit.of(Math.min(Math.max(requested, 1), MAX_LIMIT));
+  }
+
+  public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+    return new CursorPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean isHasMore() {
+    return nextCursor != null;
+  }
+}
@@ -0,0 +1,109 @@
+package com.licensing.service.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursor strings.
+ * Cursors carry the sort key values of the last row of a page, e.g.
+ * {@code (createdAt, id)}, and are only valid for the sort they were
+ * produced with.
+ */
+public final class KeysetCursor {
+
+  private static final String ID_PROPERTY = "id";
+  private static final String PAIR_SEPARATOR = "&";
+  private static final String VALUE_SEPARATOR = "=";
+
+  private KeysetCursor() {
+  }
+
+  /**
+   * Encodes the given scroll position.
+   *
+   * @param position a keyset position as returned by a scroll query
+   * @return opaque cursor string
+   * @throws IllegalArgumentException if the position is not a keyset position
+   */
+  public static String encode(ScrollPosition position) {
+    if (!(position instanceof KeysetScrollPosition keyset)) {
+      throw new IllegalArgumentException("Only keyset positions can be encoded as cursors");
+    }
+
+    List<String> pairs = new ArrayList<>();
+    keyset.getKeys().forEach((property, value) -> pairs.add(property + VALUE_SEPARATOR + value));
+    String raw = String.join(PAIR_SEPARATOR, pairs);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Encodes the keyset of a row sorted by a timestamp property and its ID.
+   */
+  public static String encode(String timestampProperty, Instant timestamp, UUID id) {
+    Map<String, Object> keys = new LinkedHashMap<>();
+    keys.put(timestampProperty, timestamp);
+    keys.put(ID_PROPERTY, id);
+    return encode(ScrollPosition.forward(keys));
+  }
+
+  /**
+   * Decodes a cursor into a forward keyset position for the given sort.
+   * A null or blank cursor denotes the first page.
+   *
+   * @param cursor opaque cursor string, may be null
+   * @param sort   the sort the cursor must have been produced with
+   * @return the scroll position to continue from
+   * @throws IllegalArgumentException if the cursor is malformed or belongs to
+   *                                  a different sort
+   */
+  public static KeysetScrollPosition decode(String cursor, Sort sort) {
+    if (cursor == null || cursor.isBlank()) {
+      return ScrollPosition.keyset();
+    }
+
+    List<String> expectedProperties = sort.stream().map(Sort.Order::getProperty).toList();
+    String raw;
+    try {
+      raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    String[] pairs = raw.split(PAIR_SEPARATOR);
+    if (pairs.length != expectedProperties.size()) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    Map<String, Object> keys = new LinkedHashMap<>();
+    for (int i = 0; i < pairs.length; i++) {
+      String[] pair = pairs[i].split(VALUE_SEPARATOR, 2);
+      if (pair.length != 2 || !pair[0].equals(expectedProperties.get(i))) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      keys.put(pair[0], parseValue(pair[0], pair[1]));
+    }
+    return ScrollPosition.forward(keys);
+  }
+
+  private static Object parseValue(String property, String value) {
+    try {
+      if (ID_PROPERTY.equals(property)) {
+        return UUID.fromString(value);
+      }
+      return Instant.parse(value);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+  }
+}
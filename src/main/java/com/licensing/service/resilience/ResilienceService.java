@@ -1,5 +1,6 @@
 package com.licensing.service.resilience;
 
+import com.licensing.config.tenant.TenantContextScheduledExecutor;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.retry.Retry;
@@ -11,14 +12,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 
 /**
  * Service providing resilience patterns for critical operations.
  * Wraps database and external service calls with circuit breaker, retry, and
- * timeout protection.
+ * timeout protection. Timeouts fire on a scheduler that keeps the caller's
+ * tenant, so callbacks chained on a timed-out future still run as that tenant.
  */
 @Service
 public class ResilienceService {
@@ -44,7 +45,7 @@ public class ResilienceService {
     this.redisRetry = retryRegistry.retry("redis");
     this.databaseTimeLimiter = timeLimiterRegistry.timeLimiter("database");
     this.externalApiTimeLimiter = timeLimiterRegistry.timeLimiter("external-api");
-    this.scheduler = Executors.newScheduledThreadPool(4);
+    this.scheduler = new TenantContextScheduledExecutor(4);
 
     setupEventListeners();
   }
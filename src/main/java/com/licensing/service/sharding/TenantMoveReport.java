@@ -0,0 +1,68 @@
+package com.licensing.service.sharding;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of moving one tenant to another shard.
+ */
+public final class TenantMoveReport {
+
+  private final String tenantId;
+  private final String sourceShard;
+  private final String targetShard;
+  private final Map<String, Long> copiedRows;
+  private final long caughtUpRows;
+  private final Duration frozenFor;
+  private final Duration duration;
+
+  public TenantMoveReport(String tenantId, String sourceShard, String targetShard, Map<String, Long> copiedRows,
+      long caughtUpRows, Duration frozenFor, Duration duration) {
+    this.tenantId = tenantId;
+    this.sourceShard = sourceShard;
+    this.targetShard = targetShard;
+    this.copiedRows = Collections.unmodifiableMap(copiedRows);
+    this.caughtUpRows = caughtUpRows;
+    this.frozenFor = frozenFor;
+    this.duration = duration;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public String getSourceShard() {
+    return sourceShard;
+  }
+
+  public String getTargetShard() {
+    return targetShard;
+  }
+
+  /**
+   * Rows copied per table while the tenant was still online.
+   */
+  public Map<String, Long> getCopiedRows() {
+    return copiedRows;
+  }
+
+  /**
+   * Rows written, updated or deleted on the target while the tenant was
+   * frozen and after the cut-over.
+   */
+  public long getCaughtUpRows() {
+    return caughtUpRows;
+  }
+
+  /**
+   * How long connections for the tenant were refused.
+   */
+  public Duration getFrozenFor() {
+    return frozenFor;
+  }
+
+  public Duration getDuration() {
+    return duration;
+  }
+}
@@ -0,0 +1,442 @@
+package com.licensing.service.sharding;
+
+import com.licensing.config.sharding.ShardMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves a tenant's rows from its shard to another one while the tenant stays
+ * online for all but a short freeze.
+ *
+ * <p>A move copies every table of the tenant to the target while requests
+ * keep running, then freezes the tenant so new connections are refused,
+ * waits for other nodes to reload the directory and for open transactions
+ * of the tenant on every node to finish, fencing the source shard against
+ * late ones, and catches up on whatever changed since the copy started:
+ * organizations and licenses by {@code updated_at}, audit entries and
+ * checkpoints by insertion time, counters and rollups by copying them again.
+ * The directory is then pointed at the target; the fence is held until
+ * other nodes have reloaded it, audit rows the asynchronous writers still
+ * put on the source are swept over, and the source rows are deleted. A failure before the cut-over unfreezes the tenant on its old
+ * shard; rows left on the target are cleared by the next attempt.
+ */
+@Service
+public class TenantMoveService {
+
+  private static final Logger logger = LoggerFactory.getLogger(TenantMoveService.class);
+
+  /**
+   * Tables holding tenant data, parents before children.
+   */
+  private static final List<Table> TABLES = List.of(
+      new Table("organizations", Kind.MUTABLE, "id", "updated_at"),
+      new Table("licenses", Kind.MUTABLE, "id", "updated_at"),
+      new Table("audit_logs", Kind.APPEND_ONLY, "id", "timestamp"),
+      new Table("audit_checkpoints", Kind.APPEND_ONLY, "id", "created_at"),
+      new Table("audit_checkpoint_nodes", Kind.APPEND_ONLY, "checkpoint_id", "created_at"),
+      new Table("audit_rollups", Kind.RECOPIED, null, null),
+      new Table("tenant_counters", Kind.RECOPIED, null, null));
+
+  private final ShardMap shardMap;
+  private final Duration drainTimeout;
+  private final Duration catchUpMargin;
+  private final int batchSize;
+  private final Timer moveTimer;
+  private final ReentrantLock moveLock = new ReentrantLock();
+
+  public TenantMoveService(ShardMap shardMap, MeterRegistry meterRegistry,
+      @Value("${license.sharding.move.drain-timeout:PT30S}") Duration drainTimeout,
+      @Value("${license.sharding.move.catch-up-margin:PT5M}") Duration catchUpMargin,
+      @Value("${license.sharding.move.batch-size:1000}") int batchSize) {
+    this.shardMap = shardMap;
+    this.drainTimeout = drainTimeout;
+    this.catchUpMargin = catchUpMargin;
+    this.batchSize = batchSize;
+    this.moveTimer = Timer.builder("license.sharding.moves")
+        .description("Duration of tenant moves between shards")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Moves {@code tenantId} to {@code targetShard}. Only one move runs at a
+   * time on a node.
+   *
+   * @throws IllegalArgumentException if the shard is unknown or already holds the tenant
+   * @throws IllegalStateException if sharding is disabled, another move is running or the move failed
+   */
+  public TenantMoveReport move(String tenantId, String targetShard) {
+    if (!shardMap.isEnabled()) {
+      throw new IllegalStateException("Sharding is disabled");
+    }
+    shardMap.getDataSource(targetShard);
+    if (!moveLock.tryLock()) {
+      throw new IllegalStateException("Another tenant move is in progress");
+    }
+    try {
+      return moveTimer.record(() -> moveLocked(tenantId, targetShard));
+    } finally {
+      moveLock.unlock();
+    }
+  }
+
+  private TenantMoveReport moveLocked(String tenantId, String targetShard) {
+    String sourceShard = shardMap.shardOf(tenantId);
+    if (sourceShard.equals(targetShard)) {
+      throw new IllegalArgumentException("Tenant " + tenantId + " is already on shard " + targetShard);
+    }
+    if (shardMap.isMoving(tenantId)) {
+      throw new IllegalStateException("Tenant " + tenantId + " is already being moved");
+    }
+    DataSource source = shardMap.getDataSource(sourceShard);
+    DataSource target = shardMap.getDataSource(targetShard);
+    long start = System.nanoTime();
+    logger.info("Moving tenant {} from shard {} to {}", tenantId, sourceShard, targetShard);
+
+    Map<String, Long> copied = new LinkedHashMap<>();
+    long caughtUp;
+    Duration frozenFor;
+    ShardMap.Fence fence = null;
+    try {
+      Timestamp since = Timestamp.from(Instant.now().minus(catchUpMargin));
+      purge(target, tenantId);
+      for (Table table : TABLES) {
+        copied.put(table.name, copy(source, target, table, tenantId));
+      }
+
+      long frozenAt = System.nanoTime();
+      shardMap.freeze(tenantId);
+      try {
+        Thread.sleep(shardMap.getRefreshInterval().toMillis());
+        if (!shardMap.awaitDrained(tenantId, drainTimeout)) {
+          throw new IllegalStateException("Connections of tenant " + tenantId + " were still open after "
+              + drainTimeout);
+        }
+        fence = shardMap.fence(tenantId, drainTimeout);
+        if (fence == null) {
+          throw new IllegalStateException("Transactions of tenant " + tenantId + " on other nodes were still open "
+              + "after " + drainTimeout);
+        }
+        caughtUp = catchUp(source, target, tenantId, since);
+        shardMap.cutOver(tenantId, targetShard);
+      } catch (InterruptedException | SQLException | RuntimeException e) {
+        close(fence);
+        shardMap.unfreeze(tenantId);
+        throw e;
+      }
+      frozenFor = Duration.ofNanos(System.nanoTime() - frozenAt);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Moving tenant " + tenantId + " to shard " + targetShard + " failed", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Moving tenant " + tenantId + " was interrupted", e);
+    }
+
+    try {
+      try {
+        Thread.sleep(shardMap.getRefreshInterval().toMillis());
+      } finally {
+        close(fence);
+      }
+      caughtUp += sweepAppendOnly(source, target, tenantId, Timestamp.from(Instant.now().minus(catchUpMargin)));
+      purge(source, tenantId);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Tenant " + tenantId + " was moved to shard " + targetShard
+          + " but its rows on shard " + sourceShard + " could not be cleaned up", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Tenant " + tenantId + " was moved to shard " + targetShard
+          + " but cleaning up shard " + sourceShard + " was interrupted", e);
+    }
+
+    TenantMoveReport report = new TenantMoveReport(tenantId, sourceShard, targetShard, copied, caughtUp, frozenFor,
+        Duration.ofNanos(System.nanoTime() - start));
+    logger.info("Moved tenant {} from shard {} to {} in {} (frozen for {})", tenantId, sourceShard, targetShard,
+        report.getDuration(), frozenFor);
+    return report;
+  }
+
+  private static void close(ShardMap.Fence fence) {
+    if (fence == null) {
+      return;
+    }
+    try {
+      fence.close();
+    } catch (SQLException e) {
+      logger.warn("Failed to release the move fence; it ends with its connection", e);
+    }
+  }
+
+  private long copy(DataSource source, DataSource target, Table table, String tenantId) throws SQLException {
+    return transfer(source, target, table, "SELECT * FROM " + quote(table.name) + " WHERE tenant_id = ?",
+        List.of(tenantId), Set.of(), false);
+  }
+
+  /**
+   * Applies what changed on the source since {@code since}: upserts changed
+   * rows, inserts new append-only rows, removes rows deleted on the source
+   * and copies the recopied tables again.
+   */
+  private long catchUp(DataSource source, DataSource target, String tenantId, Timestamp since) throws SQLException {
+    long changed = 0;
+    for (Table table : TABLES) {
+      switch (table.kind) {
+        case MUTABLE -> changed += transfer(source, target, table, changedSince(table), List.of(tenantId, since),
+            Set.of(), true);
+        case APPEND_ONLY -> changed += sweep(source, target, table, tenantId, since);
+        case RECOPIED -> {
+          delete(target, table, tenantId);
+          changed += copy(source, target, table, tenantId);
+        }
+      }
+    }
+    for (int i = TABLES.size() - 1; i >= 0; i--) {
+      Table table = TABLES.get(i);
+      if (table.kind == Kind.MUTABLE) {
+        Set<Object> stale = keys(target, table, tenantId, null);
+        stale.removeAll(keys(source, table, tenantId, null));
+        changed += deleteKeys(target, table, stale);
+      }
+    }
+    return changed;
+  }
+
+  private long sweepAppendOnly(DataSource source, DataSource target, String tenantId, Timestamp since)
+      throws SQLException {
+    long swept = 0;
+    for (Table table : TABLES) {
+      if (table.kind == Kind.APPEND_ONLY) {
+        swept += sweep(source, target, table, tenantId, since);
+      }
+    }
+    if (swept > 0) {
+      logger.info("Swept {} rows of tenant {} written to its old shard during the move", swept, tenantId);
+    }
+    return swept;
+  }
+
+  private long sweep(DataSource source, DataSource target, Table table, String tenantId, Timestamp since)
+      throws SQLException {
+    return transfer(source, target, table, changedSince(table), List.of(tenantId, since),
+        keys(target, table, tenantId, since), false);
+  }
+
+  /**
+   * Streams the rows selected by {@code query} from the source into the
+   * target in batches, skipping rows whose key is in {@code skipKeys}.
+   */
+  private long transfer(DataSource source, DataSource target, Table table, String query, List<Object> params,
+      Set<Object> skipKeys, boolean upsert) throws SQLException {
+    try (Connection from = source.getConnection(); Connection to = target.getConnection()) {
+      from.setAutoCommit(false);
+      to.setAutoCommit(false);
+      try (PreparedStatement select = from.prepareStatement(query)) {
+        select.setFetchSize(batchSize);
+        bind(select, params);
+        try (ResultSet rows = select.executeQuery();
+            RowWriter writer = new RowWriter(to, table, rows.getMetaData(), upsert)) {
+          long count = 0;
+          while (rows.next()) {
+            if (table.key != null && skipKeys.contains(rows.getObject(table.key))) {
+              continue;
+            }
+            writer.write(rows);
+            if (++count % batchSize == 0) {
+              writer.flush();
+              to.commit();
+            }
+          }
+          writer.flush();
+          to.commit();
+          from.commit();
+          return count;
+        }
+      }
+    }
+  }
+
+  private Set<Object> keys(DataSource dataSource, Table table, String tenantId, Timestamp since)
+      throws SQLException {
+    String query = since != null ? "SELECT " + quote(table.key) + " FROM " + quote(table.name)
+        + " WHERE tenant_id = ? AND " + quote(table.changedColumn) + " >= ?"
+        : "SELECT " + quote(table.key) + " FROM " + quote(table.name) + " WHERE tenant_id = ?";
+    Set<Object> keys = new HashSet<>();
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement select = connection.prepareStatement(query)) {
+      bind(select, since != null ? List.of(tenantId, since) : List.of(tenantId));
+      try (ResultSet rows = select.executeQuery()) {
+        while (rows.next()) {
+          keys.add(rows.getObject(1));
+        }
+      }
+    }
+    return keys;
+  }
+
+  private long deleteKeys(DataSource dataSource, Table table, Set<Object> keys) throws SQLException {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement delete = connection.prepareStatement(
+            "DELETE FROM " + quote(table.name) + " WHERE " + quote(table.key) + " = ?")) {
+      for (Object key : keys) {
+        delete.setObject(1, key);
+        delete.addBatch();
+      }
+      delete.executeBatch();
+    }
+    return keys.size();
+  }
+
+  /**
+   * Deletes every row of the tenant from one shard, children first.
+   */
+  private void purge(DataSource dataSource, String tenantId) throws SQLException {
+    for (int i = TABLES.size() - 1; i >= 0; i--) {
+      delete(dataSource, TABLES.get(i), tenantId);
+    }
+  }
+
+  private void delete(DataSource dataSource, Table table, String tenantId) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement delete = connection.prepareStatement(
+            "DELETE FROM " + quote(table.name) + " WHERE tenant_id = ?")) {
+      delete.setString(1, tenantId);
+      delete.executeUpdate();
+    }
+  }
+
+  private static String changedSince(Table table) {
+    return "SELECT * FROM " + quote(table.name) + " WHERE tenant_id = ? AND " + quote(table.changedColumn) + " >= ?";
+  }
+
+  private static void bind(PreparedStatement statement, List<Object> params) throws SQLException {
+    for (int i = 0; i < params.size(); i++) {
+      statement.setObject(i + 1, params.get(i));
+    }
+  }
+
+  private static String quote(String identifier) {
+    return '"' + identifier + '"';
+  }
+
+  private enum Kind {
+    /** Rows are updated and deleted in place and carry {@code updated_at}. */
+    MUTABLE,
+    /** Rows are only ever inserted; rows sharing a key are inserted together. */
+    APPEND_ONLY,
+    /** Small per-tenant tables without a change column, copied again whole. */
+    RECOPIED
+  }
+
+  private static final class Table {
+
+    private final String name;
+    private final Kind kind;
+    private final String key;
+    private final String changedColumn;
+
+    private Table(String name, Kind kind, String key, String changedColumn) {
+      this.name = name;
+      this.kind = kind;
+      this.key = key;
+      this.changedColumn = changedColumn;
+    }
+  }
+
+  /**
+   * Writes copied rows with the column list of the source query, casting
+   * every value to the source column type so enum and JSON columns survive
+   * the round trip.
+   */
+  private static final class RowWriter implements AutoCloseable {
+
+    private final int columnCount;
+    private final PreparedStatement insert;
+    private final PreparedStatement update;
+    private final int keyColumn;
+    private boolean batched;
+
+    private RowWriter(Connection connection, Table table, ResultSetMetaData metadata, boolean upsert)
+        throws SQLException {
+      this.columnCount = metadata.getColumnCount();
+      List<String> columns = new ArrayList<>(columnCount);
+      List<String> values = new ArrayList<>(columnCount);
+      List<String> assignments = new ArrayList<>(columnCount);
+      int key = 0;
+      for (int i = 1; i <= columnCount; i++) {
+        String column = metadata.getColumnName(i);
+        String value = "CAST(? AS " + metadata.getColumnTypeName(i) + ")";
+        columns.add(quote(column));
+        values.add(value);
+        assignments.add(quote(column) + " = " + value);
+        if (column.equalsIgnoreCase(table.key)) {
+          key = i;
+        }
+      }
+      this.keyColumn = key;
+      this.insert = connection.prepareStatement("INSERT INTO " + quote(table.name) + " ("
+          + String.join(", ", columns) + ") VALUES (" + String.join(", ", values) + ")");
+      this.update = upsert
+          ? connection.prepareStatement("UPDATE " + quote(table.name) + " SET " + String.join(", ", assignments)
+              + " WHERE " + quote(table.key) + " = ?")
+          : null;
+    }
+
+    private void write(ResultSet row) throws SQLException {
+      if (update != null) {
+        for (int i = 1; i <= columnCount; i++) {
+          update.setObject(i, row.getObject(i));
+        }
+        update.setObject(columnCount + 1, row.getObject(keyColumn));
+        if (update.executeUpdate() > 0) {
+          return;
+        }
+      }
+      for (int i = 1; i <= columnCount; i++) {
+        insert.setObject(i, row.getObject(i));
+      }
+      insert.addBatch();
+      batched = true;
+    }
+
+    private void flush() throws SQLException {
+      if (batched) {
+        insert.executeBatch();
+        batched = false;
+      }
+    }
+
+    @Override
+    public void close() throws SQLException {
+      try {
+        insert.close();
+      } finally {
+        if (update != null) {
+          update.close();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,28 @@
+-- Tamper evidence for the audit trail. Each entry stores a SHA-256 hash of
+-- its content; checkpoints commit to consecutive runs of a tenant's entries
+-- with a Merkle root, chain to the previous checkpoint of the tenant and are
+-- signed with the application's Ed25519 key.
+ALTER TABLE audit_logs ADD COLUMN content_hash VARCHAR(64);
+
+CREATE TABLE audit_checkpoints (
+    id UUID PRIMARY KEY,
+    tenant_id VARCHAR(255) NOT NULL,
+    sequence BIGINT NOT NULL,
+    start_timestamp TIMESTAMP WITH TIME ZONE,
+    start_id UUID,
+    end_timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_id UUID NOT NULL,
+    entry_count INTEGER NOT NULL,
+    merkle_root VARCHAR(64) NOT NULL,
+    previous_hash VARCHAR(64) NOT NULL,
+    checkpoint_hash VARCHAR(64) NOT NULL,
+    key_id VARCHAR(255),
+    signature TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT uk_audit_checkpoints_tenant_sequence UNIQUE (tenant_id, sequence)
+);
+
+CREATE INDEX idx_audit_checkpoints_tenant_end ON audit_checkpoints(tenant_id, end_timestamp);
+
+COMMENT ON TABLE audit_checkpoints IS 'Signed Merkle checkpoints over consecutive audit entries of a tenant';
@@ -0,0 +1,14 @@
+-- Hourly audit event counts per tenant, entity type and action, maintained
+-- incrementally by the application so activity charts never scan audit_logs.
+-- Existing entries are backfilled by the application in bounded batches
+-- rather than by a GROUP BY over the whole of audit_logs here.
+CREATE TABLE audit_rollups (
+    tenant_id VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    entity_type VARCHAR(255) NOT NULL,
+    action VARCHAR(255) NOT NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    PRIMARY KEY (tenant_id, bucket_start, entity_type, action)
+);
@@ -0,0 +1,20 @@
+-- Directory of the database shard holding each tenant's data. Only the copy
+-- on the primary database is read; the table exists on every shard because
+-- all shards run the same migrations.
+CREATE TABLE tenant_shards (
+    tenant_id VARCHAR(255) PRIMARY KEY,
+    shard VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_tenant_shards_shard ON tenant_shards(shard);
+
+-- Pin the tenants that already have data to the primary database, so turning
+-- sharding on never strands existing rows.
+INSERT INTO tenant_shards (tenant_id, shard)
+SELECT tenant_id, 'primary' FROM organizations
+UNION
+SELECT tenant_id, 'primary' FROM licenses
+UNION
+SELECT tenant_id, 'primary' FROM audit_logs;
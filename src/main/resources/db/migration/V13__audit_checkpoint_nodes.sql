@@ -0,0 +1,22 @@
+-- Merkle tree of each audit checkpoint, written when the checkpoint is
+-- sealed, so an inclusion proof reads one sibling per level instead of
+-- rehashing the checkpoint's whole run. Level 0 holds the leaves with the
+-- entry each belongs to. Checkpoints sealed before this migration have no
+-- nodes and are proven by rehashing their run.
+CREATE TABLE audit_checkpoint_nodes (
+    checkpoint_id UUID NOT NULL REFERENCES audit_checkpoints(id) ON DELETE CASCADE,
+    tree_level INTEGER NOT NULL,
+    node_index INTEGER NOT NULL,
+    tenant_id VARCHAR(255) NOT NULL,
+    hash VARCHAR(64) NOT NULL,
+    entry_id UUID,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    PRIMARY KEY (checkpoint_id, tree_level, node_index)
+);
+
+CREATE INDEX idx_audit_checkpoint_nodes_entry ON audit_checkpoint_nodes(checkpoint_id, entry_id)
+    WHERE entry_id IS NOT NULL;
+CREATE INDEX idx_audit_checkpoint_nodes_tenant ON audit_checkpoint_nodes(tenant_id, created_at);
+
+COMMENT ON TABLE audit_checkpoint_nodes IS 'Merkle tree nodes of audit checkpoints for O(log n) inclusion proofs';
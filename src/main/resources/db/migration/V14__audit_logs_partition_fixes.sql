@@ -0,0 +1,48 @@
+-- V9 dropped the timestamp and entity_type indexes of the unpartitioned
+-- audit_logs without recreating them on the partitioned table. Queries that
+-- filter by time range across tenants, or by entity type alone, fell back to
+-- scanning every partition.
+CREATE INDEX IF NOT EXISTS idx_audit_logs_timestamp ON audit_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_entity_type ON audit_logs(entity_type);
+
+-- Creating a partition fails while the DEFAULT partition holds rows of its
+-- month, which happens once writes outrun partition creation. Such rows are
+-- now moved into the new partition: the DEFAULT partition is detached, the
+-- partition created, the rows re-homed and the DEFAULT partition attached
+-- again, all in the caller's transaction.
+CREATE OR REPLACE FUNCTION create_audit_log_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    lower_bound TIMESTAMPTZ := date_trunc('month', month_start)::TIMESTAMP AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMPTZ := (date_trunc('month', month_start) + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+    partition_name TEXT := 'audit_logs_p' || to_char(month_start, 'YYYYMM');
+    stray BOOLEAN;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    SELECT EXISTS (
+        SELECT 1 FROM audit_logs_default WHERE timestamp >= lower_bound AND timestamp < upper_bound
+    ) INTO stray;
+
+    IF stray THEN
+        ALTER TABLE audit_logs DETACH PARTITION audit_logs_default;
+    END IF;
+
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+        partition_name, lower_bound, upper_bound);
+
+    IF stray THEN
+        -- Inserted into the partition directly so the parent's row level
+        -- security policy does not filter the rows of other tenants.
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM audit_logs_default WHERE timestamp >= %L AND timestamp < %L RETURNING *) '
+                || 'INSERT INTO %I SELECT * FROM moved',
+            lower_bound, upper_bound, partition_name);
+        ALTER TABLE audit_logs ATTACH PARTITION audit_logs_default DEFAULT;
+    END IF;
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,11 @@
+-- Progress of the audit rollup backfill on this database: every hour from
+-- counted_from onwards has been recounted from audit_logs. The backfill walks
+-- backwards one batch of hours at a time until it reaches the oldest entry.
+CREATE TABLE audit_rollup_backfill (
+    id INTEGER PRIMARY KEY,
+    counted_from TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE audit_rollup_backfill IS 'How far back audit_rollups have been recounted from audit_logs';
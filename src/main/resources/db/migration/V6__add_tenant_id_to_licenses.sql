@@ -1,2 +1,3 @@
 -- Add tenant_id column to licenses table for schema-based multi-tenancy support
-ALTER TABLE licenses ADD COLUMN tenant_id VARCHAR(255) NOT NULL DEFAULT 'default';
+-- (V1 already creates it on new databases)
+ALTER TABLE licenses ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(255) NOT NULL DEFAULT 'default';
@@ -0,0 +1,23 @@
+-- Align licenses with the columns the application maps: V1 created the expiry
+-- as expires_at and had no product name or optimistic lock version. Databases
+-- whose licenses table already has these columns are left as they are.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'licenses' AND column_name = 'expires_at')
+        AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'licenses' AND column_name = 'expiry_date') THEN
+        ALTER TABLE licenses RENAME COLUMN expires_at TO expiry_date;
+        ALTER INDEX IF EXISTS idx_licenses_expires_at RENAME TO idx_licenses_expiry_date;
+    END IF;
+END;
+$$;
+
+ALTER TABLE licenses ADD COLUMN IF NOT EXISTS product_name VARCHAR(255) NOT NULL DEFAULT '';
+ALTER TABLE licenses ALTER COLUMN product_name DROP DEFAULT;
+ALTER TABLE licenses ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Rebuild the partial expiring index on the column the application maps, so the
+-- expiry sweeper can range-scan due ACTIVE licenses in expiry order.
+DROP INDEX IF EXISTS idx_licenses_expiring;
+CREATE INDEX idx_licenses_expiring ON licenses(expiry_date) WHERE status = 'ACTIVE';
@@ -0,0 +1,10 @@
+-- Precomputed per-tenant counts (licenses by status and organization, active
+-- organizations) maintained incrementally by the application.
+CREATE TABLE tenant_counters (
+    tenant_id VARCHAR(255) NOT NULL,
+    counter_key VARCHAR(255) NOT NULL,
+    value BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    PRIMARY KEY (tenant_id, counter_key)
+);
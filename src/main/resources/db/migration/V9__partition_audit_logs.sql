@@ -0,0 +1,90 @@
+-- Convert audit_logs into a table range-partitioned by month on timestamp, so
+-- retention drops whole partitions and time-bounded queries prune to the
+-- months they cover. Partitions are named audit_logs_pYYYYMM; the application
+-- creates future ones ahead of time through create_audit_log_partition.
+
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER TABLE audit_logs_legacy RENAME CONSTRAINT audit_logs_pkey TO audit_logs_legacy_pkey;
+DROP POLICY IF EXISTS audit_logs_tenant_isolation ON audit_logs_legacy;
+DROP INDEX IF EXISTS idx_audit_logs_tenant_id;
+DROP INDEX IF EXISTS idx_audit_logs_entity_type;
+DROP INDEX IF EXISTS idx_audit_logs_entity_id;
+DROP INDEX IF EXISTS idx_audit_logs_timestamp;
+DROP INDEX IF EXISTS idx_audit_logs_user_id;
+DROP INDEX IF EXISTS idx_audit_logs_tenant_entity;
+
+-- The partition key must be part of the primary key.
+CREATE TABLE audit_logs (
+    id UUID NOT NULL DEFAULT uuid_generate_v4(),
+    tenant_id VARCHAR(255) NOT NULL,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id UUID NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    user_id VARCHAR(255),
+    details JSONB,
+    timestamp TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Catches rows outside every monthly partition. It stays empty as long as
+-- partitions are created ahead of time, which keeps attaching new ones cheap.
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+CREATE INDEX idx_audit_logs_tenant_timestamp ON audit_logs(tenant_id, timestamp);
+CREATE INDEX idx_audit_logs_tenant_entity ON audit_logs(tenant_id, entity_type, entity_id);
+CREATE INDEX idx_audit_logs_entity_id ON audit_logs(entity_id);
+CREATE INDEX idx_audit_logs_user_id ON audit_logs(user_id);
+
+ALTER TABLE audit_logs ENABLE ROW LEVEL SECURITY;
+CREATE POLICY audit_logs_tenant_isolation ON audit_logs
+    FOR ALL
+    USING (tenant_id = get_current_tenant());
+
+COMMENT ON TABLE audit_logs IS 'Audit trail for all system operations, partitioned by month';
+COMMENT ON COLUMN audit_logs.details IS 'JSON object containing operation details';
+
+-- Creates the partition holding the UTC month that contains month_start, if it
+-- does not exist yet. Returns true when a partition was created.
+CREATE OR REPLACE FUNCTION create_audit_log_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    lower_bound DATE := date_trunc('month', month_start)::DATE;
+    upper_bound DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'audit_logs_p' || to_char(lower_bound, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+        partition_name,
+        lower_bound::TIMESTAMP AT TIME ZONE 'UTC',
+        upper_bound::TIMESTAMP AT TIME ZONE 'UTC');
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month holding existing rows, plus the next three.
+DO $$
+DECLARE
+    first_month DATE;
+    month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(timestamp), NOW()) AT TIME ZONE 'UTC')::DATE
+    INTO first_month
+    FROM audit_logs_legacy;
+
+    month := first_month;
+    WHILE month <= (date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_audit_log_partition(month);
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO audit_logs (id, tenant_id, entity_type, entity_id, action, user_id, details, timestamp)
+SELECT id, tenant_id, entity_type, entity_id, action, user_id, details, timestamp
+FROM audit_logs_legacy;
+
+DROP TABLE audit_logs_legacy;
@@ -1,7 +1,13 @@
 package com.licensing.config;
 
+import com.licensing.config.sharding.ShardMap;
 import com.licensing.config.tenant.CurrentTenantResolver;
+import com.licensing.config.tenant.TenantBulkhead;
+import com.licensing.config.tenant.TenantBulkheadProperties;
 import com.licensing.config.tenant.TenantConnectionProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -20,8 +26,13 @@ public class TestJpaConfiguration {
 
     @Bean
     @Primary
-    public TenantConnectionProvider testTenantConnectionProvider(DataSource dataSource) {
-        return new TenantConnectionProvider(dataSource);
+    public TenantConnectionProvider testTenantConnectionProvider(DataSource dataSource,
+            ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<TenantBulkhead> tenantBulkhead,
+            ObjectProvider<ShardMap> shardMap) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        return new TenantConnectionProvider(dataSource,
+                tenantBulkhead.getIfAvailable(() -> new TenantBulkhead(new TenantBulkheadProperties(), registry)),
+                shardMap.getIfAvailable(() -> new ShardMap(dataSource)), registry, false, "tenant_", "public");
     }
 
     @Bean
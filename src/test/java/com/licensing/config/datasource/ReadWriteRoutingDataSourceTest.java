@@ -0,0 +1,115 @@
+package com.licensing.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+  @Mock
+  private DataSource replica;
+
+  private final AtomicLong clock = new AtomicLong();
+  private SimpleMeterRegistry meterRegistry;
+  private ReplicaLagMonitor monitor;
+  private ReadWriteRoutingDataSource routing;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    Map<String, DataSource> replicas = new LinkedHashMap<>();
+    replicas.put("replica-0", replica);
+    monitor = new ReplicaLagMonitor(replicas, Duration.ofSeconds(10), Duration.ofSeconds(5), meterRegistry);
+    ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), clock::get);
+    routing = new ReadWriteRoutingDataSource(monitor, tracker, meterRegistry);
+    ReadYourWritesTracker.setCurrentClient("tenant|user");
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    ReadYourWritesTracker.clearCurrentClient();
+  }
+
+  @Test
+  void shouldRouteWritesToPrimary() {
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+  }
+
+  @Test
+  void shouldRouteReadOnlyToHealthyReplica() throws SQLException {
+    replicaLag(0.5);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    assertThat(meterRegistry.get("license.datasource.replica.healthy").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldFallBackToPrimaryWhenReplicaLags() throws SQLException {
+    replicaLag(30);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+    assertThat(meterRegistry.get("license.datasource.routes").tag("reason", "replica-unavailable").counter()
+        .count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldFallBackToPrimaryWhenLagCheckFails() throws SQLException {
+    when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+    monitor.checkAll();
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+  }
+
+  @Test
+  void shouldPinReadsToPrimaryAfterWriteUntilWindowExpires() throws SQLException {
+    replicaLag(0);
+    routing.determineCurrentLookupKey();
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+
+    ReadYourWritesTracker.setCurrentClient("tenant|other-user");
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+
+    ReadYourWritesTracker.setCurrentClient("tenant|user");
+    clock.addAndGet(Duration.ofSeconds(6).toNanos());
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+  }
+
+  private void replicaLag(double seconds) throws SQLException {
+    Connection connection = mock(Connection.class);
+    Statement statement = mock(Statement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(replica.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    when(statement.executeQuery(anyString())).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getDouble(1)).thenReturn(seconds);
+    monitor.checkAll();
+  }
+}
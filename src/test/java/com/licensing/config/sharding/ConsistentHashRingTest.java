@@ -0,0 +1,53 @@
+package com.licensing.config.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTest {
+
+  private static final int TENANTS = 10_000;
+
+  @Test
+  void shouldPlaceKeysDeterministicallyAndEvenly() {
+    ConsistentHashRing ring = new ConsistentHashRing(List.of("primary", "shard-1", "shard-2"), 128);
+    ConsistentHashRing sameRing = new ConsistentHashRing(List.of("primary", "shard-1", "shard-2"), 128);
+
+    Map<String, Integer> perShard = new HashMap<>();
+    for (int i = 0; i < TENANTS; i++) {
+      String tenant = "tenant-" + i;
+      assertThat(sameRing.shardOf(tenant)).isEqualTo(ring.shardOf(tenant));
+      perShard.merge(ring.shardOf(tenant), 1, Integer::sum);
+    }
+
+    assertThat(perShard).containsOnlyKeys("primary", "shard-1", "shard-2");
+    assertThat(perShard.values()).allSatisfy(count -> assertThat(count).isBetween(TENANTS / 5, TENANTS / 2));
+  }
+
+  @Test
+  void shouldOnlyMoveKeysToTheAddedShard() {
+    ConsistentHashRing before = new ConsistentHashRing(List.of("primary", "shard-1"), 128);
+    ConsistentHashRing after = new ConsistentHashRing(List.of("primary", "shard-1", "shard-2"), 128);
+
+    int moved = 0;
+    for (int i = 0; i < TENANTS; i++) {
+      String tenant = "tenant-" + i;
+      if (!before.shardOf(tenant).equals(after.shardOf(tenant))) {
+        assertThat(after.shardOf(tenant)).isEqualTo("shard-2");
+        moved++;
+      }
+    }
+
+    assertThat(moved).isBetween(TENANTS / 5, TENANTS / 2);
+  }
+
+  @Test
+  void shouldRejectEmptyRing() {
+    assertThatThrownBy(() -> new ConsistentHashRing(List.of(), 128)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
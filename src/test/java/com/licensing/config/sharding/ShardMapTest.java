@@ -0,0 +1,114 @@
+package com.licensing.config.sharding;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ShardMapTest {
+
+  private JdbcTemplate directory;
+  private DataSource primary;
+  private DataSource secondary;
+  private ShardMap shardMap;
+
+  @BeforeEach
+  void setUp() {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:shard-map-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    primary = h2;
+    secondary = mock(DataSource.class);
+    directory = new JdbcTemplate(primary);
+    directory.execute("CREATE TABLE tenant_shards (tenant_id VARCHAR(255) PRIMARY KEY, shard VARCHAR(100) NOT NULL, "
+        + "status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE', updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW())");
+    for (String table : new String[] {"organizations", "licenses", "audit_logs"}) {
+      directory.execute("CREATE TABLE " + table + " (id UUID DEFAULT RANDOM_UUID(), tenant_id VARCHAR(255) NOT NULL)");
+    }
+    shardMap = new ShardMap(primary, Map.of("secondary", secondary), 64, Duration.ofSeconds(10),
+        Duration.ofMinutes(10));
+  }
+
+  @Test
+  void shouldRecordPlacementAndKeepExistingAssignments() {
+    directory.update("INSERT INTO tenant_shards (tenant_id, shard) VALUES ('pinned', 'secondary')");
+
+    String placed = shardMap.shardOf("new-tenant");
+
+    assertThat(shardMap.shardOf("pinned")).isEqualTo("secondary");
+    assertThat(placed).isIn("primary", "secondary");
+    assertThat(directory.queryForObject("SELECT shard FROM tenant_shards WHERE tenant_id = 'new-tenant'",
+        String.class)).isEqualTo(placed);
+    assertThat(shardMap.getAssignments()).containsEntry("pinned", "secondary").containsKey("new-tenant");
+  }
+
+  @Test
+  void shouldPinTenantsCreatedWhileShardingWasDisabledToPrimary() {
+    directory.update("INSERT INTO tenant_shards (tenant_id, shard) VALUES ('pinned', 'secondary')");
+    directory.update("INSERT INTO organizations (tenant_id) VALUES ('pinned'), ('unsharded')");
+    directory.update("INSERT INTO audit_logs (tenant_id) VALUES ('audit-only')");
+
+    assertThat(shardMap.getAssignments())
+        .containsEntry("pinned", "secondary")
+        .containsEntry("unsharded", "primary")
+        .containsEntry("audit-only", "primary");
+  }
+
+  @Test
+  void shouldRefuseLeasesWhileTenantIsMoving() throws Exception {
+    directory.update("INSERT INTO tenant_shards (tenant_id, shard) VALUES ('acme', 'primary')");
+    ShardMap.Lease open = shardMap.lease("acme");
+
+    shardMap.freeze("acme");
+
+    assertThatThrownBy(() -> shardMap.lease("acme")).isInstanceOf(TenantMovingException.class);
+    assertThat(shardMap.awaitDrained("acme", Duration.ofMillis(20))).isFalse();
+    open.release();
+    open.release();
+    assertThat(shardMap.awaitDrained("acme", Duration.ofMillis(20))).isTrue();
+
+    shardMap.cutOver("acme", "secondary");
+
+    assertThat(shardMap.lease("acme").getDataSource()).isSameAs(secondary);
+    assertThat(directory.queryForObject("SELECT status FROM tenant_shards WHERE tenant_id = 'acme'", String.class))
+        .isEqualTo("ACTIVE");
+  }
+
+  @Test
+  void shouldReleaseExpiredFreezeAndRefuseItsCutOver() {
+    directory.update("INSERT INTO tenant_shards (tenant_id, shard) VALUES ('acme', 'primary')");
+    shardMap.freeze("acme");
+
+    assertThatThrownBy(() -> shardMap.freeze("acme")).isInstanceOf(IllegalStateException.class);
+
+    directory.update("UPDATE tenant_shards SET updated_at = DATEADD('HOUR', -1, NOW()) WHERE tenant_id = 'acme'");
+    shardMap.refresh();
+
+    assertThat(shardMap.isMoving("acme")).isFalse();
+    assertThatThrownBy(() -> shardMap.cutOver("acme", "secondary")).isInstanceOf(IllegalStateException.class);
+    assertThat(shardMap.shardOf("acme")).isEqualTo("primary");
+    assertThat(shardMap.unfreeze("acme")).isFalse();
+  }
+
+  @Test
+  void shouldScopeUnboundConnectionsToShard() {
+    directory.update("INSERT INTO tenant_shards (tenant_id, shard) VALUES ('a', 'primary'), ('b', 'secondary')");
+
+    Map<String, List<String>> groups = shardMap.groupByShard(List.of("a", "b", "a"), tenant -> tenant);
+    shardMap.runOnShard("secondary", () -> assertThat(shardMap.getUnscopedDataSource()).isSameAs(secondary));
+
+    assertThat(groups).containsEntry("primary", List.of("a", "a")).containsEntry("secondary", List.of("b"));
+    assertThat(shardMap.getUnscopedDataSource()).isSameAs(primary);
+    assertThatThrownBy(() -> shardMap.runOnShard("missing", () -> { }))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,124 @@
+package com.licensing.config.tenant;
+
+import com.licensing.domain.Plan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class TenantBulkheadTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private TenantBulkhead bulkhead;
+
+  @BeforeEach
+  void setUp() {
+    TenantBulkheadProperties properties = new TenantBulkheadProperties();
+    properties.setEnabled(true);
+    properties.setLimits(Map.of(Plan.BASIC, 1, Plan.ENTERPRISE, 3));
+    properties.setHeadroom(1);
+    properties.setQueueTimeout(Duration.ofMillis(50));
+    meterRegistry = new SimpleMeterRegistry();
+    bulkhead = new TenantBulkhead(properties, meterRegistry);
+  }
+
+  @Test
+  void shouldBorrowHeadroomThenRejectOnceTenantLimitIsReached() throws Exception {
+    acquireOnNewThread("noisy");
+    TenantBulkhead.Permit borrowed = acquireOnNewThread("noisy");
+
+    assertThatThrownBy(() -> acquireOnNewThread("noisy"))
+        .isInstanceOf(TenantConnectionLimitException.class)
+        .hasMessageContaining("noisy");
+    assertThat(meterRegistry.get("license.tenant.connections.borrowed").counter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("license.tenant.connections.rejected").tag("tenant", "noisy").counter().count())
+        .isEqualTo(1.0);
+
+    borrowed.release();
+    borrowed.release();
+    assertThat(meterRegistry.get("license.tenant.connections.headroom.in-use").gauge().value()).isZero();
+  }
+
+  @Test
+  void shouldIsolateTenantsFromEachOther() throws Exception {
+    acquireOnNewThread("noisy");
+    acquireOnNewThread("noisy");
+
+    TenantBulkhead.Permit quiet = acquireOnNewThread("quiet");
+
+    assertThat(quiet).isNotNull();
+    assertThat(meterRegistry.get("license.tenant.connections.wait").tag("tenant", "quiet").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void shouldApplyPlanLimitsAfterUpdate() throws Exception {
+    bulkhead.updatePlans(Map.of("big", Plan.ENTERPRISE));
+
+    for (int i = 0; i < 4; i++) {
+      acquireOnNewThread("big");
+    }
+
+    assertThat(bulkhead.planOf("big")).isEqualTo(Plan.ENTERPRISE);
+    assertThat(bulkhead.planOf("unknown")).isEqualTo(Plan.BASIC);
+    assertThatThrownBy(() -> acquireOnNewThread("big")).isInstanceOf(TenantConnectionLimitException.class);
+  }
+
+  @Test
+  void shouldNotTakeAnotherSlotForNestedConnectionsOfTheSameThread() throws Exception {
+    CyclicBarrier outerHeld = new CyclicBarrier(2);
+    ExecutorService requests = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        results.add(requests.submit(() -> {
+          TenantBulkhead.Permit outer = bulkhead.acquire("noisy");
+          outerHeld.await();
+          TenantBulkhead.Permit nested = bulkhead.acquire("noisy");
+          nested.release();
+          outer.release();
+          return null;
+        }));
+      }
+      for (Future<?> result : results) {
+        assertThatNoException().isThrownBy(result::get);
+      }
+    } finally {
+      requests.shutdownNow();
+    }
+
+    assertThat(meterRegistry.get("license.tenant.connections.rejected").tag("tenant", "noisy").counter().count())
+        .isZero();
+    assertThat(meterRegistry.get("license.tenant.connections.headroom.in-use").gauge().value()).isZero();
+    acquireOnNewThread("noisy");
+    acquireOnNewThread("noisy");
+    assertThatThrownBy(() -> acquireOnNewThread("noisy")).isInstanceOf(TenantConnectionLimitException.class);
+  }
+
+  /**
+   * Acquires as a separate request would; acquisitions on one thread share a slot.
+   */
+  private TenantBulkhead.Permit acquireOnNewThread(String tenantId) throws Exception {
+    FutureTask<TenantBulkhead.Permit> acquisition = new FutureTask<>(() -> bulkhead.acquire(tenantId));
+    new Thread(acquisition).start();
+    try {
+      return acquisition.get();
+    } catch (ExecutionException e) {
+      throw (Exception) e.getCause();
+    }
+  }
+}
@@ -1,30 +1,64 @@
 package com.licensing.config.tenant;
 
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.domain.Plan;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TenantConnectionProviderTest {
 
+  private static final String SET_SEARCH_PATH = "SELECT set_config('search_path', ?, false)";
+
   @Mock
   private DataSource dataSource;
 
   @Mock
   private Connection connection;
 
-  @InjectMocks
+  @Mock
+  private PreparedStatement statement;
+
+  private SimpleMeterRegistry meterRegistry;
   private TenantConnectionProvider connectionProvider;
+  private TenantConnectionProvider switchingProvider;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    TenantBulkhead noBulkhead = new TenantBulkhead(new TenantBulkheadProperties(), meterRegistry);
+    ShardMap noShards = new ShardMap(dataSource);
+    connectionProvider = new TenantConnectionProvider(dataSource, noBulkhead, noShards, meterRegistry, false,
+        "tenant_", "public");
+    switchingProvider = new TenantConnectionProvider(dataSource, noBulkhead, noShards, meterRegistry, true,
+        "tenant_", "public");
+  }
 
   @Test
   void shouldReturnTrueForSupportsAggressiveRelease() {
@@ -73,4 +107,203 @@ class TenantConnectionProviderTest {
     assertThat(connectionProvider.isUnwrappableAs(DataSource.class)).isFalse();
     assertThat(connectionProvider.isUnwrappableAs(Connection.class)).isFalse();
   }
+
+  @Test
+  void shouldQuoteTenantSchemaAheadOfDefaultSearchPath() {
+    assertThat(switchingProvider.searchPathOf("acme")).isEqualTo("\"tenant_acme\", public");
+    assertThat(switchingProvider.searchPathOf("a\"b")).isEqualTo("\"tenant_a\"\"b\", public");
+  }
+
+  @Test
+  void shouldApplyTenantSearchPathBeforeFirstStatementAndKeepItOnRelease() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.getAutoCommit()).thenReturn(false);
+
+    Connection result = switchingProvider.getConnection("acme");
+    verify(connection, never()).prepareStatement(anyString());
+
+    result.prepareStatement("SELECT 1");
+    result.prepareStatement("SELECT 2");
+    result.commit();
+    switchingProvider.releaseConnection("acme", result);
+
+    var order = inOrder(connection, statement);
+    order.verify(connection).prepareStatement(SET_SEARCH_PATH);
+    order.verify(statement).setString(1, "\"tenant_acme\", public");
+    order.verify(connection).prepareStatement("SELECT 1");
+    order.verify(connection).prepareStatement("SELECT 2");
+    order.verify(connection).commit();
+    order.verify(connection).close();
+    verify(connection).prepareStatement(SET_SEARCH_PATH);
+    assertThat(switchCount("apply")).isEqualTo(1.0);
+    assertThat(switchCount("restore")).isZero();
+  }
+
+  @Test
+  void shouldNotSwitchForDefaultTenantOrUnusedConnections() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    Connection any = switchingProvider.getAnyConnection();
+    any.createStatement();
+    switchingProvider.releaseAnyConnection(any);
+    Connection unused = switchingProvider.getConnection("acme");
+    switchingProvider.releaseConnection("acme", unused);
+
+    verify(connection, never()).prepareStatement(anyString());
+    verify(connection, times(2)).close();
+    assertThat(switchCount("apply")).isZero();
+  }
+
+  @Test
+  void shouldCacheProviderPerTenant() {
+    assertThat(switchingProvider.selectConnectionProvider("acme"))
+        .isSameAs(switchingProvider.selectConnectionProvider("acme"))
+        .isNotSameAs(switchingProvider.selectConnectionProvider("globex"));
+    assertThat(switchingProvider.selectConnectionProvider("default"))
+        .isSameAs(switchingProvider.getAnyConnectionProvider());
+  }
+
+  @Test
+  void shouldSwitchOnlyWhenTheTenantOfAConnectionChanges() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.getAutoCommit()).thenReturn(true);
+
+    for (int i = 0; i < 2; i++) {
+      Connection result = switchingProvider.getConnection("acme");
+      result.prepareStatement("SELECT 1");
+      switchingProvider.releaseConnection("acme", result);
+    }
+    Connection any = switchingProvider.getAnyConnection();
+    any.prepareStatement("SELECT 1");
+    switchingProvider.releaseAnyConnection(any);
+
+    var order = inOrder(statement);
+    order.verify(statement).setString(1, "\"tenant_acme\", public");
+    order.verify(statement).setString(1, "public");
+    verify(connection, times(2)).prepareStatement(SET_SEARCH_PATH);
+    verify(connection, never()).commit();
+    assertThat(switchCount("apply")).isEqualTo(1.0);
+    assertThat(switchCount("restore")).isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldReapplySearchPathAfterRollback() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.getAutoCommit()).thenReturn(false);
+
+    Connection result = switchingProvider.getConnection("acme");
+    result.prepareStatement("SELECT 1");
+    result.rollback();
+    result.prepareStatement("SELECT 2");
+    result.commit();
+    switchingProvider.releaseConnection("acme", result);
+    Connection again = switchingProvider.getConnection("acme");
+    again.prepareStatement("SELECT 3");
+    switchingProvider.releaseConnection("acme", again);
+
+    var order = inOrder(connection);
+    order.verify(connection).prepareStatement(SET_SEARCH_PATH);
+    order.verify(connection).rollback();
+    order.verify(connection).prepareStatement(SET_SEARCH_PATH);
+    order.verify(connection).prepareStatement("SELECT 2");
+    verify(connection, times(2)).prepareStatement(SET_SEARCH_PATH);
+  }
+
+  @Test
+  void shouldEvictConnectionFromPoolWhenSwitchFails() throws SQLException {
+    HikariDataSource pool = mock(HikariDataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+    when(dataSource.unwrap(HikariDataSource.class)).thenReturn(pool);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.execute()).thenThrow(new SQLException("connection reset"));
+
+    Connection result = switchingProvider.getConnection("acme");
+    assertThatThrownBy(() -> result.prepareStatement("SELECT 1")).isInstanceOf(SQLException.class);
+    switchingProvider.releaseConnection("acme", result);
+
+    var order = inOrder(pool, connection);
+    order.verify(pool).evictConnection(connection);
+    order.verify(connection).close();
+    assertThat(switchCount("apply")).isZero();
+  }
+
+  @Test
+  void shouldEvictConnectionReleasedWithUncommittedSwitch() throws SQLException {
+    HikariDataSource pool = mock(HikariDataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+    when(dataSource.unwrap(HikariDataSource.class)).thenReturn(pool);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.getAutoCommit()).thenReturn(false);
+
+    Connection result = switchingProvider.getConnection("acme");
+    result.prepareStatement("SELECT 1");
+    switchingProvider.releaseConnection("acme", result);
+
+    verify(pool).evictConnection(connection);
+    verify(connection).close();
+  }
+
+  @Test
+  void shouldCloseSessionBehindSpringProxyWhenSwitchFailsOutsideHikari() throws SQLException {
+    ConnectionProxy lazy = mock(ConnectionProxy.class);
+    when(dataSource.getConnection()).thenReturn(lazy);
+    when(lazy.getTargetConnection()).thenReturn(connection);
+    when(lazy.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.execute()).thenThrow(new SQLException("connection reset"));
+
+    Connection result = switchingProvider.getConnection("acme");
+    assertThatThrownBy(() -> result.prepareStatement("SELECT 1")).isInstanceOf(SQLException.class);
+    switchingProvider.releaseConnection("acme", result);
+
+    verify(connection).close();
+    verify(lazy).close();
+  }
+
+  @Test
+  void shouldHoldBulkheadSlotUntilRelease() throws Exception {
+    TenantBulkheadProperties properties = new TenantBulkheadProperties();
+    properties.setEnabled(true);
+    properties.setLimits(Map.of(Plan.BASIC, 1));
+    properties.setHeadroom(0);
+    properties.setQueueTimeout(Duration.ZERO);
+    TenantConnectionProvider limitedProvider = new TenantConnectionProvider(dataSource,
+        new TenantBulkhead(properties, meterRegistry), new ShardMap(dataSource), meterRegistry, false, "tenant_",
+        "public");
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    Connection first = limitedProvider.getConnection("acme");
+    assertThatThrownBy(() -> onNewThread(() -> limitedProvider.getConnection("acme")))
+        .isInstanceOf(TenantConnectionLimitException.class);
+    Connection nested = limitedProvider.getConnection("acme");
+    Connection system = limitedProvider.getAnyConnection();
+    limitedProvider.releaseConnection("acme", nested);
+    limitedProvider.releaseConnection("acme", first);
+    Connection second = onNewThread(() -> limitedProvider.getConnection("acme"));
+
+    assertThat(system).isSameAs(connection);
+    assertThat(second).isNotNull();
+    verify(connection, times(2)).close();
+  }
+
+  /**
+   * Runs as a separate request would; connections of one thread share a bulkhead slot.
+   */
+  private static <T> T onNewThread(Callable<T> action) throws Exception {
+    FutureTask<T> task = new FutureTask<>(action);
+    new Thread(task).start();
+    try {
+      return task.get();
+    } catch (ExecutionException e) {
+      throw (Exception) e.getCause();
+    }
+  }
+
+  private double switchCount(String direction) {
+    return meterRegistry.get("license.tenant.schema.switches").tag("direction", direction).counter().count();
+  }
 }
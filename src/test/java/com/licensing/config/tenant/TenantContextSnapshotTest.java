@@ -0,0 +1,92 @@
+package com.licensing.config.tenant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantContextSnapshotTest {
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+    MDC.clear();
+  }
+
+  @Test
+  void shouldRunWrappedTaskInCapturedContextAndRestoreWorker() throws Exception {
+    ExecutorService worker = Executors.newSingleThreadExecutor();
+    try {
+      worker.submit(() -> TenantContext.setCurrentTenant("stale")).get();
+      TenantContext.setCurrentTenant("acme");
+      MDC.put("correlationId", "request-1");
+
+      String seen = worker.submit(TenantContextSnapshot.capture().wrapCallable(
+          () -> TenantContext.getCurrentTenant() + "/" + MDC.get("correlationId"))).get();
+
+      assertThat(seen).isEqualTo("acme/request-1");
+      assertThat(worker.submit(TenantContext::getCurrentTenant).get()).isEqualTo("stale");
+      assertThat(worker.submit(() -> MDC.get("correlationId")).get()).isNull();
+    } finally {
+      worker.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldPropagateIntoParallelStreams() {
+    TenantContext.setCurrentTenant("acme");
+    TenantContextSnapshot context = TenantContextSnapshot.capture();
+
+    List<String> tenants = List.of(1, 2, 3, 4, 5, 6, 7, 8).parallelStream()
+        .map(context.wrapFunction(i -> TenantContext.getCurrentTenant()))
+        .toList();
+
+    assertThat(tenants).containsOnly("acme");
+    assertThat(TenantContext.getCurrentTenant()).isEqualTo("acme");
+  }
+
+  @Test
+  void shouldPropagateThroughFanOutExecutorAndScheduler() throws Exception {
+    TenantExecutorConfiguration configuration = new TenantExecutorConfiguration();
+    AsyncTaskExecutor executor = configuration.tenantTaskExecutor(configuration.tenantTaskDecorator(), false, 2, 10);
+    ((ThreadPoolTaskExecutor) executor).initialize();
+    TenantContextScheduledExecutor scheduler = new TenantContextScheduledExecutor(1);
+    try {
+      TenantContext.setCurrentTenant("acme");
+
+      assertThat(executor.submit(TenantContext::getCurrentTenant).get()).isEqualTo("acme");
+      assertThat(scheduler.schedule(TenantContext::getCurrentTenant, 1, TimeUnit.MILLISECONDS).get())
+          .isEqualTo("acme");
+    } finally {
+      ((ThreadPoolTaskExecutor) executor).shutdown();
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldPropagateIntoReactorSchedulers() {
+    TenantExecutorConfiguration configuration = new TenantExecutorConfiguration();
+    configuration.propagateToReactor();
+    try {
+      TenantContext.setCurrentTenant("acme");
+
+      String seen = Mono.fromCallable(TenantContext::getCurrentTenant)
+          .subscribeOn(Schedulers.boundedElastic())
+          .block();
+
+      assertThat(seen).isEqualTo("acme");
+    } finally {
+      configuration.stopPropagatingToReactor();
+    }
+  }
+}
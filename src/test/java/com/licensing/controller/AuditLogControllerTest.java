@@ -0,0 +1,109 @@
+package com.licensing.controller;
+
+import com.licensing.repository.AuditLogFilter;
+import com.licensing.repository.projection.AuditLogSummary;
+import com.licensing.service.AuditLogService;
+import com.licensing.service.pagination.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AuditLogController.class, excludeAutoConfiguration = { SecurityAutoConfiguration.class })
+public class AuditLogControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private AuditLogService auditLogService;
+
+  @Test
+  public void shouldPassCombinedFiltersAndReturnSummaries() throws Exception {
+
+    UUID entityId = UUID.randomUUID();
+    when(auditLogService.search(any(AuditLogFilter.class), eq("abc"), eq(10)))
+        .thenReturn(new CursorPage<>(List.of(summary(entityId, "UPDATE")), "next"));
+
+    mockMvc.perform(get("/api/v1/audit")
+        .param("entityType", "License")
+        .param("entityId", entityId.toString())
+        .param("action", "UPDATE")
+        .param("from", "2025-01-01T00:00:00Z")
+        .param("to", "2025-02-01T00:00:00Z")
+        .param("cursor", "abc")
+        .param("limit", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].entityId").value(entityId.toString()))
+        .andExpect(jsonPath("$.items[0].action").value("UPDATE"))
+        .andExpect(jsonPath("$.nextCursor").value("next"))
+        .andExpect(jsonPath("$.hasMore").value(true));
+
+    ArgumentCaptor<AuditLogFilter> filter = ArgumentCaptor.forClass(AuditLogFilter.class);
+    verify(auditLogService).search(filter.capture(), eq("abc"), eq(10));
+    assertThat(filter.getValue().getEntityType()).isEqualTo("License");
+    assertThat(filter.getValue().getEntityId()).isEqualTo(entityId);
+    assertThat(filter.getValue().getUserId()).isNull();
+    assertThat(filter.getValue().getFrom()).isEqualTo(Instant.parse("2025-01-01T00:00:00Z"));
+    assertThat(filter.getValue().getTo()).isEqualTo(Instant.parse("2025-02-01T00:00:00Z"));
+  }
+
+  @Test
+  public void shouldRejectEmptyTimeWindow() throws Exception {
+
+    when(auditLogService.search(any(AuditLogFilter.class), any(), anyInt()))
+        .thenThrow(new IllegalArgumentException("from must be before to"));
+
+    mockMvc.perform(get("/api/v1/audit")
+        .param("from", "2025-02-01T00:00:00Z")
+        .param("to", "2025-01-01T00:00:00Z"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static AuditLogSummary summary(UUID entityId, String action) {
+    return new AuditLogSummary() {
+      @Override
+      public UUID getId() {
+        return UUID.randomUUID();
+      }
+
+      @Override
+      public String getEntityType() {
+        return "License";
+      }
+
+      @Override
+      public UUID getEntityId() {
+        return entityId;
+      }
+
+      @Override
+      public String getAction() {
+        return action;
+      }
+
+      @Override
+      public String getUserId() {
+        return "user-1";
+      }
+
+      @Override
+      public Instant getTimestamp() {
+        return Instant.parse("2025-01-15T00:00:00Z");
+      }
+    };
+  }
+}
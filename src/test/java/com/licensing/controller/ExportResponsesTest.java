@@ -0,0 +1,32 @@
+package com.licensing.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExportResponsesTest {
+
+  @Test
+  public void shouldAcceptGzipListedWithPositiveQuality() {
+    assertThat(ExportResponses.acceptsGzip("gzip")).isTrue();
+    assertThat(ExportResponses.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+    assertThat(ExportResponses.acceptsGzip("x-gzip; q=1.0")).isTrue();
+  }
+
+  @Test
+  public void shouldRefuseGzipWithZeroQuality() {
+    assertThat(ExportResponses.acceptsGzip("gzip;q=0")).isFalse();
+    assertThat(ExportResponses.acceptsGzip("gzip;q=0.000, deflate")).isFalse();
+    assertThat(ExportResponses.acceptsGzip("*;q=1, gzip;q=0")).isFalse();
+    assertThat(ExportResponses.acceptsGzip("gzip;q=abc")).isFalse();
+  }
+
+  @Test
+  public void shouldFallBackToWildcardWhenGzipIsNotListed() {
+    assertThat(ExportResponses.acceptsGzip("*")).isTrue();
+    assertThat(ExportResponses.acceptsGzip("deflate, *;q=0")).isFalse();
+    assertThat(ExportResponses.acceptsGzip("deflate, br")).isFalse();
+    assertThat(ExportResponses.acceptsGzip("identity")).isFalse();
+    assertThat(ExportResponses.acceptsGzip(null)).isFalse();
+  }
+}
@@ -0,0 +1,115 @@
+package com.licensing.controller;
+
+import com.licensing.domain.LicenseStatus;
+import com.licensing.repository.LicenseFilter;
+import com.licensing.service.bulk.BulkCreateResult;
+import com.licensing.service.bulk.BulkTransition;
+import com.licensing.service.bulk.BulkTransitionResult;
+import com.licensing.service.bulk.LicenseBulkService;
+import com.licensing.service.bulk.LicenseDraft;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = LicenseBulkController.class, excludeAutoConfiguration = { SecurityAutoConfiguration.class })
+public class LicenseBulkControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private LicenseBulkService licenseBulkService;
+
+  @Test
+  public void shouldCreateLicensesInBulk() throws Exception {
+
+    UUID organizationId = UUID.randomUUID();
+    UUID licenseId = UUID.randomUUID();
+    when(licenseBulkService.createLicenses(anyList(), eq("user-1")))
+        .thenReturn(new BulkCreateResult(List.of(licenseId)));
+
+    mockMvc.perform(post("/api/v1/licenses/bulk")
+        .header("X-User-ID", "user-1")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"licenses\":[" + licenseJson(organizationId, "customer@example.com") + "]}"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.licenseIds[0]").value(licenseId.toString()));
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<LicenseDraft>> drafts = ArgumentCaptor.forClass(List.class);
+    verify(licenseBulkService).createLicenses(drafts.capture(), eq("user-1"));
+    assertThat(drafts.getValue()).singleElement().satisfies(draft -> {
+      assertThat(draft.getOrganizationId()).isEqualTo(organizationId);
+      assertThat(draft.getFeatures()).isEmpty();
+    });
+  }
+
+  @Test
+  public void shouldRejectBulkCreateWithInvalidEntry() throws Exception {
+
+    mockMvc.perform(post("/api/v1/licenses/bulk")
+        .header("X-User-ID", "user-1")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"licenses\":[" + licenseJson(UUID.randomUUID(), "not-an-email") + "]}"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(licenseBulkService);
+  }
+
+  @Test
+  public void shouldSuspendLicensesMatchingFilter() throws Exception {
+
+    UUID organizationId = UUID.randomUUID();
+    when(licenseBulkService.apply(eq(BulkTransition.SUSPEND), any(LicenseFilter.class), eq("user-1")))
+        .thenReturn(new BulkTransitionResult(LicenseStatus.SUSPENDED, 1200, 3));
+
+    mockMvc.perform(patch("/api/v1/licenses/bulk/suspend")
+        .header("X-User-ID", "user-1")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"organizationId\":\"" + organizationId + "\",\"productName\":\"Pro\"}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("SUSPENDED"))
+        .andExpect(jsonPath("$.affected").value(1200));
+
+    ArgumentCaptor<LicenseFilter> filter = ArgumentCaptor.forClass(LicenseFilter.class);
+    verify(licenseBulkService).apply(eq(BulkTransition.SUSPEND), filter.capture(), eq("user-1"));
+    assertThat(filter.getValue().getOrganizationId()).isEqualTo(organizationId);
+    assertThat(filter.getValue().getProductName()).isEqualTo("Pro");
+  }
+
+  @Test
+  public void shouldRejectEmptyFilter() throws Exception {
+
+    when(licenseBulkService.apply(eq(BulkTransition.REVOKE), any(LicenseFilter.class), anyString()))
+        .thenThrow(new IllegalArgumentException("At least one filter criterion is required"));
+
+    mockMvc.perform(patch("/api/v1/licenses/bulk/revoke")
+        .header("X-User-ID", "user-1")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private String licenseJson(UUID organizationId, String customerEmail) {
+    return "{\"organizationId\":\"" + organizationId + "\",\"productName\":\"Pro\","
+        + "\"customerEmail\":\"" + customerEmail + "\",\"expiresAt\":\""
+        + Instant.now().plus(30, ChronoUnit.DAYS) + "\"}";
+  }
+}
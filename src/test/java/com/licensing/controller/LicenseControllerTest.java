@@ -0,0 +1,126 @@
+package com.licensing.controller;
+
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.repository.projection.LicenseSummary;
+import com.licensing.service.LicenseManagementService;
+import com.licensing.service.pagination.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = LicenseController.class, excludeAutoConfiguration = { SecurityAutoConfiguration.class })
+public class LicenseControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private LicenseManagementService licenseManagementService;
+
+  private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+  private final UUID organizationId = UUID.randomUUID();
+
+  @Test
+  public void shouldListLicenseSummariesByOrganization() throws Exception {
+
+    License license = createLicense();
+    CursorPage<LicenseSummary> page = new CursorPage<>(
+        List.of(projectionFactory.createProjection(LicenseSummary.class, license)), "next-page");
+    when(licenseManagementService.findByOrganizationId(organizationId, null, CursorPage.DEFAULT_LIMIT,
+        LicenseSummary.class)).thenReturn(page);
+
+    mockMvc.perform(get("/api/v1/licenses/organization/{organizationId}", organizationId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.items[0].productName").value("Test Product"))
+        .andExpect(jsonPath("$.items[0].status").value("ACTIVE"))
+        .andExpect(jsonPath("$.items[0].features").doesNotExist())
+        .andExpect(jsonPath("$.items[0].signature").doesNotExist())
+        .andExpect(jsonPath("$.nextCursor").value("next-page"))
+        .andExpect(jsonPath("$.hasMore").value(true));
+  }
+
+  @Test
+  public void shouldListFullLicensesByOrganizationWhenRequested() throws Exception {
+
+    License license = createLicense();
+    when(licenseManagementService.findByOrganizationId(organizationId, "abc", 10, License.class))
+        .thenReturn(new CursorPage<>(List.of(license), null));
+
+    mockMvc.perform(get("/api/v1/licenses/organization/{organizationId}", organizationId)
+        .param("view", "full")
+        .param("cursor", "abc")
+        .param("limit", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.items[0].features.seats").value(10))
+        .andExpect(jsonPath("$.hasMore").value(false));
+  }
+
+  @Test
+  public void shouldListLicensesByStatus() throws Exception {
+
+    License license = createLicense();
+    when(licenseManagementService.findByStatus(LicenseStatus.ACTIVE, null, CursorPage.DEFAULT_LIMIT,
+        LicenseSummary.class)).thenReturn(new CursorPage<>(
+            List.of(projectionFactory.createProjection(LicenseSummary.class, license)), null));
+
+    mockMvc.perform(get("/api/v1/licenses").param("status", "ACTIVE"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].customerEmail").value("customer@example.com"));
+  }
+
+  @Test
+  public void shouldRejectListWithoutExactlyOneFilter() throws Exception {
+
+    mockMvc.perform(get("/api/v1/licenses"))
+        .andExpect(status().isBadRequest());
+
+    mockMvc.perform(get("/api/v1/licenses")
+        .param("status", "ACTIVE")
+        .param("customerEmail", "customer@example.com"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void shouldWriteStoredFeaturesWithoutParsingThem() throws Exception {
+
+    License license = spy(createLicense());
+    when(licenseManagementService.findById(license.getId())).thenReturn(Optional.of(license));
+
+    mockMvc.perform(get("/api/v1/licenses/{id}", license.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.features.seats").value(10))
+        .andExpect(jsonPath("$.featuresJson").doesNotExist());
+
+    verify(license, never()).getFeatures();
+  }
+
+  private License createLicense() {
+    return new License(
+        organizationId,
+        "tenant-1",
+        "Test Product",
+        "customer@example.com",
+        Instant.now().plus(365, ChronoUnit.DAYS),
+        Map.of("seats", 10));
+  }
+}
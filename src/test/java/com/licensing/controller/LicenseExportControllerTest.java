@@ -0,0 +1,106 @@
+package com.licensing.controller;
+
+import com.licensing.domain.LicenseStatus;
+import com.licensing.repository.LicenseFilter;
+import com.licensing.service.exporting.LicenseExportService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = LicenseExportController.class, excludeAutoConfiguration = { SecurityAutoConfiguration.class })
+public class LicenseExportControllerTest {
+
+  private static final String BODY = "{\"id\":\"1\"}\n{\"id\":\"2\"}\n";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private LicenseExportService licenseExportService;
+
+  @Test
+  public void shouldStreamNdjsonForFilter() throws Exception {
+
+    UUID organizationId = UUID.randomUUID();
+    stubExport();
+
+    MvcResult result = mockMvc.perform(get("/api/v1/licenses/export")
+        .param("organizationId", organizationId.toString())
+        .param("status", "ACTIVE"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().string(BODY));
+
+    ArgumentCaptor<LicenseFilter> filter = ArgumentCaptor.forClass(LicenseFilter.class);
+    verify(licenseExportService).exportNdjson(filter.capture(), any(OutputStream.class));
+    assertThat(filter.getValue().getOrganizationId()).isEqualTo(organizationId);
+    assertThat(filter.getValue().getStatus()).isEqualTo(LicenseStatus.ACTIVE);
+  }
+
+  @Test
+  public void shouldGzipWhenAccepted() throws Exception {
+
+    stubExport();
+
+    MvcResult result = mockMvc.perform(get("/api/v1/licenses/export")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    byte[] compressed = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+  }
+
+  @Test
+  public void shouldNotGzipWhenRefusedByQuality() throws Exception {
+
+    stubExport();
+
+    MvcResult result = mockMvc.perform(get("/api/v1/licenses/export")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().string(BODY));
+  }
+
+  private void stubExport() throws Exception {
+    when(licenseExportService.exportNdjson(any(LicenseFilter.class), any(OutputStream.class)))
+        .thenAnswer(invocation -> {
+          invocation.getArgument(1, OutputStream.class).write(BODY.getBytes(StandardCharsets.UTF_8));
+          return 2L;
+        });
+  }
+}
@@ -3,6 +3,7 @@ package com.licensing.controller;
 import com.licensing.service.OrganizationService;
 import com.licensing.domain.Organization;
 import com.licensing.domain.Plan;
+import com.licensing.repository.projection.OrganizationSummary;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -36,6 +39,8 @@ public class OrganizationControllerTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
   @Test
   public void shouldCreateOrganization() throws Exception {
 
@@ -118,15 +123,36 @@ public class OrganizationControllerTest {
     Organization org2 = new Organization("Organization 2", "org2@example.com", "tenant-1", Plan.PROFESSIONAL);
 
     Pageable pageable = PageRequest.of(0, 10);
-    Page<Organization> organizationsPage = new PageImpl<>(Arrays.asList(org1, org2), pageable, 2);
-    when(organizationService.findAll(any(Pageable.class))).thenReturn(organizationsPage);
+    Page<OrganizationSummary> summariesPage = new PageImpl<>(Arrays.asList(
+        projectionFactory.createProjection(OrganizationSummary.class, org1),
+        projectionFactory.createProjection(OrganizationSummary.class, org2)), pageable, 2);
+    when(organizationService.findAllSummaries(any(Pageable.class))).thenReturn(summariesPage);
 
     mockMvc.perform(get("/api/v1/organizations"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.content").isArray())
         .andExpect(jsonPath("$.content.length()").value(2))
         .andExpect(jsonPath("$.content[0].name").value("Organization 1"))
-        .andExpect(jsonPath("$.content[1].name").value("Organization 2"));
+        .andExpect(jsonPath("$.content[1].name").value("Organization 2"))
+        .andExpect(jsonPath("$.content[0].tenantId").doesNotExist());
+
+    verify(organizationService).findAllSummaries(any(Pageable.class));
+    verify(organizationService, never()).findAll(any(Pageable.class));
+  }
+
+  @Test
+  public void shouldGetAllOrganizationsWithFullView() throws Exception {
+
+    Organization org1 = new Organization("Organization 1", "org1@example.com", "tenant-1", Plan.ENTERPRISE);
+
+    Pageable pageable = PageRequest.of(0, 10);
+    Page<Organization> organizationsPage = new PageImpl<>(Arrays.asList(org1), pageable, 1);
+    when(organizationService.findAll(any(Pageable.class))).thenReturn(organizationsPage);
+
+    mockMvc.perform(get("/api/v1/organizations").param("view", "full"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].tenantId").value("tenant-1"));
 
     verify(organizationService).findAll(any(Pageable.class));
   }
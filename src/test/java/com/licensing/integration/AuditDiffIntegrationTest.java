@@ -0,0 +1,120 @@
+package com.licensing.integration;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.LicenseManagementService;
+import com.licensing.service.OrganizationService;
+import com.licensing.service.audit.AuditLogWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditDiffIntegrationTest {
+
+    private static final String USER_ID = "diff-user";
+
+    @Autowired
+    private LicenseManagementService licenseManagementService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private Organization organization;
+    private License license;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("diff-tenant");
+        organization = organizationService.createOrganization("Diff Corp",
+                "diff-" + UUID.randomUUID() + "@example.com", Plan.BASIC, USER_ID);
+        license = licenseManagementService.createLicense(organization.getId(), "Pro", "diff@example.com",
+                Instant.now().plus(30, ChronoUnit.DAYS),
+                Map.of("seats", 5, "sso", true, "limits", Map.of("api", 100, "storage", 10)), USER_ID);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        licenseRepository.deleteById(license.getId());
+        organizationRepository.deleteById(organization.getId());
+        auditLogWriter.flush();
+        auditLogRepository.deleteAll(auditLogRepository.findByUserId(USER_ID));
+        TenantContext.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should record feature changes as patch operations")
+    void shouldRecordFeaturePatch() {
+        licenseManagementService.updateLicenseFeatures(license.getId(),
+                Map.of("seats", 10, "limits", Map.of("api", 200, "storage", 10), "audit/log", true), USER_ID);
+
+        Map<String, Object> details = latest("UPDATE").getDetails();
+
+        assertThat(details).containsOnlyKeys("features");
+        assertThat((List<Object>) details.get("features")).containsExactlyInAnyOrder(
+                Map.of("op", "remove", "path", "/sso"),
+                Map.of("op", "replace", "path", "/seats", "value", 10),
+                Map.of("op", "replace", "path", "/limits/api", "value", 200),
+                Map.of("op", "add", "path", "/audit~1log", "value", true));
+    }
+
+    @Test
+    @DisplayName("Should record changed scalar fields with their previous value")
+    void shouldRecordFieldChanges() {
+        Instant previousExpiry = licenseRepository.findById(license.getId()).orElseThrow().getExpiryDate();
+        Instant newExpiry = previousExpiry.plus(365, ChronoUnit.DAYS);
+
+        licenseManagementService.extendLicense(license.getId(), newExpiry, USER_ID);
+        licenseManagementService.suspendLicense(license.getId(), USER_ID);
+        organizationService.updateOrganization(organization.getId(), "Diff Corp", organization.getContactEmail(),
+                Plan.ENTERPRISE, USER_ID);
+
+        assertThat(latest("EXTEND").getDetails()).isEqualTo(Map.of("changes",
+                Map.of("expiryDate", Map.of("from", previousExpiry.toString(), "to", newExpiry.toString()))));
+        assertThat(latest("SUSPEND").getDetails()).isEqualTo(Map.of("changes",
+                Map.of("status", Map.of("from", "ACTIVE", "to", "SUSPENDED"))));
+        assertThat(latest("UPDATE").getDetails()).isEqualTo(Map.of("changes",
+                Map.of("plan", Map.of("from", "BASIC", "to", "ENTERPRISE"))));
+        assertThat(latest("CREATE").getDetails()).isNull();
+    }
+
+    private AuditLog latest(String action) {
+        auditLogWriter.flush();
+        return auditLogRepository.findByUserId(USER_ID).stream()
+                .filter(auditLog -> auditLog.getAction().equals(action))
+                .reduce((first, second) -> second.getTimestamp().isBefore(first.getTimestamp()) ? first : second)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,170 @@
+package com.licensing.integration;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditCheckpointRepository;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.LicenseSigningService;
+import com.licensing.service.audit.integrity.AuditCheckpointService;
+import com.licensing.service.audit.integrity.AuditIntegrityService;
+import com.licensing.service.audit.integrity.InclusionProof;
+import com.licensing.service.audit.integrity.VerificationReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "license.audit.integrity.max-entries=2")
+@ActiveProfiles("test")
+class AuditIntegrityIntegrationTest {
+
+    private static final String TENANT_ID = "integrity-tenant";
+
+    @Autowired
+    private AuditCheckpointService auditCheckpointService;
+
+    @Autowired
+    private AuditIntegrityService auditIntegrityService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditCheckpointRepository auditCheckpointRepository;
+
+    @Autowired
+    private LicenseSigningService licenseSigningService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<AuditLog> entries = new ArrayList<>();
+    private Instant from;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        from = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 5; i++) {
+            AuditLog entry = new AuditLog("License", UUID.randomUUID(), "UPDATE", "user-1", TENANT_ID,
+                    Map.of("sequence", i, "status", "ACTIVE"));
+            ReflectionTestUtils.setField(entry, "timestamp", from.plusSeconds(i));
+            entries.add(entry);
+        }
+        auditLogRepository.saveAll(entries);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM audit_checkpoint_nodes WHERE tenant_id = ?", TENANT_ID);
+        auditCheckpointRepository.deleteAll(auditCheckpointRepository.findAll().stream()
+                .filter(checkpoint -> checkpoint.getTenantId().equals(TENANT_ID))
+                .toList());
+        auditLogRepository.deleteAllById(entries.stream().map(AuditLog::getId).toList());
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should chain checkpoints and verify every entry")
+    void shouldCheckpointAndVerify() {
+        int created = auditCheckpointService.checkpointTenant(TENANT_ID, Instant.now());
+
+        VerificationReport report = auditIntegrityService.verify(from, from.plus(1, ChronoUnit.HOURS));
+
+        assertThat(created).isEqualTo(3);
+        assertThat(report.getFailures()).isEmpty();
+        assertThat(report.getCheckpoints()).isEqualTo(3);
+        assertThat(report.getEntries()).isEqualTo(5);
+        assertThat(auditCheckpointService.checkpointTenant(TENANT_ID, Instant.now())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail verification for entries written into a sealed range")
+    void shouldReportLateEntries() {
+        auditCheckpointService.checkpointTenant(TENANT_ID, Instant.now());
+        AuditLog late = new AuditLog("License", UUID.randomUUID(), "UPDATE", "user-1", TENANT_ID,
+                Map.of("sequence", 99));
+        ReflectionTestUtils.setField(late, "timestamp", from.plusMillis(500));
+        entries.add(auditLogRepository.save(late));
+
+        VerificationReport report = auditIntegrityService.verify(from, from.plus(1, ChronoUnit.HOURS));
+
+        assertThat(report.isValid()).isFalse();
+        assertThat(report.getFailures()).containsExactly("Entry " + late.getId()
+                + " lies in the range of checkpoint 1 but was not sealed by it");
+        assertThat(report.getLateEntries()).containsExactly(late.getId());
+        assertThat(report.getEntries()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should verify checkpoints signed before a key rotation")
+    void shouldVerifyAcrossKeyRotation() {
+        auditCheckpointService.checkpointTenant(TENANT_ID, from.plusSeconds(1));
+        LicenseSigningService rotated = new LicenseSigningService("key-3",
+                "MC4CAQAwBQYDK2VwBCIEIF1t0iswlJ2i3Elhk/5hC3gKBfcMGUBXGX+9eqAcWaAf",
+                "MCowBQYDK2VwAyEAprzGxYJ3ifpeTuvuyeK5jmGp6ioSuelqCDtqjSve7T4=",
+                Map.of("key-1", "MCowBQYDK2VwAyEA5/6pW8elgvGT/6A6G9EEbRMqY9RA+JOaQr/ZywBN0C0="));
+        ReflectionTestUtils.setField(auditCheckpointService, "licenseSigningService", rotated);
+        ReflectionTestUtils.setField(auditIntegrityService, "licenseSigningService", rotated);
+        try {
+            auditCheckpointService.checkpointTenant(TENANT_ID, Instant.now());
+
+            VerificationReport report = auditIntegrityService.verify(from, from.plus(1, ChronoUnit.HOURS));
+
+            assertThat(report.getFailures()).isEmpty();
+            assertThat(report.getCheckpoints()).isEqualTo(3);
+            assertThat(auditCheckpointRepository.findByTenantIdAndSequence(TENANT_ID, 1).orElseThrow().getKeyId())
+                    .isEqualTo("key-1");
+            assertThat(auditCheckpointRepository.findByTenantIdAndSequence(TENANT_ID, 3).orElseThrow().getKeyId())
+                    .isEqualTo("key-3");
+            assertThat(auditIntegrityService.prove(entries.get(0).getId()).orElseThrow().isValid()).isTrue();
+        } finally {
+            ReflectionTestUtils.setField(auditCheckpointService, "licenseSigningService", licenseSigningService);
+            ReflectionTestUtils.setField(auditIntegrityService, "licenseSigningService", licenseSigningService);
+        }
+        assertThat(licenseSigningService.hasVerificationKey("key-2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should prove inclusion of a single entry")
+    void shouldProveEntry() {
+        auditCheckpointService.checkpointTenant(TENANT_ID, Instant.now());
+
+        InclusionProof proof = auditIntegrityService.prove(entries.get(3).getId()).orElseThrow();
+
+        assertThat(proof.isValid()).isTrue();
+        assertThat(proof.getCheckpoint().getSequence()).isEqualTo(2);
+        assertThat(proof.getLeafIndex()).isEqualTo(1);
+        assertThat(proof.getContentHash()).isEqualTo(entries.get(3).getContentHash());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_checkpoint_nodes WHERE tenant_id = ?",
+                Long.class, TENANT_ID)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should detect an entry modified after checkpointing")
+    void shouldDetectTampering() {
+        auditCheckpointService.checkpointTenant(TENANT_ID, Instant.now());
+        jdbcTemplate.update("UPDATE audit_logs SET action = 'DELETE' WHERE id = ?", entries.get(1).getId());
+
+        VerificationReport report = auditIntegrityService.verify(from, from.plus(1, ChronoUnit.HOURS));
+
+        assertThat(report.isValid()).isFalse();
+        assertThat(report.getFailures()).anyMatch(failure -> failure.contains(entries.get(1).getId().toString()));
+        assertThat(report.getFailures()).anyMatch(failure -> failure.startsWith("Checkpoint 1 "));
+        assertThat(auditIntegrityService.prove(entries.get(1).getId()).orElseThrow().isValid()).isFalse();
+    }
+}
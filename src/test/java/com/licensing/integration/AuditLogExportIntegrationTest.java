@@ -0,0 +1,109 @@
+package com.licensing.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditLogFilter;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.exporting.AuditLogExportService;
+import com.licensing.service.exporting.ExportFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "license.audit.export.fetch-size=2")
+@ActiveProfiles("test")
+class AuditLogExportIntegrationTest {
+
+    private static final String TENANT_ID = "export-tenant";
+    private static final String ACTION = "EXPORT_TEST";
+
+    @Autowired
+    private AuditLogExportService auditLogExportService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<AuditLog> entries = new ArrayList<>();
+    private Instant from;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        from = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 5; i++) {
+            AuditLog entry = new AuditLog("License", UUID.randomUUID(), ACTION, "user-1", TENANT_ID,
+                    Map.of("sequence", i));
+            ReflectionTestUtils.setField(entry, "timestamp", from.plusSeconds(i));
+            entries.add(entry);
+        }
+        entries.add(new AuditLog("License", UUID.randomUUID(), ACTION, "user-1", "other-tenant", null));
+        auditLogRepository.saveAll(entries);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        auditLogRepository.deleteAll(entries);
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should export the tenant's entries as NDJSON in timestamp order")
+    void shouldExportNdjson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = auditLogExportService.export(window(), null, ExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(5);
+        assertThat(lines).hasSize(5);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo(entries.get(0).getId().toString());
+        assertThat(first.get("details").get("sequence").asInt()).isZero();
+        assertThat(objectMapper.readTree(lines[4]).get("timestamp").asText())
+                .isEqualTo(from.plusSeconds(4).toString());
+    }
+
+    @Test
+    @DisplayName("Should resume after the last received row")
+    void shouldResumeAfterLastRow() throws Exception {
+        AuditLogFilter filter = window();
+        filter.setFrom(entries.get(2).getTimestamp());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = auditLogExportService.export(filter, entries.get(2).getId(), ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines[0]).startsWith("id,timestamp,entityType,entityId,action,userId,details");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[1]).contains(entries.get(3).getId().toString());
+        assertThat(lines[2]).contains(entries.get(4).getId().toString());
+    }
+
+    private AuditLogFilter window() {
+        AuditLogFilter filter = new AuditLogFilter();
+        filter.setAction(ACTION);
+        filter.setFrom(from);
+        filter.setTo(from.plus(1, ChronoUnit.HOURS));
+        return filter;
+    }
+}
@@ -0,0 +1,115 @@
+package com.licensing.integration;
+
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.audit.AuditLogRetentionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the partitioning migrations on the audit_logs table as V1 created it,
+ * with the rest of the schema stubbed, since only these migrations matter
+ * here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AuditLogPartitionIntegrationTest {
+
+    private static final Instant FUTURE_MONTH = Instant.parse("2040-01-15T00:00:00Z");
+    private static final String PREREQUISITES = """
+            CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+            CREATE FUNCTION get_current_tenant() RETURNS TEXT AS $$
+                SELECT current_setting('app.current_tenant', true)
+            $$ LANGUAGE sql;
+            CREATE TABLE audit_logs (
+                id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+                tenant_id VARCHAR(255) NOT NULL,
+                entity_type VARCHAR(100) NOT NULL,
+                entity_id UUID NOT NULL,
+                action VARCHAR(50) NOT NULL,
+                user_id VARCHAR(255),
+                details JSONB,
+                timestamp TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+            );
+            """;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AuditLogRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:tc:postgresql:16-alpine:///audit_partitions");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(PREREQUISITES);
+        jdbcTemplate.execute(migration("V9__partition_audit_logs.sql"));
+        jdbcTemplate.execute(migration("V14__audit_logs_partition_fixes.sql"));
+        retentionService = new AuditLogRetentionService(mock(AuditLogRepository.class), jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(), true, 90, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should keep the timestamp and entity type indexes on the partitioned table")
+    void shouldIndexPartitionedTable() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'audit_logs'", String.class))
+                .contains("idx_audit_logs_timestamp", "idx_audit_logs_entity_type");
+    }
+
+    @Test
+    @DisplayName("Should move rows of a month without a partition out of the default partition")
+    void shouldRehomeDefaultPartitionRows() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO audit_logs (id, tenant_id, entity_type, entity_id, action, timestamp) "
+                + "VALUES (?, 'acme', 'License', ?, 'CREATE', ?)", id, UUID.randomUUID(), Timestamp.from(FUTURE_MONTH));
+        assertThat(count("audit_logs_default", id)).isEqualTo(1);
+
+        retentionService.maintain(FUTURE_MONTH);
+
+        assertThat(count("audit_logs_p204001", id)).isEqualTo(1);
+        assertThat(count("audit_logs_default", id)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_inherits "
+                + "WHERE inhrelid = to_regclass('audit_logs_default')", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop partitions past the retention period")
+    void shouldDropExpiredPartitions() {
+        String current = jdbcTemplate.queryForObject(
+                "SELECT 'audit_logs_p' || to_char(NOW() AT TIME ZONE 'UTC', 'YYYYMM')", String.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, current)).isTrue();
+
+        retentionService.maintain(FUTURE_MONTH);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, current)).isFalse();
+    }
+
+    private static String migration(String name) throws IOException {
+        return new ClassPathResource("db/migration/" + name).getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private long count(String table, UUID id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+}
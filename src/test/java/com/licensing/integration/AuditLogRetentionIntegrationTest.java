@@ -0,0 +1,57 @@
+package com.licensing.integration;
+
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.audit.AuditLogRetentionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "license.audit.retention-days=30")
+@ActiveProfiles("test")
+class AuditLogRetentionIntegrationTest {
+
+    private static final String ACTION = "RETENTION_TEST";
+
+    @Autowired
+    private AuditLogRetentionService auditLogRetentionService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @AfterEach
+    void cleanUp() {
+        auditLogRepository.deleteAll(auditLogRepository.findByAction(ACTION));
+    }
+
+    @Test
+    @DisplayName("Should delete audit entries past the retention period on unpartitioned tables")
+    void shouldDeleteEntriesPastRetention() {
+        Instant now = Instant.now();
+        AuditLog recent = auditLog(now.minus(29, ChronoUnit.DAYS));
+        AuditLog expired = auditLog(now.minus(31, ChronoUnit.DAYS));
+        auditLogRepository.saveAll(List.of(recent, expired));
+
+        auditLogRetentionService.maintain(now);
+
+        assertThat(auditLogRepository.findByAction(ACTION)).extracting(AuditLog::getId)
+                .containsExactly(recent.getId());
+    }
+
+    private static AuditLog auditLog(Instant timestamp) {
+        AuditLog auditLog = new AuditLog("License", UUID.randomUUID(), ACTION, "user-1", "retention-tenant", null);
+        ReflectionTestUtils.setField(auditLog, "timestamp", timestamp);
+        return auditLog;
+    }
+}
@@ -0,0 +1,193 @@
+package com.licensing.integration;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.AuditRollup;
+import com.licensing.domain.AuditRollupBackfill;
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.AuditRollupBackfillRepository;
+import com.licensing.repository.AuditRollupRepository;
+import com.licensing.service.audit.ActivityBucket;
+import com.licensing.service.audit.ActivityGranularity;
+import com.licensing.service.audit.AuditLogWriter;
+import com.licensing.service.audit.AuditRollupReconciler;
+import com.licensing.service.audit.AuditRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditRollupIntegrationTest {
+
+    private static final String USER_ID = "rollup-user";
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditRollupService auditRollupService;
+
+    @Autowired
+    private AuditRollupRepository auditRollupRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditRollupReconciler auditRollupReconciler;
+
+    @Autowired
+    private AuditRollupBackfillRepository auditRollupBackfillRepository;
+
+    @Autowired
+    private ShardMap shardMap;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String tenantId;
+    private Instant day;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = "rollup-tenant-" + UUID.randomUUID();
+        TenantContext.setCurrentTenant(tenantId);
+        day = Instant.now().truncatedTo(ChronoUnit.DAYS).minus(1, ChronoUnit.DAYS);
+
+        List<AuditLog> entries = new ArrayList<>();
+        entries.add(entry("License", "UPDATE", day.plus(1, ChronoUnit.HOURS)));
+        entries.add(entry("License", "UPDATE", day.plus(75, ChronoUnit.MINUTES)));
+        entries.add(entry("License", "REVOKE", day.plus(1, ChronoUnit.HOURS)));
+        entries.add(entry("License", "UPDATE", day.plus(5, ChronoUnit.HOURS)));
+        entries.add(entry("Organization", "UPDATE", day.plus(5, ChronoUnit.HOURS)));
+        entries.forEach(auditLogWriter::record);
+        auditLogWriter.flush();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        auditRollupService.flush();
+        auditRollupRepository.deleteAll(auditRollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getId().getTenantId().equals(tenantId))
+                .toList());
+        auditLogRepository.deleteAll(auditLogRepository.findByUserId(USER_ID));
+        auditRollupBackfillRepository.deleteAll();
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should count written entries per hour, entity type and action")
+    void shouldServeHourlyActivity() {
+        List<ActivityBucket> beforeFlush = activity(null, ActivityGranularity.HOUR);
+        auditRollupService.flush();
+        List<ActivityBucket> afterFlush = activity(null, ActivityGranularity.HOUR);
+
+        assertThat(afterFlush)
+                .extracting(ActivityBucket::getBucketStart, ActivityBucket::getEntityType, ActivityBucket::getAction,
+                        ActivityBucket::getCount)
+                .containsExactly(
+                        tuple(day.plus(1, ChronoUnit.HOURS), "License", "REVOKE", 1L),
+                        tuple(day.plus(1, ChronoUnit.HOURS), "License", "UPDATE", 2L),
+                        tuple(day.plus(5, ChronoUnit.HOURS), "License", "UPDATE", 1L),
+                        tuple(day.plus(5, ChronoUnit.HOURS), "Organization", "UPDATE", 1L));
+        assertThat(beforeFlush).usingRecursiveFieldByFieldElementComparator().isEqualTo(afterFlush);
+        assertThat(auditRollupRepository.findById(
+                new AuditRollup.Key(tenantId, day.plus(1, ChronoUnit.HOURS), "License", "UPDATE")))
+                .get().extracting(AuditRollup::getEventCount).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should add to existing rollups and aggregate by day")
+    void shouldIncrementAndAggregateByDay() {
+        auditRollupService.flush();
+        auditLogWriter.record(entry("License", "UPDATE", day.plus(1, ChronoUnit.HOURS)));
+        auditLogWriter.flush();
+        auditRollupService.flush();
+
+        assertThat(activity("UPDATE", ActivityGranularity.DAY))
+                .extracting(ActivityBucket::getBucketStart, ActivityBucket::getEntityType, ActivityBucket::getCount)
+                .containsExactly(
+                        tuple(day, "License", 4L),
+                        tuple(day, "Organization", 1L));
+    }
+
+    @Test
+    @DisplayName("Should restore counts lost before a flush and correct drifted rollups")
+    void shouldReconcileRecentHours() {
+        ((Map<?, ?>) ReflectionTestUtils.getField(auditRollupService, "pending")).clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            auditRollupRepository.setRollup(tenantId, day.plus(5, ChronoUnit.HOURS), "License", "UPDATE", 7);
+            auditRollupRepository.setRollup(tenantId, day.plus(9, ChronoUnit.HOURS), "License", "DELETE", 3);
+        });
+
+        assertThat(auditRollupReconciler.reconcile()).isGreaterThanOrEqualTo(5);
+
+        assertThat(activity(null, ActivityGranularity.HOUR))
+                .extracting(ActivityBucket::getBucketStart, ActivityBucket::getEntityType, ActivityBucket::getAction,
+                        ActivityBucket::getCount)
+                .containsExactly(
+                        tuple(day.plus(1, ChronoUnit.HOURS), "License", "REVOKE", 1L),
+                        tuple(day.plus(1, ChronoUnit.HOURS), "License", "UPDATE", 2L),
+                        tuple(day.plus(5, ChronoUnit.HOURS), "License", "UPDATE", 1L),
+                        tuple(day.plus(5, ChronoUnit.HOURS), "Organization", "UPDATE", 1L));
+        assertThat(auditRollupReconciler.reconcile()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should backfill hours older than the reconcile window one batch at a time")
+    void shouldBackfillOlderHoursInBatches() {
+        Instant old = day.minus(10, ChronoUnit.DAYS);
+        auditLogWriter.record(entry("License", "CREATE", old.plus(3, ChronoUnit.HOURS)));
+        auditLogWriter.record(entry("License", "CREATE", old.plus(200, ChronoUnit.MINUTES)));
+        auditLogWriter.flush();
+        ((Map<?, ?>) ReflectionTestUtils.getField(auditRollupService, "pending")).clear();
+        AuditRollupReconciler reconciler = new AuditRollupReconciler(auditRollupService, auditRollupRepository,
+                auditRollupBackfillRepository, auditLogRepository, shardMap, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofHours(48), Duration.ofDays(7));
+
+        reconciler.backfill();
+        assertThat(auditRollupRepository.findById(
+                new AuditRollup.Key(tenantId, old.plus(3, ChronoUnit.HOURS), "License", "CREATE"))).isEmpty();
+        Instant firstBatch = auditRollupBackfillRepository.findById(AuditRollupBackfill.ID).orElseThrow()
+                .getCountedFrom();
+
+        reconciler.backfill();
+        AuditRollupBackfill progress = auditRollupBackfillRepository.findById(AuditRollupBackfill.ID).orElseThrow();
+        assertThat(progress.getCountedFrom()).isBefore(firstBatch)
+                .isBeforeOrEqualTo(old.plus(3, ChronoUnit.HOURS));
+        assertThat(auditRollupRepository.findById(
+                new AuditRollup.Key(tenantId, old.plus(3, ChronoUnit.HOURS), "License", "CREATE")))
+                .get().extracting(AuditRollup::getEventCount).isEqualTo(2L);
+    }
+
+    private List<ActivityBucket> activity(String action, ActivityGranularity granularity) {
+        return auditRollupService.activity(day, day.plus(1, ChronoUnit.DAYS), null, action, granularity);
+    }
+
+    private AuditLog entry(String entityType, String action, Instant timestamp) {
+        AuditLog auditLog = new AuditLog(entityType, UUID.randomUUID(), action, USER_ID, tenantId, null);
+        ReflectionTestUtils.setField(auditLog, "timestamp", timestamp);
+        return auditLog;
+    }
+}
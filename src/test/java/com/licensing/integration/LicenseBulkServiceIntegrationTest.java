@@ -0,0 +1,244 @@
+package com.licensing.integration;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseFilter;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.LicenseSigningService;
+import com.licensing.service.bulk.BulkCreateResult;
+import com.licensing.service.bulk.BulkTransition;
+import com.licensing.service.bulk.BulkTransitionResult;
+import com.licensing.service.bulk.LicenseBulkService;
+import com.licensing.service.bulk.LicenseDraft;
+import com.nimbusds.jose.JWSObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "license.bulk.chunk-size=2")
+@ActiveProfiles("test")
+class LicenseBulkServiceIntegrationTest {
+
+    private static final String TENANT_ID = "bulk-tenant";
+    private static final String OTHER_TENANT_ID = "bulk-other-tenant";
+    private static final String USER_ID = "bulk-user";
+
+    @Autowired
+    private LicenseBulkService licenseBulkService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private LicenseSigningService licenseSigningService;
+
+    private final List<Organization> organizations = new ArrayList<>();
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        organization = organization();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (Organization created : organizations) {
+            licenseRepository.deleteAll(licenseRepository.findByOrganizationId(created.getId()));
+        }
+        auditLogRepository.deleteAll(auditLogRepository.findByUserId(USER_ID));
+        organizationRepository.deleteAllById(organizations.stream().map(Organization::getId).toList());
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should create, sign and audit every draft across chunks in request order")
+    void shouldCreateDraftsAcrossChunks() {
+        List<LicenseDraft> drafts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            drafts.add(draft(organization, "bulk-" + i + "@example.com"));
+        }
+
+        BulkCreateResult result = licenseBulkService.createLicenses(drafts, USER_ID);
+
+        assertThat(result.getCreated()).isEqualTo(5);
+        List<License> created = licenseRepository.findAllById(result.getLicenseIds());
+        assertThat(created).hasSize(5)
+                .allSatisfy(license -> {
+                    assertThat(license.getTenantId()).isEqualTo(TENANT_ID);
+                    assertThat(license.getSignature()).isNotBlank();
+                });
+        assertThat(result.getLicenseIds())
+                .extracting(id -> licenseRepository.findById(id).orElseThrow().getCustomerEmail())
+                .containsExactly("bulk-0@example.com", "bulk-1@example.com", "bulk-2@example.com",
+                        "bulk-3@example.com", "bulk-4@example.com");
+        assertThat(auditLogRepository.findByUserId(USER_ID))
+                .extracting(AuditLog::getEntityId)
+                .containsExactlyInAnyOrderElementsOf(result.getLicenseIds());
+    }
+
+    @Test
+    @DisplayName("Should roll back drafts of earlier chunks when a later draft is invalid")
+    void shouldRollBackWholeBatchOnInvalidDraft() {
+        List<LicenseDraft> drafts = List.of(
+                draft(organization, "valid-0@example.com"),
+                draft(organization, "valid-1@example.com"),
+                draft(organization, "valid-2@example.com"),
+                draft(organization, "not-an-email"),
+                draft(organization, "valid-4@example.com"));
+
+        assertThatThrownBy(() -> licenseBulkService.createLicenses(drafts, USER_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Customer email must be valid");
+
+        assertThat(licenseRepository.findByOrganizationId(organization.getId())).isEmpty();
+        assertThat(auditLogRepository.findByUserId(USER_ID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject the batch when any draft references an inactive or missing organization")
+    void shouldRejectDraftsOfUnusableOrganizations() {
+        Organization inactive = organization();
+        inactive.deactivate();
+        organizationRepository.save(inactive);
+        UUID missing = UUID.randomUUID();
+
+        assertThatThrownBy(() -> licenseBulkService.createLicenses(
+                List.of(draft(organization, "ok@example.com"), draft(inactive, "inactive@example.com")), USER_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot create license for inactive organization: " + inactive.getId());
+        assertThatThrownBy(() -> licenseBulkService.createLicenses(List.of(draft(organization, "ok@example.com"),
+                new LicenseDraft(missing, "Pro", "missing@example.com", Instant.now().plus(30, ChronoUnit.DAYS),
+                        Map.of())), USER_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Organization not found: " + missing);
+
+        assertThat(licenseRepository.findByOrganizationId(organization.getId())).isEmpty();
+        assertThat(licenseRepository.findByOrganizationId(inactive.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should transition only eligible licenses, one chunk at a time")
+    void shouldTransitionEligibleLicensesInChunks() throws Exception {
+        List<LicenseDraft> drafts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            drafts.add(draft(organization, "transition-" + i + "@example.com"));
+        }
+        List<UUID> ids = licenseBulkService.createLicenses(drafts, USER_ID).getLicenseIds();
+        License revoked = licenseRepository.findById(ids.get(2)).orElseThrow();
+        revoked.revoke();
+        licenseRepository.save(revoked);
+        LicenseFilter filter = new LicenseFilter();
+        filter.setOrganizationId(organization.getId());
+
+        BulkTransitionResult result = licenseBulkService.apply(BulkTransition.SUSPEND, filter, USER_ID);
+
+        assertThat(result.getStatus()).isEqualTo(LicenseStatus.SUSPENDED);
+        assertThat(result.getAffected()).isEqualTo(4);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(licenseRepository.findByOrganizationId(organization.getId()))
+                .extracting(License::getId, License::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(ids.get(0), LicenseStatus.SUSPENDED),
+                        tuple(ids.get(1), LicenseStatus.SUSPENDED),
+                        tuple(ids.get(2), LicenseStatus.REVOKED),
+                        tuple(ids.get(3), LicenseStatus.SUSPENDED),
+                        tuple(ids.get(4), LicenseStatus.SUSPENDED));
+        assertThat(auditLogRepository.findByUserId(USER_ID))
+                .filteredOn(auditLog -> auditLog.getAction().equals("SUSPEND"))
+                .extracting(AuditLog::getEntityId)
+                .containsExactlyInAnyOrder(ids.get(0), ids.get(1), ids.get(3), ids.get(4));
+        assertThat(awaitResigned(List.of(ids.get(0), ids.get(1), ids.get(3), ids.get(4)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave other tenants' licenses alone when the filter does not name an organization")
+    void shouldTransitionOnlyCurrentTenantsLicenses() throws Exception {
+        String productName = "Scoped-" + UUID.randomUUID();
+        List<UUID> own = licenseBulkService.createLicenses(
+                List.of(draft(organization, productName, "own@example.com")), USER_ID).getLicenseIds();
+        TenantContext.setCurrentTenant(OTHER_TENANT_ID);
+        Organization foreign = organization(OTHER_TENANT_ID);
+        List<UUID> others = licenseBulkService.createLicenses(
+                List.of(draft(foreign, productName, "other@example.com")), USER_ID).getLicenseIds();
+        TenantContext.setCurrentTenant(TENANT_ID);
+        LicenseFilter filter = new LicenseFilter();
+        filter.setProductName(productName);
+
+        BulkTransitionResult result = licenseBulkService.apply(BulkTransition.SUSPEND, filter, USER_ID);
+
+        assertThat(result.getAffected()).isEqualTo(1);
+        assertThat(licenseRepository.findById(own.get(0)).orElseThrow().getStatus())
+                .isEqualTo(LicenseStatus.SUSPENDED);
+        assertThat(licenseRepository.findById(others.get(0)).orElseThrow().getStatus())
+                .isEqualTo(LicenseStatus.ACTIVE);
+        assertThat(auditLogRepository.findByUserId(USER_ID))
+                .filteredOn(auditLog -> auditLog.getAction().equals("SUSPEND"))
+                .extracting(AuditLog::getEntityId, AuditLog::getTenantId)
+                .containsExactly(tuple(own.get(0), TENANT_ID));
+        assertThat(awaitResigned(own)).isTrue();
+    }
+
+    private boolean awaitResigned(List<UUID> ids) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            boolean resigned = true;
+            for (License license : licenseRepository.findAllById(ids)) {
+                resigned &= JWSObject.parse(license.getSignature()).getPayload().toString()
+                        .equals(licenseSigningService.createLicensePayload(license));
+            }
+            if (resigned) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private Organization organization() {
+        return organization(TENANT_ID);
+    }
+
+    private Organization organization(String tenantId) {
+        Organization created = organizationRepository.save(new Organization("Bulk Corp",
+                "bulk-" + UUID.randomUUID() + "@example.com", tenantId, Plan.BASIC));
+        organizations.add(created);
+        return created;
+    }
+
+    private LicenseDraft draft(Organization owner, String customerEmail) {
+        return draft(owner, "Pro", customerEmail);
+    }
+
+    private LicenseDraft draft(Organization owner, String productName, String customerEmail) {
+        return new LicenseDraft(owner.getId(), productName, customerEmail, Instant.now().plus(30, ChronoUnit.DAYS),
+                Map.of("seats", 5));
+    }
+}
@@ -0,0 +1,100 @@
+package com.licensing.integration;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.expiry.LicenseExpirySweeper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "license.expiry.sweeper.chunk-size=2")
+@ActiveProfiles("test")
+class LicenseExpirySweeperIntegrationTest {
+
+    private static final String TENANT_ID = "sweeper-tenant";
+
+    @Autowired
+    private LicenseExpirySweeper licenseExpirySweeper;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        organization = organizationRepository.save(
+                new Organization("Sweeper Corp", "sweeper-" + UUID.randomUUID() + "@example.com", TENANT_ID,
+                        Plan.BASIC));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        licenseRepository.deleteAll(licenseRepository.findByOrganizationId(organization.getId()));
+        auditLogRepository.deleteAll(auditLogRepository.findByAction("EXPIRE"));
+        organizationRepository.delete(organization);
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should expire due active licenses in chunks and audit each one")
+    void shouldExpireDueLicenses() {
+        Instant now = Instant.now();
+        License first = license(now.minus(3, ChronoUnit.DAYS));
+        License second = license(now.minus(2, ChronoUnit.DAYS));
+        License third = license(now.minus(1, ChronoUnit.HOURS));
+        License current = license(now.plus(10, ChronoUnit.DAYS));
+        License suspended = license(now.minus(1, ChronoUnit.DAYS));
+        suspended.suspend();
+        licenseRepository.save(suspended);
+
+        int expired = licenseExpirySweeper.sweep(now);
+
+        assertThat(expired).isEqualTo(3);
+        assertThat(status(first)).isEqualTo(LicenseStatus.EXPIRED);
+        assertThat(status(second)).isEqualTo(LicenseStatus.EXPIRED);
+        assertThat(status(third)).isEqualTo(LicenseStatus.EXPIRED);
+        assertThat(status(current)).isEqualTo(LicenseStatus.ACTIVE);
+        assertThat(status(suspended)).isEqualTo(LicenseStatus.SUSPENDED);
+        assertThat(auditLogRepository.findByAction("EXPIRE"))
+                .allSatisfy(auditLog -> assertThat(auditLog.getTenantId()).isEqualTo(TENANT_ID))
+                .hasSize(3);
+        assertThat(licenseExpirySweeper.sweep(now)).isZero();
+    }
+
+    private License license(Instant expiryDate) {
+        License license = new License(organization.getId(), TENANT_ID, "Pro", "sweeper@example.com", expiryDate,
+                Map.of());
+        // Licenses created past their expiry start out expired; simulate ones that lapsed while active
+        license.activate();
+        return licenseRepository.save(license);
+    }
+
+    private LicenseStatus status(License license) {
+        return licenseRepository.findById(license.getId()).orElseThrow().getStatus();
+    }
+}
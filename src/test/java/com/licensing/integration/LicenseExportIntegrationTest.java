@@ -0,0 +1,138 @@
+package com.licensing.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.License;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.repository.LicenseFilter;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.exporting.LicenseExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "license.export.fetch-size=2")
+@ActiveProfiles("test")
+class LicenseExportIntegrationTest {
+
+    private static final String TENANT_ID = "license-export-tenant";
+    private static final String OTHER_TENANT_ID = "license-export-other-tenant";
+
+    @Autowired
+    private LicenseExportService licenseExportService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<License> licenses = new ArrayList<>();
+    private Organization organization;
+    private Organization otherOrganization;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        organization = organizationRepository.save(
+                new Organization("Export Corp", "export-" + UUID.randomUUID() + "@example.com", TENANT_ID,
+                        Plan.BASIC));
+        for (int i = 0; i < 5; i++) {
+            licenses.add(licenseRepository.save(new License(organization.getId(), TENANT_ID,
+                    i < 2 ? "Basic" : "Pro", "export-" + i + "@example.com", Instant.now().plus(30, ChronoUnit.DAYS),
+                    Map.of("sequence", i))));
+        }
+        otherOrganization = organizationRepository.save(
+                new Organization("Other Export Corp", "export-" + UUID.randomUUID() + "@example.com",
+                        OTHER_TENANT_ID, Plan.BASIC));
+        licenses.add(licenseRepository.save(new License(otherOrganization.getId(), OTHER_TENANT_ID, "Basic",
+                "other-tenant@example.com", Instant.now().plus(30, ChronoUnit.DAYS), Map.of())));
+        licenses.sort(Comparator.comparing(license -> license.getId().toString()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        licenseRepository.deleteAll(licenses);
+        organizationRepository.delete(organization);
+        organizationRepository.delete(otherOrganization);
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should export every matching license as one JSON document per line in ID order")
+    void shouldExportNdjsonAcrossFetches() throws Exception {
+        LicenseFilter filter = new LicenseFilter();
+        filter.setOrganizationId(organization.getId());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = licenseExportService.exportNdjson(filter, output);
+
+        String body = output.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertThat(exported).isEqualTo(5);
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(5);
+        List<License> own = licenses.stream().filter(license -> license.getTenantId().equals(TENANT_ID)).toList();
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode license = objectMapper.readTree(lines[i]);
+            assertThat(license.get("id").asText()).isEqualTo(own.get(i).getId().toString());
+            assertThat(license.get("features").get("sequence").asInt())
+                    .isEqualTo(own.get(i).getFeatures().get("sequence"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply the filter and write nothing when no license matches")
+    void shouldApplyFilter() throws Exception {
+        LicenseFilter filter = new LicenseFilter();
+        filter.setOrganizationId(organization.getId());
+        filter.setProductName("Basic");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(licenseExportService.exportNdjson(filter, output)).isEqualTo(2);
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .allSatisfy(line -> assertThat(objectMapper.readTree(line).get("productName").asText())
+                        .isEqualTo("Basic"));
+
+        filter.setProductName("Enterprise");
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        assertThat(licenseExportService.exportNdjson(filter, empty)).isZero();
+        assertThat(empty.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should export only the current tenant's licenses")
+    void shouldExportOnlyCurrentTenant() throws Exception {
+        LicenseFilter filter = new LicenseFilter();
+        filter.setProductName("Basic");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = licenseExportService.exportNdjson(filter, output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .extracting(line -> objectMapper.readTree(line).get("customerEmail").asText())
+                .doesNotContain("other-tenant@example.com")
+                .hasSize((int) exported);
+        assertThat(exported).isEqualTo(2);
+    }
+}
@@ -0,0 +1,131 @@
+package com.licensing.integration;
+
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.importing.ImportFormat;
+import com.licensing.service.importing.ImportReport;
+import com.licensing.service.importing.LicenseImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "license.import.chunk-size=2")
+@ActiveProfiles("test")
+class LicenseImportIntegrationTest {
+
+    private static final String TENANT_ID = "import-tenant";
+
+    @Autowired
+    private LicenseImportService licenseImportService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        organization = organizationRepository.save(
+                new Organization("Import Corp", "import-" + UUID.randomUUID() + "@example.com", TENANT_ID, Plan.BASIC));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        licenseRepository.deleteAll(licenseRepository.findByOrganizationId(organization.getId()));
+        auditLogRepository.deleteAll(auditLogRepository.findByAction("IMPORT"));
+        organizationRepository.delete(organization);
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should import valid NDJSON rows and report invalid ones")
+    void shouldImportNdjsonAndReportRejectedRows() {
+        String expiry = Instant.now().plus(30, ChronoUnit.DAYS).toString();
+        String ndjson = String.join("\n",
+                row(organization.getId(), "one@example.com", expiry, "{\"seats\":5}"),
+                row(organization.getId(), "not-an-email", expiry, "{}"),
+                "{broken",
+                "",
+                row(UUID.randomUUID(), "three@example.com", expiry, "{}"),
+                row(organization.getId(), "four@example.com", expiry, "{}"));
+
+        ImportReport report = licenseImportService.importLicenses(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON, "importer");
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getRow).containsExactly(2L, 3L, 4L);
+
+        List<License> licenses = licenseRepository.findByOrganizationId(organization.getId());
+        assertThat(licenses).extracting(License::getCustomerEmail)
+                .containsExactlyInAnyOrder("one@example.com", "four@example.com");
+        assertThat(licenses).allSatisfy(license -> assertThat(license.getSignature()).isNotBlank());
+        assertThat(auditLogRepository.findByAction("IMPORT")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows with status and features columns")
+    void shouldImportCsv() {
+        String csv = "organizationId,productName,customerEmail,expiryDate,status,features\n"
+                + organization.getId() + ",Pro,csv@example.com," + Instant.now().plus(10, ChronoUnit.DAYS)
+                + ",SUSPENDED,\"{\"\"seats\"\":3}\"\n";
+
+        ImportReport report = licenseImportService.importLicenses(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, "importer");
+
+        assertThat(report.getImported()).isEqualTo(1);
+        License license = licenseRepository.findByOrganizationId(organization.getId()).get(0);
+        assertThat(license.getStatus()).isEqualTo(LicenseStatus.SUSPENDED);
+        assertThat(license.getFeatures()).containsEntry("seats", 3);
+    }
+
+    @Test
+    @DisplayName("Should report malformed CSV rows and keep importing the rows after them")
+    void shouldReportMalformedCsvRowsAndContinue() {
+        String expiry = Instant.now().plus(10, ChronoUnit.DAYS).toString();
+        String csv = "organizationId,productName,customerEmail,expiryDate\n"
+                + organization.getId() + ",Pro,first@example.com," + expiry + "\n"
+                + organization.getId() + ",Pro,extra@example.com," + expiry + ",unexpected\n"
+                + organization.getId() + ",Pro,last@example.com," + expiry + "\n"
+                + organization.getId() + ",\"Pro,unclosed@example.com," + expiry + "\n";
+
+        ImportReport report = licenseImportService.importLicenses(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, "importer");
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getRow).containsExactly(2L, 4L);
+        assertThat(licenseRepository.findByOrganizationId(organization.getId())).extracting(License::getCustomerEmail)
+                .containsExactlyInAnyOrder("first@example.com", "last@example.com");
+    }
+
+    private static String row(UUID organizationId, String email, String expiry, String features) {
+        return "{\"organizationId\":\"" + organizationId + "\",\"productName\":\"Pro\",\"customerEmail\":\""
+                + email + "\",\"expiryDate\":\"" + expiry + "\",\"features\":" + features + "}";
+    }
+}
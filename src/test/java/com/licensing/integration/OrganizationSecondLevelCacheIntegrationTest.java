@@ -0,0 +1,97 @@
+package com.licensing.integration;
+
+import com.licensing.config.datasource.SqlStatementCounter;
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.OrganizationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrganizationSecondLevelCacheIntegrationTest {
+
+    private static final String TENANT_ID = "cache-tenant";
+    private static final String OTHER_TENANT_ID = "other-cache-tenant";
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        organization = organizationService.createOrganization("Cached Corp",
+                "cached-" + UUID.randomUUID() + "@example.com", Plan.BASIC, "cache-user");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        organizationRepository.deleteById(organization.getId());
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the second-level cache")
+    void shouldServeLookupsFromCache() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            Optional<Organization> first = organizationService.findById(organization.getId());
+            Optional<Organization> second = organizationService.findById(organization.getId());
+
+            assertThat(first).isPresent();
+            assertThat(second).isPresent();
+            assertThat(scope.getStatements()).isZero();
+        }
+        assertThat(meterRegistry.get("license.cache.second-level.hit-ratio")
+                .tag("region", "organizations")
+                .gauge().value()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should not share cached organizations between tenants")
+    void shouldKeyCacheEntriesByTenant() {
+        TenantContext.setCurrentTenant(OTHER_TENANT_ID);
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            organizationService.findById(organization.getId());
+
+            assertThat(scope.getStatements()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should refresh the cached organization on update")
+    void shouldRefreshCacheOnUpdate() {
+        organizationService.updateOrganization(organization.getId(), "Renamed Corp", organization.getContactEmail(),
+                Plan.ENTERPRISE, "cache-user");
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            Organization cached = organizationService.findById(organization.getId()).orElseThrow();
+
+            assertThat(cached.getName()).isEqualTo("Renamed Corp");
+            assertThat(cached.getPlan()).isEqualTo(Plan.ENTERPRISE);
+            assertThat(scope.getStatements()).isZero();
+        }
+    }
+}
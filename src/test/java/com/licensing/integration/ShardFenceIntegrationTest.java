@@ -0,0 +1,81 @@
+package com.licensing.integration;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.config.sharding.TenantMovingException;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ShardFenceIntegrationTest {
+
+    private static final String SCHEMA = """
+            CREATE TABLE organizations (tenant_id VARCHAR(255) NOT NULL);
+            CREATE TABLE licenses (tenant_id VARCHAR(255) NOT NULL);
+            CREATE TABLE audit_logs (tenant_id VARCHAR(255) NOT NULL);
+            """;
+
+    private HikariDataSource primary;
+    private ShardMap shardMap;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        primary = new HikariDataSource();
+        primary.setJdbcUrl("jdbc:tc:postgresql:16-alpine:///shard_fence");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(primary);
+        jdbcTemplate.execute(SCHEMA);
+        jdbcTemplate.execute(migration("V12__tenant_shards.sql"));
+        jdbcTemplate.update("INSERT INTO tenant_shards (tenant_id, shard) VALUES ('acme', 'primary')");
+        shardMap = new ShardMap(primary, Map.of("secondary", mock(DataSource.class)), 16, Duration.ZERO,
+                Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+    }
+
+    @Test
+    @DisplayName("Should wait for open tenant transactions and refuse new ones while fenced")
+    void shouldFenceTenantTransactions() throws Exception {
+        ShardMap.Lease lease = shardMap.lease("acme");
+        try (Connection open = lease.getDataSource().getConnection()) {
+            open.setAutoCommit(false);
+            lease.enter(open);
+
+            assertThat(shardMap.fence("acme", Duration.ofMillis(100))).isNull();
+
+            open.commit();
+            try (ShardMap.Fence fence = shardMap.fence("acme", Duration.ofSeconds(1))) {
+                assertThat(fence).isNotNull();
+                assertThatThrownBy(() -> lease.enter(open)).isInstanceOf(TenantMovingException.class);
+                open.rollback();
+            }
+
+            lease.enter(open);
+            open.rollback();
+        } finally {
+            lease.release();
+        }
+    }
+
+    private static String migration(String name) throws IOException {
+        return new ClassPathResource("db/migration/" + name).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
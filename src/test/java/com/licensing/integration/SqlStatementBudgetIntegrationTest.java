@@ -0,0 +1,182 @@
+package com.licensing.integration;
+
+import com.licensing.config.datasource.SqlStatementCounter;
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.License;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.service.LicenseManagementService;
+import com.licensing.service.OrganizationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each mutation issues on the request
+ * thread: one lookup and one write, with audit rows written asynchronously.
+ * Counts are asserted exactly, so a change that adds, removes or swaps
+ * statements on a hot path fails here; update the budget only once the new
+ * count has been reviewed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementBudgetIntegrationTest {
+
+    private static final String TENANT_ID = "budget-tenant";
+    private static final String USER_ID = "budget-user";
+    private static final long MUTATION_BUDGET = 2;
+    // Mutations whose organization lookup is served by the second-level cache
+    private static final long CACHED_LOOKUP_BUDGET = 1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LicenseManagementService licenseManagementService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT_ID);
+        organization = organizationRepository.save(
+                new Organization("Budget Corp", "budget-" + UUID.randomUUID() + "@example.com", TENANT_ID, Plan.BASIC));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        licenseRepository.deleteAll(licenseRepository.findByOrganizationId(organization.getId()));
+        auditLogRepository.deleteAll(auditLogRepository.findByUserId(USER_ID));
+        organizationRepository.deleteAll(organizationRepository.findAll().stream()
+                .filter(org -> TENANT_ID.equals(org.getTenantId()))
+                .toList());
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("createOrganization issues exactly its statement budget")
+    void createOrganization() {
+        long statements = count(() -> organizationService.createOrganization("New Corp",
+                "new-" + UUID.randomUUID() + "@example.com", Plan.BASIC, USER_ID));
+
+        assertThat(statements).isEqualTo(MUTATION_BUDGET);
+    }
+
+    @Test
+    @DisplayName("createLicense issues exactly its statement budget")
+    void createLicense() {
+        long statements = count(this::createLicenseForTest);
+
+        assertThat(statements).isEqualTo(CACHED_LOOKUP_BUDGET);
+    }
+
+    @Test
+    @DisplayName("extendLicense issues exactly its statement budget")
+    void extendLicense() {
+        License license = createLicenseForTest();
+
+        long statements = count(() -> licenseManagementService.extendLicense(license.getId(),
+                Instant.now().plus(60, ChronoUnit.DAYS), USER_ID));
+
+        assertThat(statements).isEqualTo(MUTATION_BUDGET);
+    }
+
+    @Test
+    @DisplayName("suspendLicense issues exactly its statement budget")
+    void suspendLicense() {
+        License license = createLicenseForTest();
+
+        long statements = count(() -> {
+            licenseManagementService.suspendLicense(license.getId(), USER_ID);
+            return null;
+        });
+
+        assertThat(statements).isEqualTo(MUTATION_BUDGET);
+    }
+
+    @Test
+    @DisplayName("updateOrganization issues exactly its statement budget")
+    void updateOrganization() {
+        long statements = count(() -> organizationService.updateOrganization(organization.getId(), "Renamed Corp",
+                organization.getContactEmail(), Plan.ENTERPRISE, USER_ID));
+
+        assertThat(statements).isEqualTo(CACHED_LOOKUP_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Service method statement counts are exported as metrics")
+    void exportsMethodMetrics() {
+        createLicenseForTest();
+
+        assertThat(meterRegistry.get("license.sql.method.statements")
+                .tag("class", "LicenseManagementService")
+                .tag("method", "createLicense")
+                .summary().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Request statement counts are exported per endpoint")
+    void exportsRequestMetrics() throws Exception {
+        mockMvc.perform(post("/api/v1/organizations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Tenant-ID", TENANT_ID)
+                .header("X-User-ID", USER_ID)
+                .content("{\"name\":\"Http Corp\",\"contactEmail\":\"http-" + UUID.randomUUID()
+                        + "@example.com\",\"plan\":\"BASIC\"}"))
+                .andExpect(status().isCreated());
+
+        assertThat(meterRegistry.get("license.sql.request.statements")
+                .tag("method", "POST")
+                .tag("uri", "/api/v1/organizations")
+                .summary().max()).isEqualTo(MUTATION_BUDGET);
+    }
+
+    private License createLicenseForTest() {
+        return licenseManagementService.createLicense(organization.getId(), "Pro", "budget@example.com",
+                Instant.now().plus(30, ChronoUnit.DAYS), Map.of("seats", 5), USER_ID);
+    }
+
+    private static long count(Supplier<?> action) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            action.get();
+            return scope.getStatements();
+        }
+    }
+}
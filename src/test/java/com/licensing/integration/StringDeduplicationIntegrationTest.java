@@ -0,0 +1,45 @@
+package com.licensing.integration;
+
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StringDeduplicationIntegrationTest {
+
+    private static final String ACTION = "DEDUP_TEST";
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @AfterEach
+    void cleanUp() {
+        auditLogRepository.deleteAll(auditLogRepository.findByAction(ACTION));
+    }
+
+    @Test
+    @DisplayName("Should share one instance of equal low-cardinality strings across loaded entities")
+    void shouldDeduplicateStringsOfLoadedEntities() {
+        auditLogRepository.saveAll(List.of(
+                new AuditLog("License", UUID.randomUUID(), ACTION, "dedup-user", "dedup-tenant", null),
+                new AuditLog("License", UUID.randomUUID(), ACTION, "dedup-user", "dedup-tenant", null)));
+
+        List<AuditLog> loaded = auditLogRepository.findByAction(ACTION);
+
+        assertThat(loaded).hasSize(2);
+        assertThat(loaded.get(0).getTenantId()).isSameAs(loaded.get(1).getTenantId());
+        assertThat(loaded.get(0).getUserId()).isSameAs(loaded.get(1).getUserId());
+        assertThat(loaded.get(0).getEntityType()).isSameAs(loaded.get(1).getEntityType());
+    }
+}
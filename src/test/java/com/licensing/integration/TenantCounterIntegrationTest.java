@@ -0,0 +1,158 @@
+package com.licensing.integration;
+
+import com.licensing.config.datasource.SqlStatementCounter;
+import com.licensing.config.tenant.TenantContext;
+import com.licensing.domain.License;
+import com.licensing.domain.LicenseStatus;
+import com.licensing.domain.Organization;
+import com.licensing.domain.Plan;
+import com.licensing.domain.TenantCounter;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.repository.LicenseRepository;
+import com.licensing.repository.OrganizationRepository;
+import com.licensing.repository.TenantCounterRepository;
+import com.licensing.service.LicenseManagementService;
+import com.licensing.service.OrganizationService;
+import com.licensing.service.counter.TenantCounterReconciler;
+import com.licensing.service.counter.TenantCounterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TenantCounterIntegrationTest {
+
+    private static final String USER_ID = "counter-user";
+
+    @Autowired
+    private LicenseManagementService licenseManagementService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private TenantCounterService tenantCounterService;
+
+    @Autowired
+    private TenantCounterReconciler tenantCounterReconciler;
+
+    @Autowired
+    private TenantCounterRepository tenantCounterRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String tenantId;
+    private Organization organization;
+    private License first;
+    private License second;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = "counter-tenant-" + UUID.randomUUID();
+        TenantContext.setCurrentTenant(tenantId);
+        organization = organizationService.createOrganization("Counter Corp",
+                "counter-" + UUID.randomUUID() + "@example.com", Plan.BASIC, USER_ID);
+        first = createLicense();
+        second = createLicense();
+        licenseManagementService.suspendLicense(second.getId(), USER_ID);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        licenseRepository.deleteAll(licenseRepository.findByOrganizationId(organization.getId()));
+        auditLogRepository.deleteAll(auditLogRepository.findByUserId(USER_ID));
+        organizationRepository.deleteById(organization.getId());
+        tenantCounterService.flush();
+        tenantCounterRepository.deleteAll(tenantCounterRepository.findAll().stream()
+                .filter(counter -> tenantId.equals(counter.getId().getTenantId()))
+                .toList());
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should seed counters on reconciliation and serve counts without scanning")
+    void shouldSeedAndServeCounters() {
+        tenantCounterReconciler.reconcile();
+
+        assertThat(storedValue(TenantCounterService.licenseStatus(LicenseStatus.ACTIVE))).isEqualTo(1);
+        assertThat(storedValue(TenantCounterService.licenseStatus(LicenseStatus.SUSPENDED))).isEqualTo(1);
+        assertThat(storedValue(TenantCounterService.licenseStatus(LicenseStatus.REVOKED))).isZero();
+        assertThat(storedValue(TenantCounterService.organizationLicenses(organization.getId()))).isEqualTo(2);
+        assertThat(storedValue(TenantCounterService.ACTIVE_ORGANIZATIONS)).isEqualTo(1);
+
+        assertThat(licenseManagementService.countByStatus(LicenseStatus.ACTIVE)).isEqualTo(1);
+        assertThat(licenseManagementService.countByOrganizationId(organization.getId())).isEqualTo(2);
+        assertThat(organizationService.countActiveOrganizations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply transitions to seeded counters before and after flushing")
+    void shouldMaintainCountersIncrementally() {
+        tenantCounterReconciler.reconcile();
+
+        licenseManagementService.revokeLicense(first.getId(), USER_ID);
+        createLicense();
+        organizationService.deactivateOrganization(organization.getId(), USER_ID);
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            assertThat(licenseManagementService.countByStatus(LicenseStatus.ACTIVE)).isEqualTo(1);
+            assertThat(licenseManagementService.countByStatus(LicenseStatus.REVOKED)).isEqualTo(1);
+            assertThat(scope.getStatements()).isEqualTo(2);
+        }
+
+        tenantCounterService.flush();
+
+        assertThat(storedValue(TenantCounterService.licenseStatus(LicenseStatus.ACTIVE))).isEqualTo(1);
+        assertThat(storedValue(TenantCounterService.licenseStatus(LicenseStatus.REVOKED))).isEqualTo(1);
+        assertThat(storedValue(TenantCounterService.organizationLicenses(organization.getId()))).isEqualTo(3);
+        assertThat(storedValue(TenantCounterService.ACTIVE_ORGANIZATIONS)).isZero();
+        assertThat(tenantCounterReconciler.reconcile()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should correct drifted counters")
+    void shouldCorrectDrift() {
+        tenantCounterReconciler.reconcile();
+        String activeKey = TenantCounterService.licenseStatus(LicenseStatus.ACTIVE);
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> tenantCounterRepository.setCounter(tenantId, activeKey, 42));
+
+        assertThat(tenantCounterReconciler.reconcile()).isEqualTo(1);
+        assertThat(storedValue(activeKey)).isEqualTo(1);
+    }
+
+    private License createLicense() {
+        return licenseManagementService.createLicense(organization.getId(), "Pro", "counter@example.com",
+                Instant.now().plus(30, ChronoUnit.DAYS), Map.of(), USER_ID);
+    }
+
+    private long storedValue(String counterKey) {
+        return tenantCounterRepository.findById(new TenantCounter.Key(tenantId, counterKey))
+                .map(TenantCounter::getValue)
+                .orElseThrow();
+    }
+}
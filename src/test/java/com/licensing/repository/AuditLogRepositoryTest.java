@@ -1,10 +1,16 @@
 package com.licensing.repository;
 
 import com.licensing.domain.AuditLog;
+import com.licensing.repository.projection.AuditLogSummary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -46,6 +52,27 @@ class AuditLogRepositoryTest extends BaseRepositoryTest {
     assertThat(logs.get(0).getEntityId()).isEqualTo(entityId);
   }
 
+  @Test
+  void shouldScrollByEntityWithKeyset() {
+    UUID entityId = UUID.randomUUID();
+    for (int i = 0; i < 3; i++) {
+      auditLogRepository.save(new AuditLog("License", entityId, "UPDATE", "user-123", defaultTenantId, Map.of()));
+    }
+    flushAndClear();
+
+    Sort order = Sort.by("timestamp", "id");
+    Window<AuditLog> first = auditLogRepository.findByEntityTypeAndEntityId("License", entityId,
+        ScrollPosition.keyset(), order, Limit.of(2));
+    Window<AuditLog> second = auditLogRepository.findByEntityTypeAndEntityId("License", entityId,
+        first.positionAt(first.size() - 1), order, Limit.of(2));
+
+    assertThat(first.getContent()).hasSize(2);
+    assertThat(first.hasNext()).isTrue();
+    assertThat(second.getContent()).hasSize(1);
+    assertThat(second.hasNext()).isFalse();
+    assertThat(first.getContent()).doesNotContainAnyElementsOf(second.getContent());
+  }
+
   @Test
   void shouldFindByEntityType() {
     AuditLog orgLog = new AuditLog("Organization", UUID.randomUUID(), "CREATE",
@@ -199,6 +226,38 @@ class AuditLogRepositoryTest extends BaseRepositoryTest {
     assertThat(logs).isEmpty();
   }
 
+  @Test
+  void shouldScrollByCombinedFilterInTimestampOrder() {
+    UUID entityId = UUID.randomUUID();
+    Instant base = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+    for (int i = 0; i < 3; i++) {
+      AuditLog auditLog = new AuditLog("License", entityId, "UPDATE", "user-123", defaultTenantId, Map.of());
+      setTimestamp(auditLog, base.plusSeconds(i));
+      auditLogRepository.save(auditLog);
+    }
+    auditLogRepository.save(new AuditLog("License", entityId, "DELETE", "user-123", defaultTenantId, Map.of()));
+    auditLogRepository.save(new AuditLog("License", entityId, "UPDATE", "user-123", "other-tenant", Map.of()));
+    flushAndClear();
+
+    AuditLogFilter filter = new AuditLogFilter();
+    filter.setEntityType("License");
+    filter.setEntityId(entityId);
+    filter.setAction("UPDATE");
+    filter.setFrom(base);
+
+    Window<AuditLogSummary> first = auditLogRepository.scrollByFilter(defaultTenantId, filter,
+        ScrollPosition.keyset(), 2);
+    assertThat(first.getContent()).extracting(AuditLogSummary::getTimestamp)
+        .containsExactly(base, base.plusSeconds(1));
+    assertThat(first.hasNext()).isTrue();
+
+    Window<AuditLogSummary> second = auditLogRepository.scrollByFilter(defaultTenantId, filter,
+        (KeysetScrollPosition) first.positionAt(1), 2);
+    assertThat(second.getContent()).extracting(AuditLogSummary::getTimestamp)
+        .containsExactly(base.plusSeconds(2));
+    assertThat(second.hasNext()).isFalse();
+  }
+
   private AuditLog createValidAuditLog() {
     return new AuditLog(
         "Organization",
@@ -2,17 +2,24 @@ package com.licensing.repository;
 
 import com.licensing.domain.License;
 import com.licensing.domain.LicenseStatus;
+import com.licensing.repository.projection.LicenseSummary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,6 +28,8 @@ class LicenseRepositoryTest extends BaseRepositoryTest {
   @Autowired
   private LicenseRepository licenseRepository;
 
+  private static final Sort CREATION_ORDER = Sort.by("createdAt", "id");
+
   private final UUID organizationId = UUID.randomUUID();
 
   @Test
@@ -66,6 +75,106 @@ class LicenseRepositoryTest extends BaseRepositoryTest {
     assertThat(organizationLicenses.get(0).getProductName()).isEqualTo("Test Product");
   }
 
+  @Test
+  void shouldFindSummariesByOrganizationId() {
+    License license = createValidLicense();
+    licenseRepository.save(license);
+    licenseRepository.save(new License(UUID.randomUUID(), defaultTenantId, "Other Product", "other@example.com",
+        Instant.now().plus(365, ChronoUnit.DAYS), Map.of()));
+    flushAndClear();
+
+    Window<LicenseSummary> summaries = licenseRepository.findByOrganizationId(organizationId,
+        ScrollPosition.keyset(), CREATION_ORDER, Limit.of(10), LicenseSummary.class);
+
+    assertThat(summaries.getContent()).hasSize(1);
+    assertThat(summaries.hasNext()).isFalse();
+    assertThat(summaries.getContent().get(0).getId()).isEqualTo(license.getId());
+    assertThat(summaries.getContent().get(0).getProductName()).isEqualTo("Test Product");
+    assertThat(summaries.getContent().get(0).getStatus()).isEqualTo(LicenseStatus.ACTIVE);
+  }
+
+  @Test
+  void shouldScrollByStatusWithKeyset() {
+    for (int i = 0; i < 5; i++) {
+      licenseRepository.save(createValidLicense());
+    }
+    flushAndClear();
+
+    Window<License> first = licenseRepository.findByStatus(LicenseStatus.ACTIVE,
+        ScrollPosition.keyset(), CREATION_ORDER, Limit.of(2), License.class);
+    Window<License> second = licenseRepository.findByStatus(LicenseStatus.ACTIVE,
+        first.positionAt(first.size() - 1), CREATION_ORDER, Limit.of(2), License.class);
+    Window<License> third = licenseRepository.findByStatus(LicenseStatus.ACTIVE,
+        second.positionAt(second.size() - 1), CREATION_ORDER, Limit.of(2), License.class);
+
+    assertThat(first.getContent()).hasSize(2);
+    assertThat(first.hasNext()).isTrue();
+    assertThat(second.getContent()).hasSize(2);
+    assertThat(third.getContent()).hasSize(1);
+    assertThat(third.hasNext()).isFalse();
+    assertThat(Stream.of(first, second, third).flatMap(Window::stream).map(License::getId).distinct())
+        .hasSize(5);
+  }
+
+  @Test
+  void shouldLockMatchingIdsInChunks() {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      ids.add(licenseRepository.save(createValidLicense()).getId());
+    }
+    License suspended = createValidLicense();
+    suspended.suspend();
+    licenseRepository.save(suspended);
+    licenseRepository.save(new License(UUID.randomUUID(), defaultTenantId, "Test Product", "other@example.com",
+        Instant.now().plus(365, ChronoUnit.DAYS), Map.of()));
+    flushAndClear();
+
+    LicenseFilter filter = new LicenseFilter();
+    filter.setOrganizationId(organizationId);
+
+    List<UUID> first = licenseRepository.lockIdsForUpdate(filter, List.of(LicenseStatus.ACTIVE), null, 2);
+    List<UUID> second = licenseRepository.lockIdsForUpdate(filter, List.of(LicenseStatus.ACTIVE),
+        first.get(first.size() - 1), 2);
+
+    assertThat(first).hasSize(2);
+    assertThat(second).hasSize(1);
+    assertThat(Stream.concat(first.stream(), second.stream())).containsExactlyInAnyOrderElementsOf(ids);
+  }
+
+  @Test
+  void shouldStreamLicensesMatchingFilter() {
+    licenseRepository.save(createValidLicense());
+    licenseRepository.save(createValidLicense());
+    licenseRepository.save(new License(UUID.randomUUID(), defaultTenantId, "Test Product", "other@example.com",
+        Instant.now().plus(365, ChronoUnit.DAYS), Map.of()));
+    flushAndClear();
+
+    LicenseFilter filter = new LicenseFilter();
+    filter.setOrganizationId(organizationId);
+
+    try (Stream<License> licenses = licenseRepository.streamByFilter(filter, 1)) {
+      assertThat(licenses).hasSize(2).allSatisfy(
+          license -> assertThat(license.getOrganizationId()).isEqualTo(organizationId));
+    }
+  }
+
+  @Test
+  void shouldUpdateStatusAndBumpVersion() {
+    License license = licenseRepository.save(createValidLicense());
+    flushAndClear();
+    Long version = licenseRepository.findById(license.getId()).orElseThrow().getVersion();
+    flushAndClear();
+
+    int updated = licenseRepository.updateStatusByIdIn(List.of(license.getId()), LicenseStatus.REVOKED,
+        Instant.now());
+    flushAndClear();
+
+    License reloaded = licenseRepository.findById(license.getId()).orElseThrow();
+    assertThat(updated).isEqualTo(1);
+    assertThat(reloaded.getStatus()).isEqualTo(LicenseStatus.REVOKED);
+    assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+  }
+
   @Test
   void shouldFindByCustomerEmail() {
     String customerEmail = "unique-customer@example.com";
@@ -2,6 +2,7 @@ package com.licensing.repository;
 
 import com.licensing.domain.Organization;
 import com.licensing.domain.Plan;
+import com.licensing.repository.projection.OrganizationSummary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -116,6 +117,23 @@ class OrganizationRepositoryTest extends BaseRepositoryTest {
     assertThat(page.getTotalPages()).isEqualTo(2);
   }
 
+  @Test
+  void shouldPaginateSummaries() {
+    for (int i = 0; i < 15; i++) {
+      Organization org = new Organization("Corp " + i, "corp" + i + "@example.com", defaultTenantId, Plan.BASIC);
+      organizationRepository.save(org);
+    }
+    flushAndClear();
+
+    Page<OrganizationSummary> page = organizationRepository.findSummariesBy(PageRequest.of(0, 10));
+
+    assertThat(page.getContent()).hasSize(10);
+    assertThat(page.getTotalElements()).isEqualTo(15);
+    assertThat(page.getContent().get(0).getName()).startsWith("Corp ");
+    assertThat(page.getContent().get(0).getPlan()).isEqualTo(Plan.BASIC);
+    assertThat(page.getContent().get(0).isActive()).isTrue();
+  }
+
   @Test
   void shouldCountActiveOrganizations() {
     Organization activeOrg1 = new Organization("Active Corp 1", "active1@example.com", defaultTenantId, Plan.BASIC);
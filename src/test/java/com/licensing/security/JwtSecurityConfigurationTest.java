@@ -26,8 +26,8 @@ import static org.assertj.core.api.Assertions.assertThat;
     "spring.datasource.driver-class-name=org.h2.Driver",
     "spring.datasource.username=sa",
     "spring.datasource.password=password",
-    "license.signing.keys.key-1.private-key=test-private-key-for-ed25519-testing-purposes-only",
-    "license.signing.keys.key-1.public-key=test-public-key-for-ed25519-testing-purposes-only",
+    "license.signing.keys.key-1.private-key=MC4CAQAwBQYDK2VwBCIEIH+h7WCYWgV5ZH9XQw7bF1RQ6EaF7jBMGxKLh1gCDqA2",
+    "license.signing.keys.key-1.public-key=MCowBQYDK2VwAyEA5/6pW8elgvGT/6A6G9EEbRMqY9RA+JOaQr/ZywBN0C0=",
     "license.signing.keys.key-1.expiry-date=2025-12-31T23:59:59"
 })
 @ExtendWith(MockitoExtension.class)
@@ -0,0 +1,325 @@
+package com.licensing.service.audit;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.domain.AuditLog;
+import com.licensing.repository.AuditLogRepository;
+import com.licensing.service.audit.journal.AuditJournal;
+import com.licensing.service.audit.journal.AuditRecordCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+  private static final DataSize JOURNAL_SEGMENT_SIZE = DataSize.ofKilobytes(4);
+  private static final DataSize JOURNAL_MAX_SIZE = DataSize.ofKilobytes(16);
+
+  @Mock
+  private AuditLogRepository auditLogRepository;
+
+  @Mock
+  private AuditRollupService auditRollupService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private DataSource dataSource;
+
+  private ShardMap noShards;
+  private SimpleMeterRegistry meterRegistry;
+  private AuditLogWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    noShards = new ShardMap(dataSource);
+    meterRegistry = new SimpleMeterRegistry();
+    writer = new AuditLogWriter(auditLogRepository, auditRollupService, noShards, transactionManager, meterRegistry,
+        true, 2, 10, Duration.ofMillis(50), Duration.ZERO, false, null, JOURNAL_SEGMENT_SIZE, JOURNAL_MAX_SIZE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void shouldWriteQueuedEntriesAsOneBatch() {
+    writer.record(auditLog());
+    writer.record(auditLog());
+
+    assertThat(meterRegistry.get("license.audit.writer.queue.depth").gauge().value()).isEqualTo(2);
+    writer.flush();
+
+    verify(auditLogRepository).saveAll(anyList());
+    assertThat(meterRegistry.get("license.audit.writer.batch.size").summary().max()).isEqualTo(2);
+    assertThat(meterRegistry.get("license.audit.writer.queue.depth").gauge().value()).isZero();
+  }
+
+  @Test
+  void shouldWriteSynchronouslyWhenQueueIsFull() {
+    writer.record(auditLog());
+    writer.record(auditLog());
+
+    writer.record(auditLog());
+
+    verify(auditLogRepository).saveAll(anyList());
+    assertThat(meterRegistry.get("license.audit.writer.fallback").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCountInsteadOfFailingCallerWhenSynchronousWriteFails() {
+    when(auditLogRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database down"));
+    writer.record(auditLog());
+    writer.record(auditLog());
+
+    writer.record(auditLog());
+
+    verify(auditLogRepository, times(3)).saveAll(anyList());
+    assertThat(meterRegistry.get("license.audit.writer.fallback").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("license.audit.writer.failed").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldQueueOnlyAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    writer.record(auditLog());
+
+    writer.flush();
+    verify(auditLogRepository, never()).saveAll(anyList());
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    writer.flush();
+    verify(auditLogRepository).saveAll(anyList());
+  }
+
+  @Test
+  void shouldKeepEntriesPendingAfterRepeatedFailures() {
+    when(auditLogRepository.saveAll(anyList()))
+        .thenThrow(new IllegalStateException("database down"))
+        .thenThrow(new IllegalStateException("database down"))
+        .thenThrow(new IllegalStateException("database down"))
+        .thenReturn(List.of());
+    writer.record(auditLog());
+
+    assertThatThrownBy(writer::flush).isInstanceOf(IllegalStateException.class);
+    writer.flush();
+
+    verify(auditLogRepository, times(4)).saveAll(anyList());
+    assertThat(meterRegistry.get("license.audit.writer.failed").counter().count()).isZero();
+  }
+
+  @Test
+  void shouldDropOnlyEntriesRejectedByTheDatabase() {
+    AuditLog rejected = auditLog();
+    when(auditLogRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+    when(auditLogRepository.save(any())).thenAnswer(invocation -> {
+      if (invocation.getArgument(0) == rejected) {
+        throw new DataIntegrityViolationException("duplicate key");
+      }
+      return invocation.getArgument(0);
+    });
+    writer.record(rejected);
+    writer.record(auditLog());
+
+    writer.flush();
+
+    verify(auditLogRepository, times(2)).save(any());
+    assertThat(meterRegistry.get("license.audit.writer.failed").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRetryQueuedEntriesWhenShardLookupFails() {
+    ShardMap shards = spy(noShards);
+    doThrow(new IllegalStateException("shard map unavailable")).doCallRealMethod()
+        .when(shards).groupByShard(anyCollection(), any());
+    AuditLogWriter threadedWriter = new AuditLogWriter(auditLogRepository, auditRollupService, shards,
+        transactionManager, meterRegistry, true, 2, 10, Duration.ofMillis(50), Duration.ZERO, false, null,
+        JOURNAL_SEGMENT_SIZE, JOURNAL_MAX_SIZE);
+    threadedWriter.start();
+    try {
+      threadedWriter.record(auditLog());
+
+      verify(auditLogRepository, timeout(5000)).saveAll(anyList());
+    } finally {
+      threadedWriter.stop();
+    }
+    assertThat(meterRegistry.get("license.audit.writer.failed").counter().count()).isZero();
+  }
+
+  @Test
+  void shouldWriteInsideCallerTransactionWhenNotAsync() {
+    AuditLogWriter syncWriter = new AuditLogWriter(auditLogRepository, auditRollupService, noShards,
+        transactionManager, meterRegistry, false, 2, 10, Duration.ofMillis(50), Duration.ZERO, false, null,
+        JOURNAL_SEGMENT_SIZE, JOURNAL_MAX_SIZE);
+    AuditLog auditLog = auditLog();
+
+    syncWriter.record(auditLog);
+
+    verify(auditLogRepository).save(auditLog);
+  }
+
+  @Test
+  void shouldReplayJournaledEntriesAndRetrySlowDatabase(@TempDir Path journalDirectory) {
+    when(auditLogRepository.saveAll(anyList()))
+        .thenThrow(new IllegalStateException("database down"))
+        .thenReturn(List.of());
+    AuditLogWriter journalWriter = journalWriter(journalDirectory);
+    journalWriter.start();
+    try {
+      journalWriter.record(auditLog());
+      journalWriter.record(auditLog());
+
+      try {
+        journalWriter.flush();
+      } catch (IllegalStateException e) {
+        // the first attempt fails either here or on the writer thread
+      }
+      journalWriter.flush();
+
+      verify(auditLogRepository, times(2)).saveAll(anyList());
+      assertThat(meterRegistry.get("license.audit.writer.journal.backlog").gauge().value()).isZero();
+      assertThat(meterRegistry.get("license.audit.writer.failed").counter().count()).isZero();
+    } finally {
+      journalWriter.stop();
+    }
+  }
+
+  @Test
+  void shouldSkipAlreadyStoredEntriesWhenRecoveringJournal(@TempDir Path journalDirectory) throws IOException {
+    AuditLog stored = auditLog();
+    AuditLog pending = auditLog();
+    try (AuditJournal journal = new AuditJournal(journalDirectory, 4096, 4)) {
+      journal.append(AuditRecordCodec.encode(stored));
+      journal.append(AuditRecordCodec.encode(pending));
+    }
+    when(auditLogRepository.findExistingIds(anyCollection())).thenReturn(List.of(stored.getId()));
+    List<UUID> written = new ArrayList<>();
+    when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<AuditLog> entries = invocation.getArgument(0);
+      entries.forEach(entry -> written.add(entry.getId()));
+      return entries;
+    });
+
+    AuditLogWriter journalWriter = journalWriter(journalDirectory);
+    journalWriter.start();
+    try {
+      journalWriter.flush();
+    } finally {
+      journalWriter.stop();
+    }
+
+    assertThat(written).containsExactly(pending.getId());
+  }
+
+  @Test
+  void shouldQuarantineUndecodableRecordAndReplayTheRest(@TempDir Path journalDirectory) throws IOException {
+    AuditLog pending = auditLog();
+    try (AuditJournal journal = new AuditJournal(journalDirectory, 4096, 4)) {
+      journal.append(new byte[] {1, 2, 3});
+      journal.append(AuditRecordCodec.encode(pending));
+    }
+    List<UUID> written = new ArrayList<>();
+    when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<AuditLog> entries = invocation.getArgument(0);
+      entries.forEach(entry -> written.add(entry.getId()));
+      return entries;
+    });
+
+    AuditLogWriter journalWriter = journalWriter(journalDirectory);
+    journalWriter.start();
+    try {
+      journalWriter.flush();
+    } finally {
+      journalWriter.stop();
+    }
+
+    assertThat(written).containsExactly(pending.getId());
+    assertThat(meterRegistry.get("license.audit.writer.journal.quarantined").counter().count()).isEqualTo(1.0);
+    try (Stream<Path> quarantined = Files.list(journalDirectory.resolve("quarantine"))) {
+      assertThat(quarantined).hasSize(1);
+    }
+  }
+
+  @Test
+  void shouldRetryJournaledEntriesWhenShardLookupFails(@TempDir Path journalDirectory) throws IOException {
+    AuditLog pending = auditLog();
+    try (AuditJournal journal = new AuditJournal(journalDirectory, 4096, 4)) {
+      journal.append(AuditRecordCodec.encode(pending));
+    }
+    ShardMap shards = spy(noShards);
+    doThrow(new IllegalStateException("shard map unavailable")).doCallRealMethod()
+        .when(shards).groupByShard(anyCollection(), any());
+    List<UUID> written = new ArrayList<>();
+    when(auditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<AuditLog> entries = invocation.getArgument(0);
+      entries.forEach(entry -> written.add(entry.getId()));
+      return entries;
+    });
+
+    AuditLogWriter journalWriter = new AuditLogWriter(auditLogRepository, auditRollupService, shards,
+        transactionManager, meterRegistry, true, 2, 10, Duration.ofMillis(50), Duration.ZERO, true,
+        journalDirectory.toString(), JOURNAL_SEGMENT_SIZE, JOURNAL_MAX_SIZE);
+    journalWriter.start();
+    try {
+      try {
+        journalWriter.flush();
+      } catch (IllegalStateException e) {
+        // the first attempt fails either here or on the writer thread
+      }
+      journalWriter.flush();
+    } finally {
+      journalWriter.stop();
+    }
+
+    assertThat(written).containsExactly(pending.getId());
+    verify(auditLogRepository).findExistingIds(anyCollection());
+    assertThat(meterRegistry.get("license.audit.writer.journal.backlog").gauge().value()).isZero();
+  }
+
+  private AuditLogWriter journalWriter(Path journalDirectory) {
+    return new AuditLogWriter(auditLogRepository, auditRollupService, noShards, transactionManager, meterRegistry,
+        true, 2, 10, Duration.ofMillis(50), Duration.ZERO, true, journalDirectory.toString(), JOURNAL_SEGMENT_SIZE,
+        JOURNAL_MAX_SIZE);
+  }
+
+  private static AuditLog auditLog() {
+    return new AuditLog("License", UUID.randomUUID(), "UPDATE", "user-1", "tenant-1", null);
+  }
+}
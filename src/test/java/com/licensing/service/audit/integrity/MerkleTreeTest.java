@@ -0,0 +1,76 @@
+package com.licensing.service.audit.integrity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MerkleTreeTest {
+
+  @Test
+  void shouldVerifyProofOfEveryLeafForUnevenTreeSizes() {
+    for (int size = 1; size <= 9; size++) {
+      List<String> leaves = leaves(size);
+      String root = MerkleTree.root(leaves);
+
+      for (int index = 0; index < size; index++) {
+        List<MerkleTree.ProofStep> proof = MerkleTree.proof(leaves, index);
+
+        assertThat(MerkleTree.verify(leaves.get(index), proof, root)).isTrue();
+        assertThat(proof.size()).isLessThanOrEqualTo(32 - Integer.numberOfLeadingZeros(size - 1));
+      }
+    }
+  }
+
+  @Test
+  void shouldLocateProofInStoredLevels() {
+    List<String> leaves = leaves(7);
+    List<List<String>> levels = MerkleTree.levels(leaves);
+
+    assertThat(levels).hasSize(4);
+    assertThat(levels.get(3)).containsExactly(MerkleTree.root(leaves));
+    for (int index = 0; index < leaves.size(); index++) {
+      List<MerkleTree.ProofStep> proof = MerkleTree.proof(leaves, index);
+      List<MerkleTree.Sibling> siblings = MerkleTree.siblings(leaves.size(), index);
+
+      assertThat(siblings).hasSameSizeAs(proof);
+      for (int i = 0; i < siblings.size(); i++) {
+        MerkleTree.Sibling sibling = siblings.get(i);
+        assertThat(levels.get(sibling.getLevel()).get(sibling.getIndex())).isEqualTo(proof.get(i).getHash());
+        assertThat(sibling.isLeft()).isEqualTo(proof.get(i).isLeft());
+      }
+    }
+  }
+
+  @Test
+  void shouldRejectProofForDifferentLeaf() {
+    List<String> leaves = leaves(5);
+    List<MerkleTree.ProofStep> proof = MerkleTree.proof(leaves, 2);
+
+    assertThat(MerkleTree.verify(leaves.get(3), proof, MerkleTree.root(leaves))).isFalse();
+  }
+
+  @Test
+  void shouldChangeRootWhenLeavesAreReordered() {
+    List<String> leaves = leaves(4);
+    List<String> reordered = new ArrayList<>(List.of(leaves.get(1), leaves.get(0), leaves.get(2), leaves.get(3)));
+
+    assertThat(MerkleTree.root(reordered)).isNotEqualTo(MerkleTree.root(leaves));
+  }
+
+  @Test
+  void shouldRejectEmptyTree() {
+    assertThatThrownBy(() -> MerkleTree.root(List.of())).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static List<String> leaves(int size) {
+    List<String> leaves = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      leaves.add(String.format("%064x", i + 1));
+    }
+    return leaves;
+  }
+}
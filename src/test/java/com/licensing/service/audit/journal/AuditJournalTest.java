@@ -0,0 +1,141 @@
+package com.licensing.service.audit.journal;
+
+import com.licensing.domain.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditJournalTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldReadAppendedRecordsUntilAcknowledged() throws IOException {
+    try (AuditJournal journal = new AuditJournal(directory, 4096, 4)) {
+      journal.append(bytes("first"));
+      journal.append(bytes("second"));
+      journal.append(bytes("third"));
+
+      AuditJournal.Batch batch = journal.read(2);
+      assertThat(strings(batch)).containsExactly("first", "second");
+      assertThat(strings(journal.read(2))).containsExactly("first", "second");
+
+      journal.acknowledge(batch);
+      assertThat(strings(journal.read(10))).containsExactly("third");
+      assertThat(batch.isRecovered()).isFalse();
+    }
+  }
+
+  @Test
+  void shouldRefuseDirectoryAlreadyOpen() throws IOException {
+    try (AuditJournal journal = new AuditJournal(directory, 4096, 4)) {
+      assertThatThrownBy(() -> new AuditJournal(directory, 4096, 4))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("already open");
+    }
+
+    try (AuditJournal journal = new AuditJournal(directory, 4096, 4)) {
+      assertThat(journal.append(bytes("reopened"))).isTrue();
+    }
+  }
+
+  @Test
+  void shouldResumeAfterAcknowledgedPositionWhenReopened() throws IOException {
+    try (AuditJournal journal = new AuditJournal(directory, 4096, 4)) {
+      journal.append(bytes("stored"));
+      journal.acknowledge(journal.read(1));
+      journal.append(bytes("pending"));
+    }
+
+    try (AuditJournal journal = new AuditJournal(directory, 4096, 4)) {
+      AuditJournal.Batch batch = journal.read(10);
+
+      assertThat(strings(batch)).containsExactly("pending");
+      assertThat(batch.isRecovered()).isTrue();
+      journal.acknowledge(batch);
+      journal.append(bytes("new"));
+      assertThat(journal.read(10).isRecovered()).isFalse();
+    }
+  }
+
+  @Test
+  void shouldRollSegmentsAndRetireAcknowledgedOnes() throws IOException {
+    try (AuditJournal journal = new AuditJournal(directory, 64, 3)) {
+      for (int i = 0; i < 6; i++) {
+        assertThat(journal.append(bytes("record-" + i + "-padding-to-fill"))).isTrue();
+      }
+      assertThat(journal.segmentCount()).isEqualTo(3);
+      assertThat(journal.append(bytes("record-6-padding-to-fill"))).isFalse();
+
+      AuditJournal.Batch batch = journal.read(5);
+      assertThat(strings(batch)).hasSize(5).last().isEqualTo("record-4-padding-to-fill");
+      journal.acknowledge(batch);
+
+      assertThat(journal.segmentCount()).isEqualTo(1);
+      assertThat(segmentFiles()).hasSize(1);
+      assertThat(journal.append(bytes("record-6-padding-to-fill"))).isTrue();
+      assertThat(strings(journal.read(10))).containsExactly("record-5-padding-to-fill", "record-6-padding-to-fill");
+    }
+  }
+
+  @Test
+  void shouldDropTornRecordAndAppendAfterLastValidOne() throws IOException {
+    try (AuditJournal journal = new AuditJournal(directory, 4096, 4)) {
+      journal.append(bytes("intact"));
+      journal.append(bytes("torn"));
+    }
+    try (RandomAccessFile segment = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+      segment.seek(8 + 6 + 8);
+      segment.write('X');
+    }
+
+    try (AuditJournal journal = new AuditJournal(directory, 4096, 4)) {
+      assertThat(strings(journal.read(10))).containsExactly("intact");
+
+      journal.append(bytes("replacement"));
+      assertThat(strings(journal.read(10))).containsExactly("intact", "replacement");
+    }
+  }
+
+  @Test
+  void shouldRoundTripAuditEntries() {
+    AuditLog auditLog = new AuditLog("License", UUID.randomUUID(), "UPDATE", "user-1", "tenant-1",
+        Map.of("changes", Map.of("status", Map.of("from", "ACTIVE", "to", "SUSPENDED"))));
+
+    AuditLog decoded = AuditRecordCodec.decode(AuditRecordCodec.encode(auditLog));
+
+    assertThat(decoded.getId()).isEqualTo(auditLog.getId());
+    assertThat(decoded.getEntityId()).isEqualTo(auditLog.getEntityId());
+    assertThat(decoded.getTimestamp()).isEqualTo(auditLog.getTimestamp());
+    assertThat(decoded.getDetailsJson()).isEqualTo(auditLog.getDetailsJson());
+    assertThat(decoded.computeContentHash()).isEqualTo(auditLog.computeContentHash());
+    assertThat(decoded.isNew()).isTrue();
+  }
+
+  private List<Path> segmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(".segment")).sorted().toList();
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static List<String> strings(AuditJournal.Batch batch) {
+    return batch.getRecords().stream().map(record -> new String(record, StandardCharsets.UTF_8)).toList();
+  }
+}
@@ -0,0 +1,110 @@
+package com.licensing.service.importing;
+
+import com.licensing.config.sharding.ShardMap;
+import com.licensing.config.tenant.TenantBulkhead;
+import com.licensing.config.tenant.TenantBulkheadProperties;
+import com.licensing.config.tenant.TenantConnectionProvider;
+import com.licensing.domain.AuditLog;
+import com.licensing.domain.License;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the COPY path against PostgreSQL, on a connection handed out by the
+ * tenant connection provider the way Hibernate sessions get theirs.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LicenseImportWriterTest {
+
+  private static final String TABLES = """
+      CREATE TABLE %1$s.licenses (
+          id UUID PRIMARY KEY, organization_id UUID NOT NULL, tenant_id VARCHAR(255) NOT NULL,
+          product_name VARCHAR(255) NOT NULL, customer_email VARCHAR(255) NOT NULL,
+          expiry_date TIMESTAMP WITH TIME ZONE NOT NULL, status VARCHAR(20) NOT NULL, features JSONB,
+          signature TEXT, created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+          updated_at TIMESTAMP WITH TIME ZONE NOT NULL, version BIGINT NOT NULL);
+      CREATE TABLE %1$s.audit_logs (
+          id UUID PRIMARY KEY, entity_type VARCHAR(100) NOT NULL, entity_id UUID NOT NULL,
+          action VARCHAR(50) NOT NULL, user_id VARCHAR(255), tenant_id VARCHAR(255) NOT NULL, details JSONB,
+          timestamp TIMESTAMP WITH TIME ZONE NOT NULL, content_hash VARCHAR(64));
+      """;
+
+  private HikariDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+  private TenantConnectionProvider connectionProvider;
+  private LicenseImportWriter writer;
+  private Connection connection;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:tc:postgresql:16-alpine:///license_import");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("CREATE SCHEMA tenant_acme");
+    jdbcTemplate.execute(TABLES.formatted("public"));
+    jdbcTemplate.execute(TABLES.formatted("tenant_acme"));
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    connectionProvider = new TenantConnectionProvider(dataSource,
+        new TenantBulkhead(new TenantBulkheadProperties(), meterRegistry), new ShardMap(dataSource), meterRegistry,
+        true, "tenant_", "public");
+    connection = connectionProvider.getConnection("acme");
+    connection.setAutoCommit(false);
+
+    Session session = mock(Session.class);
+    doAnswer(invocation -> {
+      invocation.<Work>getArgument(0).execute(connection);
+      return null;
+    }).when(session).doWork(any());
+    EntityManager entityManager = mock(EntityManager.class);
+    when(entityManager.unwrap(Session.class)).thenReturn(session);
+    writer = new LicenseImportWriter();
+    ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    connectionProvider.releaseConnection("acme", connection);
+    dataSource.close();
+  }
+
+  @Test
+  void shouldCopyChunkIntoTenantSchema() throws Exception {
+    License license = new License(UUID.randomUUID(), "acme", "Pro", "copy@example.com",
+        Instant.now().plus(30, ChronoUnit.DAYS), Map.of("seats", 5, "note", "quoted \"value\", with comma"));
+    license.setSignature("signature");
+    AuditLog auditLog = new AuditLog("License", license.getId(), "IMPORT", "importer", "acme", null);
+
+    writer.write(new ImportChunk(List.of(license), List.of(auditLog)));
+    connection.commit();
+
+    assertThat(jdbcTemplate.queryForObject("SELECT features ->> 'note' FROM tenant_acme.licenses WHERE id = ?",
+        String.class, license.getId())).isEqualTo("quoted \"value\", with comma");
+    assertThat(jdbcTemplate.queryForObject("SELECT content_hash FROM tenant_acme.audit_logs WHERE id = ?",
+        String.class, auditLog.getId())).isEqualTo(auditLog.computeContentHash());
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM public.licenses", Long.class)).isZero();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM public.audit_logs", Long.class)).isZero();
+  }
+}
@@ -0,0 +1,67 @@
+package com.licensing.service.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringDeduplicatorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void shouldReturnCanonicalInstanceForEqualValues() {
+    StringDeduplicator deduplicator = new StringDeduplicator(meterRegistry, 10);
+    String first = new String("tenant-123");
+    String second = new String("tenant-123");
+
+    assertThat(deduplicator.canonicalize(first)).isSameAs(first);
+    assertThat(deduplicator.canonicalize(second)).isSameAs(first);
+    assertThat(deduplicator.size()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReportEstimatedSavings() {
+    StringDeduplicator deduplicator = new StringDeduplicator(meterRegistry, 10);
+
+    deduplicator.canonicalize(new String("Product"));
+    deduplicator.canonicalize(new String("Product"));
+    deduplicator.canonicalize(new String("Product"));
+
+    assertThat(meterRegistry.get("license.string.dedup.hits").counter().count()).isEqualTo(2);
+    assertThat(deduplicator.getEstimatedSavedBytes()).isGreaterThan(2 * "Product".length());
+  }
+
+  @Test
+  void shouldStayBoundedAndFollowNewValuesWhenFull() {
+    StringDeduplicator deduplicator = new StringDeduplicator(meterRegistry, 1);
+    deduplicator.canonicalize("a");
+    String first = new String("b");
+    String second = new String("b");
+
+    assertThat(deduplicator.canonicalize(first)).isSameAs(first);
+    assertThat(deduplicator.canonicalize(second)).isSameAs(first);
+    assertThat(deduplicator.size()).isEqualTo(1);
+    assertThat(meterRegistry.get("license.string.dedup.evicted").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldHoldNoMoreThanMaxEntriesRoundedToPowerOfTwo() {
+    StringDeduplicator deduplicator = new StringDeduplicator(meterRegistry, 100);
+
+    for (int i = 0; i < 10_000; i++) {
+      deduplicator.canonicalize("value-" + i);
+    }
+
+    assertThat(deduplicator.size()).isLessThanOrEqualTo(128);
+    deduplicator.clear();
+    assertThat(deduplicator.size()).isZero();
+  }
+
+  @Test
+  void shouldPassThroughNull() {
+    StringDeduplicator deduplicator = new StringDeduplicator(meterRegistry, 2);
+
+    assertThat(deduplicator.canonicalize(null)).isNull();
+  }
+}
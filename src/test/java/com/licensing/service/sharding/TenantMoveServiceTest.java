@@ -0,0 +1,141 @@
+package com.licensing.service.sharding;
+
+import com.licensing.config.sharding.ShardMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TenantMoveServiceTest {
+
+  private static final String[] SCHEMA = {
+      "CREATE TABLE tenant_shards (tenant_id VARCHAR(255) PRIMARY KEY, shard VARCHAR(100) NOT NULL, "
+          + "status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE', updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW())",
+      "CREATE TABLE organizations (id UUID PRIMARY KEY, tenant_id VARCHAR(255) NOT NULL, name VARCHAR(255), "
+          + "active BOOLEAN, updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW())",
+      "CREATE TABLE licenses (id UUID PRIMARY KEY, tenant_id VARCHAR(255) NOT NULL, organization_id UUID NOT NULL "
+          + "REFERENCES organizations(id) ON DELETE CASCADE, status VARCHAR(20), "
+          + "updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW())",
+      "CREATE TABLE audit_logs (id UUID NOT NULL, tenant_id VARCHAR(255) NOT NULL, action VARCHAR(50), "
+          + "\"timestamp\" TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(), PRIMARY KEY (id, \"timestamp\"))",
+      "CREATE TABLE audit_checkpoints (id UUID PRIMARY KEY, tenant_id VARCHAR(255) NOT NULL, sequence BIGINT, "
+          + "created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW())",
+      "CREATE TABLE audit_checkpoint_nodes (checkpoint_id UUID NOT NULL REFERENCES audit_checkpoints(id) "
+          + "ON DELETE CASCADE, tree_level INTEGER NOT NULL, node_index INTEGER NOT NULL, "
+          + "tenant_id VARCHAR(255) NOT NULL, hash VARCHAR(64) NOT NULL, "
+          + "created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(), "
+          + "PRIMARY KEY (checkpoint_id, tree_level, node_index))",
+      "CREATE TABLE audit_rollups (tenant_id VARCHAR(255) NOT NULL, action VARCHAR(255) NOT NULL, "
+          + "event_count BIGINT NOT NULL, PRIMARY KEY (tenant_id, action))",
+      "CREATE TABLE tenant_counters (tenant_id VARCHAR(255) NOT NULL, counter_key VARCHAR(255) NOT NULL, "
+          + "\"value\" BIGINT NOT NULL, PRIMARY KEY (tenant_id, counter_key))"
+  };
+
+  private JdbcTemplate primary;
+  private JdbcTemplate secondary;
+  private ShardMap shardMap;
+  private TenantMoveService moveService;
+
+  @BeforeEach
+  void setUp() {
+    DataSource primaryDataSource = database("primary");
+    DataSource secondaryDataSource = database("secondary");
+    primary = new JdbcTemplate(primaryDataSource);
+    secondary = new JdbcTemplate(secondaryDataSource);
+    shardMap = new ShardMap(primaryDataSource, Map.of("secondary", secondaryDataSource), 16, Duration.ZERO,
+        Duration.ofMinutes(10));
+    moveService = new TenantMoveService(shardMap, new SimpleMeterRegistry(), Duration.ofMillis(50),
+        Duration.ofMinutes(5), 2);
+
+    primary.update("INSERT INTO tenant_shards (tenant_id, shard) VALUES ('acme', 'primary'), ('other', 'primary')");
+    for (String tenant : new String[] {"acme", "other"}) {
+      UUID organizationId = UUID.randomUUID();
+      primary.update("INSERT INTO organizations (id, tenant_id, name, active) VALUES (?, ?, ?, TRUE)",
+          organizationId, tenant, tenant + " Inc");
+      for (int i = 0; i < 3; i++) {
+        primary.update("INSERT INTO licenses (id, tenant_id, organization_id, status) VALUES (?, ?, ?, 'ACTIVE')",
+            UUID.randomUUID(), tenant, organizationId);
+        primary.update("INSERT INTO audit_logs (id, tenant_id, action) VALUES (?, ?, 'CREATE')",
+            UUID.randomUUID(), tenant);
+      }
+      UUID checkpointId = UUID.randomUUID();
+      primary.update("INSERT INTO audit_checkpoints (id, tenant_id, sequence) VALUES (?, ?, 1)",
+          checkpointId, tenant);
+      for (int level = 0; level < 2; level++) {
+        primary.update("INSERT INTO audit_checkpoint_nodes (checkpoint_id, tree_level, node_index, tenant_id, hash) "
+            + "VALUES (?, ?, 0, ?, 'hash')", checkpointId, level, tenant);
+      }
+      primary.update("INSERT INTO audit_rollups (tenant_id, action, event_count) VALUES (?, 'CREATE', 3)", tenant);
+      primary.update("INSERT INTO tenant_counters (tenant_id, counter_key, \"value\") VALUES (?, 'licenses', 3)",
+          tenant);
+    }
+  }
+
+  @Test
+  void shouldCopyTenantCutOverAndPurgeSource() {
+    TenantMoveReport report = moveService.move("acme", "secondary");
+
+    assertThat(report.getSourceShard()).isEqualTo("primary");
+    assertThat(report.getCopiedRows())
+        .containsEntry("organizations", 1L)
+        .containsEntry("licenses", 3L)
+        .containsEntry("audit_logs", 3L)
+        .containsEntry("tenant_counters", 1L);
+    assertThat(shardMap.shardOf("acme")).isEqualTo("secondary");
+    assertThat(shardMap.isMoving("acme")).isFalse();
+    for (String table : new String[] {"organizations", "licenses", "audit_logs", "audit_checkpoints",
+        "audit_checkpoint_nodes", "audit_rollups", "tenant_counters"}) {
+      assertThat(count(secondary, table, "acme")).as(table).isEqualTo(count(primary, table, "other"));
+      assertThat(count(primary, table, "acme")).as(table).isZero();
+      assertThat(count(secondary, table, "other")).as(table).isZero();
+    }
+    assertThat(secondary.queryForObject("SELECT \"value\" FROM tenant_counters WHERE tenant_id = 'acme'",
+        Long.class)).isEqualTo(3L);
+  }
+
+  @Test
+  void shouldUnfreezeOnSourceWhenConnectionsDoNotDrain() throws Exception {
+    ShardMap.Lease open = shardMap.lease("acme");
+
+    assertThatThrownBy(() -> moveService.move("acme", "secondary"))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("still open");
+
+    open.release();
+    assertThat(shardMap.shardOf("acme")).isEqualTo("primary");
+    assertThat(shardMap.isMoving("acme")).isFalse();
+    assertThat(count(primary, "licenses", "acme")).isEqualTo(3);
+  }
+
+  @Test
+  void shouldRejectMoveToCurrentShard() {
+    assertThatThrownBy(() -> moveService.move("acme", "primary")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> moveService.move("acme", "missing")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static DataSource database(String name) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID()
+        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    for (String statement : SCHEMA) {
+      jdbc.execute(statement);
+    }
+    return dataSource;
+  }
+
+  private static int count(JdbcTemplate jdbc, String table, String tenantId) {
+    Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE tenant_id = ?", Integer.class,
+        tenantId);
+    return count != null ? count : 0;
+  }
+}